@@ -0,0 +1,66 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package com.netflix.genie.agent;
+
+import com.netflix.genie.GenieAgentApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start of the agent, from creating the application until the {@code help} command ran, with and
+ * without the {@code fast-start} profile. Meant to be run with a single measurement per fork so every sample includes
+ * the class loading of a fresh JVM.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AgentStartupBenchmark {
+
+    private static final String HELP_COMMAND = "help";
+
+    @Param({"default", "fast-start"})
+    private String profile;
+
+    /**
+     * Start the agent and run the help command.
+     *
+     * @return The number of beans defined so the work can't be optimized away
+     */
+    @Benchmark
+    public int startAgent() {
+        final SpringApplication app = new SpringApplication(GenieAgentApplication.class);
+        app.setAddCommandLineProperties(false);
+        app.setAdditionalProfiles(this.profile);
+        try (ConfigurableApplicationContext context = app.run(HELP_COMMAND)) {
+            return context.getBeanDefinitionCount();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package com.netflix.genie.agent;
+
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.context.event.SpringApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each phase of the agent startup took, from the JVM launch until the selected command is ready to
+ * run. Registered through {@code META-INF/spring.factories} so the first application events are seen, and exposed
+ * as a bean once the application context is prepared.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+public class AgentStartupTimer implements ApplicationListener<SpringApplicationEvent> {
+
+    /**
+     * The name of the bean the timer is registered as.
+     */
+    public static final String BEAN_NAME = "agentStartupTimer";
+
+    private final Map<String, Long> phaseDurations = new LinkedHashMap<>();
+    private long startingTime = -1;
+    private long lastMarkNanos;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void onApplicationEvent(final SpringApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            this.startingTime = System.currentTimeMillis();
+            this.lastMarkNanos = System.nanoTime();
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            this.mark("Environment preparation");
+        } else if (event instanceof ApplicationPreparedEvent) {
+            this.mark("Context preparation");
+            ((ApplicationPreparedEvent) event)
+                .getApplicationContext()
+                .getBeanFactory()
+                .registerSingleton(BEAN_NAME, this);
+        } else if (event instanceof ApplicationStartedEvent) {
+            this.mark("Context refresh");
+        }
+    }
+
+    /**
+     * Record that the given startup phase ended now. The phase is considered to have started when the previous one
+     * ended.
+     *
+     * @param phase The name of the phase which ended
+     */
+    public synchronized void mark(final String phase) {
+        final long now = System.nanoTime();
+        this.phaseDurations.merge(phase, TimeUnit.NANOSECONDS.toMillis(now - this.lastMarkNanos), Long::sum);
+        this.lastMarkNanos = now;
+    }
+
+    /**
+     * Get a human readable breakdown of the time spent in each startup phase so far.
+     *
+     * @return The breakdown, one phase per line
+     */
+    public synchronized String getBreakdown() {
+        final StringBuilder breakdown = new StringBuilder("Agent startup time breakdown:")
+            .append(System.lineSeparator());
+        long total = 0;
+        if (this.startingTime != -1) {
+            // Only looked up when asked for as loading the management classes isn't free
+            final long jvmStartup = this.startingTime - ManagementFactory.getRuntimeMXBean().getStartTime();
+            appendPhase(breakdown, "JVM startup", jvmStartup);
+            total += jvmStartup;
+        }
+        for (final Map.Entry<String, Long> phaseDuration : this.phaseDurations.entrySet()) {
+            appendPhase(breakdown, phaseDuration.getKey(), phaseDuration.getValue());
+            total += phaseDuration.getValue();
+        }
+        appendPhase(breakdown, "Total", total);
+        return breakdown.toString();
+    }
+
+    private static void appendPhase(final StringBuilder breakdown, final String phase, final long millis) {
+        breakdown
+            .append("  ")
+            .append(String.format("%-25s", phase + ":"))
+            .append(String.format("%6d", millis))
+            .append(" ms")
+            .append(System.lineSeparator());
+    }
+}
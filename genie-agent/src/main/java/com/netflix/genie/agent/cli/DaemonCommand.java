@@ -0,0 +1,465 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package com.netflix.genie.agent.cli;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.Parameters;
+import com.beust.jcommander.ParametersDelegate;
+import com.beust.jcommander.validators.PositiveInteger;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.genie.agent.execution.ExecutionContext;
+import com.netflix.genie.agent.execution.JobExecutionConfig;
+import com.netflix.genie.agent.execution.statemachine.JobExecutionStateMachine;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command to run the agent as a long lived daemon executing many jobs, so the startup of the JVM and of the agent
+ * happens once rather than for every job. Jobs are submitted through a socket bound to the loopback interface: a
+ * client connects, sends the token found in the token file followed by the arguments of the job (the ones the
+ * {@code exec} command takes to describe a job, e.g. {@code --api-job --jobId 1234}), one per line, followed by an
+ * empty line, and receives a single line once the job completed: {@code SUCCESS} or {@code FAILURE} followed by the
+ * reason.
+ * <p>
+ * The token is generated on startup and written to a file only the user running the daemon can read, so other users
+ * of the host can't execute jobs as that user. Submissions with the wrong token, arguments which can't be parsed or
+ * which arrive while the queue of waiting jobs is full are rejected right away with a {@code FAILURE} reply.
+ * <p>
+ * Submissions are read and checked by a small pool of threads rather than the thread accepting connections, so a local
+ * process which connects and never sends anything can't keep other jobs from being submitted. A submission must arrive
+ * in full within {@link #SUBMISSION_READ_TIMEOUT} milliseconds of the connection being accepted.
+ * <p>
+ * Every job is executed with its own state machine and execution context, created in a child application context,
+ * while the connections to the server, the services and the dependency cache are shared by all the jobs.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+@Component
+@Lazy
+class DaemonCommand implements AgentCommand {
+
+    static final String SUCCESS_RESPONSE = "SUCCESS";
+    static final String FAILURE_RESPONSE = "FAILURE";
+    // Submissions are only a handful of short lines, anything bigger or slower is not a well behaved submitter
+    static final int MAX_SUBMISSION_SIZE = 64 * 1024;
+    static final int SUBMISSION_READ_TIMEOUT = 10_000;
+    static final int MAX_CONCURRENT_SUBMISSIONS = 4;
+    static final int MAX_PENDING_SUBMISSIONS = 16;
+    private static final int TOKEN_SIZE = 32;
+
+    private final DaemonCommandArguments daemonCommandArguments;
+    private final ApplicationContext applicationContext;
+
+    DaemonCommand(
+        final DaemonCommandArguments daemonCommandArguments,
+        final ApplicationContext applicationContext
+    ) {
+        this.daemonCommandArguments = daemonCommandArguments;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run() {
+        final Path tokenFile = daemonCommandArguments.getTokenFile().toPath();
+        try (
+            ServerSocket serverSocket = new ServerSocket(
+                daemonCommandArguments.getListenPort(),
+                0,
+                InetAddress.getLoopbackAddress()
+            )
+        ) {
+            final String token = createTokenFile(tokenFile);
+            log.info("Accepting jobs on {} with the token in {}", serverSocket.getLocalSocketAddress(), tokenFile);
+            this.acceptJobs(serverSocket, token);
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to accept jobs", e);
+        } finally {
+            try {
+                Files.deleteIfExists(tokenFile);
+            } catch (final IOException e) {
+                log.warn("Failed to delete token file {}", tokenFile, e);
+            }
+        }
+    }
+
+    /**
+     * Generate a new random token and write it to the given file, replacing any token left over by an earlier daemon.
+     *
+     * @param tokenFile The file to write the token to
+     * @return The token
+     * @throws IOException If the file can't be written
+     */
+    static String createTokenFile(final Path tokenFile) throws IOException {
+        final byte[] tokenBytes = new byte[TOKEN_SIZE];
+        new SecureRandom().nextBytes(tokenBytes);
+        final String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+
+        final Path parent = tokenFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.deleteIfExists(tokenFile);
+        // Created with owner only permissions up front so the token is never readable by anyone else
+        Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        Files.write(tokenFile, token.getBytes(StandardCharsets.UTF_8));
+        return token;
+    }
+
+    /**
+     * Accept job submissions until the server socket is closed or the thread interrupted.
+     *
+     * @param serverSocket The socket to accept submissions on
+     * @param token        The token submissions must present
+     * @throws IOException If accepting connections fails
+     */
+    void acceptJobs(final ServerSocket serverSocket, final String token) throws IOException {
+        final int maxConcurrentJobs = daemonCommandArguments.getMaxConcurrentJobs();
+        // Jobs beyond the maximum number of concurrent jobs wait in the queue, submissions beyond that are rejected
+        final ExecutorService jobExecutor = new ThreadPoolExecutor(
+            maxConcurrentJobs,
+            maxConcurrentJobs,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(daemonCommandArguments.getMaxQueuedJobs()),
+            new ThreadFactoryBuilder().setNameFormat("genie-agent-daemon-job-%d").setDaemon(true).build()
+        );
+        // Reading a submission waits on the client so it never happens on this thread. Connections beyond what the
+        // pool can read are turned away.
+        final ExecutorService submissionExecutor = new ThreadPoolExecutor(
+            MAX_CONCURRENT_SUBMISSIONS,
+            MAX_CONCURRENT_SUBMISSIONS,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_SUBMISSIONS),
+            new ThreadFactoryBuilder().setNameFormat("genie-agent-daemon-submission-%d").setDaemon(true).build()
+        );
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (final SocketException e) {
+                    if (serverSocket.isClosed()) {
+                        log.info("Stopped accepting jobs");
+                        return;
+                    }
+                    throw e;
+                }
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SUBMISSION_READ_TIMEOUT);
+                try {
+                    submissionExecutor.execute(() -> this.acceptJobSubmission(socket, deadline, token, jobExecutor));
+                } catch (final RejectedExecutionException e) {
+                    log.warn(
+                        "Closed connection from {}, too many submissions are being read",
+                        socket.getRemoteSocketAddress()
+                    );
+                    closeQuietly(socket);
+                }
+            }
+        } finally {
+            submissionExecutor.shutdownNow();
+            jobExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Read and check a job submission and hand the job to the executor. Runs on a submission thread.
+     *
+     * @param socket      The connection of the submitter
+     * @param deadline    The {@link System#nanoTime()} the whole submission must have been received by
+     * @param token       The token the submission must present
+     * @param jobExecutor The executor to run the job with
+     */
+    void acceptJobSubmission(
+        final Socket socket,
+        final long deadline,
+        final String token,
+        final ExecutorService jobExecutor
+    ) {
+        final List<String> jobArguments;
+        final JobRequestArgumentsImpl jobRequestArguments;
+        try {
+            final List<String> submission = readSubmission(socket, deadline);
+            if (submission.isEmpty() || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8),
+                submission.get(0).getBytes(StandardCharsets.UTF_8)
+            )) {
+                log.warn("Rejected job submission from {} with an invalid token", socket.getRemoteSocketAddress());
+                rejectJobSubmission(socket, "Invalid token");
+                return;
+            }
+            jobArguments = submission.subList(1, submission.size());
+            jobRequestArguments = parseJobArguments(jobArguments);
+        } catch (final IllegalArgumentException e) {
+            log.warn("Rejected job submission: {}", e.getMessage());
+            rejectJobSubmission(socket, e.getMessage());
+            return;
+        } catch (final IOException e) {
+            log.warn("Failed to read job submission", e);
+            rejectJobSubmission(socket, "Failed to read the job submission: " + e.getMessage());
+            return;
+        }
+
+        try {
+            jobExecutor.execute(() -> this.handleJobSubmission(socket, jobArguments, jobRequestArguments));
+        } catch (final RejectedExecutionException e) {
+            log.warn("Rejected job with arguments {}, too many jobs are waiting", jobArguments);
+            rejectJobSubmission(socket, "Too many jobs are waiting to be executed");
+        }
+    }
+
+    private static List<String> readSubmission(final Socket socket, final long deadline) throws IOException {
+        final BufferedReader reader = new BufferedReader(
+            new InputStreamReader(
+                ByteStreams.limit(new DeadlineInputStream(socket, deadline), MAX_SUBMISSION_SIZE),
+                StandardCharsets.UTF_8
+            )
+        );
+        final List<String> lines = Lists.newArrayList();
+        String line = reader.readLine();
+        while (line != null && !line.isEmpty()) {
+            lines.add(line);
+            line = reader.readLine();
+        }
+        if (line == null) {
+            throw new IllegalArgumentException(
+                "Job submission is incomplete or larger than " + MAX_SUBMISSION_SIZE + " bytes"
+            );
+        }
+        return lines;
+    }
+
+    private static JobRequestArgumentsImpl parseJobArguments(final List<String> jobArguments) {
+        final JobRequestArgumentsImpl jobRequestArguments = new JobRequestArgumentsImpl();
+        try {
+            JCommander.newBuilder()
+                .addObject(jobRequestArguments)
+                .acceptUnknownOptions(false)
+                .build()
+                .parse(jobArguments.toArray(new String[0]));
+        } catch (final ParameterException e) {
+            throw new IllegalArgumentException("Failed to parse job arguments: " + e.getMessage(), e);
+        }
+        return jobRequestArguments;
+    }
+
+    private static void rejectJobSubmission(final Socket socket, final String reason) {
+        try (Socket jobSocket = socket) {
+            writeResponse(jobSocket, FAILURE_RESPONSE + " " + reason);
+        } catch (final IOException e) {
+            log.error("Failed to communicate with job submitter", e);
+        }
+    }
+
+    private static void closeQuietly(final Socket socket) {
+        try {
+            socket.close();
+        } catch (final IOException e) {
+            log.debug("Failed to close connection", e);
+        }
+    }
+
+    private static void writeResponse(final Socket socket, final String response) throws IOException {
+        final Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        writer.write(response + "\n");
+        writer.flush();
+    }
+
+    private void handleJobSubmission(
+        final Socket socket,
+        final List<String> jobArguments,
+        final JobRequestArgumentsImpl jobRequestArguments
+    ) {
+        try (Socket jobSocket = socket) {
+            // The job can run for a long time, only the submission had to arrive quickly
+            jobSocket.setSoTimeout(0);
+            String response;
+            try {
+                this.executeJob(jobArguments, jobRequestArguments);
+                response = SUCCESS_RESPONSE;
+            } catch (final Exception e) {
+                log.error("Execution of job with arguments {} failed", jobArguments, e);
+                response = FAILURE_RESPONSE + " " + e.getMessage();
+            }
+            writeResponse(jobSocket, response);
+        } catch (final IOException e) {
+            log.error("Failed to communicate with job submitter", e);
+        }
+    }
+
+    private void executeJob(final List<String> jobArguments, final JobRequestArgumentsImpl jobRequestArguments) {
+        log.info("Executing job with arguments: {}", jobArguments);
+        try (ConfigurableApplicationContext jobContext = this.createJobContext(jobRequestArguments)) {
+            ExecCommand.execute(
+                jobContext.getBean(JobExecutionStateMachine.class),
+                jobContext.getBean(ExecutionContext.class)
+            );
+        }
+    }
+
+    /**
+     * Create the child application context holding the beans which execute a single job.
+     *
+     * @param jobRequestArguments The arguments describing the job
+     * @return The refreshed application context. Closed by the caller once the job completed.
+     */
+    ConfigurableApplicationContext createJobContext(final JobRequestArgumentsImpl jobRequestArguments) {
+        final AnnotationConfigApplicationContext jobContext = new AnnotationConfigApplicationContext();
+        jobContext.setParent(this.applicationContext);
+        // Takes precedence over the (unused) job request arguments of the agent application context
+        jobContext.registerBean(
+            JobRequestArgumentsImpl.class,
+            () -> jobRequestArguments,
+            beanDefinition -> beanDefinition.setPrimary(true)
+        );
+        jobContext.register(JobExecutionConfig.class);
+        jobContext.refresh();
+        return jobContext;
+    }
+
+    /**
+     * Reads from a socket until a deadline, however slowly the data trickles in.
+     */
+    private static final class DeadlineInputStream extends FilterInputStream {
+        private final Socket socket;
+        private final long deadline;
+
+        private DeadlineInputStream(final Socket socket, final long deadline) throws IOException {
+            super(socket.getInputStream());
+            this.socket = socket;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int read() throws IOException {
+            this.setTimeout();
+            return super.read();
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            this.setTimeout();
+            return super.read(b, off, len);
+        }
+
+        private void setTimeout() throws IOException {
+            final long remaining = TimeUnit.NANOSECONDS.toMillis(this.deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new SocketTimeoutException(
+                    "Job submission not received within " + SUBMISSION_READ_TIMEOUT + " ms"
+                );
+            }
+            this.socket.setSoTimeout((int) remaining);
+        }
+    }
+
+    @Component
+    @Parameters(
+        commandNames = CommandNames.DAEMON,
+        commandDescription = "Run as a daemon executing the jobs submitted through a local socket"
+    )
+    @Getter
+    static class DaemonCommandArguments implements AgentCommandArguments {
+
+        @ParametersDelegate
+        private final ArgumentDelegates.ServerArguments serverArguments;
+
+        @ParametersDelegate
+        private final ArgumentDelegates.CacheArguments cacheArguments;
+
+        @Parameter(
+            names = {"--listenPort"},
+            description = "Port of the loopback interface to accept jobs on",
+            validateWith = ArgumentValidators.PortValidator.class
+        )
+        private int listenPort = 7980;
+
+        @Parameter(
+            names = {"--maxConcurrentJobs"},
+            description = "Maximum number of jobs executing concurrently, further jobs wait for one to complete",
+            validateWith = PositiveInteger.class
+        )
+        private int maxConcurrentJobs = 4;
+
+        @Parameter(
+            names = {"--maxQueuedJobs"},
+            description = "Maximum number of jobs waiting to execute, further submissions are rejected",
+            validateWith = PositiveInteger.class
+        )
+        private int maxQueuedJobs = 64;
+
+        @Parameter(
+            names = {"--tokenFile"},
+            description = "File the daemon writes the token submissions must present to, readable by its user only",
+            converter = ArgumentConverters.FileConverter.class
+        )
+        private File tokenFile = new File(System.getProperty("user.home"), ".genie/agent-daemon.token");
+
+        DaemonCommandArguments(
+            final ArgumentDelegates.ServerArguments serverArguments,
+            final ArgumentDelegates.CacheArguments cacheArguments
+        ) {
+            this.serverArguments = serverArguments;
+            this.cacheArguments = cacheArguments;
+        }
+
+        @Override
+        public Class<? extends AgentCommand> getConsumerClass() {
+            return DaemonCommand.class;
+        }
+    }
+}
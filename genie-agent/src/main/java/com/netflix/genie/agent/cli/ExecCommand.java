@@ -59,6 +59,17 @@ class ExecCommand implements AgentCommand {
 
     @Override
     public void run() {
+        execute(stateMachine, executionContext);
+    }
+
+    /**
+     * Run the job state machine until it stops.
+     *
+     * @param stateMachine     The state machine of the job
+     * @param executionContext The execution context of the job
+     * @throws RuntimeException if the job execution failed
+     */
+    static void execute(final JobExecutionStateMachine stateMachine, final ExecutionContext executionContext) {
         log.info("Running job state machine");
         stateMachine.start();
 
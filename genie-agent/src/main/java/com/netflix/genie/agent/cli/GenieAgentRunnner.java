@@ -19,6 +19,7 @@
 package com.netflix.genie.agent.cli;
 
 import com.beust.jcommander.ParameterException;
+import com.netflix.genie.agent.AgentStartupTimer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.ExitCodeGenerator;
@@ -39,14 +40,20 @@ public class GenieAgentRunnner implements CommandLineRunner, ExitCodeGenerator {
 
     private final ArgumentParser argumentParser;
     private final CommandFactory commandFactory;
+    private final GlobalAgentArguments globalAgentArguments;
+    private final AgentStartupTimer agentStartupTimer;
     private ExitCode exitCode = ExitCode.INIT_FAIL;
 
     GenieAgentRunnner(
         final ArgumentParser argumentParser,
-        final CommandFactory commandFactory
+        final CommandFactory commandFactory,
+        final GlobalAgentArguments globalAgentArguments,
+        final AgentStartupTimer agentStartupTimer
     ) {
         this.argumentParser = argumentParser;
         this.commandFactory = commandFactory;
+        this.globalAgentArguments = globalAgentArguments;
+        this.agentStartupTimer = agentStartupTimer;
     }
 
     @Override
@@ -69,6 +76,7 @@ public class GenieAgentRunnner implements CommandLineRunner, ExitCodeGenerator {
         } catch (ParameterException e) {
             throw new IllegalArgumentException("Failed to parse arguments: " + e.getMessage(), e);
         }
+        agentStartupTimer.mark("Argument parsing");
 
         final String commandName = argumentParser.getSelectedCommand();
         final Set<String> availableCommands = argumentParser.getCommandNames();
@@ -83,6 +91,11 @@ public class GenieAgentRunnner implements CommandLineRunner, ExitCodeGenerator {
         log.info("Initializing command: {}", commandName);
         exitCode = ExitCode.COMMAND_INIT_FAIL;
         final AgentCommand command = commandFactory.get(commandName);
+        agentStartupTimer.mark("Command initialization");
+
+        if (globalAgentArguments.isVerbose()) {
+            System.err.println(agentStartupTimer.getBreakdown());
+        }
 
         exitCode = ExitCode.EXEC_FAIL;
         command.run();
@@ -18,6 +18,7 @@
 
 package com.netflix.genie.agent.cli;
 
+import com.beust.jcommander.Parameter;
 import lombok.Getter;
 
 /**
@@ -28,4 +29,10 @@ import lombok.Getter;
  */
 @Getter
 class GlobalAgentArguments {
+
+    @Parameter(
+        names = {"--verbose"},
+        description = "Print a breakdown of the agent startup time before running the command"
+    )
+    private boolean verbose;
 }
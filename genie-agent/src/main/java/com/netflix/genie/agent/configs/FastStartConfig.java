@@ -0,0 +1,56 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package com.netflix.genie.agent.configs;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration applied when the agent is started with the {@link #FAST_START_PROFILE} profile active. Every bean is
+ * initialized lazily so only the beans needed by the selected command are ever created. The auto configurations
+ * the agent doesn't use are excluded by the matching section of {@code application.yml}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Configuration
+@Profile(FastStartConfig.FAST_START_PROFILE)
+class FastStartConfig {
+
+    /**
+     * The name of the profile which enables fast start.
+     */
+    static final String FAST_START_PROFILE = "fast-start";
+
+    /**
+     * Mark every bean definition as lazily initialized.
+     *
+     * @return The bean factory post processor which makes bean initialization lazy
+     */
+    @Bean
+    static BeanFactoryPostProcessor lazyInitializationBeanFactoryPostProcessor() {
+        return beanFactory -> {
+            for (final String beanName : beanFactory.getBeanDefinitionNames()) {
+                beanFactory.getBeanDefinition(beanName).setLazyInit(true);
+            }
+        };
+    }
+}
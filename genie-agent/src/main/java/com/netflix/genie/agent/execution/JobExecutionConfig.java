@@ -0,0 +1,43 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package com.netflix.genie.agent.execution;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+
+/**
+ * Registers the beans holding the state of a single job execution: the execution context, the state machine and its
+ * actions and listeners. Used to create a child application context per job when the agent executes several jobs,
+ * the beans of the child context shadow the ones of the agent application context while services, gRPC channels
+ * and caches are shared through the parent.
+ * <p>
+ * Deliberately not a {@code @Configuration} so the component scan of the agent application doesn't pick it up.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ComponentScan(
+    basePackageClasses = JobExecutionConfig.class,
+    excludeFilters = @ComponentScan.Filter(
+        type = FilterType.REGEX,
+        pattern = "com\\.netflix\\.genie\\.agent\\.execution\\.services\\..*"
+    )
+)
+public class JobExecutionConfig {
+}
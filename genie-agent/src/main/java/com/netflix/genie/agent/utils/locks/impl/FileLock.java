@@ -17,6 +17,7 @@
  */
 package com.netflix.genie.agent.utils.locks.impl;
 
+import com.google.common.util.concurrent.Striped;
 import com.netflix.genie.agent.execution.exceptions.LockException;
 import com.netflix.genie.agent.utils.locks.CloseableLock;
 
@@ -24,6 +25,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.Lock;
 
 /**
  * CloseableLock for a file.
@@ -35,6 +37,11 @@ public class FileLock implements CloseableLock {
 
     //Refer to https://docs.oracle.com/javase/7/docs/api/java/io/RandomAccessFile.html
     private static final String FILE_ACCESS_MODE = "rws";
+    // File locks are held on behalf of the whole JVM and locking a file twice from the same JVM fails rather than
+    // waiting. Threads of the same agent (e.g. concurrent jobs of a daemon) are therefore serialized in process first.
+    private static final Striped<Lock> IN_PROCESS_LOCKS = Striped.lazyWeakLock(1024);
+    private final Lock inProcessLock;
+    private boolean inProcessLocked;
     private FileChannel fileChannel;
     //Maintain a link to the underlying nio file lock because of
     //https://bugs.openjdk.java.net/browse/JDK-8166253
@@ -53,6 +60,7 @@ public class FileLock implements CloseableLock {
         }
 
         try {
+            inProcessLock = IN_PROCESS_LOCKS.get(file.getCanonicalPath());
             fileChannel = new RandomAccessFile(
                 file,
                 FILE_ACCESS_MODE
@@ -69,8 +77,15 @@ public class FileLock implements CloseableLock {
     public void close() throws IOException {
         //FileChannel.close closes the nioFileLock. Closing
         //it explicitly, else findbugs rule URF_UNREAD_FIELD is violated
-        nioFileLock.close();
-        fileChannel.close();
+        try {
+            nioFileLock.close();
+            fileChannel.close();
+        } finally {
+            if (inProcessLocked) {
+                inProcessLocked = false;
+                inProcessLock.unlock();
+            }
+        }
     }
 
     /**
@@ -78,9 +93,13 @@ public class FileLock implements CloseableLock {
      */
     @Override
     public void lock() throws LockException {
+        inProcessLock.lock();
+        inProcessLocked = true;
         try {
             nioFileLock = fileChannel.lock();
         } catch (Exception e) {
+            inProcessLocked = false;
+            inProcessLock.unlock();
             throw new LockException("Error locking file ", e);
         }
     }
@@ -0,0 +1,81 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package com.netflix.genie.agent
+
+import com.netflix.genie.test.categories.UnitTest
+import org.junit.experimental.categories.Category
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory
+import org.springframework.boot.SpringApplication
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent
+import org.springframework.boot.context.event.ApplicationPreparedEvent
+import org.springframework.boot.context.event.ApplicationStartedEvent
+import org.springframework.boot.context.event.ApplicationStartingEvent
+import org.springframework.context.ConfigurableApplicationContext
+import org.springframework.core.env.ConfigurableEnvironment
+import spock.lang.Specification
+
+@Category(UnitTest.class)
+class AgentStartupTimerSpec extends Specification {
+    SpringApplication application
+    ConfigurableApplicationContext context
+    ConfigurableListableBeanFactory beanFactory
+    String[] args
+    AgentStartupTimer timer
+
+    void setup() {
+        this.application = Mock(SpringApplication.class)
+        this.context = Mock(ConfigurableApplicationContext.class)
+        this.beanFactory = Mock(ConfigurableListableBeanFactory.class)
+        this.args = new String[0]
+        this.timer = new AgentStartupTimer()
+    }
+
+    def "Record startup phases"() {
+        when:
+        timer.onApplicationEvent(new ApplicationStartingEvent(application, args))
+        timer.onApplicationEvent(
+            new ApplicationEnvironmentPreparedEvent(application, args, Mock(ConfigurableEnvironment.class))
+        )
+        timer.onApplicationEvent(new ApplicationPreparedEvent(application, args, context))
+        timer.onApplicationEvent(new ApplicationStartedEvent(application, args, context))
+        timer.mark("Command initialization")
+        def breakdown = timer.getBreakdown()
+
+        then:
+        1 * context.getBeanFactory() >> beanFactory
+        1 * beanFactory.registerSingleton(AgentStartupTimer.BEAN_NAME, timer)
+        breakdown.contains("JVM startup:")
+        breakdown.contains("Environment preparation:")
+        breakdown.contains("Context preparation:")
+        breakdown.contains("Context refresh:")
+        breakdown.contains("Command initialization:")
+        breakdown.contains("Total:")
+    }
+
+    def "Repeated phases are summed"() {
+        when:
+        timer.mark("Command initialization")
+        timer.mark("Command initialization")
+        def breakdown = timer.getBreakdown()
+
+        then:
+        breakdown.count("Command initialization:") == 1
+        !breakdown.contains("JVM startup:")
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package com.netflix.genie.agent.cli
+
+import com.beust.jcommander.JCommander
+import com.beust.jcommander.ParameterException
+import com.netflix.genie.test.categories.UnitTest
+import org.junit.experimental.categories.Category
+import spock.lang.Specification
+
+@Category(UnitTest.class)
+class DaemonCommandArgumentsSpec extends Specification {
+
+    DaemonCommand.DaemonCommandArguments options
+    JCommander jCommander
+    ArgumentDelegates.ServerArguments serverArguments
+    ArgumentDelegates.CacheArguments cacheArguments
+
+    void setup() {
+        serverArguments = new ServerArgumentsImpl()
+        cacheArguments = new CacheArgumentsImpl()
+        options = new DaemonCommand.DaemonCommandArguments(serverArguments, cacheArguments)
+        jCommander = new JCommander(options)
+    }
+
+    def "Defaults"() {
+        when:
+        jCommander.parse()
+
+        then:
+        "genie.prod.netflix.net" == options.getServerArguments().getServerHost()
+        7979 == options.getServerArguments().getServerPort()
+        7980 == options.getListenPort()
+        4 == options.getMaxConcurrentJobs()
+        64 == options.getMaxQueuedJobs()
+        new File(System.getProperty("user.home"), ".genie/agent-daemon.token") == options.getTokenFile()
+    }
+
+    def "Parse"() {
+        when:
+        jCommander.parse(
+            "--serverHost", "server.com",
+            "--serverPort", "1234",
+            "--listenPort", "5678",
+            "--maxConcurrentJobs", "16",
+            "--maxQueuedJobs", "8",
+            "--tokenFile", "/tmp/daemon.token"
+        )
+
+        then:
+        "server.com" == options.getServerArguments().getServerHost()
+        1234 == options.getServerArguments().getServerPort()
+        5678 == options.getListenPort()
+        16 == options.getMaxConcurrentJobs()
+        8 == options.getMaxQueuedJobs()
+        new File("/tmp/daemon.token") == options.getTokenFile()
+    }
+
+    def "Reject non positive limits"() {
+        when:
+        jCommander.parse("--maxConcurrentJobs", "0")
+
+        then:
+        thrown(ParameterException)
+
+        when:
+        jCommander.parse("--maxQueuedJobs", "-1")
+
+        then:
+        thrown(ParameterException)
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.agent.cli
+
+import com.beust.jcommander.JCommander
+import com.netflix.genie.agent.execution.ExecutionContext
+import com.netflix.genie.agent.execution.statemachine.JobExecutionStateMachine
+import com.netflix.genie.agent.execution.statemachine.States
+import com.netflix.genie.test.categories.UnitTest
+import org.junit.Rule
+import org.junit.experimental.categories.Category
+import org.junit.rules.TemporaryFolder
+import org.springframework.context.ApplicationContext
+import org.springframework.context.ConfigurableApplicationContext
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.PosixFilePermissions
+import java.util.concurrent.CountDownLatch
+
+@Category(UnitTest.class)
+class DaemonCommandSpec extends Specification {
+
+    @Rule
+    TemporaryFolder temporaryFolder = new TemporaryFolder()
+
+    DaemonCommand.DaemonCommandArguments args
+    ApplicationContext applicationContext
+    DaemonCommand daemonCommand
+    String token
+    ServerSocket serverSocket
+    Thread acceptThread
+
+    void setup() {
+        args = new DaemonCommand.DaemonCommandArguments(new ServerArgumentsImpl(), new CacheArgumentsImpl())
+        new JCommander(args).parse("--maxConcurrentJobs", "1", "--maxQueuedJobs", "1")
+        applicationContext = Mock()
+        daemonCommand = Spy(DaemonCommand, constructorArgs: [args, applicationContext])
+        token = DaemonCommand.createTokenFile(temporaryFolder.getRoot().toPath().resolve("daemon.token"))
+        serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())
+        acceptThread = Thread.start {
+            daemonCommand.acceptJobs(serverSocket, token)
+        }
+    }
+
+    void cleanup() {
+        serverSocket.close()
+        acceptThread.join(10000)
+    }
+
+    def "Token file"() {
+        setup:
+        Path tokenFile = temporaryFolder.getRoot().toPath().resolve("tokens/daemon.token")
+
+        when:
+        def firstToken = DaemonCommand.createTokenFile(tokenFile)
+
+        then:
+        new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8) == firstToken
+        PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile)) == "rw-------"
+
+        when:
+        def secondToken = DaemonCommand.createTokenFile(tokenFile)
+
+        then:
+        secondToken != firstToken
+        new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8) == secondToken
+        PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile)) == "rw-------"
+    }
+
+    def "Execute job"() {
+        setup:
+        ConfigurableApplicationContext jobContext = Mock()
+        JobExecutionStateMachine stateMachine = Mock()
+        ExecutionContext executionContext = Mock()
+        JobRequestArgumentsImpl jobRequestArguments = null
+
+        when:
+        def response = submit(token, "--jobId", "1234", "--jobName", "daemon-job")
+
+        then:
+        1 * daemonCommand.createJobContext(_ as JobRequestArgumentsImpl) >> {
+            JobRequestArgumentsImpl arguments ->
+                jobRequestArguments = arguments
+                return jobContext
+        }
+        1 * jobContext.getBean(JobExecutionStateMachine) >> stateMachine
+        1 * jobContext.getBean(ExecutionContext) >> executionContext
+        1 * stateMachine.start()
+        1 * stateMachine.waitForStop() >> States.END
+        1 * executionContext.hasStateActionError() >> false
+        1 * jobContext.close()
+        response == DaemonCommand.SUCCESS_RESPONSE
+        jobRequestArguments.getJobId() == "1234"
+        jobRequestArguments.getJobName() == "daemon-job"
+    }
+
+    def "Job fails"() {
+        setup:
+        ConfigurableApplicationContext jobContext = Mock()
+        JobExecutionStateMachine stateMachine = Mock()
+        ExecutionContext executionContext = Mock()
+
+        when:
+        def response = submit(token, "--jobId", "1234")
+
+        then:
+        1 * daemonCommand.createJobContext(_ as JobRequestArgumentsImpl) >> jobContext
+        1 * jobContext.getBean(JobExecutionStateMachine) >> stateMachine
+        1 * jobContext.getBean(ExecutionContext) >> executionContext
+        1 * stateMachine.start()
+        1 * stateMachine.waitForStop() >> States.SHUTDOWN
+        1 * jobContext.close()
+        response == DaemonCommand.FAILURE_RESPONSE + " Job execution failed (final state: SHUTDOWN)"
+    }
+
+    def "Every job gets its own context"() {
+        setup:
+        ConfigurableApplicationContext jobContext1 = Mock()
+        ConfigurableApplicationContext jobContext2 = Mock()
+        JobExecutionStateMachine stateMachine = Mock()
+        ExecutionContext executionContext = Mock()
+
+        when:
+        def response1 = submit(token, "--jobId", "1")
+        def response2 = submit(token, "--jobId", "2")
+
+        then:
+        2 * daemonCommand.createJobContext(_ as JobRequestArgumentsImpl) >>> [jobContext1, jobContext2]
+        1 * jobContext1.getBean(JobExecutionStateMachine) >> stateMachine
+        1 * jobContext1.getBean(ExecutionContext) >> executionContext
+        1 * jobContext1.close()
+        1 * jobContext2.getBean(JobExecutionStateMachine) >> stateMachine
+        1 * jobContext2.getBean(ExecutionContext) >> executionContext
+        1 * jobContext2.close()
+        2 * stateMachine.waitForStop() >> States.END
+        response1 == DaemonCommand.SUCCESS_RESPONSE
+        response2 == DaemonCommand.SUCCESS_RESPONSE
+    }
+
+    def "Reject invalid token"() {
+        when:
+        def response = submit("not-the-token", "--jobId", "1234")
+
+        then:
+        0 * daemonCommand.createJobContext(_)
+        response == DaemonCommand.FAILURE_RESPONSE + " Invalid token"
+
+        when:
+        response = submit()
+
+        then:
+        0 * daemonCommand.createJobContext(_)
+        response == DaemonCommand.FAILURE_RESPONSE + " Invalid token"
+    }
+
+    def "Reject bad arguments"() {
+        when:
+        def response = submit(token, "--jobId", "1234", "--notAnOption")
+
+        then:
+        0 * daemonCommand.createJobContext(_)
+        response.startsWith(DaemonCommand.FAILURE_RESPONSE + " Failed to parse job arguments")
+    }
+
+    def "Reject incomplete submission"() {
+        setup:
+        def socket = connect()
+
+        when:
+        send(socket, token + "\n--jobId\n1234\n")
+        socket.shutdownOutput()
+        def response = readResponse(socket)
+
+        then:
+        0 * daemonCommand.createJobContext(_)
+        response.startsWith(DaemonCommand.FAILURE_RESPONSE + " Job submission is incomplete")
+    }
+
+    def "Reject oversized submission"() {
+        setup:
+        def socket = connect()
+
+        when:
+        // Exactly the maximum size and still no end of the submission in sight
+        send(socket, "a" * DaemonCommand.MAX_SUBMISSION_SIZE)
+        def response = readResponse(socket)
+
+        then:
+        0 * daemonCommand.createJobContext(_)
+        response == DaemonCommand.FAILURE_RESPONSE +
+            " Job submission is incomplete or larger than " + DaemonCommand.MAX_SUBMISSION_SIZE + " bytes"
+    }
+
+    def "Reject job when too many are waiting"() {
+        setup:
+        ConfigurableApplicationContext jobContext = Mock()
+        JobExecutionStateMachine stateMachine = Mock()
+        ExecutionContext executionContext = Mock()
+        def jobStarted = new CountDownLatch(1)
+        def jobReleased = new CountDownLatch(1)
+        // Submissions are read concurrently so make sure the second job is queued before the third is sent
+        def jobsQueued = new CountDownLatch(2)
+
+        when:
+        def runningJob = connect()
+        send(runningJob, token + "\n--jobId\n1\n\n")
+        jobStarted.await()
+        def waitingJob = connect()
+        send(waitingJob, token + "\n--jobId\n2\n\n")
+        jobsQueued.await()
+        def rejectedResponse = submit(token, "--jobId", "3")
+        jobReleased.countDown()
+        def runningResponse = readResponse(runningJob)
+        def waitingResponse = readResponse(waitingJob)
+
+        then:
+        2 * daemonCommand.createJobContext(_ as JobRequestArgumentsImpl) >> jobContext
+        2 * jobContext.getBean(JobExecutionStateMachine) >> stateMachine
+        2 * jobContext.getBean(ExecutionContext) >> executionContext
+        2 * stateMachine.waitForStop() >> {
+            jobStarted.countDown()
+            jobReleased.await()
+            return States.END
+        }
+        2 * jobContext.close()
+        3 * daemonCommand.acceptJobSubmission(_ as Socket, _ as Long, token, _) >> {
+            callRealMethod()
+            jobsQueued.countDown()
+        }
+        rejectedResponse == DaemonCommand.FAILURE_RESPONSE + " Too many jobs are waiting to be executed"
+        runningResponse == DaemonCommand.SUCCESS_RESPONSE
+        waitingResponse == DaemonCommand.SUCCESS_RESPONSE
+    }
+
+    def "Silent connection doesn't block other submissions"() {
+        setup:
+        ConfigurableApplicationContext jobContext = Mock()
+        JobExecutionStateMachine stateMachine = Mock()
+        ExecutionContext executionContext = Mock()
+        def silentConnections = (1..DaemonCommand.MAX_CONCURRENT_SUBMISSIONS - 1).collect { connect() }
+
+        when:
+        def start = System.currentTimeMillis()
+        def response = submit(token, "--jobId", "1234")
+        def elapsed = System.currentTimeMillis() - start
+
+        then:
+        1 * daemonCommand.createJobContext(_ as JobRequestArgumentsImpl) >> jobContext
+        1 * jobContext.getBean(JobExecutionStateMachine) >> stateMachine
+        1 * jobContext.getBean(ExecutionContext) >> executionContext
+        1 * stateMachine.waitForStop() >> States.END
+        1 * jobContext.close()
+        response == DaemonCommand.SUCCESS_RESPONSE
+        // Didn't have to wait for the silent connections to time out
+        elapsed < DaemonCommand.SUBMISSION_READ_TIMEOUT
+
+        cleanup:
+        silentConnections.each { it.close() }
+    }
+
+    private String submit(final String... lines) {
+        def socket = connect()
+        lines.each {
+            line -> send(socket, line + "\n")
+        }
+        send(socket, "\n")
+        return readResponse(socket)
+    }
+
+    private Socket connect() {
+        def socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())
+        socket.setSoTimeout(30000)
+        return socket
+    }
+
+    private static void send(final Socket socket, final String data) {
+        socket.getOutputStream().write(data.getBytes(StandardCharsets.UTF_8))
+        socket.getOutputStream().flush()
+    }
+
+    private static String readResponse(final Socket socket) {
+        try {
+            return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine()
+        } finally {
+            socket.close()
+        }
+    }
+}
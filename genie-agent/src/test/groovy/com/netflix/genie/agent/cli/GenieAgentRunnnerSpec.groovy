@@ -19,6 +19,7 @@
 package com.netflix.genie.agent.cli
 
 import com.beust.jcommander.ParameterException
+import com.netflix.genie.agent.AgentStartupTimer
 import com.netflix.genie.test.categories.UnitTest
 import org.junit.experimental.categories.Category
 import org.springframework.beans.factory.NoSuchBeanDefinitionException
@@ -29,6 +30,8 @@ class GenieAgentRunnnerSpec extends Specification {
     ArgumentParser argsParser
     AgentCommand agentCommand
     CommandFactory cmdFactory
+    GlobalAgentArguments globalArgs
+    AgentStartupTimer startupTimer
     String[] args
     GenieAgentRunnner runner
 
@@ -36,8 +39,10 @@ class GenieAgentRunnnerSpec extends Specification {
         this.argsParser = Mock(ArgumentParser.class)
         this.agentCommand = Mock(AgentCommand.class)
         this.cmdFactory = Mock(CommandFactory.class)
+        this.globalArgs = Mock(GlobalAgentArguments.class)
+        this.startupTimer = Mock(AgentStartupTimer.class)
         this.args = new String[0]
-        this.runner = new GenieAgentRunnner(argsParser, cmdFactory)
+        this.runner = new GenieAgentRunnner(argsParser, cmdFactory, globalArgs, startupTimer)
     }
 
     def "Successful run"() {
@@ -49,6 +54,27 @@ class GenieAgentRunnnerSpec extends Specification {
         1 * argsParser.getSelectedCommand() >> TestCommands.ExampleCommand1.NAME
         1 * argsParser.getCommandNames() >> TestCommands.allCommandNames()
         1 * cmdFactory.get(TestCommands.ExampleCommand1.NAME) >> agentCommand
+        1 * globalArgs.isVerbose() >> false
+        0 * startupTimer.getBreakdown()
+        1 * agentCommand.run()
+
+        expect:
+        ExitCode.SUCCESS.getCode() == runner.getExitCode()
+    }
+
+    def "Verbose run"() {
+        when:
+        runner.run(args)
+
+        then:
+        1 * argsParser.parse(args)
+        1 * startupTimer.mark("Argument parsing")
+        1 * argsParser.getSelectedCommand() >> TestCommands.ExampleCommand1.NAME
+        1 * argsParser.getCommandNames() >> TestCommands.allCommandNames()
+        1 * cmdFactory.get(TestCommands.ExampleCommand1.NAME) >> agentCommand
+        1 * startupTimer.mark("Command initialization")
+        1 * globalArgs.isVerbose() >> true
+        1 * startupTimer.getBreakdown() >> "Agent startup time breakdown:"
         1 * agentCommand.run()
 
         expect:
@@ -0,0 +1,86 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+package com.netflix.genie.agent.execution;
+
+import com.netflix.genie.GenieAgentApplication;
+import com.netflix.genie.agent.execution.services.FetchingCacheService;
+import com.netflix.genie.agent.execution.statemachine.JobExecutionStateMachine;
+import com.netflix.genie.test.categories.IntegrationTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Tests for {@link JobExecutionConfig}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(IntegrationTest.class)
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = GenieAgentApplication.class)
+public class JobExecutionConfigIntegrationTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    /**
+     * Make sure every job context gets its own execution state while the services are shared.
+     */
+    @Test
+    public void canCreateJobContexts() {
+        try (
+            AnnotationConfigApplicationContext jobContext1 = this.createJobContext();
+            AnnotationConfigApplicationContext jobContext2 = this.createJobContext()
+        ) {
+            final ExecutionContext executionContext1 = jobContext1.getBean(ExecutionContext.class);
+            final ExecutionContext executionContext2 = jobContext2.getBean(ExecutionContext.class);
+            Assert.assertNotSame(executionContext1, executionContext2);
+            Assert.assertNotSame(this.applicationContext.getBean(ExecutionContext.class), executionContext1);
+
+            Assert.assertNotSame(
+                jobContext1.getBean(JobExecutionStateMachine.class),
+                jobContext2.getBean(JobExecutionStateMachine.class)
+            );
+
+            Assert.assertSame(
+                this.applicationContext.getBean(FetchingCacheService.class),
+                jobContext1.getBean(FetchingCacheService.class)
+            );
+            Assert.assertSame(
+                jobContext1.getBean(FetchingCacheService.class),
+                jobContext2.getBean(FetchingCacheService.class)
+            );
+        }
+    }
+
+    private AnnotationConfigApplicationContext createJobContext() {
+        final AnnotationConfigApplicationContext jobContext = new AnnotationConfigApplicationContext();
+        jobContext.setParent(this.applicationContext);
+        jobContext.register(JobExecutionConfig.class);
+        jobContext.refresh();
+        return jobContext;
+    }
+}
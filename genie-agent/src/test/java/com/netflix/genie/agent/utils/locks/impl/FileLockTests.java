@@ -20,11 +20,17 @@ package com.netflix.genie.agent.utils.locks.impl;
 import com.netflix.genie.agent.execution.exceptions.LockException;
 import com.netflix.genie.agent.utils.locks.CloseableLock;
 import com.netflix.genie.test.categories.UnitTest;
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tests for {@link FileLock}.
@@ -35,6 +41,12 @@ import java.io.IOException;
 @Category(UnitTest.class)
 public class FileLockTests {
 
+    /**
+     * Temporary folder for the locked files.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     /**
      * Make sure close method for a FileLock gets called .
      *
@@ -72,4 +84,31 @@ public class FileLockTests {
             mockLock, Mockito.times(1)
         ).close();
     }
+
+    /**
+     * Make sure threads of the same JVM wait for each other to release the lock on a file rather than fail.
+     *
+     * @throws Exception when the test fails
+     */
+    @Test
+    public void canLockSameFileFromMultipleThreads() throws Exception {
+        final File file = this.temporaryFolder.newFile();
+        final CountDownLatch otherLockAcquired = new CountDownLatch(1);
+        try (final CloseableLock lock = new FileLock(file)) {
+            lock.lock();
+            final Thread otherThread = new Thread(
+                () -> {
+                    try (final CloseableLock otherLock = new FileLock(file)) {
+                        otherLock.lock();
+                        otherLockAcquired.countDown();
+                    } catch (final IOException | LockException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            );
+            otherThread.start();
+            Assert.assertFalse(otherLockAcquired.await(100, TimeUnit.MILLISECONDS));
+        }
+        Assert.assertTrue(otherLockAcquired.await(10, TimeUnit.SECONDS));
+    }
 }
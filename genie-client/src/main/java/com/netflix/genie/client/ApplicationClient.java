@@ -17,7 +17,6 @@
  */
 package com.netflix.genie.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jsonpatch.JsonPatch;
 import com.netflix.genie.client.apis.ApplicationService;
 import com.netflix.genie.client.configs.GenieNetworkConfiguration;
@@ -31,9 +30,9 @@ import org.apache.commons.lang3.StringUtils;
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotEmpty;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Client library for the Application Service.
@@ -110,22 +109,17 @@ public class ApplicationClient extends BaseGenieClient {
         final List<String> tagList,
         final String type
     ) throws IOException {
-        final List<Application> applicationList = new ArrayList<>();
-        final JsonNode jNode = this.applicationService.getApplications(
-            name,
-            user,
-            statusList,
-            tagList,
-            type
-        ).execute().body()
-            .get("_embedded");
-        if (jNode != null) {
-            for (final JsonNode objNode : jNode.get("applicationList")) {
-                final Application application = this.treeToValue(objNode, Application.class);
-                applicationList.add(application);
-            }
-        }
-        return applicationList;
+        return this.embeddedToValues(
+            this.applicationService.getApplications(
+                name,
+                user,
+                statusList,
+                tagList,
+                type
+            ).execute().body(),
+            "applicationList",
+            Application.class
+        );
     }
 
     /**
@@ -486,4 +480,113 @@ public class ApplicationClient extends BaseGenieClient {
 
         applicationService.removeAllTagsForApplication(applicationId).execute();
     }
+
+    /* Asynchronous Methods */
+
+    /**
+     * Create an application in genie without blocking the calling thread.
+     *
+     * @param application An application object.
+     * @return A future completed with the id of the application created. Completed exceptionally with a
+     * {@link GenieClientException} if the response received is not 2xx or an {@link IOException} for network and
+     * other IO issues.
+     */
+    public CompletableFuture<String> createApplicationAsync(final Application application) {
+        if (application == null) {
+            throw new IllegalArgumentException("Application cannot be null.");
+        }
+        return this
+            .executeAsync(this.applicationService.createApplication(application))
+            .thenApply(response -> getIdFromLocation(response.headers().get("location")));
+    }
+
+    /**
+     * Get an application from Genie without blocking the calling thread.
+     *
+     * @param applicationId The id of the application to get.
+     * @return A future completed with the application details.
+     */
+    public CompletableFuture<Application> getApplicationAsync(final String applicationId) {
+        if (StringUtils.isEmpty(applicationId)) {
+            throw new IllegalArgumentException("Missing required parameter: applicationId.");
+        }
+        return this.executeAsyncForBody(this.applicationService.getApplication(applicationId));
+    }
+
+    /**
+     * Get the applications from Genie which match the query parameters specified without blocking the calling thread.
+     *
+     * @param name       The name of the applications.
+     * @param user       The user who created the application.
+     * @param statusList The list of Application statuses.
+     * @param tagList    The list of tags.
+     * @param type       The type of the application.
+     * @return A future completed with the matching applications.
+     */
+    public CompletableFuture<List<Application>> getApplicationsAsync(
+        final String name,
+        final String user,
+        final List<String> statusList,
+        final List<String> tagList,
+        final String type
+    ) {
+        return this.executeAsyncForEmbedded(
+            this.applicationService.getApplications(
+                name,
+                user,
+                statusList,
+                tagList,
+                type
+            ),
+            "applicationList",
+            Application.class
+        );
+    }
+
+    /**
+     * Update a application without blocking the calling thread.
+     *
+     * @param applicationId The id of the application.
+     * @param application   The updated application object to use.
+     * @return A future completed once the application was updated.
+     */
+    public CompletableFuture<Void> updateApplicationAsync(final String applicationId, final Application application) {
+        if (StringUtils.isEmpty(applicationId)) {
+            throw new IllegalArgumentException("Missing required parameter: applicationId.");
+        }
+        if (application == null) {
+            throw new IllegalArgumentException("Application cannot be null.");
+        }
+        return this.executeAsyncForBody(this.applicationService.updateApplication(applicationId, application));
+    }
+
+    /**
+     * Patch a application using json patch instructions without blocking the calling thread.
+     *
+     * @param applicationId The id of the application.
+     * @param patch         The patch object specifying all the instructions.
+     * @return A future completed once the application was patched.
+     */
+    public CompletableFuture<Void> patchApplicationAsync(final String applicationId, final JsonPatch patch) {
+        if (StringUtils.isEmpty(applicationId)) {
+            throw new IllegalArgumentException("Missing required parameter: applicationId.");
+        }
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null.");
+        }
+        return this.executeAsyncForBody(this.applicationService.patchApplication(applicationId, patch));
+    }
+
+    /**
+     * Delete a application from Genie without blocking the calling thread.
+     *
+     * @param applicationId The id of the application.
+     * @return A future completed once the application was deleted.
+     */
+    public CompletableFuture<Void> deleteApplicationAsync(final String applicationId) {
+        if (StringUtils.isEmpty(applicationId)) {
+            throw new IllegalArgumentException("Missing required parameter: applicationId.");
+        }
+        return this.executeAsyncForBody(this.applicationService.deleteApplication(applicationId));
+    }
 }
@@ -18,20 +18,33 @@
 package com.netflix.genie.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.netflix.genie.client.configs.GenieNetworkConfiguration;
 import com.netflix.genie.client.exceptions.GenieClientException;
 import com.netflix.genie.client.interceptors.ResponseMappingInterceptor;
 import com.netflix.genie.common.util.GenieObjectMapper;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.apache.commons.lang3.StringUtils;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotEmpty;
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -42,6 +55,10 @@ import java.util.concurrent.TimeUnit;
  */
 abstract class BaseGenieClient {
 
+    private final String url;
+    private final OkHttpClient client;
+    // Long polls get their own dispatcher so calls the server holds on to don't use up the per host limit
+    private final Dispatcher longPollDispatcher;
     private Retrofit retrofit;
 
     /**
@@ -74,12 +91,25 @@ abstract class BaseGenieClient {
         if (interceptors != null) {
             interceptors.forEach(builder::addInterceptor);
         }
-        final OkHttpClient client = builder.build();
+        this.url = url;
+        this.client = builder.build();
+        this.retrofit = this.buildRetrofit(this.client);
 
-        this.retrofit = new Retrofit.Builder()
-            .baseUrl(url)
+        final int maxLongPollRequestsPerHost = genieNetworkConfiguration == null
+            ? GenieNetworkConfiguration.DEFAULT_MAX_LONG_POLL_REQUESTS_PER_HOST
+            : genieNetworkConfiguration.getMaxLongPollRequestsPerHost();
+        this.longPollDispatcher = new Dispatcher();
+        this.longPollDispatcher.setMaxRequests(
+            Math.max(maxLongPollRequestsPerHost, this.longPollDispatcher.getMaxRequests())
+        );
+        this.longPollDispatcher.setMaxRequestsPerHost(maxLongPollRequestsPerHost);
+    }
+
+    private Retrofit buildRetrofit(final OkHttpClient okHttpClient) {
+        return new Retrofit.Builder()
+            .baseUrl(this.url)
             .addConverterFactory(JacksonConverterFactory.create(GenieObjectMapper.getMapper()))
-            .client(client)
+            .client(okHttpClient)
             .build();
     }
 
@@ -101,6 +131,34 @@ abstract class BaseGenieClient {
         }
 
         builder.retryOnConnectionFailure(genieNetworkConfiguration.isRetryOnConnectionFailure());
+
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(genieNetworkConfiguration.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(genieNetworkConfiguration.getMaxRequestsPerHost());
+        builder.dispatcher(dispatcher);
+
+        builder.connectionPool(
+            new ConnectionPool(
+                genieNetworkConfiguration.getMaxIdleConnections(),
+                genieNetworkConfiguration.getKeepAliveDuration(),
+                TimeUnit.MILLISECONDS
+            )
+        );
+
+        if (genieNetworkConfiguration.isHttp2Enabled()) {
+            builder.protocols(Lists.newArrayList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        } else {
+            builder.protocols(Lists.newArrayList(Protocol.HTTP_1_1));
+        }
+
+        if (genieNetworkConfiguration.getCacheDirectory() != null) {
+            builder.cache(
+                new Cache(
+                    new File(genieNetworkConfiguration.getCacheDirectory()),
+                    genieNetworkConfiguration.getCacheSize()
+                )
+            );
+        }
     }
 
     /**
@@ -117,7 +175,132 @@ abstract class BaseGenieClient {
         return this.retrofit.create(clazz);
     }
 
+    /**
+     * Get a service for long polls, the calls the server deliberately holds on to until something happens. Its calls
+     * don't time out reading the response before the given time. Asynchronous calls run on a separate dispatcher
+     * limited by {@code maxLongPollRequestsPerHost} of the {@link GenieNetworkConfiguration} so they don't hold up the
+     * calls of the regular services while they wait. Connections are still shared.
+     *
+     * @param clazz          The service interface
+     * @param minReadTimeout The minimum read timeout of the calls in milliseconds
+     * @param <T>            The type of the service
+     * @return The service
+     */
+    <T> T getService(final Class<T> clazz, final long minReadTimeout) {
+        final OkHttpClient.Builder builder = this.client.newBuilder().dispatcher(this.longPollDispatcher);
+        // A read timeout of zero means the calls never time out
+        if (this.client.readTimeoutMillis() != 0 && this.client.readTimeoutMillis() < minReadTimeout) {
+            builder.readTimeout(minReadTimeout, TimeUnit.MILLISECONDS);
+        }
+        return this.buildRetrofit(builder.build()).create(clazz);
+    }
+
+    /**
+     * Get the response cache of the client.
+     *
+     * @return The cache or null if no cache directory was configured
+     */
+    @VisibleForTesting
+    @Nullable
+    Cache getCache() {
+        return this.client.cache();
+    }
+
+    /**
+     * Execute a call without blocking the calling thread. Cancelling the returned future cancels the call.
+     *
+     * @param call The call to execute
+     * @param <T>  The type of the body of the response
+     * @return A future completed with the response, or exceptionally with the error the call failed with
+     */
+    <T> CompletableFuture<Response<T>> executeAsync(final Call<T> call) {
+        final CompletableFuture<Response<T>> future = new CompletableFuture<>();
+        call.enqueue(
+            new Callback<T>() {
+                @Override
+                public void onResponse(final Call<T> c, final Response<T> response) {
+                    future.complete(response);
+                }
+
+                @Override
+                public void onFailure(final Call<T> c, final Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }
+        );
+        future.whenComplete(
+            (response, throwable) -> {
+                if (future.isCancelled()) {
+                    call.cancel();
+                }
+            }
+        );
+        return future;
+    }
+
+    /**
+     * Execute a call without blocking the calling thread and only keep the body of the response.
+     *
+     * @param call The call to execute
+     * @param <T>  The type of the body of the response
+     * @return A future completed with the body of the response
+     */
+    <T> CompletableFuture<T> executeAsyncForBody(final Call<T> call) {
+        return this.executeAsync(call).thenApply(Response::body);
+    }
+
     <T> T treeToValue(final JsonNode node, final Class<T> clazz) throws IOException {
         return GenieObjectMapper.getMapper().treeToValue(node, clazz);
     }
+
+    /**
+     * Read the resources embedded in the body of a search response.
+     *
+     * @param body     The body of the search response
+     * @param listName The name of the embedded list, e.g. clusterList
+     * @param clazz    The type of the resources
+     * @param <T>      The type of the resources
+     * @return The resources found. Empty if the search didn't match anything
+     * @throws IOException If a resource can't be read
+     */
+    <T> List<T> embeddedToValues(
+        final JsonNode body,
+        final String listName,
+        final Class<T> clazz
+    ) throws IOException {
+        final List<T> values = new ArrayList<>();
+        final JsonNode embedded = body.get("_embedded");
+        if (embedded != null) {
+            for (final JsonNode node : embedded.get(listName)) {
+                values.add(this.treeToValue(node, clazz));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Execute a search call without blocking the calling thread and read the resources embedded in the response.
+     *
+     * @param call     The search call to execute
+     * @param listName The name of the embedded list, e.g. clusterList
+     * @param clazz    The type of the resources
+     * @param <T>      The type of the resources
+     * @return A future completed with the resources found
+     */
+    <T> CompletableFuture<List<T>> executeAsyncForEmbedded(
+        final Call<JsonNode> call,
+        final String listName,
+        final Class<T> clazz
+    ) {
+        return this.executeAsyncForBody(call).thenApply(
+            body -> {
+                // Checked exceptions can't be thrown within a future chain
+                try {
+                    return this.embeddedToValues(body, listName, clazz);
+                } catch (final IOException ioe) {
+                    throw new CompletionException(ioe);
+                }
+            }
+        );
+    }
 }
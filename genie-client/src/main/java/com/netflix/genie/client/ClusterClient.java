@@ -17,7 +17,6 @@
  */
 package com.netflix.genie.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jsonpatch.JsonPatch;
 import com.netflix.genie.client.apis.ClusterService;
 import com.netflix.genie.client.configs.GenieNetworkConfiguration;
@@ -31,9 +30,9 @@ import org.apache.commons.lang3.StringUtils;
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotEmpty;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Client library for the Cluster Service.
@@ -119,22 +118,17 @@ public class ClusterClient extends BaseGenieClient {
         final Long maxUpdateTime
     ) throws IOException, GenieClientException {
 
-        final List<Cluster> clusterList = new ArrayList<>();
-        final JsonNode jnode = clusterService.getClusters(
-            name,
-            statusList,
-            tagList,
-            minUpdateTime,
-            maxUpdateTime
-        ).execute().body()
-            .get("_embedded");
-        if (jnode != null) {
-            for (final JsonNode objNode : jnode.get("clusterList")) {
-                final Cluster cluster = this.treeToValue(objNode, Cluster.class);
-                clusterList.add(cluster);
-            }
-        }
-        return clusterList;
+        return this.embeddedToValues(
+            this.clusterService.getClusters(
+                name,
+                statusList,
+                tagList,
+                minUpdateTime,
+                maxUpdateTime
+            ).execute().body(),
+            "clusterList",
+            Cluster.class
+        );
     }
 
     /**
@@ -580,4 +574,113 @@ public class ClusterClient extends BaseGenieClient {
 
         clusterService.removeAllTagsForCluster(clusterId).execute();
     }
+
+    /* Asynchronous Methods */
+
+    /**
+     * Create a cluster in genie without blocking the calling thread.
+     *
+     * @param cluster A cluster object.
+     * @return A future completed with the id of the cluster created. Completed exceptionally with a
+     * {@link GenieClientException} if the response received is not 2xx or an {@link IOException} for network and
+     * other IO issues.
+     */
+    public CompletableFuture<String> createClusterAsync(final Cluster cluster) {
+        if (cluster == null) {
+            throw new IllegalArgumentException("Cluster cannot be null.");
+        }
+        return this
+            .executeAsync(this.clusterService.createCluster(cluster))
+            .thenApply(response -> getIdFromLocation(response.headers().get("location")));
+    }
+
+    /**
+     * Get a cluster from Genie without blocking the calling thread.
+     *
+     * @param clusterId The id of the cluster to get.
+     * @return A future completed with the cluster details.
+     */
+    public CompletableFuture<Cluster> getClusterAsync(final String clusterId) {
+        if (StringUtils.isEmpty(clusterId)) {
+            throw new IllegalArgumentException("Missing required parameter: clusterId.");
+        }
+        return this.executeAsyncForBody(this.clusterService.getCluster(clusterId));
+    }
+
+    /**
+     * Get the clusters from Genie which match the query parameters specified without blocking the calling thread.
+     *
+     * @param name          The name of the cluster.
+     * @param statusList    The list of statuses.
+     * @param tagList       The list of tags.
+     * @param minUpdateTime Minimum Time after which cluster was updated.
+     * @param maxUpdateTime Maximum Time before which cluster was updated.
+     * @return A future completed with the matching clusters.
+     */
+    public CompletableFuture<List<Cluster>> getClustersAsync(
+        final String name,
+        final List<String> statusList,
+        final List<String> tagList,
+        final Long minUpdateTime,
+        final Long maxUpdateTime
+    ) {
+        return this.executeAsyncForEmbedded(
+            this.clusterService.getClusters(
+                name,
+                statusList,
+                tagList,
+                minUpdateTime,
+                maxUpdateTime
+            ),
+            "clusterList",
+            Cluster.class
+        );
+    }
+
+    /**
+     * Update a cluster without blocking the calling thread.
+     *
+     * @param clusterId The id of the cluster.
+     * @param cluster   The updated cluster object to use.
+     * @return A future completed once the cluster was updated.
+     */
+    public CompletableFuture<Void> updateClusterAsync(final String clusterId, final Cluster cluster) {
+        if (StringUtils.isEmpty(clusterId)) {
+            throw new IllegalArgumentException("Missing required parameter: clusterId.");
+        }
+        if (cluster == null) {
+            throw new IllegalArgumentException("Cluster cannot be null.");
+        }
+        return this.executeAsyncForBody(this.clusterService.updateCluster(clusterId, cluster));
+    }
+
+    /**
+     * Patch a cluster using json patch instructions without blocking the calling thread.
+     *
+     * @param clusterId The id of the cluster.
+     * @param patch     The patch object specifying all the instructions.
+     * @return A future completed once the cluster was patched.
+     */
+    public CompletableFuture<Void> patchClusterAsync(final String clusterId, final JsonPatch patch) {
+        if (StringUtils.isEmpty(clusterId)) {
+            throw new IllegalArgumentException("Missing required parameter: clusterId.");
+        }
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null.");
+        }
+        return this.executeAsyncForBody(this.clusterService.patchCluster(clusterId, patch));
+    }
+
+    /**
+     * Delete a cluster from Genie without blocking the calling thread.
+     *
+     * @param clusterId The id of the cluster.
+     * @return A future completed once the cluster was deleted.
+     */
+    public CompletableFuture<Void> deleteClusterAsync(final String clusterId) {
+        if (StringUtils.isEmpty(clusterId)) {
+            throw new IllegalArgumentException("Missing required parameter: clusterId.");
+        }
+        return this.executeAsyncForBody(this.clusterService.deleteCluster(clusterId));
+    }
 }
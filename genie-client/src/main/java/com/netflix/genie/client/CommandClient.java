@@ -17,7 +17,6 @@
  */
 package com.netflix.genie.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jsonpatch.JsonPatch;
 import com.netflix.genie.client.apis.CommandService;
 import com.netflix.genie.client.configs.GenieNetworkConfiguration;
@@ -32,9 +31,9 @@ import org.apache.commons.lang3.StringUtils;
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotEmpty;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Client library for the Command Service.
@@ -111,21 +110,16 @@ public class CommandClient extends BaseGenieClient {
         final List<String> statusList,
         final List<String> tagList
     ) throws IOException, GenieClientException {
-        final List<Command> commandList = new ArrayList<>();
-        final JsonNode jNode = commandService.getCommands(
-            name,
-            user,
-            statusList,
-            tagList
-        ).execute().body()
-            .get("_embedded");
-        if (jNode != null) {
-            for (final JsonNode objNode : jNode.get("commandList")) {
-                final Command command = this.treeToValue(objNode, Command.class);
-                commandList.add(command);
-            }
-        }
-        return commandList;
+        return this.embeddedToValues(
+            this.commandService.getCommands(
+                name,
+                user,
+                statusList,
+                tagList
+            ).execute().body(),
+            "commandList",
+            Command.class
+        );
     }
 
     /**
@@ -588,4 +582,110 @@ public class CommandClient extends BaseGenieClient {
 
         commandService.removeAllTagsForCommand(commandId).execute();
     }
+
+    /* Asynchronous Methods */
+
+    /**
+     * Create a command in genie without blocking the calling thread.
+     *
+     * @param command A command object.
+     * @return A future completed with the id of the command created. Completed exceptionally with a
+     * {@link GenieClientException} if the response received is not 2xx or an {@link IOException} for network and
+     * other IO issues.
+     */
+    public CompletableFuture<String> createCommandAsync(final Command command) {
+        if (command == null) {
+            throw new IllegalArgumentException("Command cannot be null.");
+        }
+        return this
+            .executeAsync(this.commandService.createCommand(command))
+            .thenApply(response -> getIdFromLocation(response.headers().get("location")));
+    }
+
+    /**
+     * Get a command from Genie without blocking the calling thread.
+     *
+     * @param commandId The id of the command to get.
+     * @return A future completed with the command details.
+     */
+    public CompletableFuture<Command> getCommandAsync(final String commandId) {
+        if (StringUtils.isEmpty(commandId)) {
+            throw new IllegalArgumentException("Missing required parameter: commandId.");
+        }
+        return this.executeAsyncForBody(this.commandService.getCommand(commandId));
+    }
+
+    /**
+     * Get the commands from Genie which match the query parameters specified without blocking the calling thread.
+     *
+     * @param name       The name of the commands.
+     * @param user       The user who created the command.
+     * @param statusList The list of Command statuses.
+     * @param tagList    The list of tags.
+     * @return A future completed with the matching commands.
+     */
+    public CompletableFuture<List<Command>> getCommandsAsync(
+        final String name,
+        final String user,
+        final List<String> statusList,
+        final List<String> tagList
+    ) {
+        return this.executeAsyncForEmbedded(
+            this.commandService.getCommands(
+                name,
+                user,
+                statusList,
+                tagList
+            ),
+            "commandList",
+            Command.class
+        );
+    }
+
+    /**
+     * Update a command without blocking the calling thread.
+     *
+     * @param commandId The id of the command.
+     * @param command   The updated command object to use.
+     * @return A future completed once the command was updated.
+     */
+    public CompletableFuture<Void> updateCommandAsync(final String commandId, final Command command) {
+        if (StringUtils.isEmpty(commandId)) {
+            throw new IllegalArgumentException("Missing required parameter: commandId.");
+        }
+        if (command == null) {
+            throw new IllegalArgumentException("Command cannot be null.");
+        }
+        return this.executeAsyncForBody(this.commandService.updateCommand(commandId, command));
+    }
+
+    /**
+     * Patch a command using json patch instructions without blocking the calling thread.
+     *
+     * @param commandId The id of the command.
+     * @param patch     The patch object specifying all the instructions.
+     * @return A future completed once the command was patched.
+     */
+    public CompletableFuture<Void> patchCommandAsync(final String commandId, final JsonPatch patch) {
+        if (StringUtils.isEmpty(commandId)) {
+            throw new IllegalArgumentException("Missing required parameter: commandId.");
+        }
+        if (patch == null) {
+            throw new IllegalArgumentException("Patch cannot be null.");
+        }
+        return this.executeAsyncForBody(this.commandService.patchCommand(commandId, patch));
+    }
+
+    /**
+     * Delete a command from Genie without blocking the calling thread.
+     *
+     * @param commandId The id of the command.
+     * @return A future completed once the command was deleted.
+     */
+    public CompletableFuture<Void> deleteCommandAsync(final String commandId) {
+        if (StringUtils.isEmpty(commandId)) {
+            throw new IllegalArgumentException("Missing required parameter: commandId.");
+        }
+        return this.executeAsyncForBody(this.commandService.deleteCommand(commandId));
+    }
 }
@@ -18,7 +18,10 @@
 package com.netflix.genie.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.genie.client.apis.JobService;
 import com.netflix.genie.client.configs.GenieNetworkConfiguration;
 import com.netflix.genie.client.exceptions.GenieClientException;
@@ -30,6 +33,7 @@ import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobMetadata;
 import com.netflix.genie.common.dto.JobRequest;
 import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.dto.JobSubmissionResult;
 import com.netflix.genie.common.dto.search.JobSearchResult;
 import com.netflix.genie.common.exceptions.GeniePreconditionException;
 import com.netflix.genie.common.exceptions.GenieTimeoutException;
@@ -37,6 +41,7 @@ import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 import okio.BufferedSink;
 import org.apache.commons.lang3.StringUtils;
 import retrofit2.Response;
@@ -45,10 +50,33 @@ import javax.annotation.Nullable;
 import javax.validation.constraints.NotEmpty;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Client library for the Job Service.
@@ -61,9 +89,31 @@ public class JobClient extends BaseGenieClient {
     private static final String STATUS = "status";
     private static final String ATTACHMENT = "attachment";
     private static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+    // How long to ask the server to wait for a status change for at most in a single request
+    private static final long STATUS_WAIT_TIMEOUT = 30_000L;
+    private static final long STATUS_WAIT_READ_TIMEOUT_MARGIN = 10_000L;
+    // The most job ids the server accepts in a single bulk status request
+    private static final int MAX_BULK_JOB_IDS = 1_000;
+    // The most jobs the server accepts in a single batch submission by default
+    private static final int MAX_BATCH_JOBS = 1_000;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    // Appended to the name of a job output file while it's being downloaded
+    private static final String PARTIAL_FILE_SUFFIX = ".part";
+    private static final Set<String> STATUS_WAIT_STATUSES = JobStatus
+        .getActiveStatuses()
+        .stream()
+        .map(JobStatus::toString)
+        .collect(Collectors.toSet());
+
+    // Only used to delay status polls against servers which don't wait for status changes. Never blocks.
+    private static final ScheduledExecutorService STATUS_POLL_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("genie-client-status-poll-%d").build()
+    );
 
     private final JobService jobService;
+    private final JobService statusWaitJobService;
     private final int maxStatusRetries;
+    private final int maxDownloadRetries;
 
     /**
      * Constructor.
@@ -80,9 +130,16 @@ public class JobClient extends BaseGenieClient {
     ) throws GenieClientException {
         super(url, interceptors, genieNetworkConfiguration);
         this.jobService = this.getService(JobService.class);
+        this.statusWaitJobService = this.getService(
+            JobService.class,
+            STATUS_WAIT_TIMEOUT + STATUS_WAIT_READ_TIMEOUT_MARGIN
+        );
         this.maxStatusRetries = genieNetworkConfiguration == null
             ? GenieNetworkConfiguration.DEFAULT_NUM_RETRIES
             : genieNetworkConfiguration.getMaxStatusRetries();
+        this.maxDownloadRetries = genieNetworkConfiguration == null
+            ? GenieNetworkConfiguration.DEFAULT_NUM_RETRIES
+            : genieNetworkConfiguration.getMaxDownloadRetries();
     }
 
     /**
@@ -102,6 +159,28 @@ public class JobClient extends BaseGenieClient {
         return getIdFromLocation(this.jobService.submitJob(jobRequest).execute().headers().get("location"));
     }
 
+    /**
+     * Submit many jobs to genie at once. The jobs are sent to the server in as few requests as possible instead of one
+     * request per job.
+     *
+     * @param jobRequests The job requests containing all the details for running the jobs.
+     * @return The id of each job and whether the server accepted it, in the order of the job requests.
+     * @throws GenieClientException If the response recieved is not 2xx.
+     * @throws IOException          For Network and other IO issues.
+     */
+    public List<JobSubmissionResult> submitJobs(
+        final List<JobRequest> jobRequests
+    ) throws IOException, GenieClientException {
+        if (jobRequests == null || jobRequests.isEmpty()) {
+            throw new IllegalArgumentException("Job Requests cannot be null or empty.");
+        }
+        final List<JobSubmissionResult> results = new ArrayList<>(jobRequests.size());
+        for (final List<JobRequest> batch : Lists.partition(jobRequests, MAX_BATCH_JOBS)) {
+            results.addAll(this.jobService.submitJobs(batch).execute().body());
+        }
+        return results;
+    }
+
     /**
      * Submit a job to genie using the jobRequest and attachments provided.
      *
@@ -466,6 +545,207 @@ public class JobClient extends BaseGenieClient {
         return jobService.getJobStderr(jobId).execute().body().byteStream();
     }
 
+    /**
+     * Download a file from the output directory of a job. The file is first downloaded next to the destination with a
+     * {@code .part} suffix and only moved to the destination once complete, replacing any existing file. If the
+     * partial file is left over from an earlier call the download resumes where it left off, which makes it safe to
+     * call again after a failure. Dropped connections are resumed the same way.
+     *
+     * @param jobId       The id of the job.
+     * @param path        The path of the file relative to the job directory, e.g. {@code genie/logs/genie.log}.
+     * @param destination The local file to download to.
+     * @throws GenieClientException If the response received is not 2xx.
+     * @throws IOException          For Network and other IO issues.
+     */
+    public void downloadJobOutputFile(
+        final String jobId,
+        final String path,
+        final Path destination
+    ) throws IOException, GenieClientException {
+        if (StringUtils.isEmpty(jobId)) {
+            throw new IllegalArgumentException("Missing required parameter: jobId.");
+        }
+        if (StringUtils.isEmpty(path)) {
+            throw new IllegalArgumentException("Missing required parameter: path.");
+        }
+        if (destination == null) {
+            throw new IllegalArgumentException("Missing required parameter: destination.");
+        }
+        this.downloadJobOutputFile(jobId, path, destination, -1L);
+    }
+
+    /**
+     * Download the whole output directory of a job. Files are downloaded concurrently and every file is resumed like
+     * in {@link #downloadJobOutputFile(String, String, Path)}. Files already downloaded by an earlier call are skipped
+     * if their size matches the size of the file on the server.
+     *
+     * @param jobId       The id of the job.
+     * @param destination The local directory to download to. Created if it doesn't exist.
+     * @param parallelism The most files to download at once.
+     * @throws GenieClientException If the response received is not 2xx.
+     * @throws IOException          For Network and other IO issues.
+     * @throws InterruptedException If interrupted while waiting for the downloads to finish.
+     */
+    public void downloadJobOutput(
+        final String jobId,
+        final Path destination,
+        final int parallelism
+    ) throws IOException, GenieClientException, InterruptedException {
+        if (StringUtils.isEmpty(jobId)) {
+            throw new IllegalArgumentException("Missing required parameter: jobId.");
+        }
+        if (destination == null) {
+            throw new IllegalArgumentException("Missing required parameter: destination.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+
+        final Map<String, Long> files = new LinkedHashMap<>();
+        this.listJobOutputFiles(jobId, "", files);
+        Files.createDirectories(destination);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            parallelism,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("genie-client-download-%d").build()
+        );
+        try {
+            final List<Future<Void>> downloads = new ArrayList<>(files.size());
+            for (final Map.Entry<String, Long> file : files.entrySet()) {
+                final Path fileDestination = destination.resolve(file.getKey()).normalize();
+                if (!fileDestination.startsWith(destination.normalize())) {
+                    throw new GenieClientException(
+                        "Job output file " + file.getKey() + " is outside the job directory"
+                    );
+                }
+                downloads.add(
+                    executor.submit(
+                        () -> {
+                            this.downloadJobOutputFile(jobId, file.getKey(), fileDestination, file.getValue());
+                            return null;
+                        }
+                    )
+                );
+            }
+            for (final Future<Void> download : downloads) {
+                try {
+                    download.get();
+                } catch (final ExecutionException ee) {
+                    if (ee.getCause() instanceof IOException) {
+                        throw (IOException) ee.getCause();
+                    }
+                    throw new GenieClientException("Failed to download job output: " + ee.getCause().getMessage());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void listJobOutputFiles(
+        final String jobId,
+        final String directory,
+        final Map<String, Long> files
+    ) throws IOException, GenieClientException {
+        final JsonNode listing = this.jobService
+            .getJobOutputDirectory(jobId, this.encodeOutputPath(directory))
+            .execute()
+            .body();
+        for (final JsonNode file : listing.path("files")) {
+            files.put(directory + file.get("name").asText(), file.get("size").asLong());
+        }
+        for (final JsonNode subdirectory : listing.path("directories")) {
+            // Directory names end with a slash
+            this.listJobOutputFiles(jobId, directory + subdirectory.get("name").asText(), files);
+        }
+    }
+
+    /**
+     * Download a job output file resuming from the end of the partial file left over by an earlier attempt if any.
+     *
+     * @param jobId        The id of the job
+     * @param path         The path of the file relative to the job directory
+     * @param destination  The local file
+     * @param expectedSize The size of the file on the server if known from the directory listing. Negative otherwise.
+     * @throws IOException On error
+     */
+    private void downloadJobOutputFile(
+        final String jobId,
+        final String path,
+        final Path destination,
+        final long expectedSize
+    ) throws IOException {
+        final Path parent = destination.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (expectedSize >= 0 && Files.isRegularFile(destination) && Files.size(destination) == expectedSize) {
+            // Already downloaded
+            return;
+        }
+        final Path partialDestination = destination.resolveSibling(destination.getFileName() + PARTIAL_FILE_SUFFIX);
+        final String encodedPath = this.encodeOutputPath(path);
+        int errorCount = 0;
+        while (true) {
+            long offset = Files.exists(partialDestination) ? Files.size(partialDestination) : 0L;
+            if (expectedSize >= 0 && offset > expectedSize) {
+                // Not a partial download of this file. Start over.
+                offset = 0L;
+            }
+
+            final Response<ResponseBody> response;
+            try {
+                response = this.jobService
+                    .getJobOutputFile(jobId, encodedPath, offset > 0 ? "bytes=" + offset + "-" : null)
+                    .execute();
+            } catch (final GenieClientException gce) {
+                if (offset > 0 && gce.getErrorCode() == HTTP_RANGE_NOT_SATISFIABLE) {
+                    // The file on the server is smaller than the partial download so it can't be part of it
+                    Files.delete(partialDestination);
+                    continue;
+                }
+                throw gce;
+            } catch (final IOException ioe) {
+                errorCount++;
+                if (errorCount >= this.maxDownloadRetries) {
+                    throw ioe;
+                }
+                continue;
+            }
+
+            // The server sends the whole file if it doesn't support ranges
+            final boolean append = offset > 0 && response.code() == HttpURLConnection.HTTP_PARTIAL;
+            try (
+                ResponseBody body = response.body();
+                OutputStream outputStream = append
+                    ? Files.newOutputStream(partialDestination, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                    : Files.newOutputStream(partialDestination)
+            ) {
+                ByteStreams.copy(body.byteStream(), outputStream);
+            } catch (final IOException ioe) {
+                // Most likely the connection dropped. Resume from what was written so far.
+                errorCount++;
+                if (errorCount >= this.maxDownloadRetries) {
+                    throw ioe;
+                }
+                continue;
+            }
+            Files.move(partialDestination, destination, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+    }
+
+    private String encodeOutputPath(final String path) throws UnsupportedEncodingException {
+        final StringBuilder encoded = new StringBuilder();
+        for (final String segment : StringUtils.splitPreserveAllTokens(path, '/')) {
+            if (encoded.length() > 0) {
+                encoded.append('/');
+            }
+            encoded.append(URLEncoder.encode(segment, StandardCharsets.UTF_8.name()).replace("+", "%20"));
+        }
+        return encoded.toString();
+    }
+
     /**
      * Method to fetch the status of a job.
      *
@@ -480,7 +760,22 @@ public class JobClient extends BaseGenieClient {
         if (StringUtils.isEmpty(jobId)) {
             throw new IllegalArgumentException("Missing required parameter: jobId.");
         }
-        final JsonNode jsonNode = jobService.getJobStatus(jobId).execute().body();
+        return this.parseStatus(jobService.getJobStatus(jobId).execute().body());
+    }
+
+    private JobStatus waitForJobStatusChange(
+        final String jobId,
+        final long timeout
+    ) throws IOException, GenieClientException {
+        return this.parseStatus(
+            this.statusWaitJobService
+                .waitForJobStatusChange(jobId, STATUS_WAIT_STATUSES, timeout)
+                .execute()
+                .body()
+        );
+    }
+
+    private JobStatus parseStatus(final JsonNode jsonNode) throws GenieClientException {
         try {
             return JobStatus.parse(jsonNode.get(STATUS).asText());
         } catch (GeniePreconditionException ge) {
@@ -488,6 +783,46 @@ public class JobClient extends BaseGenieClient {
         }
     }
 
+    // Parse the status within a future chain where checked exceptions can't be thrown
+    private JobStatus parseStatusUnchecked(final JsonNode jsonNode) {
+        try {
+            return this.parseStatus(jsonNode);
+        } catch (final GenieClientException gce) {
+            throw new CompletionException(gce);
+        }
+    }
+
+    /**
+     * Method to fetch the status of many jobs at once. The ids are sent to the server in as few requests as possible
+     * instead of one request per job.
+     *
+     * @param jobIds The ids of the jobs.
+     * @return Map of job id to the status of the job. Ids which don't match any job are left out.
+     * @throws GenieClientException If the response recieved is not 2xx.
+     * @throws IOException          For Network and other IO issues.
+     */
+    public Map<String, JobStatus> getJobStatuses(
+        final Collection<String> jobIds
+    ) throws IOException, GenieClientException {
+        if (jobIds == null) {
+            throw new IllegalArgumentException("Missing required parameter: jobIds.");
+        }
+        final Map<String, JobStatus> statuses = new HashMap<>();
+        for (final List<String> batch : Iterables.partition(new HashSet<>(jobIds), MAX_BULK_JOB_IDS)) {
+            final JsonNode jsonNode = this.jobService.getJobStatuses(new HashSet<>(batch), false).execute().body();
+            final Iterator<Map.Entry<String, JsonNode>> jobs = jsonNode.fields();
+            while (jobs.hasNext()) {
+                final Map.Entry<String, JsonNode> job = jobs.next();
+                try {
+                    statuses.put(job.getKey(), JobStatus.parse(job.getValue().get(STATUS).asText()));
+                } catch (GeniePreconditionException ge) {
+                    throw new GenieClientException(ge.getMessage());
+                }
+            }
+        }
+        return statuses;
+    }
+
     /**
      * Method to send a kill job request to Genie.
      *
@@ -503,12 +838,14 @@ public class JobClient extends BaseGenieClient {
     }
 
     /**
-     * Wait for job to complete, until the given timeout.
+     * Wait for job to complete, until the given timeout. The server is asked to hold on to each status request until
+     * the job finished so the completion is noticed as soon as it happens. Against servers which answer right away
+     * this falls back to polling.
      *
      * @param jobId        the Genie job ID to wait for completion
      * @param blockTimeout the time to block for (in ms), after which a
      *                     GenieClientException will be thrown
-     * @param pollTime     the time to sleep between polling for job status
+     * @param pollTime     the time to sleep between polling for job status when the server didn't wait
      * @return The job status for the job after completion
      * @throws InterruptedException  on thread errors.
      * @throws GenieClientException  If the response received is not 2xx.
@@ -526,8 +863,11 @@ public class JobClient extends BaseGenieClient {
 
         // wait for job to finish
         while (true) {
+            final long waitStartTime = System.currentTimeMillis();
+            final long remaining = Math.max(blockTimeout - (waitStartTime - startTime), 0L);
+            final long waitTimeout = Math.min(remaining, STATUS_WAIT_TIMEOUT);
             try {
-                final JobStatus status = this.getJobStatus(jobId);
+                final JobStatus status = this.waitForJobStatusChange(jobId, waitTimeout);
 
                 if (status.isFinished()) {
                     return status;
@@ -543,8 +883,12 @@ public class JobClient extends BaseGenieClient {
                 }
             }
 
-            if (System.currentTimeMillis() - startTime < blockTimeout) {
-                Thread.sleep(pollTime);
+            final long now = System.currentTimeMillis();
+            if (now - startTime < blockTimeout) {
+                // The server didn't wait either because it doesn't support it or the request failed
+                if (now - waitStartTime < waitTimeout) {
+                    Thread.sleep(pollTime);
+                }
             } else {
                 throw new GenieTimeoutException("Timed out waiting for job to finish");
             }
@@ -571,4 +915,206 @@ public class JobClient extends BaseGenieClient {
         final long pollTime = 10000L;
         return waitForCompletion(jobId, blockTimeout, pollTime);
     }
+
+    /* Asynchronous Methods */
+
+    /**
+     * Submit a job to genie without blocking the calling thread.
+     *
+     * @param jobRequest A job request containing all the details for running a job.
+     * @return A future completed with the id of the job submitted. Completed exceptionally with a
+     * {@link GenieClientException} if the response received is not 2xx or an {@link IOException} for network and
+     * other IO issues.
+     */
+    public CompletableFuture<String> submitJobAsync(final JobRequest jobRequest) {
+        if (jobRequest == null) {
+            throw new IllegalArgumentException("Job Request cannot be null.");
+        }
+        return this
+            .executeAsync(this.jobService.submitJob(jobRequest))
+            .thenApply(response -> getIdFromLocation(response.headers().get("location")));
+    }
+
+    /**
+     * Get a job from Genie without blocking the calling thread.
+     *
+     * @param jobId The id of the job to get.
+     * @return A future completed with the job details.
+     */
+    public CompletableFuture<Job> getJobAsync(final String jobId) {
+        if (StringUtils.isEmpty(jobId)) {
+            throw new IllegalArgumentException("Missing required parameter: jobId.");
+        }
+        return this.executeAsyncForBody(this.jobService.getJob(jobId));
+    }
+
+    /**
+     * Get the jobs from Genie which match the query parameters specified without blocking the calling thread. A
+     * search which doesn't match any job completes with an empty list.
+     *
+     * @param id               id for job
+     * @param name             name of job (can be a SQL-style pattern such as HIVE%)
+     * @param user             user who submitted job
+     * @param statuses         statuses of jobs to find
+     * @param tags             tags for the job
+     * @param clusterName      the name of the cluster
+     * @param clusterId        the id of the cluster
+     * @param commandName      the name of the command run by the job
+     * @param commandId        the id of the command run by the job
+     * @param minStarted       The time which the job had to start after in order to be return (inclusive)
+     * @param maxStarted       The time which the job had to start before in order to be returned (exclusive)
+     * @param minFinished      The time which the job had to finish after in order to be return (inclusive)
+     * @param maxFinished      The time which the job had to finish before in order to be returned (exclusive)
+     * @param grouping         The grouping the job should be a member of
+     * @param groupingInstance The grouping instance the job should be a member of
+     * @return A future completed with the matching jobs.
+     */
+    public CompletableFuture<List<JobSearchResult>> getJobsAsync(
+        @Nullable final String id,
+        @Nullable final String name,
+        @Nullable final String user,
+        @Nullable final Set<String> statuses,
+        @Nullable final Set<String> tags,
+        @Nullable final String clusterName,
+        @Nullable final String clusterId,
+        @Nullable final String commandName,
+        @Nullable final String commandId,
+        @Nullable final Long minStarted,
+        @Nullable final Long maxStarted,
+        @Nullable final Long minFinished,
+        @Nullable final Long maxFinished,
+        @Nullable final String grouping,
+        @Nullable final String groupingInstance
+    ) {
+        return this.executeAsyncForEmbedded(
+            this.jobService.getJobs(
+                id,
+                name,
+                user,
+                statuses,
+                tags,
+                clusterName,
+                clusterId,
+                commandName,
+                commandId,
+                minStarted,
+                maxStarted,
+                minFinished,
+                maxFinished,
+                grouping,
+                groupingInstance
+            ),
+            "jobSearchResultList",
+            JobSearchResult.class
+        );
+    }
+
+    /**
+     * Fetch the status of a job without blocking the calling thread.
+     *
+     * @param jobId The id of the job.
+     * @return A future completed with the status of the job.
+     */
+    public CompletableFuture<JobStatus> getJobStatusAsync(final String jobId) {
+        if (StringUtils.isEmpty(jobId)) {
+            throw new IllegalArgumentException("Missing required parameter: jobId.");
+        }
+        return this.executeAsyncForBody(this.jobService.getJobStatus(jobId)).thenApply(this::parseStatusUnchecked);
+    }
+
+    /**
+     * Send a kill job request to Genie without blocking the calling thread.
+     *
+     * @param jobId The id of the job.
+     * @return A future completed once Genie accepted the kill request.
+     */
+    public CompletableFuture<Void> killJobAsync(final String jobId) {
+        if (StringUtils.isEmpty(jobId)) {
+            throw new IllegalArgumentException("Missing required parameter: jobId.");
+        }
+        return this.executeAsyncForBody(this.jobService.killJob(jobId));
+    }
+
+    /**
+     * Wait for a job to complete without blocking the calling thread or holding on to a thread while waiting. Works
+     * like {@link #waitForCompletion(String, long, long)} with every status request sent asynchronously so many jobs
+     * can be waited on at once. The status requests are long polls so at most {@code maxLongPollRequestsPerHost} of
+     * the {@link GenieNetworkConfiguration} jobs are actually waited on at the same time, the requests for the others
+     * are queued until one returns. They don't count against {@code maxRequestsPerHost}.
+     *
+     * @param jobId        the Genie job ID to wait for completion
+     * @param blockTimeout the time to wait for (in ms), after which the future is completed exceptionally with a
+     *                     {@link GenieTimeoutException}
+     * @param pollTime     the time to wait between polling for job status when the server didn't wait
+     * @return A future completed with the job status for the job after completion
+     */
+    public CompletableFuture<JobStatus> waitForCompletionAsync(
+        final String jobId,
+        final long blockTimeout,
+        final long pollTime
+    ) {
+        if (StringUtils.isEmpty(jobId)) {
+            throw new IllegalArgumentException("Missing required parameter: jobId.");
+        }
+        final CompletableFuture<JobStatus> result = new CompletableFuture<>();
+        this.waitForCompletionAsync(jobId, System.currentTimeMillis(), blockTimeout, pollTime, 0, result);
+        return result;
+    }
+
+    private void waitForCompletionAsync(
+        final String jobId,
+        final long startTime,
+        final long blockTimeout,
+        final long pollTime,
+        final int errorCount,
+        final CompletableFuture<JobStatus> result
+    ) {
+        if (result.isDone()) {
+            // Cancelled by the caller
+            return;
+        }
+        final long waitStartTime = System.currentTimeMillis();
+        final long remaining = Math.max(blockTimeout - (waitStartTime - startTime), 0L);
+        final long waitTimeout = Math.min(remaining, STATUS_WAIT_TIMEOUT);
+        this
+            .executeAsyncForBody(
+                this.statusWaitJobService.waitForJobStatusChange(jobId, STATUS_WAIT_STATUSES, waitTimeout)
+            )
+            .thenApply(this::parseStatusUnchecked)
+            .whenComplete(
+                (status, throwable) -> {
+                    final int errors;
+                    if (throwable != null) {
+                        final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause()
+                            : throwable;
+                        // Ignore IO errors for a few times in a row
+                        if (!(cause instanceof IOException) || errorCount + 1 >= this.maxStatusRetries) {
+                            result.completeExceptionally(cause);
+                            return;
+                        }
+                        errors = errorCount + 1;
+                    } else if (status.isFinished()) {
+                        result.complete(status);
+                        return;
+                    } else {
+                        errors = 0;
+                    }
+
+                    final long now = System.currentTimeMillis();
+                    if (now - startTime >= blockTimeout) {
+                        result.completeExceptionally(new GenieTimeoutException("Timed out waiting for job to finish"));
+                    } else if (now - waitStartTime < waitTimeout) {
+                        // The server didn't wait either because it doesn't support it or the request failed
+                        STATUS_POLL_SCHEDULER.schedule(
+                            () -> this.waitForCompletionAsync(jobId, startTime, blockTimeout, pollTime, errors, result),
+                            pollTime,
+                            TimeUnit.MILLISECONDS
+                        );
+                    } else {
+                        this.waitForCompletionAsync(jobId, startTime, blockTimeout, pollTime, errors, result);
+                    }
+                }
+            );
+    }
 }
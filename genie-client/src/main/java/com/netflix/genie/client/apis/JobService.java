@@ -25,12 +25,14 @@ import com.netflix.genie.common.dto.Job;
 import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobMetadata;
 import com.netflix.genie.common.dto.JobRequest;
+import com.netflix.genie.common.dto.JobSubmissionResult;
 import okhttp3.MultipartBody;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.Part;
@@ -38,6 +40,7 @@ import retrofit2.http.Path;
 import retrofit2.http.Query;
 import retrofit2.http.Streaming;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Set;
 
@@ -63,6 +66,15 @@ public interface JobService {
     @POST(JOBS_URL_SUFFIX)
     Call<Void> submitJob(@Body final JobRequest request);
 
+    /**
+     * Submit many jobs to Genie at once.
+     *
+     * @param requests The requests of the jobs to submit
+     * @return A callable object.
+     */
+    @POST(JOBS_URL_SUFFIX + "/batch")
+    Call<List<JobSubmissionResult>> submitJobs(@Body final List<JobRequest> requests);
+
     /**
      * Submit a job with attachments.
      *
@@ -144,6 +156,36 @@ public interface JobService {
     @GET(JOBS_URL_SUFFIX + "/{id}/output/stderr")
     Call<ResponseBody> getJobStderr(@Path("id") final String jobId);
 
+    /**
+     * Fetch a file from the output directory of a job. Supports fetching only part of the file.
+     *
+     * @param jobId The id of the job
+     * @param path  The path of the file relative to the job directory. Must already be URL encoded.
+     * @param range The byte range of the file to fetch, e.g. {@code bytes=1024-}. Null for the whole file.
+     * @return A callable object.
+     */
+    @Streaming
+    @GET(JOBS_URL_SUFFIX + "/{id}/output/{path}")
+    Call<ResponseBody> getJobOutputFile(
+        @Path("id") final String jobId,
+        @Path(value = "path", encoded = true) final String path,
+        @Nullable @Header("Range") final String range
+    );
+
+    /**
+     * List the contents of a directory within the output directory of a job.
+     *
+     * @param jobId The id of the job
+     * @param path  The path of the directory relative to the job directory ending with a slash. Empty for the job
+     *              directory itself. Must already be URL encoded.
+     * @return A callable object returning the files and directories within the directory
+     */
+    @GET(JOBS_URL_SUFFIX + "/{id}/output/{path}")
+    Call<JsonNode> getJobOutputDirectory(
+        @Path("id") final String jobId,
+        @Path(value = "path", encoded = true) final String path
+    );
+
     /**
      * Method to get Job status.
      *
@@ -153,6 +195,35 @@ public interface JobService {
     @GET(JOBS_URL_SUFFIX + "/{id}/status")
     Call<JsonNode> getJobStatus(@Path("id") final String jobId);
 
+    /**
+     * Method to get the status of many jobs at once.
+     *
+     * @param jobIds           The ids of the jobs whose status is desired.
+     * @param includeExecution Whether the execution information of the jobs should be returned as well.
+     * @return A callable object.
+     */
+    @POST(JOBS_URL_SUFFIX + "/statuses")
+    Call<JsonNode> getJobStatuses(
+        @Body final Set<String> jobIds,
+        @Query("includeExecution") final boolean includeExecution
+    );
+
+    /**
+     * Method to get the Job status once it's no longer one of the given statuses. The server holds on to the request
+     * until the status changes or the timeout expires. Servers which don't support waiting answer right away.
+     *
+     * @param jobId    The id of the job whose status is desired.
+     * @param statuses The statuses to wait while the job is in.
+     * @param timeout  How long the server should wait for in milliseconds.
+     * @return A callable object.
+     */
+    @GET(JOBS_URL_SUFFIX + "/{id}/status")
+    Call<JsonNode> waitForJobStatusChange(
+        @Path("id") final String jobId,
+        @Query("waitWhileStatus") final Set<String> statuses,
+        @Query("timeout") final long timeout
+    );
+
     /**
      * Method to get the cluster information on which a job is run.
      *
@@ -20,6 +20,8 @@ package com.netflix.genie.client.configs;
 import lombok.Getter;
 import lombok.Setter;
 
+import javax.annotation.Nullable;
+
 /**
  * An object that encapsulates network configurations for Genie client HTTP requests.
  *
@@ -40,6 +42,36 @@ public class GenieNetworkConfiguration {
      */
     public static final int DEFAULT_NUM_RETRIES = 5;
 
+    /**
+     * The default maximum number of requests executing concurrently.
+     */
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+
+    /**
+     * The default maximum number of requests executing concurrently against a single host.
+     */
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+    /**
+     * The default maximum number of long poll requests waiting on a single host concurrently.
+     */
+    public static final int DEFAULT_MAX_LONG_POLL_REQUESTS_PER_HOST = 64;
+
+    /**
+     * The default maximum number of idle connections kept in the connection pool.
+     */
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+    /**
+     * The default time in milliseconds idle connections are kept in the connection pool for.
+     */
+    public static final long DEFAULT_KEEP_ALIVE_DURATION = 300_000L;
+
+    /**
+     * The default maximum size in bytes of the HTTP response cache.
+     */
+    public static final long DEFAULT_CACHE_SIZE = 10L * 1024 * 1024;
+
     // The default read timeout for new connections.
     private long readTimeout = DEFAULT_TIMEOUT;
 
@@ -54,4 +86,38 @@ public class GenieNetworkConfiguration {
 
     // The number of times to retry checks for job status within wait for completion
     private int maxStatusRetries = DEFAULT_NUM_RETRIES;
+
+    // The number of times to resume a job output download after the connection dropped
+    private int maxDownloadRetries = DEFAULT_NUM_RETRIES;
+
+    // The maximum number of requests, including asynchronous ones, executing concurrently
+    private int maxRequests = DEFAULT_MAX_REQUESTS;
+
+    // The maximum number of requests, including asynchronous ones, executing concurrently against a single host.
+    // Asynchronous calls over the limit are queued until a running one finishes. Long polls, like the status requests
+    // of JobClient.waitForCompletionAsync which the server can hold for up to 30 seconds, don't count against this
+    // limit so they can't starve the other calls.
+    private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+
+    // The maximum number of asynchronous long poll requests waiting on a single host concurrently. Also caps the
+    // number of jobs JobClient.waitForCompletionAsync actually waits on at once; the status requests of any others
+    // are queued until one of the running ones returns.
+    private int maxLongPollRequestsPerHost = DEFAULT_MAX_LONG_POLL_REQUESTS_PER_HOST;
+
+    // The maximum number of idle connections kept in the connection pool
+    private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+
+    // How long in milliseconds idle connections are kept in the connection pool for
+    private long keepAliveDuration = DEFAULT_KEEP_ALIVE_DURATION;
+
+    // Whether to use HTTP/2 with servers which support it. HTTP/2 is negotiated during the TLS handshake.
+    private boolean http2Enabled = true;
+
+    // The directory to cache responses in. Cached clusters, commands and applications are revalidated with the
+    // server using their ETag and only sent again when they changed. No cache is used when not set.
+    @Nullable
+    private String cacheDirectory;
+
+    // The maximum size in bytes of the response cache
+    private long cacheSize = DEFAULT_CACHE_SIZE;
 }
@@ -21,23 +21,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonpatch.JsonPatch;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.netflix.genie.client.configs.GenieNetworkConfiguration;
+import com.netflix.genie.client.exceptions.GenieClientException;
 import com.netflix.genie.common.dto.Cluster;
 import com.netflix.genie.common.dto.ClusterStatus;
 import com.netflix.genie.common.dto.Command;
 import com.netflix.genie.common.dto.CommandStatus;
 import com.netflix.genie.common.util.GenieObjectMapper;
+import okhttp3.Cache;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -47,6 +55,12 @@ import java.util.UUID;
  */
 public class ClusterClientIntegrationTests extends GenieClientsIntegrationTestsBase {
 
+    /**
+     * Folder for the response cache.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private ClusterClient clusterClient;
     private CommandClient commandClient;
 
@@ -100,6 +114,73 @@ public class ClusterClientIntegrationTests extends GenieClientsIntegrationTestsB
         Assert.assertEquals(cluster.getStatus(), cstr.getStatus());
     }
 
+    /**
+     * Make sure a cluster can be created and fetched without blocking.
+     *
+     * @throws Exception If there is any problem.
+     */
+    @Test
+    public void testCanCreateAndGetClusterAsync() throws Exception {
+        final String id = UUID.randomUUID().toString();
+        final Cluster cluster = constructClusterDTO(id);
+
+        Assert.assertEquals(id, clusterClient.createClusterAsync(cluster).get(10, TimeUnit.SECONDS));
+
+        final Cluster cstr = clusterClient.getClusterAsync(id).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(cluster.getId(), cstr.getId());
+        Assert.assertEquals(cluster.getName(), cstr.getName());
+        Assert.assertEquals(cluster.getStatus(), cstr.getStatus());
+
+        try {
+            clusterClient.getClusterAsync(UUID.randomUUID().toString()).get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected the future to fail for a cluster which doesn't exist");
+        } catch (final ExecutionException ee) {
+            Assert.assertTrue(ee.getCause() instanceof GenieClientException);
+            final GenieClientException cause = (GenieClientException) ee.getCause();
+            Assert.assertEquals(HttpURLConnection.HTTP_NOT_FOUND, cause.getErrorCode());
+        }
+    }
+
+    /**
+     * Make sure a cluster can be searched for, updated, patched and deleted without blocking.
+     *
+     * @throws Exception If there is any problem.
+     */
+    @Test
+    public void testCanSearchUpdatePatchAndDeleteClusterAsync() throws Exception {
+        final String id = clusterClient.createCluster(constructClusterDTO(null));
+
+        final List<Cluster> clusters = clusterClient
+            .getClustersAsync(null, null, Lists.newArrayList("foo"), null, null)
+            .get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(1, clusters.size());
+        Assert.assertEquals(id, clusters.get(0).getId().orElseThrow(IllegalArgumentException::new));
+        Assert.assertTrue(
+            clusterClient
+                .getClustersAsync(null, null, Lists.newArrayList(UUID.randomUUID().toString()), null, null)
+                .get(10, TimeUnit.SECONDS)
+                .isEmpty()
+        );
+
+        final Cluster update = new Cluster.Builder("newname", "newuser", "2.0", ClusterStatus.OUT_OF_SERVICE)
+            .withId(id)
+            .build();
+        clusterClient.updateClusterAsync(id, update).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(ClusterStatus.OUT_OF_SERVICE, clusterClient.getCluster(id).getStatus());
+
+        final String newName = UUID.randomUUID().toString();
+        final JsonPatch patch = JsonPatch.fromJson(
+            GenieObjectMapper
+                .getMapper()
+                .readTree("[{ \"op\": \"replace\", \"path\": \"/name\", \"value\": \"" + newName + "\" }]")
+        );
+        clusterClient.patchClusterAsync(id, patch).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(newName, clusterClient.getCluster(id).getName());
+
+        clusterClient.deleteClusterAsync(id).get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(clusterClient.getClusters().isEmpty());
+    }
+
     /**
      * Test getting the clusters using the various query parameters.
      *
@@ -270,6 +351,37 @@ public class ClusterClientIntegrationTests extends GenieClientsIntegrationTestsB
         Assert.assertEquals(cluster4.getTags().contains("foo"), false);
     }
 
+    /**
+     * Make sure a cached cluster is revalidated with the server and only sent again once it changed.
+     *
+     * @throws Exception If there is any problem.
+     */
+    @Test
+    public void testCanRevalidateCachedCluster() throws Exception {
+        final GenieNetworkConfiguration networkConfiguration = new GenieNetworkConfiguration();
+        networkConfiguration.setCacheDirectory(this.temporaryFolder.newFolder().getAbsolutePath());
+        final ClusterClient cachingClusterClient = new ClusterClient(getBaseUrl(), null, networkConfiguration);
+        final Cache cache = cachingClusterClient.getCache();
+        Assert.assertNotNull(cache);
+
+        final Cluster cluster = constructClusterDTO(null);
+        final String id = cachingClusterClient.createCluster(cluster);
+
+        Assert.assertEquals(cluster.getName(), cachingClusterClient.getCluster(id).getName());
+        final int networkCount = cache.networkCount();
+        Assert.assertEquals(0, cache.hitCount());
+
+        // Unchanged so the server answers the conditional GET with a 304 and the body comes out of the cache
+        Assert.assertEquals(cluster.getName(), cachingClusterClient.getCluster(id).getName());
+        Assert.assertEquals(networkCount + 1, cache.networkCount());
+        Assert.assertEquals(1, cache.hitCount());
+
+        // Changing only the tags still changes the ETag so the new cluster is sent in full
+        cachingClusterClient.addTagsToCluster(id, Sets.newHashSet("baz"));
+        Assert.assertTrue(cachingClusterClient.getCluster(id).getTags().contains("baz"));
+        Assert.assertEquals(1, cache.hitCount());
+    }
+
     /**
      * Test all the methods that manipulate tags for a cluster in genie.
      *
@@ -37,7 +37,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
 
@@ -46,6 +48,9 @@ import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -75,6 +80,12 @@ public class JobClientIntegrationTests extends GenieClientsIntegrationTestsBase
     private static final String CLUSTER_NAME = "Cluster Name";
     private static final String COMMAND_NAME = "Command Name";
 
+    /**
+     * Local folder to download job output to.
+     */
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private ClusterClient clusterClient;
     private CommandClient commandClient;
     //private ApplicationClient applicationClient;
@@ -168,6 +179,45 @@ public class JobClientIntegrationTests extends GenieClientsIntegrationTestsBase
         Assert.assertEquals(COMMAND_NAME, jobClient.getJobCommand(jobId).getName());
     }
 
+    /**
+     * Make sure a job can be submitted and waited on without blocking.
+     *
+     * @throws Exception If there is any problem.
+     */
+    @Test
+    public void canSubmitJobAsync() throws Exception {
+        createClusterAndCommandForTest();
+
+        final String jobId = UUID.randomUUID().toString();
+        final JobRequest jobRequest = new JobRequest.Builder(
+            JOB_NAME,
+            JOB_USER,
+            JOB_VERSION,
+            Lists.newArrayList(new ClusterCriteria(Sets.newHashSet("laptop"))),
+            Sets.newHashSet("bash")
+        )
+            .withId(jobId)
+            .withCommandArgs(Lists.newArrayList("-c", "'echo HELLO WORLD!!!'"))
+            .withDisableLogArchival(true)
+            .build();
+
+        final JobStatus jobStatus = this.jobClient
+            .submitJobAsync(jobRequest)
+            .thenCompose(id -> this.jobClient.waitForCompletionAsync(id, 600000, 5000))
+            .get(600, TimeUnit.SECONDS);
+        Assert.assertEquals(JobStatus.SUCCEEDED, jobStatus);
+        Assert.assertEquals(JobStatus.SUCCEEDED, this.jobClient.getJobStatusAsync(jobId).get(10, TimeUnit.SECONDS));
+
+        final Job job = this.jobClient.getJobAsync(jobId).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(jobId, job.getId().orElseThrow(IllegalArgumentException::new));
+
+        final List<JobSearchResult> jobs = this.jobClient
+            .getJobsAsync(jobId, null, null, null, null, null, null, null, null, null, null, null, null, null, null)
+            .get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(1, jobs.size());
+        Assert.assertEquals(jobId, jobs.get(0).getId());
+    }
+
     /**
      * Method to test submitting/killing a job.
      *
@@ -710,6 +760,63 @@ public class JobClientIntegrationTests extends GenieClientsIntegrationTestsBase
         Assert.assertEquals("HELLO WORLD!!!", sb.toString());
     }
 
+    /**
+     * Make sure the output of a job can be downloaded and a partial download is resumed.
+     *
+     * @throws Exception If there is a problem.
+     */
+    @Test
+    public void testCanDownloadJobOutput() throws Exception {
+        createClusterAndCommandForTest();
+
+        final String jobId = UUID.randomUUID().toString();
+        final JobRequest jobRequest = new JobRequest.Builder(
+            JOB_NAME,
+            JOB_USER,
+            JOB_VERSION,
+            Lists.newArrayList(new ClusterCriteria(Sets.newHashSet("laptop"))),
+            Sets.newHashSet("bash")
+        )
+            .withId(jobId)
+            .withCommandArgs(Lists.newArrayList("-c", "'echo HELLO WORLD!!!'"))
+            .withDisableLogArchival(true)
+            .build();
+
+        this.jobClient.submitJob(jobRequest);
+        this.jobClient.waitForCompletion(jobId, 60000, 5000);
+
+        final Path stdout = this.temporaryFolder.getRoot().toPath().resolve("stdout");
+        this.jobClient.downloadJobOutputFile(jobId, "stdout", stdout);
+        Assert.assertEquals("HELLO WORLD!!!\n", new String(Files.readAllBytes(stdout), StandardCharsets.UTF_8));
+
+        // An existing file isn't mistaken for a partial download
+        Files.write(stdout, "HELLO".getBytes(StandardCharsets.UTF_8));
+        this.jobClient.downloadJobOutputFile(jobId, "stdout", stdout);
+        Assert.assertEquals("HELLO WORLD!!!\n", new String(Files.readAllBytes(stdout), StandardCharsets.UTF_8));
+
+        // Simulate a download which was cut off part way through
+        final Path partialStdout = this.temporaryFolder.getRoot().toPath().resolve("stdout.part");
+        Files.delete(stdout);
+        Files.write(partialStdout, "HELLO".getBytes(StandardCharsets.UTF_8));
+        this.jobClient.downloadJobOutputFile(jobId, "stdout", stdout);
+        Assert.assertEquals("HELLO WORLD!!!\n", new String(Files.readAllBytes(stdout), StandardCharsets.UTF_8));
+        Assert.assertFalse(Files.exists(partialStdout));
+
+        // A partial download which doesn't belong to the file on the server is discarded
+        Files.write(partialStdout, "HELLO WORLD AND MORE!!!".getBytes(StandardCharsets.UTF_8));
+        this.jobClient.downloadJobOutputFile(jobId, "stdout", stdout);
+        Assert.assertEquals("HELLO WORLD!!!\n", new String(Files.readAllBytes(stdout), StandardCharsets.UTF_8));
+
+        final Path jobDirectory = this.temporaryFolder.newFolder(jobId).toPath();
+        this.jobClient.downloadJobOutput(jobId, jobDirectory, 4);
+        Assert.assertEquals(
+            "HELLO WORLD!!!\n",
+            new String(Files.readAllBytes(jobDirectory.resolve("stdout")), StandardCharsets.UTF_8)
+        );
+        Assert.assertTrue(Files.exists(jobDirectory.resolve("run")));
+        Assert.assertTrue(Files.isDirectory(jobDirectory.resolve("genie")));
+    }
+
     /**
      * Method to test get stdout function.
      *
@@ -50,6 +50,10 @@ public enum JobStatus {
      * The job has been claimed by a running agent.
      */
     CLAIMED(true, false, false),
+    /**
+     * Job has been accepted and is waiting for resources to free up on the node before it's initialized.
+     */
+    QUEUED(true, false, false),
     /**
      * Job has been initialized, but not running yet.
      */
@@ -87,6 +87,17 @@ public final class JobStatusMessages {
     public static final String USER_REQUESTED_JOB_BE_KILLED_DURING_INITIALIZATION =
         "User requested job be killed during initialization";
 
+    /**
+     * Job was killed by user while waiting in the queue.
+     */
+    public static final String USER_REQUESTED_JOB_BE_KILLED_WHILE_QUEUED =
+        "User requested job be killed while queued";
+
+    /**
+     * Job was waiting in the queue before Genie stopped, and it cannot be re-queued after restart.
+     */
+    public static final String UNABLE_TO_RE_QUEUE_ON_STARTUP = "Unable to re-queue on startup";
+
     /**
      * Job precondition was not satisfied during initialization.
      */
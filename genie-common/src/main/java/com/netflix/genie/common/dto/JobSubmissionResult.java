@@ -0,0 +1,113 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.annotation.Nullable;
+import javax.validation.constraints.NotBlank;
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * The outcome of submitting a single job as part of a batch of jobs.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Getter
+@EqualsAndHashCode(doNotUseGetters = true)
+@ToString(doNotUseGetters = true)
+public class JobSubmissionResult implements Serializable {
+
+    private static final long serialVersionUID = -1378463019447294263L;
+
+    @NotBlank
+    private final String id;
+    private final boolean accepted;
+    @Nullable
+    private final Integer errorCode;
+    @Nullable
+    private final String errorMessage;
+
+    /**
+     * Constructor.
+     *
+     * @param id           The id of the job
+     * @param accepted     Whether the job was accepted
+     * @param errorCode    The HTTP status code the job would have been rejected with had it been submitted on its own.
+     *                     Null if the job was accepted
+     * @param errorMessage Why the job was rejected. Null if the job was accepted
+     */
+    @JsonCreator
+    public JobSubmissionResult(
+        @JsonProperty(value = "id", required = true) final String id,
+        @JsonProperty(value = "accepted", required = true) final boolean accepted,
+        @JsonProperty("errorCode") @Nullable final Integer errorCode,
+        @JsonProperty("errorMessage") @Nullable final String errorMessage
+    ) {
+        this.id = id;
+        this.accepted = accepted;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Create the result of a job which was accepted.
+     *
+     * @param id The id of the job
+     * @return The result
+     */
+    public static JobSubmissionResult accepted(final String id) {
+        return new JobSubmissionResult(id, true, null, null);
+    }
+
+    /**
+     * Create the result of a job which was rejected.
+     *
+     * @param id           The id of the job
+     * @param errorCode    The HTTP status code the job would have been rejected with had it been submitted on its own
+     * @param errorMessage Why the job was rejected
+     * @return The result
+     */
+    public static JobSubmissionResult rejected(final String id, final int errorCode, final String errorMessage) {
+        return new JobSubmissionResult(id, false, errorCode, errorMessage);
+    }
+
+    /**
+     * Get the HTTP status code the job would have been rejected with had it been submitted on its own.
+     *
+     * @return The error code or empty Optional if the job was accepted
+     */
+    public Optional<Integer> getErrorCode() {
+        return Optional.ofNullable(this.errorCode);
+    }
+
+    /**
+     * Get why the job was rejected.
+     *
+     * @return The error message or empty Optional if the job was accepted
+     */
+    public Optional<String> getErrorMessage() {
+        return Optional.ofNullable(this.errorMessage);
+    }
+}
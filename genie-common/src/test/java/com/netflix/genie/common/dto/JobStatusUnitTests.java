@@ -49,6 +49,7 @@ public class JobStatusUnitTests {
         Assert.assertEquals(JobStatus.RESOLVED, JobStatus.parse(JobStatus.RESOLVED.name().toLowerCase()));
         Assert.assertEquals(JobStatus.CLAIMED, JobStatus.parse(JobStatus.CLAIMED.name().toLowerCase()));
         Assert.assertEquals(JobStatus.ACCEPTED, JobStatus.parse(JobStatus.ACCEPTED.name().toLowerCase()));
+        Assert.assertEquals(JobStatus.QUEUED, JobStatus.parse(JobStatus.QUEUED.name().toLowerCase()));
     }
 
     /**
@@ -86,6 +87,7 @@ public class JobStatusUnitTests {
         Assert.assertTrue(JobStatus.RESOLVED.isActive());
         Assert.assertTrue(JobStatus.CLAIMED.isActive());
         Assert.assertTrue(JobStatus.ACCEPTED.isActive());
+        Assert.assertTrue(JobStatus.QUEUED.isActive());
     }
 
     /**
@@ -103,6 +105,7 @@ public class JobStatusUnitTests {
         Assert.assertFalse(JobStatus.RESOLVED.isFinished());
         Assert.assertFalse(JobStatus.CLAIMED.isFinished());
         Assert.assertFalse(JobStatus.ACCEPTED.isFinished());
+        Assert.assertFalse(JobStatus.QUEUED.isFinished());
     }
 
     /**
@@ -120,6 +123,7 @@ public class JobStatusUnitTests {
         Assert.assertFalse(JobStatus.RESOLVED.isResolvable());
         Assert.assertFalse(JobStatus.CLAIMED.isResolvable());
         Assert.assertFalse(JobStatus.ACCEPTED.isResolvable());
+        Assert.assertFalse(JobStatus.QUEUED.isResolvable());
     }
 
     /**
@@ -137,6 +141,7 @@ public class JobStatusUnitTests {
         Assert.assertTrue(JobStatus.RESOLVED.isClaimable());
         Assert.assertFalse(JobStatus.CLAIMED.isClaimable());
         Assert.assertTrue(JobStatus.ACCEPTED.isClaimable());
+        Assert.assertFalse(JobStatus.QUEUED.isClaimable());
     }
 
     /**
@@ -144,13 +149,14 @@ public class JobStatusUnitTests {
      */
     @Test
     public void testGetActivesStatuses() {
-        Assert.assertThat(JobStatus.getActiveStatuses().size(), Matchers.is(6));
+        Assert.assertThat(JobStatus.getActiveStatuses().size(), Matchers.is(7));
         Assert.assertTrue(JobStatus.getActiveStatuses().contains(JobStatus.INIT));
         Assert.assertTrue(JobStatus.getActiveStatuses().contains(JobStatus.RUNNING));
         Assert.assertTrue(JobStatus.getActiveStatuses().contains(JobStatus.RESERVED));
         Assert.assertTrue(JobStatus.getActiveStatuses().contains(JobStatus.RESOLVED));
         Assert.assertTrue(JobStatus.getActiveStatuses().contains(JobStatus.CLAIMED));
         Assert.assertTrue(JobStatus.getActiveStatuses().contains(JobStatus.ACCEPTED));
+        Assert.assertTrue(JobStatus.getActiveStatuses().contains(JobStatus.QUEUED));
     }
 
     /**
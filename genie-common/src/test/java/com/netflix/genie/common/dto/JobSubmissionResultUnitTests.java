@@ -0,0 +1,83 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.common.dto;
+
+import com.netflix.genie.common.util.GenieObjectMapper;
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Tests for JobSubmissionResult.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class JobSubmissionResultUnitTests {
+
+    /**
+     * Make sure accepted results have no error.
+     */
+    @Test
+    public void canCreateAccepted() {
+        final String id = UUID.randomUUID().toString();
+        final JobSubmissionResult result = JobSubmissionResult.accepted(id);
+        Assert.assertThat(result.getId(), Matchers.is(id));
+        Assert.assertTrue(result.isAccepted());
+        Assert.assertFalse(result.getErrorCode().isPresent());
+        Assert.assertFalse(result.getErrorMessage().isPresent());
+    }
+
+    /**
+     * Make sure rejected results keep why they were rejected.
+     */
+    @Test
+    public void canCreateRejected() {
+        final String id = UUID.randomUUID().toString();
+        final JobSubmissionResult result = JobSubmissionResult.rejected(id, 429, "Too many jobs");
+        Assert.assertThat(result.getId(), Matchers.is(id));
+        Assert.assertFalse(result.isAccepted());
+        Assert.assertThat(result.getErrorCode().orElse(null), Matchers.is(429));
+        Assert.assertThat(result.getErrorMessage().orElse(null), Matchers.is("Too many jobs"));
+    }
+
+    /**
+     * Make sure results survive a round trip through JSON.
+     *
+     * @throws IOException on error
+     */
+    @Test
+    public void canSerialize() throws IOException {
+        final JobSubmissionResult accepted = JobSubmissionResult.accepted(UUID.randomUUID().toString());
+        final JobSubmissionResult rejected = JobSubmissionResult.rejected(UUID.randomUUID().toString(), 412, "Bad");
+
+        for (final JobSubmissionResult result : new JobSubmissionResult[]{accepted, rejected}) {
+            final String json = GenieObjectMapper.getMapper().writeValueAsString(result);
+            Assert.assertThat(
+                GenieObjectMapper.getMapper().readValue(json, JobSubmissionResult.class),
+                Matchers.is(result)
+            );
+        }
+    }
+}
@@ -23,6 +23,7 @@ export default class Job extends Page {
         value: "",
         type: "select",
         selectFields: [
+          "QUEUED",
           "INIT",
           "RUNNING",
           "SUCCEEDED",
@@ -242,7 +242,8 @@ export default class JobDetails extends React.Component {
                   </td>
                 </tr>
                 {(this.state.job.status === "RUNNING" ||
-                  this.state.job.status === "INIT") &&
+                  this.state.job.status === "INIT" ||
+                  this.state.job.status === "QUEUED") &&
                 !this.state.killJobRequestSent
                   ? <tr>
                       <td>
@@ -0,0 +1,197 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.loadbalancers.script;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.ClusterCriteria;
+import com.netflix.genie.common.dto.ClusterStatus;
+import com.netflix.genie.common.dto.JobRequest;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.internal.dto.v4.Cluster;
+import com.netflix.genie.common.internal.dto.v4.ClusterMetadata;
+import com.netflix.genie.common.internal.dto.v4.ExecutionEnvironment;
+import com.netflix.genie.common.util.GenieObjectMapper;
+import com.netflix.genie.web.properties.ScriptLoadBalancerProperties;
+import com.netflix.genie.web.services.impl.GenieFileTransferService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of selecting a cluster with the {@link ScriptLoadBalancer} for different numbers of candidate
+ * clusters. The script parses the clusters and picks the last one so the cost of serializing the candidates is
+ * included.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScriptLoadBalancerBenchmark {
+
+    private static final String SCRIPT = "var candidates = JSON.parse(clusters);\n"
+        + "candidates[candidates.length - 1].id;\n";
+
+    @Param({"10", "50", "200"})
+    private int clusterCount;
+
+    private Path scriptDirectory;
+    private ThreadPoolTaskExecutor executor;
+    private ThreadPoolTaskScheduler scheduler;
+    private ScriptLoadBalancer loadBalancer;
+    private Set<Cluster> clusters;
+    private JobRequest jobRequest;
+
+    /**
+     * Compile the script and create the candidate clusters.
+     *
+     * @throws IOException    If the script can't be written
+     * @throws GenieException If the file transfer service can't be created
+     */
+    @Setup
+    public void setup() throws IOException, GenieException {
+        this.scriptDirectory = Files.createTempDirectory("genie-script-load-balancer-benchmark");
+        final Path script = Files.write(
+            this.scriptDirectory.resolve("loadBalance.js"),
+            SCRIPT.getBytes(StandardCharsets.UTF_8)
+        );
+
+        final Map<String, Object> properties = Maps.newHashMap();
+        properties.put(ScriptLoadBalancerProperties.SCRIPT_FILE_SOURCE_PROPERTY, script.toUri().toString());
+        properties.put(
+            ScriptLoadBalancerProperties.SCRIPT_FILE_DESTINATION_PROPERTY,
+            this.scriptDirectory.toUri().toString()
+        );
+        final StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(8);
+        this.executor.initialize();
+        this.scheduler = new ThreadPoolTaskScheduler();
+        this.scheduler.initialize();
+
+        this.loadBalancer = new ScriptLoadBalancer(
+            this.executor,
+            this.scheduler,
+            new LocalFileTransferService(),
+            environment,
+            GenieObjectMapper.getMapper(),
+            new SimpleMeterRegistry()
+        );
+        this.loadBalancer.refresh();
+
+        this.clusters = Sets.newHashSet();
+        for (int i = 0; i < this.clusterCount; i++) {
+            this.clusters.add(
+                new Cluster(
+                    "cluster" + i,
+                    Instant.now(),
+                    Instant.now(),
+                    new ExecutionEnvironment(null, null, null),
+                    new ClusterMetadata.Builder("cluster" + i, "genie", "1.0.0", ClusterStatus.UP)
+                        .withTags(Sets.newHashSet("sched:adhoc", "type:yarn", "ver:2.7." + i))
+                        .withDescription("Benchmark cluster " + i)
+                        .build()
+                )
+            );
+        }
+        this.jobRequest = new JobRequest.Builder(
+            "benchmark",
+            "genie",
+            "1.0.0",
+            Lists.newArrayList(new ClusterCriteria(Sets.newHashSet("sched:adhoc"))),
+            Sets.newHashSet("type:spark-submit")
+        ).build();
+    }
+
+    /**
+     * Stop the thread pools and delete the script.
+     *
+     * @throws IOException If the script directory can't be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        this.scheduler.shutdown();
+        this.executor.shutdown();
+        FileUtils.deleteDirectory(this.scriptDirectory.toFile());
+    }
+
+    /**
+     * Select a cluster from a single thread.
+     *
+     * @return The selected cluster
+     * @throws GenieException on error
+     */
+    @Benchmark
+    public Cluster selectCluster() throws GenieException {
+        return this.loadBalancer.selectCluster(this.clusters, this.jobRequest);
+    }
+
+    /**
+     * Select a cluster from several threads at once to include contention on the pool of script engines.
+     *
+     * @return The selected cluster
+     * @throws GenieException on error
+     */
+    @Benchmark
+    @Threads(4)
+    public Cluster selectClusterConcurrently() throws GenieException {
+        return this.loadBalancer.selectCluster(this.clusters, this.jobRequest);
+    }
+
+    /**
+     * The script is already on local disk so there is nothing to transfer.
+     */
+    private static final class LocalFileTransferService extends GenieFileTransferService {
+
+        LocalFileTransferService() throws GenieException {
+            super(null);
+        }
+
+        @Override
+        public void getFile(final String srcRemotePath, final String dstLocalPath) {
+            // The source and destination are the same file
+        }
+    }
+}
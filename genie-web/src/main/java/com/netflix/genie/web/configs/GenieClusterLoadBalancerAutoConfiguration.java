@@ -18,10 +18,13 @@
 package com.netflix.genie.web.configs;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.genie.web.properties.LoadAwareLoadBalancerProperties;
 import com.netflix.genie.web.properties.ScriptLoadBalancerProperties;
 import com.netflix.genie.web.services.ClusterLoadBalancer;
+import com.netflix.genie.web.services.JobSearchService;
 import com.netflix.genie.web.services.impl.GenieFileTransferService;
 import com.netflix.genie.web.services.impl.RandomizedClusterLoadBalancerImpl;
+import com.netflix.genie.web.services.loadbalancers.loadaware.LoadAwareLoadBalancer;
 import com.netflix.genie.web.services.loadbalancers.script.ScriptLoadBalancer;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
@@ -46,7 +49,8 @@ import org.springframework.scheduling.TaskScheduler;
 @Configuration
 @EnableConfigurationProperties(
     {
-        ScriptLoadBalancerProperties.class
+        ScriptLoadBalancerProperties.class,
+        LoadAwareLoadBalancerProperties.class
     }
 )
 @Slf4j
@@ -61,6 +65,13 @@ public class GenieClusterLoadBalancerAutoConfiguration {
      */
     public static final int SCRIPT_LOAD_BALANCER_PRECEDENCE = Ordered.LOWEST_PRECEDENCE - 50;
 
+    /**
+     * The relative order of the {@link LoadAwareLoadBalancer} if one is enabled. It's placed after the
+     * {@link ScriptLoadBalancer} so a configured script still gets the first say and before the default
+     * {@link RandomizedClusterLoadBalancerImpl}.
+     */
+    public static final int LOAD_AWARE_LOAD_BALANCER_PRECEDENCE = Ordered.LOWEST_PRECEDENCE - 25;
+
     /**
      * Produce the {@link ScriptLoadBalancer} instance to use for this Genie node if it was configured by the user.
      *
@@ -94,6 +105,28 @@ public class GenieClusterLoadBalancerAutoConfiguration {
         );
     }
 
+    /**
+     * Produce the {@link LoadAwareLoadBalancer} instance to use for this Genie node if it was configured by the user.
+     *
+     * @param jobSearchService The job search service to read the active job counts of clusters with
+     * @param properties       The properties of the load aware load balancer
+     * @param taskScheduler    The task scheduler to use
+     * @param registry         The meter registry for capturing metrics
+     * @return A {@link LoadAwareLoadBalancer} if one enabled
+     */
+    @Bean
+    @Order(LOAD_AWARE_LOAD_BALANCER_PRECEDENCE)
+    @ConditionalOnProperty(value = LoadAwareLoadBalancerProperties.ENABLED_PROPERTY, havingValue = "true")
+    public LoadAwareLoadBalancer loadAwareLoadBalancer(
+        final JobSearchService jobSearchService,
+        final LoadAwareLoadBalancerProperties properties,
+        @Qualifier("genieTaskScheduler") final TaskScheduler taskScheduler,
+        final MeterRegistry registry
+    ) {
+        log.info("Load aware load balancing is enabled. Creating a LoadAwareLoadBalancer.");
+        return new LoadAwareLoadBalancer(jobSearchService, properties, taskScheduler, registry);
+    }
+
     /**
      * The default cluster load balancer if all others fail.
      * <p>
@@ -0,0 +1,141 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.configs;
+
+import com.netflix.genie.web.jpa.datasources.ReadReplicaRoutingDataSource;
+import com.netflix.genie.web.properties.ReadReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data source configuration for when Genie is configured to send read only transactions to database read replicas.
+ * When not enabled the default Spring Boot data source auto configuration applies unchanged.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Configuration
+@ConditionalOnProperty(value = ReadReplicaProperties.ENABLED_PROPERTY, havingValue = "true")
+@AutoConfigureBefore(DataSourceAutoConfiguration.class)
+@EnableConfigurationProperties(
+    {
+        DataSourceProperties.class,
+        ReadReplicaProperties.class
+    }
+)
+public class GenieDataSourceAutoConfiguration {
+
+    private static final String REPLICA_POOL_NAME_PREFIX = "genie-replica-";
+
+    /**
+     * The connection pool for the primary database. Configured from the standard {@code spring.datasource} properties.
+     *
+     * @param dataSourceProperties The Spring Boot data source properties
+     * @return The primary connection pool
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource geniePrimaryDataSource(final DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * The data source which routes connections to the primary or a replica based on whether the current transaction
+     * is read only.
+     *
+     * @param primary               The primary connection pool
+     * @param readReplicaProperties The read replica configuration
+     * @param taskScheduler         The scheduler to run replica lag checks with
+     * @param registry              The metrics registry to register the connection pools and routing metrics with
+     * @return The routing data source
+     */
+    @Bean
+    public ReadReplicaRoutingDataSource genieReadReplicaRoutingDataSource(
+        @Qualifier("geniePrimaryDataSource") final DataSource primary,
+        final ReadReplicaProperties readReplicaProperties,
+        @Qualifier("genieTaskScheduler") final TaskScheduler taskScheduler,
+        final MeterRegistry registry
+    ) {
+        final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (final ReadReplicaProperties.Replica replica : readReplicaProperties.getReplicas()) {
+            final DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder
+                .create()
+                .type(HikariDataSource.class)
+                .url(replica.getUrl());
+            if (StringUtils.isNotBlank(replica.getUsername())) {
+                builder.username(replica.getUsername());
+            }
+            if (replica.getPassword() != null) {
+                builder.password(replica.getPassword());
+            }
+            if (StringUtils.isNotBlank(replica.getDriverClassName())) {
+                builder.driverClassName(replica.getDriverClassName());
+            }
+            final HikariDataSource dataSource = builder.build();
+            dataSource.setPoolName(REPLICA_POOL_NAME_PREFIX + replica.getName());
+            dataSource.setMaximumPoolSize(replica.getMaxPoolSize());
+            dataSource.setReadOnly(true);
+            // Publishes the hikaricp.connections.* metrics tagged with the pool name
+            dataSource.setMetricRegistry(registry);
+            replicas.put(replica.getName(), dataSource);
+        }
+
+        return new ReadReplicaRoutingDataSource(
+            primary,
+            replicas,
+            readReplicaProperties.getMaxLag(),
+            readReplicaProperties.getLagQuery(),
+            readReplicaProperties.getLagCheckRate(),
+            taskScheduler,
+            registry
+        );
+    }
+
+    /**
+     * The data source the rest of the application uses. Connections are only fetched from the routing data source
+     * once the first statement is executed, at which point the read only flag of the transaction is known.
+     *
+     * @param routingDataSource The routing data source to wrap
+     * @return The data source
+     */
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(
+        @Qualifier("genieReadReplicaRoutingDataSource") final DataSource routingDataSource
+    ) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -17,11 +17,15 @@
  */
 package com.netflix.genie.web.configs;
 
+import com.netflix.genie.web.events.BoundedAsyncApplicationEventMulticaster;
 import com.netflix.genie.web.events.GenieEventBus;
 import com.netflix.genie.web.events.GenieEventBusImpl;
+import com.netflix.genie.web.properties.AsyncEventDispatchProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.SimpleApplicationEventMulticaster;
@@ -36,26 +40,40 @@ import org.springframework.core.task.SyncTaskExecutor;
  */
 @Configuration
 @AutoConfigureAfter(GenieTasksAutoConfiguration.class)
+@EnableConfigurationProperties(
+    {
+        AsyncEventDispatchProperties.class
+    }
+)
 public class GenieEventBusAutoConfiguration {
 
     /**
      * A multicast event publisher to replace the default one used by Spring via the ApplicationContext.
      *
-     * @param syncTaskExecutor  The synchronous task executor to use
-     * @param asyncTaskExecutor The asynchronous task executor to use
+     * @param syncTaskExecutor             The synchronous task executor to use
+     * @param asyncTaskExecutor            The asynchronous task executor to use
+     * @param asyncEventDispatchProperties The configuration of bounded asynchronous event dispatch
+     * @param registry                     The metrics registry to use when bounded dispatch is enabled
      * @return The application event multicaster to use
      */
     @Bean
     @ConditionalOnMissingBean(GenieEventBus.class)
     public GenieEventBusImpl applicationEventMulticaster(
         @Qualifier("genieSyncTaskExecutor") final SyncTaskExecutor syncTaskExecutor,
-        @Qualifier("genieAsyncTaskExecutor") final AsyncTaskExecutor asyncTaskExecutor
+        @Qualifier("genieAsyncTaskExecutor") final AsyncTaskExecutor asyncTaskExecutor,
+        final AsyncEventDispatchProperties asyncEventDispatchProperties,
+        final MeterRegistry registry
     ) {
         final SimpleApplicationEventMulticaster syncMulticaster = new SimpleApplicationEventMulticaster();
         syncMulticaster.setTaskExecutor(syncTaskExecutor);
 
-        final SimpleApplicationEventMulticaster asyncMulticaster = new SimpleApplicationEventMulticaster();
-        asyncMulticaster.setTaskExecutor(asyncTaskExecutor);
+        final SimpleApplicationEventMulticaster asyncMulticaster;
+        if (asyncEventDispatchProperties.isEnabled()) {
+            asyncMulticaster = new BoundedAsyncApplicationEventMulticaster(asyncEventDispatchProperties, registry);
+        } else {
+            asyncMulticaster = new SimpleApplicationEventMulticaster();
+            asyncMulticaster.setTaskExecutor(asyncTaskExecutor);
+        }
         return new GenieEventBusImpl(syncMulticaster, asyncMulticaster);
     }
 }
@@ -17,12 +17,15 @@
  */
 package com.netflix.genie.web.configs;
 
+import com.netflix.genie.web.events.GenieEventBus;
 import com.netflix.genie.web.jpa.repositories.JpaAgentConnectionRepository;
 import com.netflix.genie.web.jpa.repositories.JpaApplicationRepository;
+import com.netflix.genie.web.jpa.repositories.JpaArchivedJobRepository;
 import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
 import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
 import com.netflix.genie.web.jpa.repositories.JpaFileRepository;
 import com.netflix.genie.web.jpa.repositories.JpaJobRepository;
+import com.netflix.genie.web.jpa.repositories.JpaNodeHeartbeatRepository;
 import com.netflix.genie.web.jpa.repositories.JpaTagRepository;
 import com.netflix.genie.web.jpa.services.JpaAgentConnectionPersistenceServiceImpl;
 import com.netflix.genie.web.jpa.services.JpaApplicationPersistenceServiceImpl;
@@ -32,8 +35,10 @@ import com.netflix.genie.web.jpa.services.JpaFilePersistenceService;
 import com.netflix.genie.web.jpa.services.JpaFilePersistenceServiceImpl;
 import com.netflix.genie.web.jpa.services.JpaJobPersistenceServiceImpl;
 import com.netflix.genie.web.jpa.services.JpaJobSearchServiceImpl;
+import com.netflix.genie.web.jpa.services.JpaNodeHeartbeatPersistenceServiceImpl;
 import com.netflix.genie.web.jpa.services.JpaTagPersistenceService;
 import com.netflix.genie.web.jpa.services.JpaTagPersistenceServiceImpl;
+import com.netflix.genie.web.services.ActiveJobCountService;
 import com.netflix.genie.web.services.AgentConnectionPersistenceService;
 import com.netflix.genie.web.services.ApplicationPersistenceService;
 import com.netflix.genie.web.services.ClusterPersistenceService;
@@ -41,6 +46,7 @@ import com.netflix.genie.web.services.CommandPersistenceService;
 import com.netflix.genie.web.services.FilePersistenceService;
 import com.netflix.genie.web.services.JobPersistenceService;
 import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
 import com.netflix.genie.web.services.TagPersistenceService;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
@@ -179,6 +185,9 @@ public class GenieJpaAutoConfiguration {
      * @param clusterRepository      The {@link JpaClusterRepository} to use
      * @param commandRepository      The {@link JpaCommandRepository} to use
      * @param jobRepository          The {@link JpaJobRepository} to use
+     * @param archivedJobRepository  The {@link JpaArchivedJobRepository} to use
+     * @param activeJobCountService  The {@link ActiveJobCountService} to report job status changes to
+     * @param genieEventBus          The {@link GenieEventBus} to publish job status changes on
      * @return Instance of {@link JpaJobPersistenceServiceImpl}
      */
     @Bean
@@ -189,7 +198,10 @@ public class GenieJpaAutoConfiguration {
         final JpaApplicationRepository applicationRepository,
         final JpaClusterRepository clusterRepository,
         final JpaCommandRepository commandRepository,
-        final JpaJobRepository jobRepository
+        final JpaJobRepository jobRepository,
+        final JpaArchivedJobRepository archivedJobRepository,
+        final ActiveJobCountService activeJobCountService,
+        final GenieEventBus genieEventBus
     ) {
         return new JpaJobPersistenceServiceImpl(
             tagPersistenceService,
@@ -197,16 +209,20 @@ public class GenieJpaAutoConfiguration {
             applicationRepository,
             clusterRepository,
             commandRepository,
-            jobRepository
+            jobRepository,
+            archivedJobRepository,
+            activeJobCountService,
+            genieEventBus
         );
     }
 
     /**
      * Get a JPA implementation of the {@link JobSearchService} if one didn't already exist.
      *
-     * @param jobRepository     The repository to use for job entities
-     * @param clusterRepository The repository to use for cluster entities
-     * @param commandRepository The repository to use for command entities
+     * @param jobRepository         The repository to use for job entities
+     * @param clusterRepository     The repository to use for cluster entities
+     * @param commandRepository     The repository to use for command entities
+     * @param archivedJobRepository The repository to use for archived job entities
      * @return A {@link JpaJobSearchServiceImpl} instance
      */
     @Bean
@@ -214,9 +230,10 @@ public class GenieJpaAutoConfiguration {
     public JpaJobSearchServiceImpl jobSearchService(
         final JpaJobRepository jobRepository,
         final JpaClusterRepository clusterRepository,
-        final JpaCommandRepository commandRepository
+        final JpaCommandRepository commandRepository,
+        final JpaArchivedJobRepository archivedJobRepository
     ) {
-        return new JpaJobSearchServiceImpl(jobRepository, clusterRepository, commandRepository);
+        return new JpaJobSearchServiceImpl(jobRepository, clusterRepository, commandRepository, archivedJobRepository);
     }
 
 
@@ -233,4 +250,18 @@ public class GenieJpaAutoConfiguration {
     ) {
         return new JpaAgentConnectionPersistenceServiceImpl(jpaAgentConnectionRepository);
     }
+
+    /**
+     * A JPA implementation of the {@link NodeHeartbeatPersistenceService} interface.
+     *
+     * @param nodeHeartbeatRepository The repository to use for node heartbeat entities
+     * @return A {@link JpaNodeHeartbeatPersistenceServiceImpl} instance
+     */
+    @Bean
+    @ConditionalOnMissingBean(NodeHeartbeatPersistenceService.class)
+    public JpaNodeHeartbeatPersistenceServiceImpl nodeHeartbeatPersistenceService(
+        final JpaNodeHeartbeatRepository nodeHeartbeatRepository
+    ) {
+        return new JpaNodeHeartbeatPersistenceServiceImpl(nodeHeartbeatRepository);
+    }
 }
@@ -17,12 +17,18 @@
  */
 package com.netflix.genie.web.configs;
 
+import com.netflix.genie.common.internal.util.GenieHostInfo;
 import com.netflix.genie.web.events.GenieEventBus;
 import com.netflix.genie.web.properties.LeadershipProperties;
+import com.netflix.genie.web.properties.LeadershipShardingProperties;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
 import com.netflix.genie.web.properties.ZookeeperLeadershipProperties;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
 import com.netflix.genie.web.tasks.leader.LeadershipTask;
 import com.netflix.genie.web.tasks.leader.LeadershipTasksCoordinator;
 import com.netflix.genie.web.tasks.leader.LocalLeader;
+import com.netflix.genie.web.tasks.leader.ShardedLeadershipTasksCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.curator.framework.CuratorFramework;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -44,6 +50,8 @@ import java.util.Collection;
 @EnableConfigurationProperties(
     {
         LeadershipProperties.class,
+        LeadershipShardingProperties.class,
+        NodeHeartbeatProperties.class,
         ZookeeperLeadershipProperties.class
     }
 )
@@ -59,6 +67,11 @@ public class GenieLeadershipAutoConfiguration {
      */
     @Bean
     @ConditionalOnBean(LeadershipTask.class)
+    @ConditionalOnProperty(
+        value = LeadershipShardingProperties.ENABLED_PROPERTY,
+        havingValue = "false",
+        matchIfMissing = true
+    )
     public LeadershipTasksCoordinator leadershipTasksCoordinator(
         final TaskScheduler taskScheduler,
         final Collection<LeadershipTask> tasks
@@ -66,6 +79,39 @@ public class GenieLeadershipAutoConfiguration {
         return new LeadershipTasksCoordinator(taskScheduler, tasks);
     }
 
+    /**
+     * When leadership tasks are sharded create the coordinator which runs them on every node, each node working on
+     * its own shard, instead of the coordinator which only runs them on the elected leader.
+     *
+     * @param taskScheduler                   The task scheduler to use for scheduling leadership tasks
+     * @param tasks                           The leadership tasks to schedule
+     * @param genieHostInfo                   Information about the host this Genie process is running on
+     * @param nodeHeartbeatPersistenceService The service to find the live members of the cluster with
+     * @param nodeHeartbeatProperties         The node heartbeat properties
+     * @param registry                        The metrics registry
+     * @return The sharded coordinator
+     */
+    @Bean
+    @ConditionalOnBean(LeadershipTask.class)
+    @ConditionalOnProperty(value = LeadershipShardingProperties.ENABLED_PROPERTY, havingValue = "true")
+    public ShardedLeadershipTasksCoordinator shardedLeadershipTasksCoordinator(
+        final TaskScheduler taskScheduler,
+        final Collection<LeadershipTask> tasks,
+        final GenieHostInfo genieHostInfo,
+        final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService,
+        final NodeHeartbeatProperties nodeHeartbeatProperties,
+        final MeterRegistry registry
+    ) {
+        return new ShardedLeadershipTasksCoordinator(
+            taskScheduler,
+            tasks,
+            genieHostInfo,
+            nodeHeartbeatPersistenceService,
+            nodeHeartbeatProperties,
+            registry
+        );
+    }
+
     /**
      * The leadership initialization factory bean which will create a LeaderInitiator to kick off the leader election
      * process within this node for the cluster if Zookeeper is configured.
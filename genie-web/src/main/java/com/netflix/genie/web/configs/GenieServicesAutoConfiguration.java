@@ -22,10 +22,13 @@ import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.internal.util.GenieHostInfo;
 import com.netflix.genie.web.events.GenieEventBus;
 import com.netflix.genie.web.jobs.workflow.WorkflowTask;
+import com.netflix.genie.web.properties.AgentRoutingProperties;
 import com.netflix.genie.web.properties.DataServiceRetryProperties;
 import com.netflix.genie.web.properties.FileCacheProperties;
 import com.netflix.genie.web.properties.HealthProperties;
 import com.netflix.genie.web.properties.JobsProperties;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.ActiveJobCountService;
 import com.netflix.genie.web.services.AgentConnectionPersistenceService;
 import com.netflix.genie.web.services.AgentJobService;
 import com.netflix.genie.web.services.AgentRoutingService;
@@ -39,11 +42,16 @@ import com.netflix.genie.web.services.JobCoordinatorService;
 import com.netflix.genie.web.services.JobFileService;
 import com.netflix.genie.web.services.JobKillService;
 import com.netflix.genie.web.services.JobPersistenceService;
+import com.netflix.genie.web.services.JobPlacementService;
+import com.netflix.genie.web.services.JobQueueService;
 import com.netflix.genie.web.services.JobSearchService;
 import com.netflix.genie.web.services.JobSpecificationService;
 import com.netflix.genie.web.services.JobStateService;
+import com.netflix.genie.web.services.JobStatusWaitService;
 import com.netflix.genie.web.services.JobSubmitterService;
 import com.netflix.genie.web.services.MailService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import com.netflix.genie.web.services.impl.ActiveJobCountServiceImpl;
 import com.netflix.genie.web.services.impl.AgentJobServiceImpl;
 import com.netflix.genie.web.services.impl.AgentRoutingServiceImpl;
 import com.netflix.genie.web.services.impl.CacheGenieFileTransferService;
@@ -51,7 +59,10 @@ import com.netflix.genie.web.services.impl.DiskJobFileServiceImpl;
 import com.netflix.genie.web.services.impl.FileSystemAttachmentService;
 import com.netflix.genie.web.services.impl.GenieFileTransferService;
 import com.netflix.genie.web.services.impl.JobCoordinatorServiceImpl;
+import com.netflix.genie.web.services.impl.JobPlacementServiceImpl;
+import com.netflix.genie.web.services.impl.JobQueueServiceImpl;
 import com.netflix.genie.web.services.impl.JobSpecificationServiceImpl;
+import com.netflix.genie.web.services.impl.JobStatusWaitServiceImpl;
 import com.netflix.genie.web.services.impl.LocalFileTransferImpl;
 import com.netflix.genie.web.services.impl.LocalJobKillServiceImpl;
 import com.netflix.genie.web.services.impl.LocalJobRunner;
@@ -66,6 +77,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.TaskScheduler;
 
 import javax.validation.constraints.NotEmpty;
 import java.io.IOException;
@@ -80,10 +92,12 @@ import java.util.List;
 @Configuration
 @EnableConfigurationProperties(
     {
+        AgentRoutingProperties.class,
         DataServiceRetryProperties.class,
         FileCacheProperties.class,
         HealthProperties.class,
         JobsProperties.class,
+        NodeHeartbeatProperties.class,
     }
 )
 public class GenieServicesAutoConfiguration {
@@ -197,7 +211,8 @@ public class GenieServicesAutoConfiguration {
      * @param jobPersistenceService         implementation of job persistence service interface
      * @param jobKillService                The job kill service to use
      * @param jobStateService               The running job metrics service to use
-     * @param jobSearchService              Implementation of job search service interface
+     * @param jobQueueService               The queue jobs wait in for resources when queueing is enabled
+     * @param activeJobCountService         The service to get the number of active jobs of a user from
      * @param jobsProperties                The jobs properties to use
      * @param applicationPersistenceService Implementation of application service interface
      * @param clusterPersistenceService     Implementation of cluster service interface
@@ -213,7 +228,8 @@ public class GenieServicesAutoConfiguration {
         final JobPersistenceService jobPersistenceService,
         final JobKillService jobKillService,
         @Qualifier("jobMonitoringCoordinator") final JobStateService jobStateService,
-        final JobSearchService jobSearchService,
+        final JobQueueService jobQueueService,
+        final ActiveJobCountService activeJobCountService,
         final JobsProperties jobsProperties,
         final ApplicationPersistenceService applicationPersistenceService,
         final ClusterPersistenceService clusterPersistenceService,
@@ -226,9 +242,10 @@ public class GenieServicesAutoConfiguration {
             jobPersistenceService,
             jobKillService,
             jobStateService,
+            jobQueueService,
             jobsProperties,
             applicationPersistenceService,
-            jobSearchService,
+            activeJobCountService,
             clusterPersistenceService,
             commandPersistenceService,
             specificationService,
@@ -237,6 +254,133 @@ public class GenieServicesAutoConfiguration {
         );
     }
 
+    /**
+     * Get an implementation of {@link JobPlacementService} if one hasn't already been defined.
+     *
+     * @param jobStateService                 The service to get the load of this node from
+     * @param nodeHeartbeatPersistenceService The service to read the load of the other nodes from
+     * @param jobsProperties                  The jobs properties to use
+     * @param nodeHeartbeatProperties         The node heartbeat properties to use
+     * @param genieHostInfo                   Information about the host the Genie process is running on
+     * @param registry                        The metrics registry to use
+     * @return A {@link JobPlacementServiceImpl} instance
+     */
+    @Bean
+    @ConditionalOnMissingBean(JobPlacementService.class)
+    public JobPlacementService jobPlacementService(
+        @Qualifier("jobMonitoringCoordinator") final JobStateService jobStateService,
+        final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService,
+        final JobsProperties jobsProperties,
+        final NodeHeartbeatProperties nodeHeartbeatProperties,
+        final GenieHostInfo genieHostInfo,
+        final MeterRegistry registry
+    ) {
+        return new JobPlacementServiceImpl(
+            jobStateService,
+            nodeHeartbeatPersistenceService,
+            jobsProperties,
+            nodeHeartbeatProperties,
+            genieHostInfo.getHostname(),
+            registry
+        );
+    }
+
+    /**
+     * Get an implementation of {@link ActiveJobCountService} if one hasn't already been defined.
+     *
+     * @param jobSearchService The job search service to read the counts from the database with
+     * @param jobsProperties   The jobs properties to use
+     * @param taskScheduler    The scheduler to reconcile the cached counts with
+     * @param registry         The metrics registry to use
+     * @return A {@link ActiveJobCountServiceImpl} instance
+     */
+    @Bean
+    @ConditionalOnMissingBean(ActiveJobCountService.class)
+    public ActiveJobCountService activeJobCountService(
+        final JobSearchService jobSearchService,
+        final JobsProperties jobsProperties,
+        @Qualifier("genieTaskScheduler") final TaskScheduler taskScheduler,
+        final MeterRegistry registry
+    ) {
+        return new ActiveJobCountServiceImpl(
+            jobSearchService,
+            jobsProperties.getUsers().getActiveLimit(),
+            taskScheduler,
+            registry
+        );
+    }
+
+    /**
+     * Get an implementation of {@link JobStatusWaitService} if one hasn't already been defined.
+     *
+     * @param jobSearchService The job search service to read the statuses of the jobs with
+     * @param jobsProperties   The jobs properties to use
+     * @param taskScheduler    The scheduler to periodically check the statuses of the jobs being waited on with
+     * @param registry         The metrics registry to use
+     * @return A {@link JobStatusWaitServiceImpl} instance
+     */
+    @Bean
+    @ConditionalOnMissingBean(JobStatusWaitService.class)
+    public JobStatusWaitService jobStatusWaitService(
+        final JobSearchService jobSearchService,
+        final JobsProperties jobsProperties,
+        @Qualifier("genieTaskScheduler") final TaskScheduler taskScheduler,
+        final MeterRegistry registry
+    ) {
+        return new JobStatusWaitServiceImpl(
+            jobSearchService,
+            jobsProperties.getStatusWait(),
+            taskScheduler,
+            registry
+        );
+    }
+
+    /**
+     * Get an implementation of {@link JobQueueService} if one hasn't already been defined.
+     *
+     * @param jobPersistenceService         The job persistence service to use
+     * @param jobSearchService              The job search service to use
+     * @param activeJobCountService         The service to get the number of active jobs of a user from
+     * @param jobStateService               The service which runs jobs on this node
+     * @param applicationPersistenceService The application persistence service to use
+     * @param clusterPersistenceService     The cluster persistence service to use
+     * @param commandPersistenceService     The command persistence service to use
+     * @param jobsProperties                The jobs properties to use
+     * @param taskScheduler                 The scheduler to dispatch queued jobs with
+     * @param registry                      The metrics registry to use
+     * @param genieHostInfo                 Information about the host the Genie process is running on
+     * @return A {@link JobQueueServiceImpl} instance
+     */
+    @Bean
+    @ConditionalOnMissingBean(JobQueueService.class)
+    public JobQueueService jobQueueService(
+        final JobPersistenceService jobPersistenceService,
+        final JobSearchService jobSearchService,
+        final ActiveJobCountService activeJobCountService,
+        @Qualifier("jobMonitoringCoordinator") final JobStateService jobStateService,
+        final ApplicationPersistenceService applicationPersistenceService,
+        final ClusterPersistenceService clusterPersistenceService,
+        final CommandPersistenceService commandPersistenceService,
+        final JobsProperties jobsProperties,
+        @Qualifier("genieTaskScheduler") final TaskScheduler taskScheduler,
+        final MeterRegistry registry,
+        final GenieHostInfo genieHostInfo
+    ) {
+        return new JobQueueServiceImpl(
+            jobPersistenceService,
+            jobSearchService,
+            activeJobCountService,
+            jobStateService,
+            applicationPersistenceService,
+            clusterPersistenceService,
+            commandPersistenceService,
+            jobsProperties,
+            taskScheduler,
+            registry,
+            genieHostInfo.getHostname()
+        );
+    }
+
     /**
      * The attachment service to use.
      *
@@ -333,17 +477,26 @@ public class GenieServicesAutoConfiguration {
      *
      * @param agentConnectionPersistenceService The persistence service to use for agent connections
      * @param genieHostInfo                     The local genie host information
+     * @param agentRoutingProperties            The routing cache and write behind configuration
+     * @param taskScheduler                     The scheduler to write connections to the database in the background
+     * @param registry                          The metrics registry to use
      * @return A {@link AgentRoutingServiceImpl} instance
      */
     @Bean
     @ConditionalOnMissingBean(AgentRoutingService.class)
     public AgentRoutingService agentRoutingService(
         final AgentConnectionPersistenceService agentConnectionPersistenceService,
-        final GenieHostInfo genieHostInfo
+        final GenieHostInfo genieHostInfo,
+        final AgentRoutingProperties agentRoutingProperties,
+        @Qualifier("genieTaskScheduler") final TaskScheduler taskScheduler,
+        final MeterRegistry registry
     ) {
         return new AgentRoutingServiceImpl(
             agentConnectionPersistenceService,
-            genieHostInfo
+            genieHostInfo,
+            agentRoutingProperties,
+            taskScheduler,
+            registry
         );
     }
 
@@ -18,40 +18,58 @@
 package com.netflix.genie.web.configs;
 
 import com.netflix.genie.common.internal.util.GenieHostInfo;
+import com.netflix.genie.web.events.GenieEventBus;
 import com.netflix.genie.web.properties.ClusterCheckerProperties;
 import com.netflix.genie.web.properties.DatabaseCleanupProperties;
 import com.netflix.genie.web.properties.DiskCleanupProperties;
+import com.netflix.genie.web.properties.JobArchiveProperties;
 import com.netflix.genie.web.properties.JobsProperties;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
 import com.netflix.genie.web.properties.TasksExecutorPoolProperties;
 import com.netflix.genie.web.properties.TasksSchedulerPoolProperties;
 import com.netflix.genie.web.services.ClusterPersistenceService;
 import com.netflix.genie.web.services.FilePersistenceService;
+import com.netflix.genie.web.services.JobMetricsService;
+import com.netflix.genie.web.services.JobPartitionService;
 import com.netflix.genie.web.services.JobPersistenceService;
 import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
 import com.netflix.genie.web.services.TagPersistenceService;
+import com.netflix.genie.web.services.impl.MySqlJobPartitionServiceImpl;
 import com.netflix.genie.web.tasks.leader.ClusterCheckerTask;
 import com.netflix.genie.web.tasks.leader.DatabaseCleanupTask;
+import com.netflix.genie.web.tasks.leader.JobArchiveTask;
+import com.netflix.genie.web.tasks.leader.NodeLivenessCheckerTask;
 import com.netflix.genie.web.tasks.node.DiskCleanupTask;
+import com.netflix.genie.web.tasks.node.NodeHeartbeatTask;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.exec.DefaultExecutor;
 import org.apache.commons.exec.Executor;
 import org.apache.commons.exec.PumpStreamHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointProperties;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
-import org.springframework.web.client.RestTemplate;
 
+import javax.sql.DataSource;
 import java.io.IOException;
 
 /**
@@ -67,6 +85,8 @@ import java.io.IOException;
         ClusterCheckerProperties.class,
         DatabaseCleanupProperties.class,
         DiskCleanupProperties.class,
+        JobArchiveProperties.class,
+        NodeHeartbeatProperties.class,
         TasksExecutorPoolProperties.class,
         TasksSchedulerPoolProperties.class
     }
@@ -118,6 +138,21 @@ public class GenieTasksAutoConfiguration {
         return scheduler;
     }
 
+    /**
+     * Get the task executor the HeartBeat Service sends heartbeats to the connected agents on. The streams are split
+     * into batches which are sent in parallel across the threads of this executor.
+     *
+     * @return The task executor
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "heartBeatServiceFanOutExecutor")
+    public ThreadPoolTaskExecutor heartBeatServiceFanOutExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        executor.setThreadNamePrefix("genie-heartbeat-fan-out-");
+        return executor;
+    }
+
     /**
      * Get a task executor for executing tasks asynchronously that don't need to be scheduled at a recurring rate.
      *
@@ -144,6 +179,27 @@ public class GenieTasksAutoConfiguration {
         return new SyncTaskExecutor();
     }
 
+    /**
+     * Get a task executor for the cluster checker to probe the health of other nodes with. The number of threads caps
+     * how many nodes are probed at once.
+     *
+     * @param properties The cluster checker properties
+     * @return The task executor
+     */
+    @Bean
+    @ConditionalOnProperty(
+        value = NodeHeartbeatProperties.ENABLED_PROPERTY,
+        havingValue = "false",
+        matchIfMissing = true
+    )
+    @ConditionalOnMissingBean(name = "genieClusterCheckerProbeExecutor")
+    public ThreadPoolTaskExecutor genieClusterCheckerProbeExecutor(final ClusterCheckerProperties properties) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(properties.getMaxConcurrentProbes(), 1));
+        executor.setThreadNamePrefix("genie-cluster-checker-");
+        return executor;
+    }
+
     /**
      * Create a {@link ClusterCheckerTask} if one hasn't been supplied.
      *
@@ -151,33 +207,107 @@ public class GenieTasksAutoConfiguration {
      * @param properties            The properties to use to configure the task
      * @param jobSearchService      The job search service to use
      * @param jobPersistenceService The job persistence service to use
-     * @param restTemplate          The rest template for http calls
+     * @param restTemplateBuilder   The builder to create the rest template for health probes with
+     * @param probeExecutor         The executor to run health probes on
      * @param webEndpointProperties The properties where Spring actuator is running
      * @param registry              The spectator registry for getting metrics
      * @return The {@link ClusterCheckerTask} instance
      */
     @Bean
+    @ConditionalOnProperty(
+        value = NodeHeartbeatProperties.ENABLED_PROPERTY,
+        havingValue = "false",
+        matchIfMissing = true
+    )
     @ConditionalOnMissingBean(ClusterCheckerTask.class)
     public ClusterCheckerTask clusterCheckerTask(
         final GenieHostInfo genieHostInfo,
         final ClusterCheckerProperties properties,
         final JobSearchService jobSearchService,
         final JobPersistenceService jobPersistenceService,
-        @Qualifier("genieRestTemplate") final RestTemplate restTemplate,
+        final RestTemplateBuilder restTemplateBuilder,
+        @Qualifier("genieClusterCheckerProbeExecutor") final AsyncTaskExecutor probeExecutor,
         final WebEndpointProperties webEndpointProperties,
         final MeterRegistry registry
     ) {
+        // Bound each probe by the probe timeout rather than the general http timeouts so a hung node can't hold up
+        // a probe thread for long
+        final int probeTimeout = Math.toIntExact(properties.getProbeTimeout());
         return new ClusterCheckerTask(
             genieHostInfo,
             properties,
             jobSearchService,
             jobPersistenceService,
-            restTemplate,
+            restTemplateBuilder.setConnectTimeout(probeTimeout).setReadTimeout(probeTimeout).build(),
+            probeExecutor,
             webEndpointProperties,
             registry
         );
     }
 
+    /**
+     * Create a {@link NodeLivenessCheckerTask} to replace the {@link ClusterCheckerTask} if node heartbeats are
+     * enabled.
+     *
+     * @param properties                      The node heartbeat properties
+     * @param nodeHeartbeatPersistenceService The service to read and clean up node heartbeats with
+     * @param jobPersistenceService           The job persistence service to use
+     * @param genieEventBus                   The event bus to publish the lost jobs on
+     * @param registry                        The metrics registry
+     * @return The {@link NodeLivenessCheckerTask} instance
+     */
+    @Bean
+    @ConditionalOnProperty(value = NodeHeartbeatProperties.ENABLED_PROPERTY, havingValue = "true")
+    @ConditionalOnMissingBean(NodeLivenessCheckerTask.class)
+    public NodeLivenessCheckerTask nodeLivenessCheckerTask(
+        final NodeHeartbeatProperties properties,
+        final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService,
+        final JobPersistenceService jobPersistenceService,
+        final GenieEventBus genieEventBus,
+        final MeterRegistry registry
+    ) {
+        return new NodeLivenessCheckerTask(
+            properties,
+            nodeHeartbeatPersistenceService,
+            jobPersistenceService,
+            genieEventBus,
+            registry
+        );
+    }
+
+    /**
+     * If node heartbeats are enabled, or needed to shard leadership tasks, get a {@link NodeHeartbeatTask} to write
+     * the heartbeats of this node.
+     *
+     * @param genieHostInfo                   Information about the host this Genie process is running on
+     * @param properties                      The node heartbeat properties
+     * @param scheduler                       The scheduler to schedule the heartbeats with
+     * @param nodeHeartbeatPersistenceService The service to write the heartbeats with
+     * @param jobMetricsService               The service to get the running jobs and used memory of this node from
+     * @param registry                        The metrics registry
+     * @return The {@link NodeHeartbeatTask} instance
+     */
+    @Bean
+    @Conditional(GenieTasksConditions.NodeHeartbeatsRequired.class)
+    @ConditionalOnMissingBean(NodeHeartbeatTask.class)
+    public NodeHeartbeatTask nodeHeartbeatTask(
+        final GenieHostInfo genieHostInfo,
+        final NodeHeartbeatProperties properties,
+        @Qualifier("genieTaskScheduler") final TaskScheduler scheduler,
+        final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService,
+        @Qualifier("jobMonitoringCoordinator") final JobMetricsService jobMetricsService,
+        final MeterRegistry registry
+    ) {
+        return new NodeHeartbeatTask(
+            genieHostInfo,
+            properties,
+            scheduler,
+            nodeHeartbeatPersistenceService,
+            jobMetricsService,
+            registry
+        );
+    }
+
     /**
      * Create a {@link DatabaseCleanupTask} if one is required.
      *
@@ -186,6 +316,7 @@ public class GenieTasksAutoConfiguration {
      * @param clusterPersistenceService The cluster service to use to delete terminated clusters
      * @param filePersistenceService    The file service to use to delete unused file references
      * @param tagPersistenceService     The tag service to use to delete unused tag references
+     * @param jobPartitionService       The service to drop partitions of the jobs tables with if that's enabled
      * @param registry                  The metrics registry
      * @return The {@link DatabaseCleanupTask} instance to use if the conditions match
      */
@@ -198,6 +329,7 @@ public class GenieTasksAutoConfiguration {
         final ClusterPersistenceService clusterPersistenceService,
         final FilePersistenceService filePersistenceService,
         final TagPersistenceService tagPersistenceService,
+        final ObjectProvider<JobPartitionService> jobPartitionService,
         final MeterRegistry registry
     ) {
         return new DatabaseCleanupTask(
@@ -206,10 +338,76 @@ public class GenieTasksAutoConfiguration {
             clusterPersistenceService,
             filePersistenceService,
             tagPersistenceService,
+            jobPartitionService.getIfAvailable(),
             registry
         );
     }
 
+    /**
+     * Create a {@link JobPartitionService} for the database cleanup task to drop old jobs with when the database has
+     * been migrated to the partitioned jobs layout.
+     *
+     * @param dataSource   The data source to check the database vendor of
+     * @param jdbcTemplate The JDBC template to use to maintain the partitions
+     * @return The {@link JobPartitionService} instance to use if the conditions match
+     * @throws IllegalStateException When the database isn't one the partitioned jobs layout is available for
+     */
+    @Bean
+    @ConditionalOnProperty(value = DatabaseCleanupProperties.DROP_PARTITIONS_PROPERTY, havingValue = "true")
+    @ConditionalOnMissingBean(JobPartitionService.class)
+    public JobPartitionService jobPartitionService(final DataSource dataSource, final JdbcTemplate jdbcTemplate) {
+        final DatabaseDriver databaseDriver;
+        try {
+            databaseDriver = DatabaseDriver.fromProductName(
+                JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName")
+            );
+        } catch (final MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine the database vendor to drop partitions on", e);
+        }
+        if (databaseDriver != DatabaseDriver.MYSQL && databaseDriver != DatabaseDriver.MARIADB) {
+            throw new IllegalStateException(
+                "Dropping partitions of the jobs tables is only supported on MySQL. The database is " + databaseDriver
+            );
+        }
+        return new MySqlJobPartitionServiceImpl(jdbcTemplate);
+    }
+
+    /**
+     * Create a {@link JobArchiveTask} if one is required.
+     *
+     * @param jobArchiveProperties  The properties to use to configure this task
+     * @param jobPersistenceService The persistence service to use to archive jobs
+     * @param registry              The metrics registry
+     * @return The {@link JobArchiveTask} instance to use if the conditions match
+     */
+    @Bean
+    @ConditionalOnProperty(value = JobArchiveProperties.ENABLED_PROPERTY, havingValue = "true")
+    @ConditionalOnMissingBean(JobArchiveTask.class)
+    public JobArchiveTask jobArchiveTask(
+        final JobArchiveProperties jobArchiveProperties,
+        final JobPersistenceService jobPersistenceService,
+        final MeterRegistry registry
+    ) {
+        return new JobArchiveTask(jobArchiveProperties, jobPersistenceService, registry);
+    }
+
+    /**
+     * Get a task executor for the disk cleanup task to delete job directories with. The number of threads caps how many
+     * directories are deleted at once.
+     *
+     * @param properties The disk cleanup properties
+     * @return The task executor
+     */
+    @Bean
+    @ConditionalOnProperty(value = DiskCleanupProperties.ENABLED_PROPERTY, havingValue = "true")
+    @ConditionalOnMissingBean(name = "genieDiskCleanupExecutor")
+    public ThreadPoolTaskExecutor genieDiskCleanupExecutor(final DiskCleanupProperties properties) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(properties.getMaxConcurrentDeletes(), 1));
+        executor.setThreadNamePrefix("genie-disk-cleanup-");
+        return executor;
+    }
+
     /**
      * If required get a {@link DiskCleanupTask} instance for use.
      *
@@ -219,6 +417,7 @@ public class GenieTasksAutoConfiguration {
      * @param jobSearchService The service to find jobs with
      * @param jobsProperties   The jobs properties to use
      * @param processExecutor  The process executor to use to delete directories
+     * @param deleteExecutor   The executor to delete job directories on
      * @param registry         The metrics registry
      * @return The {@link DiskCleanupTask} instance
      * @throws IOException When it is unable to open a file reference to the job directory
@@ -233,6 +432,7 @@ public class GenieTasksAutoConfiguration {
         final JobSearchService jobSearchService,
         final JobsProperties jobsProperties,
         final Executor processExecutor,
+        @Qualifier("genieDiskCleanupExecutor") final TaskExecutor deleteExecutor,
         final MeterRegistry registry
     ) throws IOException {
         return new DiskCleanupTask(
@@ -242,6 +442,7 @@ public class GenieTasksAutoConfiguration {
             jobSearchService,
             jobsProperties,
             processExecutor,
+            deleteExecutor,
             registry
         );
     }
@@ -0,0 +1,63 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.configs;
+
+import com.netflix.genie.web.properties.JobsPlacementProperties;
+import com.netflix.genie.web.properties.LeadershipShardingProperties;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+/**
+ * Container class for the conditions used to configure Genie tasks.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+public class GenieTasksConditions {
+
+    /**
+     * Matches whenever something relies on every node writing heartbeats to the database. Heartbeats are used to
+     * detect lost nodes, to work out the members of the cluster to shard leadership tasks between and to find the
+     * least loaded node to place a job on.
+     *
+     * @author tgianos
+     * @since 4.0.0
+     */
+    public static class NodeHeartbeatsRequired extends AnyNestedCondition {
+
+        /**
+         * Default Constructor sets the class parse time.
+         */
+        public NodeHeartbeatsRequired() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(value = NodeHeartbeatProperties.ENABLED_PROPERTY, havingValue = "true")
+        static class OnNodeHeartbeat {
+        }
+
+        @ConditionalOnProperty(value = LeadershipShardingProperties.ENABLED_PROPERTY, havingValue = "true")
+        static class OnLeadershipSharding {
+        }
+
+        @ConditionalOnProperty(value = JobsPlacementProperties.ENABLED_PROPERTY, havingValue = "true")
+        static class OnJobsPlacement {
+        }
+    }
+}
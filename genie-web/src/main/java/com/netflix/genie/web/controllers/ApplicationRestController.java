@@ -32,6 +32,7 @@ import com.netflix.genie.web.hateoas.assemblers.CommandResourceAssembler;
 import com.netflix.genie.web.hateoas.resources.ApplicationResource;
 import com.netflix.genie.web.hateoas.resources.CommandResource;
 import com.netflix.genie.web.services.ApplicationPersistenceService;
+import com.netflix.genie.web.util.CursorSlice;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -43,6 +44,7 @@ import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedResources;
+import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.mvc.ControllerLinkBuilder;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -59,8 +61,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.EnumSet;
 import java.util.List;
@@ -234,20 +238,91 @@ public class ApplicationRestController {
         );
     }
 
+    /**
+     * Get application configurations based on user parameters using keyset (seek) pagination. This is opted into by
+     * sending the {@code cursor} parameter (empty for the first slice). Results are ordered newest first and no total
+     * count is computed. If there are more results the response contains a {@code next} link with the continuation
+     * token for the following slice.
+     *
+     * @param name     name for configuration (optional)
+     * @param user     The user who created the application (optional)
+     * @param statuses The statuses of the applications (optional)
+     * @param tags     The set of tags you want the application for. (optional)
+     * @param type     The type of applications to get (optional)
+     * @param cursor   The opaque continuation token from a previous response. Empty for the first slice.
+     * @param limit    The maximum number of applications to return
+     * @return The slice of applications with self and, if there are more results, next links
+     * @throws GenieException For any error
+     * @since 4.0.0
+     */
+    @GetMapping(produces = MediaTypes.HAL_JSON_VALUE, params = ControllerUtils.CURSOR_PARAM)
+    @ResponseStatus(HttpStatus.OK)
+    public Resources<ApplicationResource> getApplications(
+        @RequestParam(value = "name", required = false) final String name,
+        @RequestParam(value = "user", required = false) final String user,
+        @RequestParam(value = "status", required = false) final Set<String> statuses,
+        @RequestParam(value = "tag", required = false) final Set<String> tags,
+        @RequestParam(value = "type", required = false) final String type,
+        @RequestParam(value = ControllerUtils.CURSOR_PARAM) final String cursor,
+        @RequestParam(
+            value = ControllerUtils.LIMIT_PARAM,
+            defaultValue = ControllerUtils.DEFAULT_CURSOR_LIMIT
+        ) final int limit
+    ) throws GenieException {
+        log.debug("Called with cursor {} and limit {}", cursor, limit);
+
+        final Set<ApplicationStatus> enumStatuses;
+        if (statuses != null) {
+            enumStatuses = EnumSet.noneOf(ApplicationStatus.class);
+            for (final String status : statuses) {
+                enumStatuses.add(ApplicationStatus.parse(status));
+            }
+        } else {
+            enumStatuses = null;
+        }
+
+        final CursorSlice<Application> applications = ControllerUtils.searchWithCursor(
+            name,
+            tags,
+            id -> DtoConverters.toV3Application(this.applicationPersistenceService.getApplication(id)),
+            (searchName, searchTags) -> this.applicationPersistenceService
+                .getApplications(
+                    searchName,
+                    user,
+                    enumStatuses,
+                    searchTags,
+                    type,
+                    ControllerUtils.getSearchCursor(cursor),
+                    ControllerUtils.getCursorLimit(limit)
+                )
+                .map(DtoConverters::toV3Application)
+        );
+
+        return ControllerUtils.toCursorResources(applications, this.applicationResourceAssembler::toResource);
+    }
+
     /**
      * Get Application for given id.
      *
      * @param id unique id for application configuration
+     * @param webRequest The current request
      * @return The application configuration
      * @throws GenieException For any error
      */
     @GetMapping(value = "/{id}", produces = MediaTypes.HAL_JSON_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public ApplicationResource getApplication(@PathVariable("id") final String id) throws GenieException {
+    @Nullable
+    public ApplicationResource getApplication(
+        @PathVariable("id") final String id,
+        final ServletWebRequest webRequest
+    ) throws GenieException {
         log.debug("Called to get Application for id {}", id);
-        return this.applicationResourceAssembler.toResource(
-            DtoConverters.toV3Application(this.applicationPersistenceService.getApplication(id))
-        );
+        final String version = this.applicationPersistenceService.getApplicationVersion(id);
+        if (ControllerUtils.checkNotModified(webRequest, version)) {
+            return null;
+        }
+        final Application application
+            = DtoConverters.toV3Application(this.applicationPersistenceService.getApplication(id));
+        return this.applicationResourceAssembler.toResource(application);
     }
 
     /**
@@ -32,6 +32,7 @@ import com.netflix.genie.web.hateoas.assemblers.CommandResourceAssembler;
 import com.netflix.genie.web.hateoas.resources.ClusterResource;
 import com.netflix.genie.web.hateoas.resources.CommandResource;
 import com.netflix.genie.web.services.ClusterPersistenceService;
+import com.netflix.genie.web.util.CursorSlice;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -43,6 +44,7 @@ import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedResources;
+import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.mvc.ControllerLinkBuilder;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -59,8 +61,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.annotation.Nullable;
 import javax.validation.Valid;
 import java.io.IOException;
 import java.time.Instant;
@@ -131,16 +135,22 @@ ClusterRestController {
      * Get cluster configuration from unique id.
      *
      * @param id id for the cluster
+     * @param webRequest The current request
      * @return the cluster
      * @throws GenieException For any error
      */
     @GetMapping(value = "/{id}", produces = MediaTypes.HAL_JSON_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public ClusterResource getCluster(@PathVariable("id") final String id) throws GenieException {
+    @Nullable
+    public ClusterResource getCluster(
+        @PathVariable("id") final String id,
+        final ServletWebRequest webRequest
+    ) throws GenieException {
         log.debug("Called with id: {}", id);
-        return this.clusterResourceAssembler.toResource(
-            DtoConverters.toV3Cluster(this.clusterPersistenceService.getCluster(id))
-        );
+        if (ControllerUtils.checkNotModified(webRequest, this.clusterPersistenceService.getClusterVersion(id))) {
+            return null;
+        }
+        final Cluster cluster = DtoConverters.toV3Cluster(this.clusterPersistenceService.getCluster(id));
+        return this.clusterResourceAssembler.toResource(cluster);
     }
 
     /**
@@ -269,6 +279,69 @@ ClusterRestController {
         );
     }
 
+    /**
+     * Get cluster configurations based on user parameters using keyset (seek) pagination. This is opted into by
+     * sending the {@code cursor} parameter (empty for the first slice). Results are ordered newest first and no total
+     * count is computed. If there are more results the response contains a {@code next} link with the continuation
+     * token for the following slice.
+     *
+     * @param name          cluster name (can be a pattern)
+     * @param statuses      valid types - Types.ClusterStatus
+     * @param tags          tags for the cluster
+     * @param minUpdateTime min time when cluster configuration was updated
+     * @param maxUpdateTime max time when cluster configuration was updated
+     * @param cursor        The opaque continuation token from a previous response. Empty for the first slice.
+     * @param limit         The maximum number of clusters to return
+     * @return The slice of clusters with self and, if there are more results, next links
+     * @throws GenieException For any error
+     * @since 4.0.0
+     */
+    @GetMapping(produces = MediaTypes.HAL_JSON_VALUE, params = ControllerUtils.CURSOR_PARAM)
+    @ResponseStatus(HttpStatus.OK)
+    public Resources<ClusterResource> getClusters(
+        @RequestParam(value = "name", required = false) final String name,
+        @RequestParam(value = "status", required = false) final Set<String> statuses,
+        @RequestParam(value = "tag", required = false) final Set<String> tags,
+        @RequestParam(value = "minUpdateTime", required = false) final Long minUpdateTime,
+        @RequestParam(value = "maxUpdateTime", required = false) final Long maxUpdateTime,
+        @RequestParam(value = ControllerUtils.CURSOR_PARAM) final String cursor,
+        @RequestParam(
+            value = ControllerUtils.LIMIT_PARAM,
+            defaultValue = ControllerUtils.DEFAULT_CURSOR_LIMIT
+        ) final int limit
+    ) throws GenieException {
+        log.debug("Called with cursor {} and limit {}", cursor, limit);
+
+        final Set<ClusterStatus> enumStatuses;
+        if (statuses != null) {
+            enumStatuses = EnumSet.noneOf(ClusterStatus.class);
+            for (final String status : statuses) {
+                enumStatuses.add(ClusterStatus.parse(status));
+            }
+        } else {
+            enumStatuses = null;
+        }
+
+        final CursorSlice<Cluster> clusters = ControllerUtils.searchWithCursor(
+            name,
+            tags,
+            id -> DtoConverters.toV3Cluster(this.clusterPersistenceService.getCluster(id)),
+            (searchName, searchTags) -> this.clusterPersistenceService
+                .getClusters(
+                    searchName,
+                    enumStatuses,
+                    searchTags,
+                    minUpdateTime == null ? null : Instant.ofEpochMilli(minUpdateTime),
+                    maxUpdateTime == null ? null : Instant.ofEpochMilli(maxUpdateTime),
+                    ControllerUtils.getSearchCursor(cursor),
+                    ControllerUtils.getCursorLimit(limit)
+                )
+                .map(DtoConverters::toV3Cluster)
+        );
+
+        return ControllerUtils.toCursorResources(clusters, this.clusterResourceAssembler::toResource);
+    }
+
     /**
      * Update a cluster configuration.
      *
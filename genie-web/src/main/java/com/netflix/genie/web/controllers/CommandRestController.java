@@ -34,6 +34,7 @@ import com.netflix.genie.web.hateoas.resources.ApplicationResource;
 import com.netflix.genie.web.hateoas.resources.ClusterResource;
 import com.netflix.genie.web.hateoas.resources.CommandResource;
 import com.netflix.genie.web.services.CommandPersistenceService;
+import com.netflix.genie.web.util.CursorSlice;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -45,6 +46,7 @@ import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedResources;
+import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.mvc.ControllerLinkBuilder;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -61,8 +63,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.annotation.Nullable;
 import javax.validation.Valid;
 import java.io.IOException;
 import java.util.EnumSet;
@@ -136,16 +140,22 @@ public class CommandRestController {
      * Get Command configuration for given id.
      *
      * @param id unique id for command configuration
+     * @param webRequest The current request
      * @return The command configuration
      * @throws GenieException For any error
      */
     @GetMapping(value = "/{id}", produces = MediaTypes.HAL_JSON_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public CommandResource getCommand(@PathVariable("id") final String id) throws GenieException {
+    @Nullable
+    public CommandResource getCommand(
+        @PathVariable("id") final String id,
+        final ServletWebRequest webRequest
+    ) throws GenieException {
         log.debug("Called to get command with id {}", id);
-        return this.commandResourceAssembler.toResource(
-            DtoConverters.toV3Command(this.commandPersistenceService.getCommand(id))
-        );
+        if (ControllerUtils.checkNotModified(webRequest, this.commandPersistenceService.getCommandVersion(id))) {
+            return null;
+        }
+        final Command command = DtoConverters.toV3Command(this.commandPersistenceService.getCommand(id));
+        return this.commandResourceAssembler.toResource(command);
     }
 
     /**
@@ -267,6 +277,66 @@ public class CommandRestController {
         );
     }
 
+    /**
+     * Get command configurations based on user parameters using keyset (seek) pagination. This is opted into by
+     * sending the {@code cursor} parameter (empty for the first slice). Results are ordered newest first and no total
+     * count is computed. If there are more results the response contains a {@code next} link with the continuation
+     * token for the following slice.
+     *
+     * @param name     Name for command (optional)
+     * @param user     The user who created the configuration (optional)
+     * @param statuses The statuses of the commands to get (optional)
+     * @param tags     The set of tags you want the command for.
+     * @param cursor   The opaque continuation token from a previous response. Empty for the first slice.
+     * @param limit    The maximum number of commands to return
+     * @return The slice of commands with self and, if there are more results, next links
+     * @throws GenieException For any error
+     * @since 4.0.0
+     */
+    @GetMapping(produces = MediaTypes.HAL_JSON_VALUE, params = ControllerUtils.CURSOR_PARAM)
+    @ResponseStatus(HttpStatus.OK)
+    public Resources<CommandResource> getCommands(
+        @RequestParam(value = "name", required = false) final String name,
+        @RequestParam(value = "user", required = false) final String user,
+        @RequestParam(value = "status", required = false) final Set<String> statuses,
+        @RequestParam(value = "tag", required = false) final Set<String> tags,
+        @RequestParam(value = ControllerUtils.CURSOR_PARAM) final String cursor,
+        @RequestParam(
+            value = ControllerUtils.LIMIT_PARAM,
+            defaultValue = ControllerUtils.DEFAULT_CURSOR_LIMIT
+        ) final int limit
+    ) throws GenieException {
+        log.debug("Called with cursor {} and limit {}", cursor, limit);
+
+        final Set<CommandStatus> enumStatuses;
+        if (statuses != null) {
+            enumStatuses = EnumSet.noneOf(CommandStatus.class);
+            for (final String status : statuses) {
+                enumStatuses.add(CommandStatus.parse(status));
+            }
+        } else {
+            enumStatuses = null;
+        }
+
+        final CursorSlice<Command> commands = ControllerUtils.searchWithCursor(
+            name,
+            tags,
+            id -> DtoConverters.toV3Command(this.commandPersistenceService.getCommand(id)),
+            (searchName, searchTags) -> this.commandPersistenceService
+                .getCommands(
+                    searchName,
+                    user,
+                    enumStatuses,
+                    searchTags,
+                    ControllerUtils.getSearchCursor(cursor),
+                    ControllerUtils.getCursorLimit(limit)
+                )
+                .map(DtoConverters::toV3Command)
+        );
+
+        return ControllerUtils.toCursorResources(commands, this.commandResourceAssembler::toResource);
+    }
+
     /**
      * Update command configuration.
      *
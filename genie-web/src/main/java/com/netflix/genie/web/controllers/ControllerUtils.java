@@ -17,11 +17,30 @@
  */
 package com.netflix.genie.web.controllers;
 
+import com.google.common.collect.Lists;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.exceptions.GeniePreconditionException;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.ResourceSupport;
+import org.springframework.hateoas.Resources;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Utility methods re-used in various controllers.
@@ -32,6 +51,26 @@ import javax.servlet.http.HttpServletRequest;
 @Slf4j
 public final class ControllerUtils {
 
+    /**
+     * The request parameter which opts a search into keyset (seek) pagination. Empty for the first slice.
+     */
+    public static final String CURSOR_PARAM = "cursor";
+
+    /**
+     * The request parameter controlling how many results a keyset search returns.
+     */
+    public static final String LIMIT_PARAM = "limit";
+
+    /**
+     * The default number of results a keyset search returns.
+     */
+    public static final String DEFAULT_CURSOR_LIMIT = "64";
+
+    /**
+     * The maximum number of results a client can request in a single keyset search slice.
+     */
+    static final int MAX_CURSOR_LIMIT = 1_000;
+
     /**
      * Constructor.
      */
@@ -57,4 +96,191 @@ public final class ControllerUtils {
         log.debug("Remaining path = {}", path);
         return path;
     }
+
+    /**
+     * Build a strong entity tag for a resource from its current version.
+     *
+     * @param version The opaque version of the resource, which changes every time the resource does
+     * @return The entity tag including the surrounding quotes
+     */
+    public static String getETag(final String version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Check whether the client already has the current representation of a resource, in which case the caller should
+     * return without building the resource and a 304 is sent. Otherwise sets the entity tag of the resource on the
+     * response. Clients are told to revalidate their copy before every use as the resource can change at any time.
+     * <p>
+     * The version has to be read before the resource itself. If the resource changes in between the client gets the
+     * newer resource with the older tag and simply fetches it again next time, never an older resource with a newer
+     * tag.
+     *
+     * @param webRequest The current request
+     * @param version    The current version of the resource
+     * @return true if the client's copy is current
+     */
+    public static boolean checkNotModified(final ServletWebRequest webRequest, final String version) {
+        final HttpServletResponse response = webRequest.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return webRequest.checkNotModified(getETag(version));
+    }
+
+    /**
+     * Convert the value of the {@link #CURSOR_PARAM} request parameter into a search cursor.
+     *
+     * @param token The opaque token sent by the client. Blank for the first slice.
+     * @return The cursor or null if the search should start from the beginning
+     * @throws GeniePreconditionException If the token is invalid
+     */
+    @Nullable
+    public static SearchCursor getSearchCursor(@Nullable final String token) throws GeniePreconditionException {
+        return StringUtils.isBlank(token) ? null : SearchCursor.decode(token);
+    }
+
+    /**
+     * Make sure the requested keyset search limit is within the bounds Genie supports.
+     *
+     * @param limit The requested limit
+     * @return The limit to use
+     * @throws GeniePreconditionException If the limit is less than one
+     */
+    public static int getCursorLimit(final int limit) throws GeniePreconditionException {
+        if (limit < 1) {
+            throw new GeniePreconditionException("Limit must be at least 1 but was " + limit);
+        }
+        return Math.min(limit, MAX_CURSOR_LIMIT);
+    }
+
+    /**
+     * Convert a slice of keyset search results into a HAL resource. The self link is the current request and, if there
+     * are more results, a next link is added which is the current request with the cursor replaced.
+     *
+     * @param slice     The slice of results
+     * @param assembler The function which converts each result into a resource
+     * @param <T>       The type of the search results
+     * @param <R>       The type of the resources
+     * @return The resources with self and next links
+     */
+    public static <T, R extends ResourceSupport> Resources<R> toCursorResources(
+        final CursorSlice<T> slice,
+        final Function<? super T, R> assembler
+    ) {
+        final List<R> content = slice
+            .getContent()
+            .stream()
+            .map(assembler)
+            .collect(Collectors.toList());
+
+        final List<Link> links = Lists.newArrayList(
+            new Link(ServletUriComponentsBuilder.fromCurrentRequest().build().toUriString()).withSelfRel()
+        );
+        slice.getNext().ifPresent(
+            next -> links.add(
+                new Link(
+                    ServletUriComponentsBuilder
+                        .fromCurrentRequest()
+                        .replaceQueryParam(CURSOR_PARAM, next.encode())
+                        .build()
+                        .toUriString()
+                ).withRel(Link.REL_NEXT)
+            )
+        );
+
+        return new Resources<>(content, links);
+    }
+
+    /**
+     * Run a keyset search of configuration resources honoring the special tags Genie adds to every resource. If any of
+     * the tags is a {@code genie.id:} tag the resources with those ids are returned without searching, as that is at
+     * most a handful of results there is never a next slice. Otherwise {@code genie.name:} tags are removed from the
+     * tags and the first one is used as the name if none was requested.
+     *
+     * @param name   The name requested by the client if any
+     * @param tags   The tags requested by the client if any
+     * @param lookup The function which gets a resource by its id
+     * @param search The function which runs the keyset search for the resolved name and tags
+     * @param <T>    The type of the resources
+     * @return The slice of resources found
+     * @throws GenieException For any error in the search
+     */
+    public static <T> CursorSlice<T> searchWithCursor(
+        @Nullable final String name,
+        @Nullable final Set<String> tags,
+        final ResourceLookup<T> lookup,
+        final CursorSearch<T> search
+    ) throws GenieException {
+        if (tags != null && tags.stream().anyMatch(tag -> tag.startsWith(DtoConverters.GENIE_ID_PREFIX))) {
+            final List<T> resources = Lists.newArrayList();
+            final int prefixLength = DtoConverters.GENIE_ID_PREFIX.length();
+            for (final String tag : tags) {
+                if (tag.startsWith(DtoConverters.GENIE_ID_PREFIX)) {
+                    final String id = tag.substring(prefixLength);
+                    try {
+                        resources.add(lookup.get(id));
+                    } catch (final GenieException ge) {
+                        log.debug("No resource with id {} found", id, ge);
+                    }
+                }
+            }
+            return new CursorSlice<>(resources, null);
+        }
+
+        String finalName = name;
+        Set<String> finalTags = tags;
+        if (tags != null && tags.stream().anyMatch(tag -> tag.startsWith(DtoConverters.GENIE_NAME_PREFIX))) {
+            finalTags = tags
+                .stream()
+                .filter(tag -> !tag.startsWith(DtoConverters.GENIE_NAME_PREFIX))
+                .collect(Collectors.toSet());
+            if (finalName == null) {
+                finalName = tags
+                    .stream()
+                    .filter(tag -> tag.startsWith(DtoConverters.GENIE_NAME_PREFIX))
+                    .map(tag -> tag.substring(DtoConverters.GENIE_NAME_PREFIX.length()))
+                    .findFirst()
+                    .orElse(null);
+            }
+        }
+        return search.search(finalName, finalTags);
+    }
+
+    /**
+     * Gets a resource by its id.
+     *
+     * @param <T> The type of the resource
+     */
+    @FunctionalInterface
+    public interface ResourceLookup<T> {
+
+        /**
+         * Get the resource with the given id.
+         *
+         * @param id The id of the resource
+         * @return The resource
+         * @throws GenieException If the resource can't be found or there is any other error
+         */
+        T get(String id) throws GenieException;
+    }
+
+    /**
+     * Runs a keyset search of resources.
+     *
+     * @param <T> The type of the resources
+     */
+    @FunctionalInterface
+    public interface CursorSearch<T> {
+
+        /**
+         * Search for the resources with the given name and tags.
+         *
+         * @param name The name of the resources if any
+         * @param tags The tags of the resources if any
+         * @return The slice of resources found
+         * @throws GenieException For any error
+         */
+        CursorSlice<T> search(@Nullable String name, @Nullable Set<String> tags) throws GenieException;
+    }
 }
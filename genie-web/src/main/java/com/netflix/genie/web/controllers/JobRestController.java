@@ -19,18 +19,23 @@ package com.netflix.genie.web.controllers;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.io.ByteStreams;
+import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobMetadata;
 import com.netflix.genie.common.dto.JobRequest;
 import com.netflix.genie.common.dto.JobStatus;
 import com.netflix.genie.common.dto.JobStatusMessages;
+import com.netflix.genie.common.dto.JobSubmissionResult;
 import com.netflix.genie.common.dto.search.JobSearchResult;
 import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.exceptions.GeniePreconditionException;
 import com.netflix.genie.common.exceptions.GenieServerException;
 import com.netflix.genie.common.internal.jobs.JobConstants;
 import com.netflix.genie.common.internal.util.GenieHostInfo;
+import com.netflix.genie.common.util.GenieObjectMapper;
 import com.netflix.genie.web.hateoas.assemblers.ApplicationResourceAssembler;
 import com.netflix.genie.web.hateoas.assemblers.ClusterResourceAssembler;
 import com.netflix.genie.web.hateoas.assemblers.CommandResourceAssembler;
@@ -51,11 +56,14 @@ import com.netflix.genie.web.properties.JobsProperties;
 import com.netflix.genie.web.resources.handlers.GenieResourceHttpRequestHandler;
 import com.netflix.genie.web.services.AttachmentService;
 import com.netflix.genie.web.services.JobCoordinatorService;
+import com.netflix.genie.web.services.JobPlacementService;
 import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.JobStatusWaitService;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.conn.ConnectTimeoutException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Pageable;
@@ -65,6 +73,7 @@ import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedResources;
+import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.mvc.ControllerLinkBuilder;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -85,19 +94,30 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.annotation.Nullable;
 import javax.servlet.ServletException;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Enumeration;
 import java.util.List;
@@ -105,6 +125,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -121,12 +143,17 @@ public class JobRestController {
     private static final String TRANSFER_ENCODING_HEADER = "Transfer-Encoding";
     private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
     private static final String NAME_HEADER_COOKIE = "cookie";
-    private static final String JOB_API_TEMPLATE = "/api/v3/jobs/{id}";
+    private static final String JOBS_API = "/api/v3/jobs";
+    private static final String JOB_API_TEMPLATE = JOBS_API + "/{id}";
     private static final String EMPTY_STRING = "";
     private static final String COMMA = ",";
+    private static final String STATUS = "status";
+    private static final int MAX_BULK_JOB_IDS = 1_000;
 
     private final JobCoordinatorService jobCoordinatorService;
     private final JobSearchService jobSearchService;
+    private final JobPlacementService jobPlacementService;
+    private final JobStatusWaitService jobStatusWaitService;
     private final AttachmentService attachmentService;
     private final ApplicationResourceAssembler applicationResourceAssembler;
     private final ClusterResourceAssembler clusterResourceAssembler;
@@ -140,16 +167,21 @@ public class JobRestController {
     private final RestTemplate restTemplate;
     private final GenieResourceHttpRequestHandler resourceHttpRequestHandler;
     private final JobsProperties jobsProperties;
+    private final Validator validator;
 
     // Metrics
     private final Counter submitJobWithoutAttachmentsRate;
     private final Counter submitJobWithAttachmentsRate;
+    private final Counter submitJobForwardedRate;
+    private final Counter submitJobBatchRate;
 
     /**
      * Constructor.
      *
      * @param jobCoordinatorService            The job coordinator service to use.
      * @param jobSearchService                 The search service to use
+     * @param jobPlacementService              The service to decide which node a submitted job should run on
+     * @param jobStatusWaitService             The service to wait for the status of a job to change with
      * @param attachmentService                The attachment service to use to save attachments.
      * @param applicationResourceAssembler     Assemble application resources out of applications
      * @param clusterResourceAssembler         Assemble cluster resources out of applications
@@ -164,6 +196,7 @@ public class JobRestController {
      * @param resourceHttpRequestHandler       The handler to return requests for static resources on the
      *                                         Genie File System.
      * @param jobsProperties                   All the properties associated with jobs
+     * @param validator                        The bean validator to validate each job request of a batch with
      * @param registry                         The metrics registry to use
      */
     @Autowired
@@ -171,6 +204,8 @@ public class JobRestController {
     public JobRestController(
         final JobCoordinatorService jobCoordinatorService,
         final JobSearchService jobSearchService,
+        final JobPlacementService jobPlacementService,
+        final JobStatusWaitService jobStatusWaitService,
         final AttachmentService attachmentService,
         final ApplicationResourceAssembler applicationResourceAssembler,
         final ClusterResourceAssembler clusterResourceAssembler,
@@ -184,10 +219,13 @@ public class JobRestController {
         @Qualifier("genieRestTemplate") final RestTemplate restTemplate,
         final GenieResourceHttpRequestHandler resourceHttpRequestHandler,
         final JobsProperties jobsProperties,
+        final Validator validator,
         final MeterRegistry registry
     ) {
         this.jobCoordinatorService = jobCoordinatorService;
         this.jobSearchService = jobSearchService;
+        this.jobPlacementService = jobPlacementService;
+        this.jobStatusWaitService = jobStatusWaitService;
         this.attachmentService = attachmentService;
         this.applicationResourceAssembler = applicationResourceAssembler;
         this.clusterResourceAssembler = clusterResourceAssembler;
@@ -201,10 +239,13 @@ public class JobRestController {
         this.restTemplate = restTemplate;
         this.resourceHttpRequestHandler = resourceHttpRequestHandler;
         this.jobsProperties = jobsProperties;
+        this.validator = validator;
 
         // Set up the metrics
         this.submitJobWithoutAttachmentsRate = registry.counter("genie.api.v3.jobs.submitJobWithoutAttachments.rate");
         this.submitJobWithAttachmentsRate = registry.counter("genie.api.v3.jobs.submitJobWithAttachments.rate");
+        this.submitJobForwardedRate = registry.counter("genie.api.v3.jobs.submitJob.forwarded.rate");
+        this.submitJobBatchRate = registry.counter("genie.api.v3.jobs.submitJobBatch.rate");
     }
 
     /**
@@ -213,6 +254,7 @@ public class JobRestController {
      * @param jobRequest         The job request information
      * @param clientHost         client host sending the request
      * @param userAgent          The user agent string
+     * @param forwardedFrom      The host this request was forwarded from if present
      * @param httpServletRequest The http servlet request
      * @return The submitted job
      * @throws GenieException For any error
@@ -223,11 +265,12 @@ public class JobRestController {
         @Valid @RequestBody final JobRequest jobRequest,
         @RequestHeader(value = FORWARDED_FOR_HEADER, required = false) final String clientHost,
         @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) final String userAgent,
+        @RequestHeader(name = JobConstants.GENIE_FORWARDED_FROM_HEADER, required = false) final String forwardedFrom,
         final HttpServletRequest httpServletRequest
     ) throws GenieException {
         log.info("[submitJob] Called json method type to submit job: {}", jobRequest);
         this.submitJobWithoutAttachmentsRate.increment();
-        return this.handleSubmitJob(jobRequest, null, clientHost, userAgent, httpServletRequest);
+        return this.handleSubmitJob(jobRequest, null, clientHost, userAgent, forwardedFrom, httpServletRequest);
     }
 
     /**
@@ -252,7 +295,69 @@ public class JobRestController {
     ) throws GenieException {
         log.info("[submitJob] Called multipart method to submit job: {}", jobRequest);
         this.submitJobWithAttachmentsRate.increment();
-        return this.handleSubmitJob(jobRequest, attachments, clientHost, userAgent, httpServletRequest);
+        // Attachments are saved on the node which received them so these submissions are never forwarded
+        return this.handleSubmitJob(jobRequest, attachments, clientHost, userAgent, null, httpServletRequest);
+    }
+
+    /**
+     * Submit many jobs at once. The whole batch is rejected if any of the job requests is invalid. Otherwise every job
+     * is admitted or rejected on its own and the result of each is returned in the order the jobs were submitted.
+     *
+     * @param jobRequests        The job requests to submit
+     * @param clientHost         client host sending the request
+     * @param userAgent          The user agent string
+     * @param httpServletRequest The http servlet request
+     * @return The id and admission result of each job
+     * @throws GenieException For any error
+     */
+    @PostMapping(
+        value = "/batch",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.OK)
+    public List<JobSubmissionResult> submitJobs(
+        @RequestBody final List<JobRequest> jobRequests,
+        @RequestHeader(value = FORWARDED_FOR_HEADER, required = false) final String clientHost,
+        @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) final String userAgent,
+        final HttpServletRequest httpServletRequest
+    ) throws GenieException {
+        log.info("[submitJobs] Called to submit {} jobs", jobRequests.size());
+        if (jobRequests.isEmpty()) {
+            throw new GeniePreconditionException("No job requests entered. Unable to submit.");
+        }
+        final int maxSize = this.jobsProperties.getBatch().getMaxSize();
+        if (jobRequests.size() > maxSize) {
+            throw new GeniePreconditionException(
+                "Can't submit more than " + maxSize + " jobs at once. Got " + jobRequests.size()
+            );
+        }
+        this.submitJobBatchRate.increment(jobRequests.size());
+
+        // @Valid doesn't cascade into the elements of a request body list so validate each job request like the single
+        // job submission would
+        final Set<ConstraintViolation<JobRequest>> violations = Sets.newHashSet();
+        final List<JobRequest> jobRequestsWithIds = Lists.newArrayListWithExpectedSize(jobRequests.size());
+        for (final JobRequest jobRequest : jobRequests) {
+            if (jobRequest == null) {
+                throw new GeniePreconditionException("Null job request entered. Unable to submit.");
+            }
+            violations.addAll(this.validator.validate(jobRequest));
+            jobRequestsWithIds.add(this.withJobId(jobRequest));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        final JobMetadata metadata = new JobMetadata
+            .Builder()
+            .withClientHost(this.getClientHost(clientHost, httpServletRequest))
+            .withUserAgent(userAgent)
+            .withNumAttachments(0)
+            .withTotalSizeOfAttachments(0L)
+            .build();
+
+        return this.jobCoordinatorService.coordinateJobs(jobRequestsWithIds, metadata);
     }
 
     private ResponseEntity<Void> handleSubmitJob(
@@ -260,6 +365,7 @@ public class JobRestController {
         final MultipartFile[] attachments,
         final String clientHost,
         final String userAgent,
+        final String forwardedFrom,
         final HttpServletRequest httpServletRequest
     ) throws GenieException {
         if (jobRequest == null) {
@@ -267,53 +373,21 @@ public class JobRestController {
         }
 
         // get client's host from the context
-        final String localClientHost;
-        if (StringUtils.isNotBlank(clientHost)) {
-            localClientHost = clientHost.split(COMMA)[0];
-        } else {
-            localClientHost = httpServletRequest.getRemoteAddr();
-        }
+        final String localClientHost = this.getClientHost(clientHost, httpServletRequest);
 
-        final JobRequest jobRequestWithId;
-        // If the job request does not contain an id create one else use the one provided.
-        final String jobId;
-        final Optional<String> jobIdOptional = jobRequest.getId();
-        if (jobIdOptional.isPresent() && StringUtils.isNotBlank(jobIdOptional.get())) {
-            jobId = jobIdOptional.get();
-            jobRequestWithId = jobRequest;
-        } else {
-            jobId = UUID.randomUUID().toString();
-            final JobRequest.Builder builder = new JobRequest.Builder(
-                jobRequest.getName(),
-                jobRequest.getUser(),
-                jobRequest.getVersion(),
-                jobRequest.getClusterCriterias(),
-                jobRequest.getCommandCriteria()
-            )
-                .withId(jobId)
-                .withDisableLogArchival(jobRequest.isDisableLogArchival())
-                .withTags(jobRequest.getTags())
-                .withConfigs(jobRequest.getConfigs())
-                .withDependencies(jobRequest.getDependencies())
-                .withApplications(jobRequest.getApplications());
-
-            jobRequest.getCommandArgs().ifPresent(
-                commandArgs ->
-                    builder
-                        .withCommandArgs(
-                            Lists.newArrayList(StringUtils.splitByWholeSeparator(commandArgs, StringUtils.SPACE))
-                        )
-            );
-            jobRequest.getCpu().ifPresent(builder::withCpu);
-            jobRequest.getMemory().ifPresent(builder::withMemory);
-            jobRequest.getGroup().ifPresent(builder::withGroup);
-            jobRequest.getSetupFile().ifPresent(builder::withSetupFile);
-            jobRequest.getDescription().ifPresent(builder::withDescription);
-            jobRequest.getEmail().ifPresent(builder::withEmail);
-            jobRequest.getTimeout().ifPresent(builder::withTimeout);
-            jobRequest.getMetadata().ifPresent(builder::withMetadata);
-
-            jobRequestWithId = builder.build();
+        final JobRequest jobRequestWithId = this.withJobId(jobRequest);
+        final String jobId = jobRequestWithId.getId().orElseThrow(IllegalStateException::new);
+
+        // If this node is full try to place the job on another node with room for it
+        if (attachments == null
+            && forwardedFrom == null
+            && this.jobsProperties.getPlacement().isEnabled()
+            && this.jobsProperties.getForwarding().isEnabled()) {
+            final Optional<ResponseEntity<Void>> forwardResponse
+                = this.forwardSubmission(jobId, jobRequestWithId, httpServletRequest);
+            if (forwardResponse.isPresent()) {
+                return forwardResponse.get();
+            }
         }
 
         // Download attachments
@@ -347,6 +421,143 @@ public class JobRestController {
 
         this.jobCoordinatorService.coordinateJob(jobRequestWithId, metadata);
 
+        return this.buildSubmitResponse(jobId);
+    }
+
+    private String getClientHost(@Nullable final String clientHost, final HttpServletRequest httpServletRequest) {
+        if (StringUtils.isNotBlank(clientHost)) {
+            return clientHost.split(COMMA)[0];
+        } else {
+            return httpServletRequest.getRemoteAddr();
+        }
+    }
+
+    /**
+     * If the job request does not contain an id create one else use the one provided.
+     *
+     * @param jobRequest The job request
+     * @return The job request with its id filled in
+     */
+    private JobRequest withJobId(final JobRequest jobRequest) {
+        final Optional<String> jobIdOptional = jobRequest.getId();
+        if (jobIdOptional.isPresent() && StringUtils.isNotBlank(jobIdOptional.get())) {
+            return jobRequest;
+        }
+
+        final JobRequest.Builder builder = new JobRequest.Builder(
+            jobRequest.getName(),
+            jobRequest.getUser(),
+            jobRequest.getVersion(),
+            jobRequest.getClusterCriterias(),
+            jobRequest.getCommandCriteria()
+        )
+            .withId(UUID.randomUUID().toString())
+            .withDisableLogArchival(jobRequest.isDisableLogArchival())
+            .withTags(jobRequest.getTags())
+            .withConfigs(jobRequest.getConfigs())
+            .withDependencies(jobRequest.getDependencies())
+            .withApplications(jobRequest.getApplications());
+
+        jobRequest.getCommandArgs().ifPresent(
+            commandArgs ->
+                builder
+                    .withCommandArgs(
+                        Lists.newArrayList(StringUtils.splitByWholeSeparator(commandArgs, StringUtils.SPACE))
+                    )
+        );
+        jobRequest.getCpu().ifPresent(builder::withCpu);
+        jobRequest.getMemory().ifPresent(builder::withMemory);
+        jobRequest.getGroup().ifPresent(builder::withGroup);
+        jobRequest.getSetupFile().ifPresent(builder::withSetupFile);
+        jobRequest.getDescription().ifPresent(builder::withDescription);
+        jobRequest.getEmail().ifPresent(builder::withEmail);
+        jobRequest.getTimeout().ifPresent(builder::withTimeout);
+        jobRequest.getMetadata().ifPresent(builder::withMetadata);
+
+        return builder.build();
+    }
+
+    /**
+     * Forward a submission to another node if the job doesn't fit on this node and another node has room for it.
+     *
+     * @param jobId      The id of the job
+     * @param jobRequest The job request with its id filled in
+     * @param request    The request being handled
+     * @return The response to return to the client if the job was submitted to another node. Empty if it wasn't, in
+     * which case the job should be handled locally.
+     * @throws GenieException If the other node rejected the job request or it can't be ruled out that the other node
+     *                        accepted the job
+     */
+    private Optional<ResponseEntity<Void>> forwardSubmission(
+        final String jobId,
+        final JobRequest jobRequest,
+        final HttpServletRequest request
+    ) throws GenieException {
+        // The command isn't resolved yet so go with the memory requested or the default
+        final int memory = jobRequest.getMemory().orElse(this.jobsProperties.getMemory().getDefaultJobMemory());
+        final Optional<String> node = this.jobPlacementService.selectNode(memory);
+        if (!node.isPresent() || this.hostname.equals(node.get())) {
+            return Optional.empty();
+        }
+
+        final String forwardHost = this.buildForwardHost(node.get());
+        log.info("Job {} doesn't fit on this node. Forwarding submission to {}", jobId, forwardHost);
+        try {
+            this.restTemplate.execute(
+                forwardHost + JOBS_API,
+                HttpMethod.POST,
+                forwardRequest -> {
+                    this.copyRequestHeaders(request, forwardRequest);
+                    // The body is written again with the id assigned here so the original length doesn't apply
+                    forwardRequest.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    forwardRequest.getHeaders().remove(TRANSFER_ENCODING_HEADER);
+                    forwardRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    GenieObjectMapper.getMapper().writeValue(forwardRequest.getBody(), jobRequest);
+                },
+                null
+            );
+            this.submitJobForwardedRate.increment();
+            return Optional.of(this.buildSubmitResponse(jobId));
+        } catch (final HttpStatusCodeException e) {
+            // Only a 503 guarantees the other node didn't take the job. Anything else it either rejected itself, and
+            // it'd be rejected here as well, or it may have accepted the job already so running it here too could
+            // run it twice.
+            if (e.getStatusCode() != HttpStatus.SERVICE_UNAVAILABLE) {
+                throw new GenieException(e.getStatusCode().value(), e.getResponseBodyAsString(), e);
+            }
+            log.warn("Failed forwarding job {} to {}. Running locally. Error: {}", jobId, forwardHost, e.getMessage());
+        } catch (final RestClientException e) {
+            if (!isConnectFailure(e)) {
+                throw new GenieServerException(
+                    "Unable to tell whether " + forwardHost + " accepted job " + jobId
+                        + ". Check the status of the job before submitting it again",
+                    e
+                );
+            }
+            log.warn("Failed forwarding job {} to {}. Running locally. Error: {}", jobId, forwardHost, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether the error means the request never reached the other node because no connection could be made.
+     * Errors after connecting, such as read timeouts, don't rule out that the other node already handled the request.
+     *
+     * @param e The error
+     * @return True if the connection to the other node couldn't be established
+     */
+    private static boolean isConnectFailure(final RestClientException e) {
+        if (!(e instanceof ResourceAccessException)) {
+            return false;
+        }
+        final Throwable cause = e.getCause();
+        return cause instanceof ConnectException
+            || cause instanceof ConnectTimeoutException
+            || cause instanceof NoRouteToHostException
+            || cause instanceof UnknownHostException;
+    }
+
+    private ResponseEntity<Void> buildSubmitResponse(final String jobId) {
         final HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setLocation(
             ServletUriComponentsBuilder
@@ -384,10 +595,106 @@ public class JobRestController {
     public JsonNode getJobStatus(
         @PathVariable("id") final String id) throws GenieException {
         log.debug("[getJobStatus] Called for job with id: {}", id);
-        final JsonNodeFactory factory = JsonNodeFactory.instance;
-        return factory
-            .objectNode()
-            .set("status", factory.textNode(this.jobSearchService.getJobStatus(id).toString()));
+        return this.createStatusNode(this.jobSearchService.getJobStatus(id));
+    }
+
+    /**
+     * Wait for the status of the given job to no longer be one of the given statuses instead of polling for it. The
+     * response is sent as soon as the status changes or, once the timeout expires, with the status the job currently
+     * has.
+     *
+     * @param id              The id of the job to get status for
+     * @param waitWhileStatus The statuses to wait while the job is in
+     * @param timeout         How long to wait for in milliseconds. Defaults to and is capped by the configured values
+     * @return The status of the job as one of: {@link JobStatus} once it changed or the timeout expired
+     * @throws GenieException on error
+     */
+    @GetMapping(value = "/{id}/status", params = "waitWhileStatus", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<JsonNode> waitForJobStatusChange(
+        @PathVariable("id") final String id,
+        @RequestParam(value = "waitWhileStatus") final Set<String> waitWhileStatus,
+        @RequestParam(value = "timeout", required = false) @Nullable final Long timeout
+    ) throws GenieException {
+        log.debug("[waitForJobStatusChange] Called for job with id: {} while status in {}", id, waitWhileStatus);
+        final Set<JobStatus> statuses = EnumSet.noneOf(JobStatus.class);
+        for (final String status : waitWhileStatus) {
+            statuses.add(JobStatus.parse(status));
+        }
+        final long waitTimeout = Math.min(
+            timeout == null ? this.jobsProperties.getStatusWait().getDefaultTimeout() : timeout,
+            this.jobsProperties.getStatusWait().getMaxTimeout()
+        );
+
+        final DeferredResult<JsonNode> result = new DeferredResult<>(Math.max(waitTimeout, 1L));
+        final CompletableFuture<JobStatus> future = this.jobStatusWaitService.waitWhileStatus(id, statuses);
+        if (waitTimeout <= 0L && !future.isDone()) {
+            future.cancel(false);
+            result.setResult(this.createStatusNode(this.jobSearchService.getJobStatus(id)));
+            return result;
+        }
+
+        result.onTimeout(
+            () -> {
+                future.cancel(false);
+                try {
+                    result.setResult(this.createStatusNode(this.jobSearchService.getJobStatus(id)));
+                } catch (final GenieException e) {
+                    result.setErrorResult(e);
+                }
+            }
+        );
+        // Stop waiting however the request ends including the client going away
+        result.onCompletion(() -> future.cancel(false));
+        future.whenComplete(
+            (status, throwable) -> {
+                if (throwable == null) {
+                    result.setResult(this.createStatusNode(status));
+                } else if (!(throwable instanceof CancellationException)) {
+                    result.setErrorResult(throwable);
+                }
+            }
+        );
+        return result;
+    }
+
+    /**
+     * Get the statuses of many jobs at once. Ids which don't match any job are left out of the response.
+     *
+     * @param ids              The ids of the jobs to get the status of
+     * @param includeExecution Whether to also return the execution information of the jobs
+     * @return Object with one field per job id whose value holds the status and, if requested, the execution of the job
+     * @throws GenieException on error
+     */
+    @PostMapping(
+        value = "/statuses",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public JsonNode getJobStatuses(
+        @RequestBody final Set<String> ids,
+        @RequestParam(value = "includeExecution", defaultValue = "false") final boolean includeExecution
+    ) throws GenieException {
+        log.debug("[getJobStatuses] Called for {} jobs", ids.size());
+        if (ids.size() > MAX_BULK_JOB_IDS) {
+            throw new GeniePreconditionException(
+                "Can't get the status of more than " + MAX_BULK_JOB_IDS + " jobs at once. Got " + ids.size()
+            );
+        }
+        final Map<String, JobStatus> statuses = this.jobSearchService.getJobStatuses(ids);
+        final Map<String, JobExecution> executions = includeExecution && !statuses.isEmpty()
+            ? this.jobSearchService.getJobExecutions(statuses.keySet())
+            : Collections.emptyMap();
+
+        final ObjectNode result = JsonNodeFactory.instance.objectNode();
+        for (final Map.Entry<String, JobStatus> entry : statuses.entrySet()) {
+            final ObjectNode job = this.createStatusNode(entry.getValue());
+            final JobExecution execution = executions.get(entry.getKey());
+            if (execution != null) {
+                job.set("execution", GenieObjectMapper.getMapper().valueToTree(execution));
+            }
+            result.set(entry.getKey(), job);
+        }
+        return result;
     }
 
     /**
@@ -521,6 +828,94 @@ public class JobRestController {
         );
     }
 
+    /**
+     * Get jobs for given filter criteria using keyset (seek) pagination. This is opted into by sending the
+     * {@code cursor} parameter (empty for the first slice). Results are ordered newest first and no total count is
+     * computed so the cost of a request doesn't grow with how far into the results it is. If there are more results
+     * the response contains a {@code next} link with the continuation token for the following slice.
+     *
+     * @param id               id for job
+     * @param name             name of job (can be a SQL-style pattern such as HIVE%)
+     * @param user             user who submitted job
+     * @param statuses         statuses of jobs to find
+     * @param tags             tags for the job
+     * @param clusterName      the name of the cluster
+     * @param clusterId        the id of the cluster
+     * @param commandName      the name of the command run by the job
+     * @param commandId        the id of the command run by the job
+     * @param minStarted       The time which the job had to start after in order to be return (inclusive)
+     * @param maxStarted       The time which the job had to start before in order to be returned (exclusive)
+     * @param minFinished      The time which the job had to finish after in order to be return (inclusive)
+     * @param maxFinished      The time which the job had to finish before in order to be returned (exclusive)
+     * @param grouping         The grouping the job should be a member of
+     * @param groupingInstance The grouping instance the job should be a member of
+     * @param cursor           The opaque continuation token from a previous response. Empty for the first slice.
+     * @param limit            The maximum number of jobs to return
+     * @return The slice of jobs with self and, if there are more results, next links
+     * @throws GenieException For any error
+     * @since 4.0.0
+     */
+    @GetMapping(produces = MediaTypes.HAL_JSON_VALUE, params = ControllerUtils.CURSOR_PARAM)
+    @ResponseStatus(HttpStatus.OK)
+    @SuppressWarnings("checkstyle:parameternumber")
+    public Resources<JobSearchResultResource> findJobs(
+        @RequestParam(value = "id", required = false) final String id,
+        @RequestParam(value = "name", required = false) final String name,
+        @RequestParam(value = "user", required = false) final String user,
+        @RequestParam(value = "status", required = false) final Set<String> statuses,
+        @RequestParam(value = "tag", required = false) final Set<String> tags,
+        @RequestParam(value = "clusterName", required = false) final String clusterName,
+        @RequestParam(value = "clusterId", required = false) final String clusterId,
+        @RequestParam(value = "commandName", required = false) final String commandName,
+        @RequestParam(value = "commandId", required = false) final String commandId,
+        @RequestParam(value = "minStarted", required = false) final Long minStarted,
+        @RequestParam(value = "maxStarted", required = false) final Long maxStarted,
+        @RequestParam(value = "minFinished", required = false) final Long minFinished,
+        @RequestParam(value = "maxFinished", required = false) final Long maxFinished,
+        @RequestParam(value = "grouping", required = false) final String grouping,
+        @RequestParam(value = "groupingInstance", required = false) final String groupingInstance,
+        @RequestParam(value = ControllerUtils.CURSOR_PARAM) final String cursor,
+        @RequestParam(
+            value = ControllerUtils.LIMIT_PARAM,
+            defaultValue = ControllerUtils.DEFAULT_CURSOR_LIMIT
+        ) final int limit
+    ) throws GenieException {
+        log.debug("[findJobs] Called with cursor {} and limit {}", cursor, limit);
+
+        Set<JobStatus> enumStatuses = null;
+        if (statuses != null && !statuses.isEmpty()) {
+            enumStatuses = EnumSet.noneOf(JobStatus.class);
+            for (final String status : statuses) {
+                if (StringUtils.isNotBlank(status)) {
+                    enumStatuses.add(JobStatus.parse(status));
+                }
+            }
+        }
+
+        return ControllerUtils.toCursorResources(
+            this.jobSearchService.findJobs(
+                id,
+                name,
+                user,
+                enumStatuses,
+                tags,
+                clusterName,
+                clusterId,
+                commandName,
+                commandId,
+                minStarted == null ? null : Instant.ofEpochMilli(minStarted),
+                maxStarted == null ? null : Instant.ofEpochMilli(maxStarted),
+                minFinished == null ? null : Instant.ofEpochMilli(minFinished),
+                maxFinished == null ? null : Instant.ofEpochMilli(maxFinished),
+                grouping,
+                groupingInstance,
+                ControllerUtils.getSearchCursor(cursor),
+                ControllerUtils.getCursorLimit(limit)
+            ),
+            this.jobSearchResultResourceAssembler::toResource
+        );
+    }
+
     /**
      * Kill job based on given job ID.
      *
@@ -731,6 +1126,11 @@ public class JobRestController {
                     );
                 } catch (final HttpStatusCodeException e) {
                     log.error("Failed getting the remote job output from {}. Error: {}", forwardHost, e.getMessage());
+                    final HttpHeaders errorHeaders = e.getResponseHeaders();
+                    if (errorHeaders != null && errorHeaders.containsKey(HttpHeaders.CONTENT_RANGE)) {
+                        // Tells the client the size of the file when the range it asked for can't be satisfied
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, errorHeaders.getFirst(HttpHeaders.CONTENT_RANGE));
+                    }
                     response.sendError(e.getStatusCode().value(), e.getStatusText());
                 } catch (final Exception e) {
                     log.error("Failed getting the remote job output from {}. Error: {}", forwardHost, e.getMessage());
@@ -755,6 +1155,10 @@ public class JobRestController {
         this.resourceHttpRequestHandler.handleRequest(request, response);
     }
 
+    private ObjectNode createStatusNode(final JobStatus status) {
+        return JsonNodeFactory.instance.objectNode().put(STATUS, status.toString());
+    }
+
     private String buildForwardHost(final String jobHostname) {
         return this.jobsProperties.getForwarding().getScheme()
             + "://"
@@ -0,0 +1,206 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.events;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.netflix.genie.web.properties.AsyncEventDispatchProperties;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ClassUtils;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An asynchronous event multicaster which isolates listeners from one another. Every listener gets its own executor
+ * with a bounded queue for each type of event it receives so a slow listener only backs up its own queue. What happens
+ * when a queue is full is decided by the configured {@link AsyncEventDispatchProperties.OverflowPolicy}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class BoundedAsyncApplicationEventMulticaster
+    extends SimpleApplicationEventMulticaster implements DisposableBean {
+
+    static final String QUEUE_SIZE_GAUGE_NAME = "genie.events.async.queue.size.gauge";
+    static final String DISPATCH_TIMER_NAME = "genie.events.async.dispatch.timer";
+    static final String LISTENER_TIMER_NAME = "genie.events.async.listener.timer";
+    static final String OVERFLOW_COUNTER_NAME = "genie.events.async.overflow.rate";
+    static final String EVENT_TYPE_TAG = "eventType";
+    static final String LISTENER_TAG = "listener";
+    static final String OVERFLOW_POLICY_TAG = "overflowPolicy";
+
+    private final AsyncEventDispatchProperties properties;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<Pair<ApplicationListener<?>, Class<?>>, ThreadPoolExecutor> executors =
+        Maps.newConcurrentMap();
+
+    /**
+     * Constructor.
+     *
+     * @param properties The queue and overflow configuration
+     * @param registry   The metrics registry to use
+     */
+    public BoundedAsyncApplicationEventMulticaster(
+        final AsyncEventDispatchProperties properties,
+        final MeterRegistry registry
+    ) {
+        super();
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void multicastEvent(final ApplicationEvent event, @Nullable final ResolvableType eventType) {
+        final ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+        for (final ApplicationListener<?> listener : this.getApplicationListeners(event, type)) {
+            this.dispatch(listener, event);
+        }
+    }
+
+    /**
+     * Shut down all the listener executors. Events already queued are still delivered.
+     */
+    @Override
+    public void destroy() {
+        this.executors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    private void dispatch(final ApplicationListener<?> listener, final ApplicationEvent event) {
+        final String listenerName = getListenerName(listener);
+        final String eventTypeName = event.getClass().getSimpleName();
+        final ThreadPoolExecutor executor = this.executors.computeIfAbsent(
+            Pair.of(listener, event.getClass()),
+            key -> this.createExecutor(listenerName, eventTypeName)
+        );
+        final long enqueued = System.nanoTime();
+        final Runnable task = () -> this.invoke(listener, event, listenerName, eventTypeName, enqueued);
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException ree) {
+            final AsyncEventDispatchProperties.OverflowPolicy policy = this.properties.getOverflowPolicy();
+            this.registry.counter(
+                OVERFLOW_COUNTER_NAME,
+                Tags.of(
+                    Tag.of(LISTENER_TAG, listenerName),
+                    Tag.of(EVENT_TYPE_TAG, eventTypeName),
+                    Tag.of(OVERFLOW_POLICY_TAG, policy.name())
+                )
+            ).increment();
+            if (policy == AsyncEventDispatchProperties.OverflowPolicy.CALLER_RUNS && !executor.isShutdown()) {
+                task.run();
+            } else {
+                log.warn("Dropping event {} for listener {} as its queue is full", eventTypeName, listenerName);
+            }
+        }
+    }
+
+    private void invoke(
+        final ApplicationListener<?> listener,
+        final ApplicationEvent event,
+        final String listenerName,
+        final String eventTypeName,
+        final long enqueued
+    ) {
+        final long start = System.nanoTime();
+        this.registry
+            .timer(DISPATCH_TIMER_NAME, LISTENER_TAG, listenerName, EVENT_TYPE_TAG, eventTypeName)
+            .record(start - enqueued, TimeUnit.NANOSECONDS);
+        final Set<Tag> tags = Sets.newHashSet(
+            Tag.of(LISTENER_TAG, listenerName),
+            Tag.of(EVENT_TYPE_TAG, eventTypeName)
+        );
+        try {
+            this.invokeListener(listener, event);
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Throwable t) {
+            // Nothing upstream is waiting for the result so log here rather than losing it on the listener thread
+            log.error("Listener {} failed to handle event {}", listenerName, event, t);
+            MetricsUtils.addFailureTagsWithException(tags, t);
+        } finally {
+            this.registry
+                .timer(LISTENER_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ThreadPoolExecutor createExecutor(final String listenerName, final String eventTypeName) {
+        final int threads = this.properties.getThreadsPerListener();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            this.properties.getKeepAlive(),
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(this.properties.getQueueCapacity()),
+            new CustomizableThreadFactory("genie-event-" + listenerName + "-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        // Listeners which only ever see the odd event shouldn't hold on to threads
+        executor.allowCoreThreadTimeOut(true);
+        this.registry.gauge(
+            QUEUE_SIZE_GAUGE_NAME,
+            Tags.of(LISTENER_TAG, listenerName, EVENT_TYPE_TAG, eventTypeName),
+            executor,
+            e -> e.getQueue().size()
+        );
+        return executor;
+    }
+
+    /**
+     * Get a short, stable name for a listener to use in metrics and thread names. Listeners registered through
+     * {@code @EventListener} are named after the declaring class and method.
+     *
+     * @param listener The listener
+     * @return The name
+     */
+    static String getListenerName(final ApplicationListener<?> listener) {
+        if (listener instanceof ApplicationListenerMethodAdapter) {
+            // The adapter describes itself with the full generic signature of the listener method
+            final String method = StringUtils.substringBefore(listener.toString(), "(");
+            final String qualifiedMethod = StringUtils.substringAfterLast(method, " ");
+            final String className = StringUtils.substringBeforeLast(qualifiedMethod, ".");
+            final String methodName = StringUtils.substringAfterLast(qualifiedMethod, ".");
+            if (StringUtils.isNotBlank(className) && StringUtils.isNotBlank(methodName)) {
+                return ClassUtils.getShortName(className) + "." + methodName;
+            }
+        }
+        return ClassUtils.getUserClass(listener).getSimpleName();
+    }
+}
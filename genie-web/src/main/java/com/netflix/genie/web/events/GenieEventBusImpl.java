@@ -22,6 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ApplicationEventMulticaster;
@@ -38,7 +39,7 @@ import javax.annotation.Nullable;
  */
 @Slf4j
 public class GenieEventBusImpl implements
-    GenieEventBus, ApplicationEventMulticaster, BeanClassLoaderAware, BeanFactoryAware {
+    GenieEventBus, ApplicationEventMulticaster, BeanClassLoaderAware, BeanFactoryAware, DisposableBean {
 
     private final SimpleApplicationEventMulticaster syncMulticaster;
     private final SimpleApplicationEventMulticaster asyncMulticaster;
@@ -161,4 +162,17 @@ public class GenieEventBusImpl implements
         this.syncMulticaster.setBeanFactory(beanFactory);
         this.asyncMulticaster.setBeanFactory(beanFactory);
     }
+
+    /**
+     * Release any resources held by the multicasters, e.g. the listener executors of a
+     * {@link BoundedAsyncApplicationEventMulticaster}.
+     *
+     * @throws Exception on error shutting down a multicaster
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (this.asyncMulticaster instanceof DisposableBean) {
+            ((DisposableBean) this.asyncMulticaster).destroy();
+        }
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.events;
+
+import com.netflix.genie.common.dto.JobStatus;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+/**
+ * An event fired once a change of the status of a job made by this node has been committed to the database.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Getter
+public class JobStatusChangedEvent extends BaseJobEvent {
+
+    private static final long serialVersionUID = -3527461395316243187L;
+
+    @Nullable
+    private final JobStatus previousStatus;
+    private final JobStatus newStatus;
+
+    /**
+     * Constructor.
+     *
+     * @param id             The id of the job whose status changed
+     * @param previousStatus The status the job had before or null if the job was just created
+     * @param newStatus      The status the job has now
+     * @param source         The source which created the event
+     */
+    public JobStatusChangedEvent(
+        @NotEmpty final String id,
+        @Nullable final JobStatus previousStatus,
+        @NotNull final JobStatus newStatus,
+        @NotNull final Object source
+    ) {
+        super(id, source);
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+    }
+}
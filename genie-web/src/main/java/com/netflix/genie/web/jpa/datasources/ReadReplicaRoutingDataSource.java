@@ -0,0 +1,229 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.datasources;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A data source which sends connections requested within read only transactions to one of a set of read replicas
+ * and everything else to the primary. Replicas are used round robin. A replica whose replication lag exceeds the
+ * configured maximum, or whose lag can't be determined, is skipped until it catches up. If no replica is usable reads
+ * fall back to the primary.
+ * <p>
+ * The read only flag of a transaction is only known after the transaction manager has begun the transaction so this
+ * data source must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} for
+ * routing to take effect.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY_KEY = "primary";
+    static final String ROUTE_COUNTER_NAME = "genie.jpa.readReplicas.route.counter";
+    static final String LAG_GAUGE_NAME = "genie.jpa.readReplicas.lag.gauge";
+    static final String AVAILABLE_GAUGE_NAME = "genie.jpa.readReplicas.available.gauge";
+    static final String TARGET_TAG = "target";
+
+    private final List<Replica> replicas;
+    private final long maxLag;
+    private final String lagQuery;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryRouteCounter;
+
+    /**
+     * Constructor.
+     *
+     * @param primary       The primary data source which all writes and any reads which can't be served by a
+     *                      replica go to
+     * @param replicas      The replica data sources keyed by a unique name
+     * @param maxLag        The maximum replication lag in milliseconds a replica can have and still serve reads
+     * @param lagQuery      The query which returns a replica's lag in milliseconds. Null or blank to not check lag.
+     * @param lagCheckRate  How often in milliseconds to check the lag of the replicas
+     * @param taskScheduler The scheduler to run lag checks with
+     * @param registry      The metrics registry to use
+     */
+    public ReadReplicaRoutingDataSource(
+        final DataSource primary,
+        final Map<String, DataSource> replicas,
+        final long maxLag,
+        @Nullable final String lagQuery,
+        final long lagCheckRate,
+        final TaskScheduler taskScheduler,
+        final MeterRegistry registry
+    ) {
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.primaryRouteCounter = registry.counter(ROUTE_COUNTER_NAME, TARGET_TAG, PRIMARY_KEY);
+
+        final Map<Object, Object> targets = Maps.newHashMap();
+        targets.put(PRIMARY_KEY, primary);
+        final ImmutableList.Builder<Replica> replicaBuilder = ImmutableList.builder();
+        for (final Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            final Replica replica = new Replica(
+                entry.getKey(),
+                entry.getValue(),
+                registry.counter(ROUTE_COUNTER_NAME, TARGET_TAG, entry.getKey())
+            );
+            final Tags tags = Tags.of(Tag.of(TARGET_TAG, entry.getKey()));
+            registry.gauge(LAG_GAUGE_NAME, tags, replica.getLag());
+            registry.gauge(
+                AVAILABLE_GAUGE_NAME,
+                tags,
+                replica,
+                value -> value.getAvailable().get() ? 1.0 : 0.0
+            );
+            replicaBuilder.add(replica);
+            targets.put(entry.getKey(), entry.getValue());
+        }
+        this.replicas = replicaBuilder.build();
+
+        this.setTargetDataSources(targets);
+        this.setDefaultTargetDataSource(primary);
+        // Don't try to resolve anything else than the keys we provide
+        this.setLenientFallback(false);
+
+        if (StringUtils.isNotBlank(this.lagQuery) && !this.replicas.isEmpty()) {
+            taskScheduler.scheduleWithFixedDelay(this::checkReplicaLag, lagCheckRate);
+        }
+    }
+
+    /**
+     * Check the replication lag of each replica and mark those which are too far behind as unavailable until the
+     * next check.
+     */
+    public void checkReplicaLag() {
+        for (final Replica replica : this.replicas) {
+            try {
+                final Long lag = new JdbcTemplate(replica.getDataSource()).queryForObject(this.lagQuery, Long.class);
+                if (lag == null) {
+                    throw new IllegalStateException("Lag query returned null");
+                }
+                replica.getLag().set(lag);
+                replica.getAvailable().set(lag <= this.maxLag);
+                if (lag > this.maxLag) {
+                    log.warn("Replica {} is {}ms behind. Routing reads elsewhere until it catches up", replica, lag);
+                }
+            } catch (final RuntimeException e) {
+                log.error(
+                    "Unable to determine lag of replica {} due to {}. Routing reads elsewhere",
+                    replica.getName(),
+                    e.getMessage(),
+                    e
+                );
+                replica.getAvailable().set(false);
+            }
+        }
+    }
+
+    /**
+     * Close any replica pools this data source routes to. The primary is left alone as its lifecycle is managed
+     * elsewhere.
+     */
+    @Override
+    public void close() {
+        for (final Replica replica : this.replicas) {
+            if (replica.getDataSource() instanceof Closeable) {
+                try {
+                    ((Closeable) replica.getDataSource()).close();
+                } catch (final Exception e) {
+                    log.error("Unable to close replica {} due to {}", replica.getName(), e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            final int numReplicas = this.replicas.size();
+            final int start = Math.abs(this.nextReplica.getAndIncrement() % Math.max(numReplicas, 1));
+            for (int i = 0; i < numReplicas; i++) {
+                final Replica replica = this.replicas.get((start + i) % numReplicas);
+                if (replica.getAvailable().get()) {
+                    replica.getRouteCounter().increment();
+                    return replica.getName();
+                }
+            }
+            log.debug("No read replica currently available. Routing read only transaction to primary");
+        }
+        this.primaryRouteCounter.increment();
+        return PRIMARY_KEY;
+    }
+
+    /**
+     * Get whether the replica with the given name is currently eligible to serve reads.
+     *
+     * @param name The name of the replica
+     * @return True if the replica is available
+     */
+    boolean isReplicaAvailable(final String name) {
+        return this.replicas
+            .stream()
+            .filter(replica -> replica.getName().equals(name))
+            .anyMatch(replica -> replica.getAvailable().get());
+    }
+
+    /**
+     * Runtime state of a single replica.
+     */
+    @Getter
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter routeCounter;
+        private final AtomicLong lag = new AtomicLong();
+        private final AtomicBoolean available = new AtomicBoolean(true);
+
+        private Replica(final String name, final DataSource dataSource, final Counter routeCounter) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.routeCounter = routeCounter;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+}
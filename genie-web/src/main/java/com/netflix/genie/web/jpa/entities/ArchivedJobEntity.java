@@ -0,0 +1,110 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.entities;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.Instant;
+
+/**
+ * A finished job which has been moved out of the jobs tables into the archive. Rather than being normalized across
+ * tables the job is stored as the serialized forms of the DTOs it's served as since it'll never change again.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = true, of = {"uniqueId"})
+@ToString(callSuper = true, of = {"uniqueId", "jobCreated"})
+@Entity
+@Table(name = "archived_jobs")
+public class ArchivedJobEntity extends AuditEntity {
+
+    @Basic(optional = false)
+    @Column(name = "unique_id", nullable = false, unique = true, updatable = false)
+    @NotBlank(message = "Must have a job id associated with this entity")
+    @Size(max = 255, message = "Max length of id database is 255 characters")
+    private String uniqueId;
+
+    @Basic(optional = false)
+    @Column(name = "job_created", nullable = false, updatable = false)
+    @NotNull(message = "Must have the time the job was created")
+    private Instant jobCreated;
+
+    @Lob
+    @Basic(optional = false, fetch = FetchType.LAZY)
+    @Column(name = "job", nullable = false, updatable = false, columnDefinition = "TEXT")
+    @NotBlank(message = "Must have the serialized job")
+    private String job;
+
+    @Lob
+    @Basic(optional = false, fetch = FetchType.LAZY)
+    @Column(name = "job_request", nullable = false, updatable = false, columnDefinition = "TEXT")
+    @NotBlank(message = "Must have the serialized job request")
+    private String jobRequest;
+
+    @Lob
+    @Basic(optional = false, fetch = FetchType.LAZY)
+    @Column(name = "job_execution", nullable = false, updatable = false, columnDefinition = "TEXT")
+    @NotBlank(message = "Must have the serialized job execution")
+    private String jobExecution;
+
+    @Lob
+    @Basic(optional = false, fetch = FetchType.LAZY)
+    @Column(name = "job_metadata", nullable = false, updatable = false, columnDefinition = "TEXT")
+    @NotBlank(message = "Must have the serialized job metadata")
+    private String jobMetadata;
+
+    // The resources below are snapshots taken when the job was archived. They're missing for jobs archived before
+    // they were recorded and for jobs which never got that far.
+
+    @Basic
+    @Column(name = "agent_hostname", updatable = false)
+    @Size(max = 255, message = "Max length in database is 255 characters")
+    private String agentHostname;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "job_cluster", updatable = false, columnDefinition = "TEXT")
+    private String jobCluster;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "job_command", updatable = false, columnDefinition = "TEXT")
+    private String jobCommand;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "job_applications", updatable = false, columnDefinition = "TEXT")
+    private String jobApplications;
+}
@@ -89,6 +89,15 @@ public class AuditEntity extends IdEntity implements AuditProjection {
         return this.updated;
     }
 
+    /**
+     * Get the version of this entity used for optimistic locking.
+     *
+     * @return The entity version. Null until the entity is first persisted.
+     */
+    public Integer getEntityVersion() {
+        return this.entityVersion;
+    }
+
     /**
      * {@inheritDoc}
      */
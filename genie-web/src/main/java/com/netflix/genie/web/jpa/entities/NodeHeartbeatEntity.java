@@ -0,0 +1,71 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.entities;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.Instant;
+
+/**
+ * The most recent liveness heartbeat written by a Genie node.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = true, of = {"hostname"})
+@ToString(callSuper = true, of = {"hostname", "lastHeartbeat", "numRunningJobs", "usedMemory"})
+@Entity
+@Table(name = "node_heartbeats")
+public class NodeHeartbeatEntity extends AuditEntity {
+
+    @Basic(optional = false)
+    @Column(name = "hostname", nullable = false, unique = true, updatable = false)
+    @NotBlank(message = "Must have a hostname associated with this entity")
+    @Size(max = 255, message = "Max length of hostname in database is 255 characters")
+    private String hostname;
+
+    @Basic(optional = false)
+    @Column(name = "last_heartbeat", nullable = false)
+    @NotNull(message = "Must have the time of the last heartbeat")
+    private Instant lastHeartbeat;
+
+    @Basic(optional = false)
+    @Column(name = "num_running_jobs", nullable = false)
+    @Min(value = 0, message = "Can't have less than zero running jobs")
+    private int numRunningJobs;
+
+    @Basic(optional = false)
+    @Column(name = "used_memory", nullable = false)
+    @Min(value = 0, message = "Can't have used less than zero memory")
+    private int usedMemory;
+}
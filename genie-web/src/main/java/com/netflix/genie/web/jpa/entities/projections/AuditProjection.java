@@ -40,4 +40,12 @@ public interface AuditProjection extends IdProjection {
      * @return The updated timestamp
      */
     Instant getUpdated();
+
+    /**
+     * Get the version of this entity used for optimistic locking. Incremented on every change, including changes to
+     * the collections the entity owns which don't touch the update time.
+     *
+     * @return The entity version
+     */
+    Integer getEntityVersion();
 }
@@ -0,0 +1,54 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.entities.projections;
+
+import com.netflix.genie.common.dto.JobStatus;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Projection for returning only the id, status and finish time of a job. Enough to decide whether a job is done with
+ * without loading the rest of it.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+public interface JobFinishedProjection {
+
+    /**
+     * Get the unique identifier of the job.
+     *
+     * @return The unique id
+     */
+    String getUniqueId();
+
+    /**
+     * Get the job status.
+     *
+     * @return The job status
+     */
+    JobStatus getStatus();
+
+    /**
+     * Get when the job finished.
+     *
+     * @return The finish time or empty Optional if the job hasn't finished
+     */
+    Optional<Instant> getFinished();
+}
@@ -0,0 +1,55 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.repositories;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Custom extension interface for the {@link JpaJobRepository} which reserves job ids in the {@code job_ids} table.
+ * The table has the id as its primary key and isn't partitioned so the database rejects a reused id even when the
+ * jobs tables are partitioned or the job has since been moved into the archive.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+public interface JobIdRepository {
+
+    /**
+     * Reserve the given job ids with a single statement. Must be called in the same transaction that saves the jobs
+     * so that the reservations are rolled back along with the jobs.
+     *
+     * @param uniqueIds The unique ids of the jobs being created
+     * @param created   The time the jobs are being created
+     * @throws org.springframework.dao.DataIntegrityViolationException If any of the ids is already reserved
+     */
+    void reserveUniqueIds(@NotEmpty final Collection<String> uniqueIds, @NotNull final Instant created);
+
+    /**
+     * Release a batch of the job id reservations made before the given threshold so the table doesn't grow without
+     * bound once the jobs themselves have been deleted.
+     *
+     * @param createdThreshold Only reservations made before this instant are released. Exclusive.
+     * @param limit            The maximum number of reservations to release
+     * @return The number of reservations released
+     */
+    int releaseUniqueIdsReservedBefore(@NotNull final Instant createdThreshold, @Min(1) final int limit);
+}
@@ -0,0 +1,102 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.repositories;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the {@link JobIdRepository} interface.
+ * <p>
+ * Works as a fragment.
+ * See <a href="https://tinyurl.com/yctelbfh">Spring Data JPA Documentation</a> for more.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class JobIdRepositoryImpl implements JobIdRepository {
+
+    private static final String UNIQUE_ID_PARAM = "uniqueId";
+    private static final String UNIQUE_IDS_PARAM = "uniqueIds";
+    private static final String CREATED_PARAM = "created";
+
+    private static final String INSERT_JOB_IDS_SQL = "INSERT INTO job_ids (unique_id, created) VALUES ";
+
+    private static final String SELECT_JOB_IDS_SQL = "SELECT unique_id FROM job_ids WHERE created < :" + CREATED_PARAM;
+
+    private static final String DELETE_JOB_IDS_SQL =
+        "DELETE FROM job_ids WHERE unique_id IN (:" + UNIQUE_IDS_PARAM + ")";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reserveUniqueIds(final Collection<String> uniqueIds, final Instant created) {
+        if (uniqueIds.isEmpty()) {
+            return;
+        }
+
+        // One multi row insert so a batch of jobs costs a single round trip
+        final String values = IntStream
+            .range(0, uniqueIds.size())
+            .mapToObj(i -> "(:" + UNIQUE_ID_PARAM + i + ", :" + CREATED_PARAM + ")")
+            .collect(Collectors.joining(", "));
+        final Query query = this.entityManager
+            .createNativeQuery(INSERT_JOB_IDS_SQL + values)
+            .setParameter(CREATED_PARAM, created);
+        int i = 0;
+        for (final String uniqueId : uniqueIds) {
+            query.setParameter(UNIQUE_ID_PARAM + i++, uniqueId);
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int releaseUniqueIdsReservedBefore(final Instant createdThreshold, final int limit) {
+        final List<?> uniqueIds = this.entityManager
+            .createNativeQuery(SELECT_JOB_IDS_SQL)
+            .setParameter(CREATED_PARAM, createdThreshold)
+            .setMaxResults(limit)
+            .getResultList();
+        if (uniqueIds.isEmpty()) {
+            return 0;
+        }
+
+        final int released = this.entityManager
+            .createNativeQuery(DELETE_JOB_IDS_SQL)
+            .setParameter(UNIQUE_IDS_PARAM, uniqueIds)
+            .executeUpdate();
+        log.debug("Released {} job ids reserved before {}", released, createdThreshold);
+        return released;
+    }
+}
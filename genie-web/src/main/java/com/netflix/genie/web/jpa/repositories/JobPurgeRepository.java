@@ -0,0 +1,53 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.repositories;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Custom extension interface for the {@link JpaJobRepository} which purges old jobs with set based native statements
+ * rather than loading and removing each entity through the persistence context.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+public interface JobPurgeRepository {
+
+    /**
+     * Delete all the jobs whose primary key is within the given (inclusive) range and which were created before the
+     * given threshold. The rows in the tables which reference the jobs are deleted first followed by the job rows
+     * themselves and finally the criteria which were owned by the jobs.
+     *
+     * @param minId            The lowest job primary key to consider. Inclusive.
+     * @param maxId            The highest job primary key to consider. Inclusive.
+     * @param createdThreshold Only jobs created before this instant are deleted. Exclusive.
+     * @return The number of job rows deleted
+     */
+    long deleteByIdBetweenAndCreatedBefore(final long minId, final long maxId, @NotNull final Instant createdThreshold);
+
+    /**
+     * Delete the jobs with the given primary keys along with the rows which reference them and the criteria they own.
+     *
+     * @param ids The primary keys of the jobs to delete
+     * @return The number of job rows deleted
+     */
+    long purgeByIdIn(@NotEmpty final List<Long> ids);
+}
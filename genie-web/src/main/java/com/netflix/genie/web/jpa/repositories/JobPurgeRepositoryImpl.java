@@ -0,0 +1,151 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.repositories;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the {@link JobPurgeRepository} interface.
+ * <p>
+ * Works as a fragment.
+ * See <a href="https://tinyurl.com/yctelbfh">Spring Data JPA Documentation</a> for more.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class JobPurgeRepositoryImpl implements JobPurgeRepository {
+
+    /**
+     * The tables which hold a {@code job_id} foreign key to the {@code jobs} table.
+     */
+    static final List<String> JOB_CHILD_TABLES = ImmutableList.of(
+        "job_command_arguments",
+        "job_environment_variables",
+        "job_requested_applications",
+        "job_requested_environment_variables",
+        "jobs_applications",
+        "jobs_cluster_criteria",
+        "jobs_configs",
+        "jobs_dependencies",
+        "jobs_tags"
+    );
+
+    private static final String IDS_PARAM = "ids";
+    private static final String TABLE_NAME_STRING = "{TABLE_NAME_HERE}";
+
+    private static final String SELECT_JOB_IDS_SQL =
+        "SELECT id FROM jobs WHERE id BETWEEN :minId AND :maxId AND created < :createdThreshold";
+
+    private static final String SELECT_COMMAND_CRITERION_IDS_SQL =
+        "SELECT command_criterion FROM jobs WHERE id IN (:" + IDS_PARAM + ")";
+
+    private static final String SELECT_CLUSTER_CRITERIA_IDS_SQL =
+        "SELECT criterion_id FROM jobs_cluster_criteria WHERE job_id IN (:" + IDS_PARAM + ")";
+
+    private static final String DELETE_JOB_CHILDREN_SQL =
+        "DELETE FROM " + TABLE_NAME_STRING + " WHERE job_id IN (:" + IDS_PARAM + ")";
+
+    private static final String DELETE_JOBS_SQL = "DELETE FROM jobs WHERE id IN (:" + IDS_PARAM + ")";
+
+    private static final String DELETE_CRITERIA_TAGS_SQL =
+        "DELETE FROM criteria_tags WHERE criterion_id IN (:" + IDS_PARAM + ")";
+
+    private static final String DELETE_CRITERIA_SQL = "DELETE FROM criteria WHERE id IN (:" + IDS_PARAM + ")";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long deleteByIdBetweenAndCreatedBefore(
+        final long minId,
+        final long maxId,
+        final Instant createdThreshold
+    ) {
+        final List<Long> jobIds = this.selectIds(
+            this.entityManager
+                .createNativeQuery(SELECT_JOB_IDS_SQL)
+                .setParameter("minId", minId)
+                .setParameter("maxId", maxId)
+                .setParameter("createdThreshold", createdThreshold)
+                .getResultList()
+        );
+        return this.purgeByIdIn(jobIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long purgeByIdIn(final List<Long> jobIds) {
+        if (jobIds.isEmpty()) {
+            return 0L;
+        }
+
+        // The criteria are owned by the jobs but referenced from them so they can only go once the jobs are gone
+        final Set<Long> criterionIds = Sets.newHashSet();
+        criterionIds.addAll(this.selectIds(SELECT_COMMAND_CRITERION_IDS_SQL, jobIds));
+        criterionIds.addAll(this.selectIds(SELECT_CLUSTER_CRITERIA_IDS_SQL, jobIds));
+
+        for (final String table : JOB_CHILD_TABLES) {
+            final int deleted = this.delete(DELETE_JOB_CHILDREN_SQL.replace(TABLE_NAME_STRING, table), jobIds);
+            log.debug("Deleted {} rows from {}", deleted, table);
+        }
+        final long deletedJobs = this.delete(DELETE_JOBS_SQL, jobIds);
+        if (deletedJobs != jobIds.size()) {
+            log.error("Deleted {} job records but expected to delete {}", deletedJobs, jobIds.size());
+        }
+
+        if (!criterionIds.isEmpty()) {
+            final List<Long> criteria = ImmutableList.copyOf(criterionIds);
+            this.delete(DELETE_CRITERIA_TAGS_SQL, criteria);
+            final int deletedCriteria = this.delete(DELETE_CRITERIA_SQL, criteria);
+            log.debug("Deleted {} criteria belonging to deleted jobs", deletedCriteria);
+        }
+
+        return deletedJobs;
+    }
+
+    private List<Long> selectIds(final String sql, final List<Long> ids) {
+        return this.selectIds(this.entityManager.createNativeQuery(sql).setParameter(IDS_PARAM, ids).getResultList());
+    }
+
+    // Native queries return whatever numeric type the driver maps BIGINT to so normalize
+    private List<Long> selectIds(final List<?> results) {
+        return results
+            .stream()
+            .map(result -> ((Number) result).longValue())
+            .collect(Collectors.toList());
+    }
+
+    private int delete(final String sql, final List<Long> ids) {
+        return this.entityManager.createNativeQuery(sql).setParameter(IDS_PARAM, ids).executeUpdate();
+    }
+}
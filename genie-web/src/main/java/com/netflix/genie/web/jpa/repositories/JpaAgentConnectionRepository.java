@@ -21,7 +21,9 @@ package com.netflix.genie.web.jpa.repositories;
 import com.netflix.genie.web.jpa.entities.AgentConnectionEntity;
 
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * JPA repository for active agent-to-server connections.
@@ -39,4 +41,12 @@ public interface JpaAgentConnectionRepository
      * @return an optional, containing the entity if it exists
      */
     Optional<AgentConnectionEntity> findByJobId(final @NotBlank String jobId);
+
+    /**
+     * Find the entities for all the given job ids in a single query.
+     *
+     * @param jobIds The job ids
+     * @return The entities for the job ids which currently have a connection
+     */
+    Set<AgentConnectionEntity> findByJobIdIn(final @NotEmpty Set<String> jobIds);
 }
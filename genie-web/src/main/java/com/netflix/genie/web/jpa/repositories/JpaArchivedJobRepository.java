@@ -0,0 +1,78 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.repositories;
+
+import com.netflix.genie.web.jpa.entities.ArchivedJobEntity;
+import com.netflix.genie.web.jpa.entities.projections.IdProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Repository for jobs which have been moved into the archive.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+public interface JpaArchivedJobRepository extends JpaIdRepository<ArchivedJobEntity> {
+
+    /**
+     * Find the archived job with the given unique id.
+     *
+     * @param uniqueId The unique id of the job
+     * @return An optional, containing the archived job if it exists
+     */
+    Optional<ArchivedJobEntity> findByUniqueId(@NotBlank final String uniqueId);
+
+    /**
+     * Find all the archived jobs with the given unique ids.
+     *
+     * @param uniqueIds The unique ids of the jobs
+     * @return The archived jobs which were found. Ids which aren't in the archive are skipped.
+     */
+    Set<ArchivedJobEntity> findByUniqueIdIn(@NotEmpty final Set<String> uniqueIds);
+
+    /**
+     * Returns a slice of the ids of the archived jobs which were originally created before the given date.
+     *
+     * @param date     The date before which the jobs were created
+     * @param pageable The page of data to get
+     * @return The ids of the archived jobs
+     */
+    Slice<IdProjection> findByJobCreatedBefore(@NotNull final Instant date, @NotNull final Pageable pageable);
+
+    /**
+     * Delete all the archived jobs with the given ids using a single statement.
+     *
+     * @param ids The ids of the archived jobs to delete
+     * @return The number of archived jobs deleted
+     */
+    @Modifying
+    @Query("DELETE FROM ArchivedJobEntity a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") @NotEmpty final List<Long> ids);
+}
@@ -19,10 +19,13 @@ import com.netflix.genie.common.dto.JobStatus;
 import com.netflix.genie.web.jpa.entities.JobEntity;
 import com.netflix.genie.web.jpa.entities.projections.AgentHostnameProjection;
 import com.netflix.genie.web.jpa.entities.projections.IdProjection;
+import com.netflix.genie.web.jpa.entities.projections.JobFinishedProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobProjection;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
@@ -36,7 +39,7 @@ import java.util.Set;
  *
  * @author tgianos
  */
-public interface JpaJobRepository extends JpaBaseRepository<JobEntity> {
+public interface JpaJobRepository extends JpaBaseRepository<JobEntity>, JobPurgeRepository, JobIdRepository {
 
     // TODO: Make interfaces generic but be aware of https://jira.spring.io/browse/DATAJPA-1185
 
@@ -49,6 +52,24 @@ public interface JpaJobRepository extends JpaBaseRepository<JobEntity> {
      */
     Set<JobProjection> findByAgentHostnameAndStatusIn(final String agentHostname, final Set<JobStatus> statuses);
 
+    /**
+     * Find the id, status and finish time of all the jobs with the given unique ids in a single query.
+     *
+     * @param uniqueIds The unique ids of the jobs to find
+     * @return The jobs which were found. Ids with no matching job are left out
+     */
+    Set<JobFinishedProjection> findByUniqueIdIn(@NotEmpty final Set<String> uniqueIds);
+
+    /**
+     * Find all the jobs with the given unique ids in a single query and return them as the given projection.
+     *
+     * @param uniqueIds The unique ids of the jobs to find
+     * @param type      The projection type to return the jobs as
+     * @param <T>       The class of the projection
+     * @return The jobs which were found. Ids with no matching job are left out
+     */
+    <T> Set<T> findByUniqueIdIn(@NotEmpty final Set<String> uniqueIds, final Class<T> type);
+
     /**
      * Find the jobs with one of the statuses entered.
      *
@@ -84,4 +105,59 @@ public interface JpaJobRepository extends JpaBaseRepository<JobEntity> {
      */
     // TODO: Explore deleteFirst{N}ByCreatedBefore
     Slice<IdProjection> findByCreatedBefore(@NotNull final Instant date, @NotNull Pageable pageable);
+
+    /**
+     * Find the lowest primary key of the jobs created before the given date.
+     *
+     * @param date The date before which the jobs were created
+     * @return The lowest id or null if no jobs were created before the date
+     */
+    @Query("SELECT MIN(j.id) FROM JobEntity j WHERE j.created < :date")
+    Long findMinIdByCreatedBefore(@Param("date") @NotNull final Instant date);
+
+    /**
+     * Find the highest primary key of the jobs created before the given date.
+     *
+     * @param date The date before which the jobs were created
+     * @return The highest id or null if no jobs were created before the date
+     */
+    @Query("SELECT MAX(j.id) FROM JobEntity j WHERE j.created < :date")
+    Long findMaxIdByCreatedBefore(@Param("date") @NotNull final Instant date);
+
+    /**
+     * Find the unique ids of all the active, non agent, jobs running on nodes which haven't written a liveness
+     * heartbeat since the given threshold. Only jobs created before the threshold are returned so nodes which just came
+     * up have a chance to write their first heartbeat.
+     *
+     * @param activeStatuses The statuses which mean a job is active
+     * @param threshold      The instant the node must have written a heartbeat at or after to be considered alive
+     * @return The unique ids of the jobs
+     */
+    @Query(
+        "SELECT j.uniqueId FROM JobEntity j"
+            + " WHERE j.v4 = false"
+            + " AND j.status IN :activeStatuses"
+            + " AND j.created < :threshold"
+            + " AND j.agentHostname IS NOT NULL"
+            + " AND j.agentHostname NOT IN"
+            + " (SELECT h.hostname FROM NodeHeartbeatEntity h WHERE h.lastHeartbeat >= :threshold)"
+    )
+    Set<String> findUniqueIdsOfActiveJobsOnNodesWithoutHeartbeatSince(
+        @Param("activeStatuses") @NotEmpty final Set<JobStatus> activeStatuses,
+        @Param("threshold") @NotNull final Instant threshold
+    );
+
+    /**
+     * Find a slice of the jobs in any of the given statuses which finished before the given time.
+     *
+     * @param statuses The statuses the jobs can be in
+     * @param finished The instant the jobs must have finished before. Exclusive.
+     * @param pageable The page of results to get
+     * @return The jobs
+     */
+    Slice<JobEntity> findByStatusInAndFinishedBefore(
+        @NotEmpty final Set<JobStatus> statuses,
+        @NotNull final Instant finished,
+        @NotNull final Pageable pageable
+    );
 }
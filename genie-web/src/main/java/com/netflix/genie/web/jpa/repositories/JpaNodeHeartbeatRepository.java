@@ -0,0 +1,82 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.repositories;
+
+import com.netflix.genie.web.jpa.entities.NodeHeartbeatEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Repository for the liveness heartbeats of the Genie nodes.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+public interface JpaNodeHeartbeatRepository extends JpaIdRepository<NodeHeartbeatEntity> {
+
+    /**
+     * Find the heartbeat of the given node.
+     *
+     * @param hostname The hostname of the node
+     * @return An optional, containing the heartbeat if the node has written one
+     */
+    Optional<NodeHeartbeatEntity> findByHostname(@NotBlank final String hostname);
+
+    /**
+     * Find the hostnames of all the nodes whose last heartbeat was before the given threshold.
+     *
+     * @param threshold The instant before which the last heartbeat must have been written. Exclusive.
+     * @return The hostnames
+     */
+    @Query("SELECT h.hostname FROM NodeHeartbeatEntity h WHERE h.lastHeartbeat < :threshold")
+    Set<String> findHostnamesByLastHeartbeatBefore(@Param("threshold") @NotNull final Instant threshold);
+
+    /**
+     * Find the hostnames of all the nodes whose last heartbeat was at or after the given threshold.
+     *
+     * @param threshold The instant from which the last heartbeat must have been written. Inclusive.
+     * @return The hostnames
+     */
+    @Query("SELECT h.hostname FROM NodeHeartbeatEntity h WHERE h.lastHeartbeat >= :threshold")
+    Set<String> findHostnamesByLastHeartbeatSince(@Param("threshold") @NotNull final Instant threshold);
+
+    /**
+     * Find the heartbeats of all the nodes whose last heartbeat was at or after the given threshold.
+     *
+     * @param threshold The instant from which the last heartbeat must have been written. Inclusive.
+     * @return The heartbeats
+     */
+    Set<NodeHeartbeatEntity> findByLastHeartbeatGreaterThanEqual(@NotNull final Instant threshold);
+
+    /**
+     * Delete the heartbeats of all the nodes whose last heartbeat was before the given threshold.
+     *
+     * @param threshold The instant before which the last heartbeat must have been written. Exclusive.
+     * @return The number of heartbeats deleted
+     */
+    @Modifying
+    @Query("DELETE FROM NodeHeartbeatEntity h WHERE h.lastHeartbeat < :threshold")
+    int deleteByLastHeartbeatBefore(@Param("threshold") @NotNull final Instant threshold);
+}
@@ -18,6 +18,7 @@
 
 package com.netflix.genie.web.jpa.services;
 
+import com.google.common.collect.Sets;
 import com.netflix.genie.web.jpa.entities.AgentConnectionEntity;
 import com.netflix.genie.web.jpa.repositories.JpaAgentConnectionRepository;
 import com.netflix.genie.web.services.AgentConnectionPersistenceService;
@@ -25,7 +26,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * JPA implementation of AgentConnectionPersistenceService.
@@ -76,6 +80,41 @@ public class JpaAgentConnectionPersistenceServiceImpl implements AgentConnection
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveAgentConnections(@NotNull final Set<@NotBlank String> jobIds, @NotBlank final String hostname) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        final Set<String> missingJobIds = Sets.newHashSet(jobIds);
+        for (final AgentConnectionEntity existingEntity : this.agentConnectionRepository.findByJobIdIn(jobIds)) {
+            existingEntity.setServerHostname(hostname);
+            missingJobIds.remove(existingEntity.getJobId());
+        }
+        this.agentConnectionRepository.saveAll(
+            missingJobIds.stream().map(jobId -> this.toEntity(jobId, hostname)).collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeAgentConnections(@NotNull final Set<@NotBlank String> jobIds, @NotBlank final String hostname) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        this.agentConnectionRepository.deleteAll(
+            this.agentConnectionRepository
+                .findByJobIdIn(jobIds)
+                .stream()
+                .filter(entity -> entity.getServerHostname().equals(hostname))
+                .collect(Collectors.toList())
+        );
+    }
+
     /**
      * {@inheritDoc}
      */
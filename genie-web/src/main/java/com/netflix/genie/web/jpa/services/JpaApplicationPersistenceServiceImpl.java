@@ -39,6 +39,7 @@ import com.netflix.genie.web.jpa.entities.ApplicationEntity;
 import com.netflix.genie.web.jpa.entities.CommandEntity;
 import com.netflix.genie.web.jpa.entities.FileEntity;
 import com.netflix.genie.web.jpa.entities.TagEntity;
+import com.netflix.genie.web.jpa.entities.projections.AuditProjection;
 import com.netflix.genie.web.jpa.entities.v4.EntityDtoConverters;
 import com.netflix.genie.web.jpa.repositories.JpaApplicationRepository;
 import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
@@ -46,6 +47,8 @@ import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
 import com.netflix.genie.web.jpa.specifications.JpaApplicationSpecs;
 import com.netflix.genie.web.jpa.specifications.JpaCommandSpecs;
 import com.netflix.genie.web.services.ApplicationPersistenceService;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
@@ -56,6 +59,7 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.annotation.Nullable;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -139,6 +143,21 @@ public class JpaApplicationPersistenceServiceImpl extends JpaBaseService impleme
         return EntityDtoConverters.toV4ApplicationDto(this.findApplication(id));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getApplicationVersion(
+        @NotBlank(message = "No id entered. Unable to get") final String id
+    ) throws GenieException {
+        return JpaServiceUtils.toResourceVersion(
+            this.getApplicationRepository()
+                .findByUniqueId(id, AuditProjection.class)
+                .orElseThrow(() -> new GenieNotFoundException("No application with id " + id))
+        );
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -175,6 +194,43 @@ public class JpaApplicationPersistenceServiceImpl extends JpaBaseService impleme
         return applicationEntities.map(EntityDtoConverters::toV4ApplicationDto);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<Application> getApplications(
+        @Nullable final String name,
+        @Nullable final String user,
+        @Nullable final Set<ApplicationStatus> statuses,
+        @Nullable final Set<String> tags,
+        @Nullable final String type,
+        @Nullable final SearchCursor cursor,
+        @Min(1) final int limit
+    ) {
+        log.debug("Called");
+
+        final Set<TagEntity> tagEntities;
+        // Find the tag entity references. If one doesn't exist return empty slice as if the tag doesn't exist
+        // no entities tied to that tag will exist either and today our search for tags is an AND
+        if (tags != null) {
+            tagEntities = this.getTagPersistenceService().getTags(tags);
+            if (tagEntities.size() != tags.size()) {
+                return new CursorSlice<>(new ArrayList<>(), null);
+            }
+        } else {
+            tagEntities = null;
+        }
+
+        return this.findSlice(
+            ApplicationEntity.class,
+            JpaApplicationSpecs.find(name, user, statuses, tagEntities, type),
+            cursor,
+            limit,
+            EntityDtoConverters::toV4ApplicationDto
+        );
+    }
+
     /**
      * {@inheritDoc}
      */
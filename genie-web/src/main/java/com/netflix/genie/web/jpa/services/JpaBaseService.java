@@ -29,16 +29,28 @@ import com.netflix.genie.web.jpa.entities.UniqueIdEntity;
 import com.netflix.genie.web.jpa.repositories.JpaApplicationRepository;
 import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
 import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
+import com.netflix.genie.web.jpa.specifications.JpaSpecificationUtils;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 
 import javax.annotation.Nullable;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotBlank;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Base service for other services to extend for common functionality.
@@ -56,6 +68,10 @@ class JpaBaseService {
     private final JpaClusterRepository clusterRepository;
     private final JpaCommandRepository commandRepository;
 
+    @PersistenceContext
+    @Getter(AccessLevel.NONE)
+    private EntityManager entityManager;
+
     /**
      * Constructor.
      *
@@ -224,4 +240,53 @@ class JpaBaseService {
     Optional<CommandEntity> getCommandEntity(@NotBlank(message = "No command id entered") final String id) {
         return this.commandRepository.findByUniqueId(id);
     }
+
+    /**
+     * Run a keyset (seek) search for entities matching the given specification. Results are ordered by
+     * (created, uniqueId) descending and no count query is issued. One extra row beyond {@code limit} is fetched
+     * purely to determine whether there is another slice after this one.
+     *
+     * @param entityClass   The class of the entity to search for
+     * @param specification The filter criteria
+     * @param cursor        Where to resume the search from or null to start at the beginning
+     * @param limit         The maximum number of results to return
+     * @param converter     Function to convert the found entities into DTOs
+     * @param <E>           The entity type
+     * @param <D>           The DTO type
+     * @return The slice of converted results and the cursor to resume from if there are more
+     */
+    <E extends UniqueIdEntity, D> CursorSlice<D> findSlice(
+        final Class<E> entityClass,
+        final Specification<E> specification,
+        @Nullable final SearchCursor cursor,
+        final int limit,
+        final Function<E, D> converter
+    ) {
+        final CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        final CriteriaQuery<E> query = cb.createQuery(entityClass);
+        final Root<E> root = query.from(entityClass);
+
+        final Predicate findPredicate = specification.toPredicate(root, query, cb);
+        if (cursor != null) {
+            query.where(cb.and(findPredicate, JpaSpecificationUtils.getKeysetPredicate(root, cb, cursor)));
+        } else {
+            query.where(findPredicate);
+        }
+        query.select(root).orderBy(JpaSpecificationUtils.getKeysetOrders(root, cb));
+
+        final List<E> entities = this.entityManager
+            .createQuery(query)
+            .setMaxResults(limit + 1)
+            .getResultList();
+
+        if (entities.size() > limit) {
+            final E last = entities.get(limit - 1);
+            return new CursorSlice<>(
+                entities.subList(0, limit),
+                new SearchCursor(last.getCreated(), last.getUniqueId())
+            ).map(converter);
+        } else {
+            return new CursorSlice<>(entities, null).map(converter);
+        }
+    }
 }
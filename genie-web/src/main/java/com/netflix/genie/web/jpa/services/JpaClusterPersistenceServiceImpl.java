@@ -45,6 +45,7 @@ import com.netflix.genie.web.jpa.entities.ClusterEntity;
 import com.netflix.genie.web.jpa.entities.CommandEntity;
 import com.netflix.genie.web.jpa.entities.FileEntity;
 import com.netflix.genie.web.jpa.entities.TagEntity;
+import com.netflix.genie.web.jpa.entities.projections.AuditProjection;
 import com.netflix.genie.web.jpa.entities.projections.ClusterCommandsProjection;
 import com.netflix.genie.web.jpa.entities.v4.EntityDtoConverters;
 import com.netflix.genie.web.jpa.repositories.JpaApplicationRepository;
@@ -52,6 +53,8 @@ import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
 import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
 import com.netflix.genie.web.jpa.specifications.JpaClusterSpecs;
 import com.netflix.genie.web.services.ClusterPersistenceService;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
@@ -62,6 +65,7 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.annotation.Nullable;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -148,6 +152,21 @@ public class JpaClusterPersistenceServiceImpl extends JpaBaseService implements
         return EntityDtoConverters.toV4ClusterDto(this.findCluster(id));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getClusterVersion(
+        @NotBlank(message = "No id entered. Unable to get.") final String id
+    ) throws GenieException {
+        return JpaServiceUtils.toResourceVersion(
+            this.getClusterRepository()
+                .findByUniqueId(id, AuditProjection.class)
+                .orElseThrow(() -> new GenieNotFoundException("No cluster with id " + id + " exists."))
+        );
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -183,6 +202,43 @@ public class JpaClusterPersistenceServiceImpl extends JpaBaseService implements
         return clusterEntities.map(EntityDtoConverters::toV4ClusterDto);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<Cluster> getClusters(
+        @Nullable final String name,
+        @Nullable final Set<ClusterStatus> statuses,
+        @Nullable final Set<String> tags,
+        @Nullable final Instant minUpdateTime,
+        @Nullable final Instant maxUpdateTime,
+        @Nullable final SearchCursor cursor,
+        @Min(1) final int limit
+    ) {
+        log.debug("called");
+
+        final Set<TagEntity> tagEntities;
+        // Find the tag entity references. If one doesn't exist return empty slice as if the tag doesn't exist
+        // no entities tied to that tag will exist either and today our search for tags is an AND
+        if (tags != null) {
+            tagEntities = this.getTagPersistenceService().getTags(tags);
+            if (tagEntities.size() != tags.size()) {
+                return new CursorSlice<>(new ArrayList<>(), null);
+            }
+        } else {
+            tagEntities = null;
+        }
+
+        return this.findSlice(
+            ClusterEntity.class,
+            JpaClusterSpecs.find(name, statuses, tagEntities, minUpdateTime, maxUpdateTime),
+            cursor,
+            limit,
+            EntityDtoConverters::toV4ClusterDto
+        );
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -43,6 +43,7 @@ import com.netflix.genie.web.jpa.entities.ClusterEntity;
 import com.netflix.genie.web.jpa.entities.CommandEntity;
 import com.netflix.genie.web.jpa.entities.FileEntity;
 import com.netflix.genie.web.jpa.entities.TagEntity;
+import com.netflix.genie.web.jpa.entities.projections.AuditProjection;
 import com.netflix.genie.web.jpa.entities.v4.EntityDtoConverters;
 import com.netflix.genie.web.jpa.repositories.JpaApplicationRepository;
 import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
@@ -50,6 +51,8 @@ import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
 import com.netflix.genie.web.jpa.specifications.JpaClusterSpecs;
 import com.netflix.genie.web.jpa.specifications.JpaCommandSpecs;
 import com.netflix.genie.web.services.CommandPersistenceService;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
@@ -60,6 +63,7 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.annotation.Nullable;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -144,6 +148,21 @@ public class JpaCommandPersistenceServiceImpl extends JpaBaseService implements
         return EntityDtoConverters.toV4CommandDto(this.findCommand(id));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getCommandVersion(
+        @NotBlank(message = "No id entered unable to get.") final String id
+    ) throws GenieException {
+        return JpaServiceUtils.toResourceVersion(
+            this.getCommandRepository()
+                .findByUniqueId(id, AuditProjection.class)
+                .orElseThrow(() -> new GenieNotFoundException("No command with id " + id + " exists."))
+        );
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -183,6 +202,42 @@ public class JpaCommandPersistenceServiceImpl extends JpaBaseService implements
         return commandEntities.map(EntityDtoConverters::toV4CommandDto);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<Command> getCommands(
+        @Nullable final String name,
+        @Nullable final String user,
+        @Nullable final Set<CommandStatus> statuses,
+        @Nullable final Set<String> tags,
+        @Nullable final SearchCursor cursor,
+        @Min(1) final int limit
+    ) {
+        log.debug("Called");
+
+        final Set<TagEntity> tagEntities;
+        // Find the tag entity references. If one doesn't exist return empty slice as if the tag doesn't exist
+        // no entities tied to that tag will exist either and today our search for tags is an AND
+        if (tags != null) {
+            tagEntities = this.getTagPersistenceService().getTags(tags);
+            if (tagEntities.size() != tags.size()) {
+                return new CursorSlice<>(new ArrayList<>(), null);
+            }
+        } else {
+            tagEntities = null;
+        }
+
+        return this.findSlice(
+            CommandEntity.class,
+            JpaCommandSpecs.find(name, user, statuses, tagEntities),
+            cursor,
+            limit,
+            EntityDtoConverters::toV4CommandDto
+        );
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -17,8 +17,13 @@
  */
 package com.netflix.genie.web.jpa.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.google.common.collect.Sets;
 import com.netflix.genie.common.dto.ClusterCriteria;
 import com.netflix.genie.common.dto.Job;
 import com.netflix.genie.common.dto.JobExecution;
@@ -46,20 +51,26 @@ import com.netflix.genie.common.internal.exceptions.unchecked.GenieJobAlreadyCla
 import com.netflix.genie.common.internal.exceptions.unchecked.GenieJobNotFoundException;
 import com.netflix.genie.common.internal.exceptions.unchecked.GenieRuntimeException;
 import com.netflix.genie.common.util.GenieObjectMapper;
+import com.netflix.genie.web.events.GenieEventBus;
+import com.netflix.genie.web.events.JobStatusChangedEvent;
 import com.netflix.genie.web.jpa.entities.ApplicationEntity;
+import com.netflix.genie.web.jpa.entities.ArchivedJobEntity;
 import com.netflix.genie.web.jpa.entities.ClusterEntity;
 import com.netflix.genie.web.jpa.entities.CommandEntity;
 import com.netflix.genie.web.jpa.entities.CriterionEntity;
 import com.netflix.genie.web.jpa.entities.FileEntity;
 import com.netflix.genie.web.jpa.entities.JobEntity;
+import com.netflix.genie.web.jpa.entities.TagEntity;
 import com.netflix.genie.web.jpa.entities.projections.IdProjection;
 import com.netflix.genie.web.jpa.entities.projections.v4.JobSpecificationProjection;
 import com.netflix.genie.web.jpa.entities.projections.v4.V4JobRequestProjection;
 import com.netflix.genie.web.jpa.entities.v4.EntityDtoConverters;
 import com.netflix.genie.web.jpa.repositories.JpaApplicationRepository;
+import com.netflix.genie.web.jpa.repositories.JpaArchivedJobRepository;
 import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
 import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
 import com.netflix.genie.web.jpa.repositories.JpaJobRepository;
+import com.netflix.genie.web.services.ActiveJobCountService;
 import com.netflix.genie.web.services.JobPersistenceService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -68,6 +79,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.Nullable;
 import javax.validation.ConstraintViolationException;
@@ -77,7 +90,9 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -97,6 +112,9 @@ import java.util.stream.Collectors;
 public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobPersistenceService {
 
     private final JpaJobRepository jobRepository;
+    private final JpaArchivedJobRepository archivedJobRepository;
+    private final ActiveJobCountService activeJobCountService;
+    private final GenieEventBus genieEventBus;
 
     /**
      * Constructor.
@@ -107,6 +125,9 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
      * @param clusterRepository      The {@link JpaClusterRepository} to use
      * @param commandRepository      The {@link JpaCommandRepository} to use
      * @param jobRepository          The {@link JpaJobRepository} to use
+     * @param archivedJobRepository  The {@link JpaArchivedJobRepository} to use
+     * @param activeJobCountService  The {@link ActiveJobCountService} to report job status changes to
+     * @param genieEventBus          The event bus to publish committed job status changes on
      */
     public JpaJobPersistenceServiceImpl(
         final JpaTagPersistenceService tagPersistenceService,
@@ -114,7 +135,10 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
         final JpaApplicationRepository applicationRepository,
         final JpaClusterRepository clusterRepository,
         final JpaCommandRepository commandRepository,
-        final JpaJobRepository jobRepository
+        final JpaJobRepository jobRepository,
+        final JpaArchivedJobRepository archivedJobRepository,
+        final ActiveJobCountService activeJobCountService,
+        final GenieEventBus genieEventBus
     ) {
         super(
             tagPersistenceService,
@@ -124,6 +148,9 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
             commandRepository
         );
         this.jobRepository = jobRepository;
+        this.archivedJobRepository = archivedJobRepository;
+        this.activeJobCountService = activeJobCountService;
+        this.genieEventBus = genieEventBus;
     }
 
     /**
@@ -145,12 +172,72 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
         );
 
         final String jobId = jobRequest.getId().orElseThrow(() -> new GeniePreconditionException("No job id entered"));
-        final JobEntity jobEntity = this.toEntity(jobId, jobRequest, jobMetadata, job, jobExecution);
+        final JobEntity jobEntity = this.toEntity(
+            jobId,
+            jobRequest,
+            jobMetadata,
+            job,
+            jobExecution,
+            Maps.newHashMap(),
+            Maps.newHashMap()
+        );
         try {
+            this.jobRepository.reserveUniqueIds(ImmutableList.of(jobId), Instant.now());
             this.jobRepository.save(jobEntity);
         } catch (final DataIntegrityViolationException e) {
             throw new GenieConflictException("A job with id " + jobId + " already exists", e);
         }
+        this.reportStatusChange(jobId, jobEntity.getUser(), null, jobEntity.getStatus());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void createJobs(
+        @NotNull final List<com.netflix.genie.common.dto.JobRequest> jobRequests,
+        @NotNull final com.netflix.genie.common.dto.JobMetadata jobMetadata,
+        @NotNull final List<Job> jobs,
+        @NotNull final List<JobExecution> jobExecutions
+    ) throws GenieException {
+        log.debug("Called to create {} jobs", jobRequests.size());
+        if (jobs.size() != jobRequests.size() || jobExecutions.size() != jobRequests.size()) {
+            throw new GeniePreconditionException("Need exactly one job and job execution per job request");
+        }
+
+        final List<String> jobIds = Lists.newArrayListWithExpectedSize(jobRequests.size());
+        for (final com.netflix.genie.common.dto.JobRequest jobRequest : jobRequests) {
+            jobIds.add(jobRequest.getId().orElseThrow(() -> new GeniePreconditionException("No job id entered")));
+        }
+        final Set<String> uniqueJobIds = Sets.newHashSet(jobIds);
+        if (uniqueJobIds.size() != jobIds.size()) {
+            throw new GenieConflictException("The same job id was used more than once");
+        }
+        final Map<String, TagEntity> tagCache = Maps.newHashMap();
+        final Map<String, FileEntity> fileCache = Maps.newHashMap();
+        final List<JobEntity> jobEntities = Lists.newArrayListWithExpectedSize(jobRequests.size());
+        for (int i = 0; i < jobRequests.size(); i++) {
+            jobEntities.add(
+                this.toEntity(
+                    jobIds.get(i),
+                    jobRequests.get(i),
+                    jobMetadata,
+                    jobs.get(i),
+                    jobExecutions.get(i),
+                    tagCache,
+                    fileCache
+                )
+            );
+        }
+        try {
+            this.jobRepository.reserveUniqueIds(jobIds, Instant.now());
+            this.jobRepository.saveAll(jobEntities);
+        } catch (final DataIntegrityViolationException e) {
+            throw new GenieConflictException("One of the jobs already exists", e);
+        }
+        for (final JobEntity jobEntity : jobEntities) {
+            this.reportStatusChange(jobEntity.getUniqueId(), jobEntity.getUser(), null, jobEntity.getStatus());
+        }
     }
 
     /**
@@ -314,6 +401,131 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
         return totalAttemptedDeletions;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Range<Long>> getIdRangeOfJobsCreatedBeforeDate(@NotNull final Instant date) {
+        final Long minId = this.jobRepository.findMinIdByCreatedBefore(date);
+        final Long maxId = this.jobRepository.findMaxIdByCreatedBefore(date);
+        if (minId == null || maxId == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Range.closed(minId, maxId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long deleteJobsCreatedBeforeDateInIdRange(
+        @NotNull final Instant date,
+        @NotNull final Range<Long> idRange
+    ) {
+        log.debug("Attempting to delete jobs with ids in {} created before {}", idRange, date);
+        final long deletedJobs = this.jobRepository.deleteByIdBetweenAndCreatedBefore(
+            idRange.lowerEndpoint(),
+            idRange.upperEndpoint(),
+            date
+        );
+        log.debug("Deleted {} jobs with ids in {}", deletedJobs, idRange);
+        return deletedJobs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long archiveJobsFinishedBefore(@NotNull final Instant date, @Min(1) final int batchSize) {
+        log.debug("Attempting to archive up to {} jobs finished before {}", batchSize, date);
+        final Slice<JobEntity> jobs = this.jobRepository.findByStatusInAndFinishedBefore(
+            JobStatus.getFinishedStatuses(),
+            date,
+            PageRequest.of(0, batchSize)
+        );
+        if (!jobs.hasContent()) {
+            return 0L;
+        }
+
+        final List<Long> ids = Lists.newArrayListWithExpectedSize(jobs.getNumberOfElements());
+        final List<ArchivedJobEntity> archivedJobs = Lists.newArrayListWithExpectedSize(jobs.getNumberOfElements());
+        for (final JobEntity job : jobs) {
+            archivedJobs.add(this.toArchivedEntity(job));
+            ids.add(job.getId());
+        }
+        // Make sure the archive rows are written before the native statements remove the originals
+        this.archivedJobRepository.saveAll(archivedJobs);
+        this.archivedJobRepository.flush();
+        final long archived = this.jobRepository.purgeByIdIn(ids);
+        log.debug("Archived {} jobs finished before {}", archived, date);
+        return archived;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long releaseBatchOfJobIdsCreatedBefore(@NotNull final Instant date, @Min(1) final int batchSize) {
+        log.debug("Attempting to release up to {} job ids reserved before {}", batchSize, date);
+        return this.jobRepository.releaseUniqueIdsReservedBefore(date, batchSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long deleteBatchOfArchivedJobsCreatedBefore(@NotNull final Instant date, @Min(1) final int batchSize) {
+        log.debug("Attempting to delete up to {} archived jobs created before {}", batchSize, date);
+        final Slice<IdProjection> idProjections = this.archivedJobRepository.findByJobCreatedBefore(
+            date,
+            PageRequest.of(0, batchSize)
+        );
+        if (!idProjections.hasContent()) {
+            return 0L;
+        }
+        final List<Long> ids = idProjections
+            .getContent()
+            .stream()
+            .map(IdProjection::getId)
+            .collect(Collectors.toList());
+        final long deleted = this.archivedJobRepository.deleteByIdIn(ids);
+        log.debug("Deleted {} archived jobs created before {}", deleted, date);
+        return deleted;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> failActiveJobsOnNodesWithoutHeartbeatSince(
+        @NotNull final Instant threshold,
+        final int exitCode,
+        @NotBlank final String statusMessage
+    ) {
+        final Set<String> lostJobIds = this.jobRepository.findUniqueIdsOfActiveJobsOnNodesWithoutHeartbeatSince(
+            JobStatus.getActiveStatuses(),
+            threshold
+        );
+        final Set<String> failedJobIds = Sets.newHashSet();
+        for (final String lostJobId : lostJobIds) {
+            // Go through the regular status change so the active job counts and status listeners are kept up to date
+            final Optional<JobEntity> jobEntity = this.jobRepository.findByUniqueId(lostJobId);
+            if (!jobEntity.isPresent() || !jobEntity.get().getStatus().isActive()) {
+                continue;
+            }
+            final JobEntity lostJob = jobEntity.get();
+            this.updateJobStatus(lostJob, JobStatus.FAILED, statusMessage);
+            lostJob.setExitCode(exitCode);
+            if (!lostJob.getFinished().isPresent()) {
+                lostJob.setFinished(Instant.now());
+            }
+            failedJobIds.add(lostJobId);
+        }
+        log.debug("Failed {} jobs on nodes without a heartbeat since {}", failedJobIds.size(), threshold);
+        return failedJobIds;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -341,7 +553,9 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
 
         // Persist. Catch exception if the ID is reused
         try {
+            this.jobRepository.reserveUniqueIds(ImmutableList.of(jobEntity.getUniqueId()), Instant.now());
             final String id = this.jobRepository.save(jobEntity).getUniqueId();
+            this.reportStatusChange(id, jobEntity.getUser(), null, jobEntity.getStatus());
             log.debug(
                 "Saved job request {} with request metadata {} under job id {}",
                 jobRequest,
@@ -571,6 +785,53 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
         );
     }
 
+    private ArchivedJobEntity toArchivedEntity(final JobEntity jobEntity) {
+        final ArchivedJobEntity archivedJobEntity = new ArchivedJobEntity();
+        archivedJobEntity.setUniqueId(jobEntity.getUniqueId());
+        archivedJobEntity.setJobCreated(jobEntity.getCreated());
+        jobEntity.getAgentHostname().ifPresent(archivedJobEntity::setAgentHostname);
+        try {
+            archivedJobEntity.setJob(
+                GenieObjectMapper.getMapper().writeValueAsString(JpaServiceUtils.toJobDto(jobEntity))
+            );
+            archivedJobEntity.setJobRequest(
+                GenieObjectMapper.getMapper().writeValueAsString(JpaServiceUtils.toJobRequestDto(jobEntity))
+            );
+            archivedJobEntity.setJobExecution(
+                GenieObjectMapper.getMapper().writeValueAsString(JpaServiceUtils.toJobExecutionDto(jobEntity))
+            );
+            archivedJobEntity.setJobMetadata(
+                GenieObjectMapper.getMapper().writeValueAsString(JpaServiceUtils.toJobMetadataDto(jobEntity))
+            );
+            if (jobEntity.getCluster().isPresent()) {
+                archivedJobEntity.setJobCluster(
+                    GenieObjectMapper
+                        .getMapper()
+                        .writeValueAsString(JpaServiceUtils.toClusterDto(jobEntity.getCluster().get()))
+                );
+            }
+            if (jobEntity.getCommand().isPresent()) {
+                archivedJobEntity.setJobCommand(
+                    GenieObjectMapper
+                        .getMapper()
+                        .writeValueAsString(JpaServiceUtils.toCommandDto(jobEntity.getCommand().get()))
+                );
+            }
+            archivedJobEntity.setJobApplications(
+                GenieObjectMapper.getMapper().writeValueAsString(
+                    jobEntity
+                        .getApplications()
+                        .stream()
+                        .map(JpaServiceUtils::toApplicationDto)
+                        .collect(Collectors.toList())
+                )
+            );
+        } catch (final JsonProcessingException e) {
+            throw new GenieRuntimeException("Unable to serialize job " + jobEntity.getUniqueId() + " to archive", e);
+        }
+        return archivedJobEntity;
+    }
+
     private void updateJobStatus(
         final JobEntity jobEntity,
         final JobStatus newStatus,
@@ -581,6 +842,7 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
         if (currentStatus.isActive()) {
             jobEntity.setStatus(newStatus);
             jobEntity.setStatusMsg(statusMsg);
+            this.reportStatusChange(jobEntity.getUniqueId(), jobEntity.getUser(), currentStatus, newStatus);
 
             if (newStatus.equals(JobStatus.RUNNING)) {
                 // Status being changed to running so set start date.
@@ -593,12 +855,46 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
         }
     }
 
+    private void reportStatusChange(
+        final String id,
+        final String user,
+        @Nullable final JobStatus previousStatus,
+        final JobStatus newStatus
+    ) {
+        // Only report the change once it's committed so a rolled back transaction doesn't throw the counts off and
+        // listeners reading the job back see the new status
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        statusChanged(id, user, previousStatus, newStatus);
+                    }
+                }
+            );
+        } else {
+            this.statusChanged(id, user, previousStatus, newStatus);
+        }
+    }
+
+    private void statusChanged(
+        final String id,
+        final String user,
+        @Nullable final JobStatus previousStatus,
+        final JobStatus newStatus
+    ) {
+        this.activeJobCountService.jobStatusChanged(user, previousStatus, newStatus);
+        this.genieEventBus.publishSynchronousEvent(new JobStatusChangedEvent(id, previousStatus, newStatus, this));
+    }
+
     private JobEntity toEntity(
         final String id,
         final com.netflix.genie.common.dto.JobRequest jobRequest,
         final com.netflix.genie.common.dto.JobMetadata jobMetadata,
         final Job job,
-        final JobExecution jobExecution
+        final JobExecution jobExecution,
+        final Map<String, TagEntity> tagCache,
+        final Map<String, FileEntity> fileCache
     ) {
         final JobEntity jobEntity = new JobEntity();
 
@@ -624,7 +920,7 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
         );
         jobRequest.getGroup().ifPresent(jobEntity::setGenieUserGroup);
         final FileEntity setupFile = jobRequest.getSetupFile().isPresent()
-            ? this.createAndGetFileEntity(jobRequest.getSetupFile().get())
+            ? this.getFileEntity(jobRequest.getSetupFile().get(), fileCache)
             : null;
         if (setupFile != null) {
             jobEntity.setSetupFile(setupFile);
@@ -639,7 +935,7 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
                     null,
                     null,
                     null,
-                    this.createAndGetTagEntities(clusterCriterion.getTags())
+                    this.getTagEntities(clusterCriterion.getTags(), tagCache)
                 )
             );
         }
@@ -651,15 +947,15 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
                 null,
                 null,
                 null,
-                this.createAndGetTagEntities(jobRequest.getCommandCriteria())
+                this.getTagEntities(jobRequest.getCommandCriteria(), tagCache)
             )
         );
-        jobEntity.setConfigs(this.createAndGetFileEntities(jobRequest.getConfigs()));
-        jobEntity.setDependencies(this.createAndGetFileEntities(jobRequest.getDependencies()));
+        jobEntity.setConfigs(this.getFileEntities(jobRequest.getConfigs(), fileCache));
+        jobEntity.setDependencies(this.getFileEntities(jobRequest.getDependencies(), fileCache));
         jobEntity.setArchivingDisabled(jobRequest.isDisableLogArchival());
         jobRequest.getEmail().ifPresent(jobEntity::setEmail);
         if (!jobRequest.getTags().isEmpty()) {
-            jobEntity.setTags(this.createAndGetTagEntities(jobRequest.getTags()));
+            jobEntity.setTags(this.getTagEntities(jobRequest.getTags(), tagCache));
         }
         jobRequest.getCpu().ifPresent(jobEntity::setRequestedCpu);
         jobRequest.getMemory().ifPresent(jobEntity::setRequestedMemory);
@@ -701,6 +997,27 @@ public class JpaJobPersistenceServiceImpl extends JpaBaseService implements JobP
         return jobEntity;
     }
 
+    // Jobs created together tend to share the same tags and files so only look each one up once
+    private Set<TagEntity> getTagEntities(final Set<String> tags, final Map<String, TagEntity> tagCache) {
+        final Set<TagEntity> tagEntities = Sets.newHashSet();
+        for (final String tag : tags) {
+            tagEntities.add(tagCache.computeIfAbsent(tag, this::createAndGetTagEntity));
+        }
+        return tagEntities;
+    }
+
+    private FileEntity getFileEntity(final String file, final Map<String, FileEntity> fileCache) {
+        return fileCache.computeIfAbsent(file, this::createAndGetFileEntity);
+    }
+
+    private Set<FileEntity> getFileEntities(final Set<String> files, final Map<String, FileEntity> fileCache) {
+        final Set<FileEntity> fileEntities = Sets.newHashSet();
+        for (final String file : files) {
+            fileEntities.add(this.getFileEntity(file, fileCache));
+        }
+        return fileEntities;
+    }
+
     private CriterionEntity toCriterionEntity(final Criterion criterion) {
         final CriterionEntity criterionEntity = new CriterionEntity();
         criterion.getId().ifPresent(criterionEntity::setUniqueId);
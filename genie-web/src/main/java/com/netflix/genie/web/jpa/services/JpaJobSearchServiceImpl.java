@@ -18,6 +18,8 @@
 package com.netflix.genie.web.jpa.services;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.netflix.genie.common.dto.Application;
 import com.netflix.genie.common.dto.Cluster;
 import com.netflix.genie.common.dto.Command;
@@ -30,6 +32,10 @@ import com.netflix.genie.common.dto.search.JobSearchResult;
 import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.exceptions.GenieNotFoundException;
 import com.netflix.genie.common.exceptions.GenieServerException;
+import com.netflix.genie.common.util.GenieObjectMapper;
+import com.netflix.genie.web.jpa.entities.ArchivedJobEntity;
+import com.netflix.genie.web.jpa.entities.ClusterEntity;
+import com.netflix.genie.web.jpa.entities.ClusterEntity_;
 import com.netflix.genie.web.jpa.entities.JobEntity;
 import com.netflix.genie.web.jpa.entities.JobEntity_;
 import com.netflix.genie.web.jpa.entities.projections.AgentHostnameProjection;
@@ -37,15 +43,20 @@ import com.netflix.genie.web.jpa.entities.projections.JobApplicationsProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobClusterProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobCommandProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobExecutionProjection;
+import com.netflix.genie.web.jpa.entities.projections.JobFinishedProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobMetadataProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobRequestProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobStatusProjection;
+import com.netflix.genie.web.jpa.repositories.JpaArchivedJobRepository;
 import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
 import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
 import com.netflix.genie.web.jpa.repositories.JpaJobRepository;
 import com.netflix.genie.web.jpa.specifications.JpaJobSpecs;
+import com.netflix.genie.web.jpa.specifications.JpaSpecificationUtils;
 import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -56,18 +67,25 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -80,9 +98,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class JpaJobSearchServiceImpl implements JobSearchService {
 
+    // Queued jobs don't use any resources yet so they don't count against the active job limit of a user or the load
+    // of a cluster
+    private static final Set<JobStatus> NON_QUEUED_ACTIVE_STATUSES = Collections.unmodifiableSet(
+        JobStatus
+            .getActiveStatuses()
+            .stream()
+            .filter(status -> status != JobStatus.QUEUED)
+            .collect(Collectors.toSet())
+    );
+
     private final JpaJobRepository jobRepository;
     private final JpaClusterRepository clusterRepository;
     private final JpaCommandRepository commandRepository;
+    private final JpaArchivedJobRepository archivedJobRepository;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -90,18 +119,21 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
     /**
      * Constructor.
      *
-     * @param jobRepository     The repository to use for job entities
-     * @param clusterRepository The repository to use for cluster entities
-     * @param commandRepository The repository to use for command entities
+     * @param jobRepository         The repository to use for job entities
+     * @param clusterRepository     The repository to use for cluster entities
+     * @param commandRepository     The repository to use for command entities
+     * @param archivedJobRepository The repository to read jobs which have been moved to the archive from
      */
     public JpaJobSearchServiceImpl(
         final JpaJobRepository jobRepository,
         final JpaClusterRepository clusterRepository,
-        final JpaCommandRepository commandRepository
+        final JpaCommandRepository commandRepository,
+        final JpaArchivedJobRepository archivedJobRepository
     ) {
         this.jobRepository = jobRepository;
         this.clusterRepository = clusterRepository;
         this.commandRepository = commandRepository;
+        this.archivedJobRepository = archivedJobRepository;
     }
 
     /**
@@ -203,6 +235,111 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("checkstyle:parameternumber")
+    public CursorSlice<JobSearchResult> findJobs(
+        @Nullable final String id,
+        @Nullable final String jobName,
+        @Nullable final String user,
+        @Nullable final Set<JobStatus> statuses,
+        @Nullable final Set<String> tags,
+        @Nullable final String clusterName,
+        @Nullable final String clusterId,
+        @Nullable final String commandName,
+        @Nullable final String commandId,
+        @Nullable final Instant minStarted,
+        @Nullable final Instant maxStarted,
+        @Nullable final Instant minFinished,
+        @Nullable final Instant maxFinished,
+        @Nullable final String grouping,
+        @Nullable final String groupingInstance,
+        @Nullable final SearchCursor cursor,
+        @Min(1) final int limit
+    ) {
+        log.debug("called");
+
+        final CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> contentQuery = cb.createTupleQuery();
+        final Root<JobEntity> root = contentQuery.from(JobEntity.class);
+
+        final Predicate findPredicate = JpaJobSpecs
+            .getFindPredicate(
+                root,
+                cb,
+                id,
+                jobName,
+                user,
+                statuses,
+                tags,
+                clusterName,
+                clusterId == null ? null : this.clusterRepository.findByUniqueId(clusterId).orElse(null),
+                commandName,
+                commandId == null ? null : this.commandRepository.findByUniqueId(commandId).orElse(null),
+                minStarted,
+                maxStarted,
+                minFinished,
+                maxFinished,
+                grouping,
+                groupingInstance
+            );
+
+        // Created isn't part of the search result but is needed to build the cursor for the next slice
+        contentQuery.multiselect(
+            root.get(JobEntity_.uniqueId),
+            root.get(JobEntity_.name),
+            root.get(JobEntity_.user),
+            root.get(JobEntity_.status),
+            root.get(JobEntity_.started),
+            root.get(JobEntity_.finished),
+            root.get(JobEntity_.clusterName),
+            root.get(JobEntity_.commandName),
+            root.get(JobEntity_.created)
+        );
+
+        if (cursor != null) {
+            contentQuery.where(cb.and(findPredicate, JpaSpecificationUtils.getKeysetPredicate(root, cb, cursor)));
+        } else {
+            contentQuery.where(findPredicate);
+        }
+        contentQuery.orderBy(JpaSpecificationUtils.getKeysetOrders(root, cb));
+
+        // Fetch one more than requested purely to know whether there is another slice after this one
+        final List<Tuple> tuples = this.entityManager
+            .createQuery(contentQuery)
+            .setMaxResults(limit + 1)
+            .getResultList();
+
+        final List<JobSearchResult> results = tuples
+            .stream()
+            .limit(limit)
+            .map(
+                tuple -> new JobSearchResult(
+                    tuple.get(0, String.class),
+                    tuple.get(1, String.class),
+                    tuple.get(2, String.class),
+                    tuple.get(3, JobStatus.class),
+                    tuple.get(4, Instant.class),
+                    tuple.get(5, Instant.class),
+                    tuple.get(6, String.class),
+                    tuple.get(7, String.class)
+                )
+            )
+            .collect(Collectors.toList());
+
+        if (tuples.size() > limit) {
+            final Tuple last = tuples.get(limit - 1);
+            return new CursorSlice<>(
+                results,
+                new SearchCursor(last.get(8, Instant.class), last.get(0, String.class))
+            );
+        } else {
+            return new CursorSlice<>(results, null);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -241,13 +378,14 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
     @Override
     public Job getJob(
         @NotBlank(message = "No id entered. Unable to get job.") final String id
-    ) throws GenieNotFoundException {
+    ) throws GenieException {
         log.debug("Called with id {}", id);
-        return JpaServiceUtils.toJobDto(
-            this.jobRepository
-                .findByUniqueId(id, JobProjection.class)
-                .orElseThrow(() -> new GenieNotFoundException("No job with id " + id))
-        );
+        final Optional<JobProjection> job = this.jobRepository.findByUniqueId(id, JobProjection.class);
+        if (job.isPresent()) {
+            return JpaServiceUtils.toJobDto(job.get());
+        }
+        return this.getArchived(id, ArchivedJobEntity::getJob, Job.class)
+            .orElseThrow(() -> new GenieNotFoundException("No job with id " + id));
     }
 
     /**
@@ -256,23 +394,101 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
     @Override
     public JobStatus getJobStatus(@NotBlank final String id) throws GenieException {
         log.debug("Called with id {}", id);
-        return this.jobRepository
-            .findByUniqueId(id, JobStatusProjection.class)
+        final Optional<JobStatusProjection> job = this.jobRepository.findByUniqueId(id, JobStatusProjection.class);
+        if (job.isPresent()) {
+            return job.get().getStatus();
+        }
+        return this.getArchived(id, ArchivedJobEntity::getJob, Job.class)
             .orElseThrow(() -> new GenieNotFoundException("No job with id " + id + " exists."))
             .getStatus();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Optional<Instant>> getJobFinishTimes(@NotNull final Set<String> ids) throws GenieException {
+        log.debug("Called with {} ids", ids.size());
+        final Map<String, Optional<Instant>> finishTimes = Maps.newHashMap();
+        if (ids.isEmpty()) {
+            return finishTimes;
+        }
+        for (final JobFinishedProjection job : this.jobRepository.findByUniqueIdIn(ids)) {
+            finishTimes.put(job.getUniqueId(), job.getStatus().isActive() ? Optional.empty() : job.getFinished());
+        }
+
+        final Map<String, Job> archivedJobs = this.getArchived(
+            Sets.difference(ids, finishTimes.keySet()).immutableCopy(),
+            ArchivedJobEntity::getJob,
+            Job.class
+        );
+        archivedJobs.forEach(
+            (id, job) -> finishTimes.put(id, job.getStatus().isActive() ? Optional.empty() : job.getFinished())
+        );
+        return finishTimes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, JobStatus> getJobStatuses(@NotNull final Set<String> ids) throws GenieException {
+        log.debug("Called with {} ids", ids.size());
+        final Map<String, JobStatus> statuses = Maps.newHashMap();
+        if (ids.isEmpty()) {
+            return statuses;
+        }
+        for (final JobFinishedProjection job : this.jobRepository.findByUniqueIdIn(ids)) {
+            statuses.put(job.getUniqueId(), job.getStatus());
+        }
+
+        final Map<String, Job> archivedJobs = this.getArchived(
+            Sets.difference(ids, statuses.keySet()).immutableCopy(),
+            ArchivedJobEntity::getJob,
+            Job.class
+        );
+        archivedJobs.forEach((id, job) -> statuses.put(id, job.getStatus()));
+        return statuses;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, JobExecution> getJobExecutions(@NotNull final Set<String> ids) throws GenieException {
+        log.debug("Called with {} ids", ids.size());
+        final Map<String, JobExecution> executions = Maps.newHashMap();
+        if (ids.isEmpty()) {
+            return executions;
+        }
+        final Set<JobExecutionProjection> jobs = this.jobRepository.findByUniqueIdIn(ids, JobExecutionProjection.class);
+        for (final JobExecutionProjection job : jobs) {
+            executions.put(job.getUniqueId(), JpaServiceUtils.toJobExecutionDto(job));
+        }
+
+        executions.putAll(
+            this.getArchived(
+                Sets.difference(ids, executions.keySet()).immutableCopy(),
+                ArchivedJobEntity::getJobExecution,
+                JobExecution.class
+            )
+        );
+        return executions;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public JobRequest getJobRequest(@NotBlank final String id) throws GenieException {
         log.debug("Called with id {}", id);
-        return JpaServiceUtils.toJobRequestDto(
-            this.jobRepository
-                .findByUniqueId(id, JobRequestProjection.class)
-                .orElseThrow(() -> new GenieNotFoundException("No job request with id " + id))
-        );
+        final Optional<JobRequestProjection> jobRequest
+            = this.jobRepository.findByUniqueId(id, JobRequestProjection.class);
+        if (jobRequest.isPresent()) {
+            return JpaServiceUtils.toJobRequestDto(jobRequest.get());
+        }
+        return this.getArchived(id, ArchivedJobEntity::getJobRequest, JobRequest.class)
+            .orElseThrow(() -> new GenieNotFoundException("No job request with id " + id));
     }
 
     /**
@@ -281,11 +497,13 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
     @Override
     public JobExecution getJobExecution(@NotBlank final String id) throws GenieException {
         log.debug("Called with id {}", id);
-        return JpaServiceUtils.toJobExecutionDto(
-            this.jobRepository
-                .findByUniqueId(id, JobExecutionProjection.class)
-                .orElseThrow(() -> new GenieNotFoundException("No job execution with id " + id))
-        );
+        final Optional<JobExecutionProjection> jobExecution
+            = this.jobRepository.findByUniqueId(id, JobExecutionProjection.class);
+        if (jobExecution.isPresent()) {
+            return JpaServiceUtils.toJobExecutionDto(jobExecution.get());
+        }
+        return this.getArchived(id, ArchivedJobEntity::getJobExecution, JobExecution.class)
+            .orElseThrow(() -> new GenieNotFoundException("No job execution with id " + id));
     }
 
     /**
@@ -294,17 +512,21 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
     @Override
     public Cluster getJobCluster(@NotBlank final String id) throws GenieException {
         log.debug("Called for job with id {}", id);
-        return JpaServiceUtils.toClusterDto(
-            this.jobRepository
-                .findByUniqueId(id, JobClusterProjection.class)
-                .orElseThrow(
-                    () -> new GenieNotFoundException("No job with id " + id + " exists. Unable to get cluster")
-                )
-                .getCluster()
-                .orElseThrow(
-                    () -> new GenieNotFoundException("Job " + id + " doesn't have a cluster associated with it")
-                )
-        );
+        final Optional<JobClusterProjection> job = this.jobRepository.findByUniqueId(id, JobClusterProjection.class);
+        if (job.isPresent()) {
+            return JpaServiceUtils.toClusterDto(
+                job
+                    .get()
+                    .getCluster()
+                    .orElseThrow(
+                        () -> new GenieNotFoundException("Job " + id + " doesn't have a cluster associated with it")
+                    )
+            );
+        }
+        return this.getArchived(id, ArchivedJobEntity::getJobCluster, Cluster.class)
+            .orElseThrow(
+                () -> new GenieNotFoundException("No cluster found for job " + id + ". Unable to get cluster")
+            );
     }
 
     /**
@@ -313,17 +535,21 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
     @Override
     public Command getJobCommand(@NotBlank final String id) throws GenieException {
         log.debug("Called for job with id {}", id);
-        return JpaServiceUtils.toCommandDto(
-            this.jobRepository
-                .findByUniqueId(id, JobCommandProjection.class)
-                .orElseThrow(
-                    () -> new GenieNotFoundException("No job with id " + id + " exists. Unable to get command")
-                )
-                .getCommand()
-                .orElseThrow(
-                    () -> new GenieNotFoundException("Job " + id + " doesn't have a command associated with it")
-                )
-        );
+        final Optional<JobCommandProjection> job = this.jobRepository.findByUniqueId(id, JobCommandProjection.class);
+        if (job.isPresent()) {
+            return JpaServiceUtils.toCommandDto(
+                job
+                    .get()
+                    .getCommand()
+                    .orElseThrow(
+                        () -> new GenieNotFoundException("Job " + id + " doesn't have a command associated with it")
+                    )
+            );
+        }
+        return this.getArchived(id, ArchivedJobEntity::getJobCommand, Command.class)
+            .orElseThrow(
+                () -> new GenieNotFoundException("No command found for job " + id + ". Unable to get command")
+            );
     }
 
     /**
@@ -332,12 +558,20 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
     @Override
     public List<Application> getJobApplications(@NotBlank final String id) throws GenieException {
         log.debug("Called for job with id {}", id);
-        return this.jobRepository.findByUniqueId(id, JobApplicationsProjection.class)
-            .orElseThrow(() -> new GenieNotFoundException("No job with " + id + " exists. Unable to get applications"))
-            .getApplications()
-            .stream()
-            .map(JpaServiceUtils::toApplicationDto)
-            .collect(Collectors.toList());
+        final Optional<JobApplicationsProjection> job
+            = this.jobRepository.findByUniqueId(id, JobApplicationsProjection.class);
+        if (job.isPresent()) {
+            return job
+                .get()
+                .getApplications()
+                .stream()
+                .map(JpaServiceUtils::toApplicationDto)
+                .collect(Collectors.toList());
+        }
+        return Lists.newArrayList(
+            this.getArchived(id, ArchivedJobEntity::getJobApplications, Application[].class)
+                .orElseThrow(() -> new GenieNotFoundException("No applications found for job " + id))
+        );
     }
 
     /**
@@ -345,11 +579,21 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
      */
     @Override
     public String getJobHost(@NotBlank final String jobId) throws GenieException {
-        return this.jobRepository
-            .findByUniqueId(jobId, AgentHostnameProjection.class)
-            .orElseThrow(() -> new GenieNotFoundException("No job execution found for id " + jobId))
-            .getAgentHostname()
-            .orElseThrow(() -> new GenieNotFoundException("No hostname set for job " + jobId));
+        final Optional<AgentHostnameProjection> job
+            = this.jobRepository.findByUniqueId(jobId, AgentHostnameProjection.class);
+        if (job.isPresent()) {
+            return job
+                .get()
+                .getAgentHostname()
+                .orElseThrow(() -> new GenieNotFoundException("No hostname set for job " + jobId));
+        }
+        final ArchivedJobEntity archivedJob = this.archivedJobRepository
+            .findByUniqueId(jobId)
+            .orElseThrow(() -> new GenieNotFoundException("No job execution found for id " + jobId));
+        if (archivedJob.getAgentHostname() == null) {
+            throw new GenieNotFoundException("No hostname set for job " + jobId);
+        }
+        return archivedJob.getAgentHostname();
     }
 
     /**
@@ -358,7 +602,7 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
     @Override
     public long getActiveJobCountForUser(@NotBlank final String user) throws GenieException {
         log.debug("Called for jobs with user {}", user);
-        final Long count = this.jobRepository.countJobsByUserAndStatusIn(user, JobStatus.getActiveStatuses());
+        final Long count = this.jobRepository.countJobsByUserAndStatusIn(user, NON_QUEUED_ACTIVE_STATUSES);
         if (count == null || count < 0) {
             throw new GenieServerException(
                 "Count query for user "
@@ -370,15 +614,109 @@ public class JpaJobSearchServiceImpl implements JobSearchService {
         return count;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getActiveJobCountsByUser() {
+        log.debug("Called for the active job counts of all users");
+        final CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> countQuery = cb.createTupleQuery();
+        final Root<JobEntity> root = countQuery.from(JobEntity.class);
+        countQuery
+            .multiselect(root.get(JobEntity_.user), cb.count(root))
+            .where(root.get(JobEntity_.status).in(NON_QUEUED_ACTIVE_STATUSES))
+            .groupBy(root.get(JobEntity_.user));
+
+        return this.entityManager
+            .createQuery(countQuery)
+            .getResultList()
+            .stream()
+            .collect(Collectors.toMap(tuple -> tuple.get(0, String.class), tuple -> tuple.get(1, Long.class)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getActiveJobCountsByCluster() {
+        log.debug("Called for the active job counts of all clusters");
+        final CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> countQuery = cb.createTupleQuery();
+        final Root<JobEntity> root = countQuery.from(JobEntity.class);
+        final Join<JobEntity, ClusterEntity> cluster = root.join(JobEntity_.cluster);
+        countQuery
+            .multiselect(cluster.get(ClusterEntity_.uniqueId), cb.count(root))
+            .where(root.get(JobEntity_.status).in(NON_QUEUED_ACTIVE_STATUSES))
+            .groupBy(cluster.get(ClusterEntity_.uniqueId));
+
+        return this.entityManager
+            .createQuery(countQuery)
+            .getResultList()
+            .stream()
+            .collect(Collectors.toMap(tuple -> tuple.get(0, String.class), tuple -> tuple.get(1, Long.class)));
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public JobMetadata getJobMetadata(@NotBlank final String id) throws GenieException {
-        return JpaServiceUtils.toJobMetadataDto(
-            this.jobRepository
-                .findByUniqueId(id, JobMetadataProjection.class)
-                .orElseThrow(() -> new GenieNotFoundException("No job metadata found for id " + id))
-        );
+        final Optional<JobMetadataProjection> jobMetadata
+            = this.jobRepository.findByUniqueId(id, JobMetadataProjection.class);
+        if (jobMetadata.isPresent()) {
+            return JpaServiceUtils.toJobMetadataDto(jobMetadata.get());
+        }
+        return this.getArchived(id, ArchivedJobEntity::getJobMetadata, JobMetadata.class)
+            .orElseThrow(() -> new GenieNotFoundException("No job metadata found for id " + id));
+    }
+
+    /**
+     * Finished jobs are eventually moved out of the jobs tables into the archive so on a miss check there as well.
+     */
+    private <T> Optional<T> getArchived(
+        final String id,
+        final Function<ArchivedJobEntity, String> fieldGetter,
+        final Class<T> dtoClass
+    ) throws GenieServerException {
+        final Optional<ArchivedJobEntity> archivedJob = this.archivedJobRepository.findByUniqueId(id);
+        if (!archivedJob.isPresent()) {
+            return Optional.empty();
+        }
+        final String field = fieldGetter.apply(archivedJob.get());
+        if (field == null) {
+            // Not every field was recorded for every archived job
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(GenieObjectMapper.getMapper().readValue(field, dtoClass));
+        } catch (final IOException e) {
+            throw new GenieServerException("Unable to read archived job " + id, e);
+        }
+    }
+
+    /**
+     * Bulk version of the archive lookup. All the ids missing from the jobs tables are fetched in a single query.
+     */
+    private <T> Map<String, T> getArchived(
+        final Set<String> ids,
+        final Function<ArchivedJobEntity, String> fieldGetter,
+        final Class<T> dtoClass
+    ) throws GenieServerException {
+        final Map<String, T> archived = Maps.newHashMap();
+        if (ids.isEmpty()) {
+            return archived;
+        }
+        for (final ArchivedJobEntity archivedJob : this.archivedJobRepository.findByUniqueIdIn(ids)) {
+            try {
+                archived.put(
+                    archivedJob.getUniqueId(),
+                    GenieObjectMapper.getMapper().readValue(fieldGetter.apply(archivedJob), dtoClass)
+                );
+            } catch (final IOException e) {
+                throw new GenieServerException("Unable to read archived job " + archivedJob.getUniqueId(), e);
+            }
+        }
+        return archived;
     }
 }
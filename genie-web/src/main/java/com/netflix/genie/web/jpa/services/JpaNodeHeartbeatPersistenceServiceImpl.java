@@ -0,0 +1,119 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.services;
+
+import com.netflix.genie.web.jpa.entities.NodeHeartbeatEntity;
+import com.netflix.genie.web.jpa.repositories.JpaNodeHeartbeatRepository;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JPA implementation of the {@link NodeHeartbeatPersistenceService}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+@Transactional
+public class JpaNodeHeartbeatPersistenceServiceImpl implements NodeHeartbeatPersistenceService {
+
+    private final JpaNodeHeartbeatRepository nodeHeartbeatRepository;
+
+    /**
+     * Constructor.
+     *
+     * @param nodeHeartbeatRepository The node heartbeat repository
+     */
+    public JpaNodeHeartbeatPersistenceServiceImpl(final JpaNodeHeartbeatRepository nodeHeartbeatRepository) {
+        this.nodeHeartbeatRepository = nodeHeartbeatRepository;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveHeartbeat(
+        @NotBlank final String hostname,
+        @NotNull final Instant heartbeat,
+        @Min(0) final int numRunningJobs,
+        @Min(0) final int usedMemory
+    ) {
+        final NodeHeartbeatEntity entity = this.nodeHeartbeatRepository
+            .findByHostname(hostname)
+            .orElseGet(
+                () -> {
+                    final NodeHeartbeatEntity newEntity = new NodeHeartbeatEntity();
+                    newEntity.setHostname(hostname);
+                    return newEntity;
+                }
+            );
+        entity.setLastHeartbeat(heartbeat);
+        entity.setNumRunningJobs(numRunningJobs);
+        entity.setUsedMemory(usedMemory);
+        this.nodeHeartbeatRepository.save(entity);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> getHostsWithHeartbeatBefore(@NotNull final Instant threshold) {
+        return this.nodeHeartbeatRepository.findHostnamesByLastHeartbeatBefore(threshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> getHostsWithHeartbeatSince(@NotNull final Instant threshold) {
+        return this.nodeHeartbeatRepository.findHostnamesByLastHeartbeatSince(threshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getUsedMemoryOfHostsWithHeartbeatSince(@NotNull final Instant threshold) {
+        return this.nodeHeartbeatRepository
+            .findByLastHeartbeatGreaterThanEqual(threshold)
+            .stream()
+            .collect(Collectors.toMap(NodeHeartbeatEntity::getHostname, NodeHeartbeatEntity::getUsedMemory));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long deleteHeartbeatsBefore(@NotNull final Instant threshold) {
+        final int deleted = this.nodeHeartbeatRepository.deleteByLastHeartbeatBefore(threshold);
+        log.debug("Deleted {} node heartbeats from before {}", deleted, threshold);
+        return deleted;
+    }
+}
@@ -37,6 +37,7 @@ import com.netflix.genie.web.jpa.entities.CommandEntity;
 import com.netflix.genie.web.jpa.entities.CriterionEntity;
 import com.netflix.genie.web.jpa.entities.FileEntity;
 import com.netflix.genie.web.jpa.entities.TagEntity;
+import com.netflix.genie.web.jpa.entities.projections.AuditProjection;
 import com.netflix.genie.web.jpa.entities.projections.BaseProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobExecutionProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobMetadataProjection;
@@ -45,6 +46,7 @@ import com.netflix.genie.web.jpa.entities.projections.JobRequestProjection;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import java.time.Instant;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -60,6 +62,18 @@ public final class JpaServiceUtils {
     private JpaServiceUtils() {
     }
 
+    /**
+     * Build an opaque value out of the entity version and update time of a resource which changes every time the
+     * resource does.
+     *
+     * @param auditProjection The version and update time of the resource
+     * @return The version of the resource
+     */
+    static String toResourceVersion(final AuditProjection auditProjection) {
+        final Instant updated = auditProjection.getUpdated();
+        return auditProjection.getEntityVersion() + "-" + updated.getEpochSecond() + "." + updated.getNano();
+    }
+
     /**
      * Convert an application entity to a DTO for external exposure.
      *
@@ -17,13 +17,23 @@
  */
 package com.netflix.genie.web.jpa.specifications;
 
+import com.google.common.collect.Lists;
+import com.netflix.genie.web.jpa.entities.AuditEntity_;
 import com.netflix.genie.web.jpa.entities.TagEntity;
+import com.netflix.genie.web.jpa.entities.UniqueIdEntity;
+import com.netflix.genie.web.jpa.entities.UniqueIdEntity_;
+import com.netflix.genie.web.util.SearchCursor;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -99,4 +109,48 @@ public final class JpaSpecificationUtils {
             );
         return builder.append(PERCENT).toString();
     }
+
+    /**
+     * Get the predicate which restricts a keyset (seek) search to the records strictly after the given cursor in
+     * (created, uniqueId) descending order. Combined with {@link #getKeysetOrders(Root, CriteriaBuilder)} this lets
+     * the database seek directly to the next page via the index rather than scanning and discarding an offset.
+     *
+     * @param root   The root of the query
+     * @param cb     The criteria builder to use for predicate creation
+     * @param cursor The position of the last record of the previous page
+     * @param <E>    The type of entity being searched
+     * @return The predicate
+     */
+    public static <E extends UniqueIdEntity> Predicate getKeysetPredicate(
+        @NotNull final Root<E> root,
+        @NotNull final CriteriaBuilder cb,
+        @NotNull final SearchCursor cursor
+    ) {
+        final Path<Instant> created = root.get(AuditEntity_.created);
+        return cb.or(
+            cb.lessThan(created, cursor.getCreated()),
+            cb.and(
+                cb.equal(created, cursor.getCreated()),
+                cb.lessThan(root.get(UniqueIdEntity_.uniqueId), cursor.getId())
+            )
+        );
+    }
+
+    /**
+     * Get the ordering all keyset (seek) searches must use for their cursors to be stable.
+     *
+     * @param root The root of the query
+     * @param cb   The criteria builder to use for order creation
+     * @param <E>  The type of entity being searched
+     * @return The orders to apply to the query
+     */
+    public static <E extends UniqueIdEntity> List<Order> getKeysetOrders(
+        @NotNull final Root<E> root,
+        @NotNull final CriteriaBuilder cb
+    ) {
+        return Lists.newArrayList(
+            cb.desc(root.get(AuditEntity_.created)),
+            cb.desc(root.get(UniqueIdEntity_.uniqueId))
+        );
+    }
 }
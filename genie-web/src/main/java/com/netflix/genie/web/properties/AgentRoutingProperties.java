@@ -0,0 +1,48 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Properties controlling how a node tracks which server each agent is connected to. Connections to the local node are
+ * tracked in memory and written to the database in the background, while lookups of agents connected elsewhere are
+ * cached for a short period.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ConfigurationProperties(prefix = AgentRoutingProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+@Validated
+public class AgentRoutingProperties {
+
+    /**
+     * The property prefix for all properties in this group.
+     */
+    public static final String PROPERTY_PREFIX = "genie.agent.routing";
+
+    private long flushInterval = 1_000L;
+    private int flushBatchSize = 500;
+    private long remoteCacheMaxSize = 10_000L;
+    private long remoteCacheExpiry = 10_000L;
+}
@@ -0,0 +1,95 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Properties controlling the bounded dispatch mode of the asynchronous side of the Genie event bus. When enabled every
+ * listener gets its own small executor with a bounded queue for each event type it receives instead of all listeners
+ * sharing the general purpose asynchronous task executor.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ConfigurationProperties(prefix = AsyncEventDispatchProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+@Validated
+public class AsyncEventDispatchProperties {
+
+    /**
+     * The property prefix for all properties in this group.
+     */
+    public static final String PROPERTY_PREFIX = "genie.events.async-dispatch";
+
+    /**
+     * The property key for whether this feature is enabled or not.
+     */
+    public static final String ENABLED_PROPERTY = PROPERTY_PREFIX + ".enabled";
+
+    private boolean enabled;
+
+    /**
+     * The number of events each listener can have waiting for a given event type before the overflow policy applies.
+     */
+    @Min(1)
+    private int queueCapacity = 1_000;
+
+    /**
+     * The number of threads each listener gets for a given event type. One keeps events delivered in order.
+     */
+    @Min(1)
+    private int threadsPerListener = 1;
+
+    /**
+     * How long in milliseconds an idle listener thread is kept around.
+     */
+    @Min(1)
+    private long keepAlive = 60_000L;
+
+    /**
+     * What to do with an event when the listener queue is full.
+     */
+    @NotNull
+    private OverflowPolicy overflowPolicy = OverflowPolicy.CALLER_RUNS;
+
+    /**
+     * What to do with an event which can't be queued for a listener.
+     *
+     * @author tgianos
+     * @since 4.0.0
+     */
+    public enum OverflowPolicy {
+        /**
+         * Run the listener on the publishing thread, slowing down the publisher until the listener catches up.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Drop the event for that listener.
+         */
+        DISCARD
+    }
+}
@@ -44,4 +44,6 @@ public class ClusterCheckerProperties {
     private long rate = 300_000L;
     private int lostThreshold = 3;
     private String healthIndicatorsToIgnore = "memory,genieMemory,discoveryComposite";
+    private int maxConcurrentProbes = 16;
+    private long probeTimeout = 5_000L;
 }
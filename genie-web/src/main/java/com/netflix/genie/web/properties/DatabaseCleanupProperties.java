@@ -44,13 +44,20 @@ public class DatabaseCleanupProperties {
      */
     public static final String ENABLED_PROPERTY = PROPERTY_PREFIX + ".enabled";
 
+    /**
+     * The property key for whether old jobs are removed by dropping partitions of the jobs tables.
+     */
+    public static final String DROP_PARTITIONS_PROPERTY = PROPERTY_PREFIX + ".drop-partitions";
+
     private boolean enabled;
     private String expression = "0 0 0 * * *";
     private int retention = 90;
     private int maxDeletedPerTransaction = 1_000;
     private int pageSize = 1_000;
+    private int maxDeletedPerSecond;
     private boolean skipJobsCleanup;
     private boolean skipClustersCleanup;
     private boolean skipTagsCleanup;
     private boolean skipFilesCleanup;
+    private boolean dropPartitions;
 }
@@ -47,4 +47,6 @@ public class DiskCleanupProperties {
     private boolean enabled;
     private String expression = "0 0 0 * * *";
     private int retention = 3;
+    private int batchSize = 1_000;
+    private int maxConcurrentDeletes = 4;
 }
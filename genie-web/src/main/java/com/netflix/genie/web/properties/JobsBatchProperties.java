@@ -0,0 +1,49 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Properties related to submitting many jobs in a single request.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ConfigurationProperties(prefix = JobsBatchProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+@Validated
+public class JobsBatchProperties {
+
+    /**
+     * The property prefix for batch job submission.
+     */
+    public static final String PROPERTY_PREFIX = "genie.jobs.batch";
+
+    @Min(value = 1, message = "The maximum size of a batch can't be less than one job")
+    private int maxSize = 1_000;
+
+    @Min(value = 1, message = "The size of a group can't be less than one job")
+    private int groupSize = 100;
+}
@@ -0,0 +1,55 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Properties related to placing job submissions across the nodes of the cluster. When enabled a submission which
+ * doesn't fit in the memory left on the node which received it is forwarded to the least loaded node that still has
+ * room, based on the load each node reports in its liveness heartbeat. Requires job forwarding to be enabled.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ConfigurationProperties(prefix = JobsPlacementProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+@Validated
+public class JobsPlacementProperties {
+
+    /**
+     * The property prefix for job placement.
+     */
+    public static final String PROPERTY_PREFIX = "genie.jobs.placement";
+
+    /**
+     * The property key for whether this feature is enabled or not.
+     */
+    public static final String ENABLED_PROPERTY = PROPERTY_PREFIX + ".enabled";
+
+    private boolean enabled;
+
+    @Min(value = 1, message = "The load refresh interval can't be less than one millisecond")
+    private long loadRefreshInterval = 5_000L;
+}
@@ -41,6 +41,9 @@ public class JobsProperties {
      */
     public static final String PROPERTY_PREFIX = "genie.jobs";
 
+    @Valid
+    private JobsBatchProperties batch = new JobsBatchProperties();
+
     @Valid
     private JobsCleanupProperties cleanup = new JobsCleanupProperties();
 
@@ -56,6 +59,15 @@ public class JobsProperties {
     @Valid
     private JobsMemoryProperties memory = new JobsMemoryProperties();
 
+    @Valid
+    private JobsPlacementProperties placement = new JobsPlacementProperties();
+
+    @Valid
+    private JobsQueueProperties queue = new JobsQueueProperties();
+
+    @Valid
+    private JobsStatusWaitProperties statusWait = new JobsStatusWaitProperties();
+
     @Valid
     private JobsUsersProperties users = new JobsUsersProperties();
 
@@ -0,0 +1,101 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.google.common.collect.Maps;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.Map;
+
+/**
+ * Properties related to queueing job submissions on a node instead of rejecting them when the node is out of memory
+ * or the user is over their active job limit. Queued jobs are dispatched as memory frees up in weighted fair share
+ * order of the user (or group) which submitted them and then by priority.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ConfigurationProperties(prefix = JobsQueueProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+@Validated
+public class JobsQueueProperties {
+
+    /**
+     * The property prefix for job queueing.
+     */
+    public static final String PROPERTY_PREFIX = "genie.jobs.queue";
+
+    /**
+     * The property key for whether this feature is enabled or not.
+     */
+    public static final String ENABLED_PROPERTY = PROPERTY_PREFIX + ".enabled";
+
+    private boolean enabled;
+
+    @Min(value = 1, message = "The maximum depth of the queue can't be less than one")
+    private int maxDepth = 1_000;
+
+    @Min(value = 1, message = "The dispatch interval can't be less than one millisecond")
+    private long dispatchInterval = 1_000L;
+
+    @NotNull
+    private ShareBy shareBy = ShareBy.USER;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "The default share weight must be positive")
+    private double defaultWeight = 1.0;
+
+    @NotNull
+    private Map<String, Double> weights = Maps.newHashMap();
+
+    @NotBlank
+    private String priorityTagPrefix = "genie.priority:";
+
+    /**
+     * Get the fair share weight of the given user or group.
+     *
+     * @param shareKey The user or group name depending on {@link #getShareBy()}
+     * @return The configured weight or the default weight if there isn't one or it isn't positive
+     */
+    public double getWeight(final String shareKey) {
+        final Double weight = this.weights.get(shareKey);
+        return weight != null && weight > 0 ? weight : this.defaultWeight;
+    }
+
+    /**
+     * What queued jobs are grouped by when computing fair shares.
+     */
+    public enum ShareBy {
+        /**
+         * Each user gets a share.
+         */
+        USER,
+
+        /**
+         * Each group gets a share. Jobs submitted without a group share with the user who submitted them.
+         */
+        GROUP
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Properties related to clients waiting on the server for the status of a job to change instead of polling for it.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ConfigurationProperties(prefix = JobsStatusWaitProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+@Validated
+public class JobsStatusWaitProperties {
+
+    /**
+     * The property prefix for job status waits.
+     */
+    public static final String PROPERTY_PREFIX = "genie.jobs.status-wait";
+
+    @Min(value = 1, message = "The check interval can't be less than one millisecond")
+    private long checkInterval = 5_000L;
+
+    @Min(value = 0, message = "The default timeout can't be negative")
+    private long defaultTimeout = 30_000L;
+
+    @Min(value = 0, message = "The maximum timeout can't be negative")
+    private long maxTimeout = 60_000L;
+}
@@ -60,4 +60,9 @@ public class JobsUsersActiveLimitProperties {
 
     @Min(value = 1)
     private int count = DEFAULT_COUNT;
+
+    private boolean cacheEnabled;
+
+    @Min(value = 1, message = "The cache reconcile interval can't be less than one millisecond")
+    private long cacheReconcileInterval = 60_000L;
 }
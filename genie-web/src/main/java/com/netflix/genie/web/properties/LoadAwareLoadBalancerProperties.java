@@ -0,0 +1,81 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Properties related to the {@link com.netflix.genie.web.services.loadbalancers.loadaware.LoadAwareLoadBalancer}
+ * implementation.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ConfigurationProperties(prefix = LoadAwareLoadBalancerProperties.PROPERTY_PREFIX)
+@Validated
+@Getter
+@Setter
+public class LoadAwareLoadBalancerProperties {
+    /**
+     * The common prefix for all properties in this group.
+     */
+    public static final String PROPERTY_PREFIX = "genie.jobs.clusters.load-balancers.load-aware";
+
+    /**
+     * Feature flag constant. Property with this key should be true if this feature should be enabled.
+     */
+    public static final String ENABLED_PROPERTY = PROPERTY_PREFIX + ".enabled";
+
+    private boolean enabled;
+
+    @Min(value = 1L, message = "The refresh rate can't be less than one millisecond")
+    private long refreshRate = 10_000L;
+
+    @NotNull
+    private Strategy strategy = Strategy.POWER_OF_TWO_CHOICES;
+
+    @NotBlank
+    private String capacityTagPrefix = "genie.capacity:";
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "The default capacity must be positive")
+    private double defaultCapacity = 1.0;
+
+    /**
+     * How a cluster is picked from the candidates based on their load.
+     */
+    public enum Strategy {
+        /**
+         * The candidate with the lowest load is picked.
+         */
+        LEAST_LOADED,
+
+        /**
+         * Two candidates are picked at random and the one with the lower load is used. Less prone than
+         * {@link #LEAST_LOADED} to every node sending a burst of jobs to the same cluster between refreshes.
+         */
+        POWER_OF_TWO_CHOICES
+    }
+}
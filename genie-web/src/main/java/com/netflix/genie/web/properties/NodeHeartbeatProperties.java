@@ -0,0 +1,56 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Properties controlling node liveness tracking through heartbeats written to the database. When enabled every node
+ * periodically writes a heartbeat and the leader marks the jobs on nodes whose heartbeat went stale as lost instead of
+ * polling the health endpoint of every node.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ConfigurationProperties(prefix = NodeHeartbeatProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+@Validated
+public class NodeHeartbeatProperties {
+
+    /**
+     * The property prefix for all properties in this group.
+     */
+    public static final String PROPERTY_PREFIX = "genie.tasks.node-heartbeat";
+
+    /**
+     * The property key for whether this feature is enabled or not.
+     */
+    public static final String ENABLED_PROPERTY = PROPERTY_PREFIX + ".enabled";
+
+    private boolean enabled;
+    @Min(value = 1, message = "The heartbeat rate can't be less than one millisecond")
+    private long rate = 10_000L;
+    @Min(value = 1, message = "The stale heartbeat threshold can't be less than one millisecond")
+    private long staleThreshold = 60_000L;
+}
@@ -0,0 +1,95 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Properties controlling whether read only transactions are routed to database read replicas instead of the primary.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@ConfigurationProperties(prefix = ReadReplicaProperties.PROPERTY_PREFIX)
+@Getter
+@Setter
+@Validated
+public class ReadReplicaProperties {
+
+    /**
+     * The property prefix for all properties in this group.
+     */
+    public static final String PROPERTY_PREFIX = "genie.jpa.read-replicas";
+
+    /**
+     * The property key for whether this feature is enabled or not.
+     */
+    public static final String ENABLED_PROPERTY = PROPERTY_PREFIX + ".enabled";
+
+    private boolean enabled;
+
+    /**
+     * The maximum replication lag, in milliseconds, a replica can have before reads are sent to the primary instead.
+     */
+    @Min(0)
+    private long maxLag = 5_000L;
+
+    /**
+     * How often, in milliseconds, to check the replication lag of each replica.
+     */
+    @Min(1)
+    private long lagCheckRate = 10_000L;
+
+    /**
+     * Query run against each replica which returns its replication lag in milliseconds as a single number. If blank
+     * the lag isn't checked and replicas are always considered fresh enough.
+     */
+    private String lagQuery;
+
+    @Valid
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Connection information for a single read replica.
+     *
+     * @author tgianos
+     * @since 4.0.0
+     */
+    @Getter
+    @Setter
+    public static class Replica {
+        @NotBlank
+        private String name;
+        @NotBlank
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        @Min(1)
+        private int maxPoolSize = 10;
+    }
+}
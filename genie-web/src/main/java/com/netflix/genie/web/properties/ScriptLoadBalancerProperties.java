@@ -67,6 +67,11 @@ public class ScriptLoadBalancerProperties {
      */
     public static final String TIMEOUT_PROPERTY = PROPERTY_PREFIX + ".timeout";
 
+    /**
+     * How many script engines the script is compiled into. Each evaluation has exclusive use of one engine.
+     */
+    public static final String POOL_SIZE_PROPERTY = PROPERTY_PREFIX + ".poolSize";
+
     private boolean enabled;
     @Min(1L)
     private long refreshRate = 300_000L;
@@ -76,4 +81,6 @@ public class ScriptLoadBalancerProperties {
     private String source = "file:///tmp/genie/loadBalancers/script/source/loadBalance.js";
     @Min(1L)
     private long timeout = 5_000L;
+    @Min(1)
+    private int poolSize = Runtime.getRuntime().availableProcessors();
 }
@@ -18,28 +18,44 @@
 
 package com.netflix.genie.web.rpc.grpc.services.impl.v4;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.netflix.genie.proto.AgentHeartBeat;
 import com.netflix.genie.proto.HeartBeatServiceGrpc;
 import com.netflix.genie.proto.ServerHeartBeat;
 import com.netflix.genie.web.rpc.grpc.interceptors.SimpleLoggingInterceptor;
 import com.netflix.genie.web.services.AgentRoutingService;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.grpc.stub.CallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.springboot.autoconfigure.grpc.server.GrpcService;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 
 import javax.annotation.PreDestroy;
-import java.util.Map;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An edge gRPC service that uses bi-directional streaming.
  * This is useful to reliably track which connection is handled by which server and to detect disconnections on both
  * ends.
+ * <p>
+ * Streams are tracked in a concurrent map so agents connecting, heart beating and disconnecting never wait on one
+ * another. Only calls on the same stream are serialized, as gRPC stream observers aren't thread safe.
  *
  * @author mprimi
  * @since 4.0.0
@@ -54,17 +70,28 @@ import java.util.concurrent.ScheduledFuture;
 class GrpcHeartBeatServiceImpl extends HeartBeatServiceGrpc.HeartBeatServiceImplBase {
 
     private static final long HEART_BEAT_PERIOD_MILLIS = 5_000L; // TODO make configurable
+    private static final int FAN_OUT_BATCH_SIZE = 250;
+    private static final String FAN_OUT_TIMER_NAME = "genie.grpc.heartBeatService.fanOut.timer";
     private final TaskScheduler taskScheduler;
-    private final Map<String, AgentStreamRecord> activeStreamsMap = Maps.newHashMap();
+    private final TaskExecutor fanOutExecutor;
+    private final ConcurrentMap<String, AgentStreamRecord> activeStreamsMap = Maps.newConcurrentMap();
     private final ScheduledFuture<?> sendHeartbeatsFuture;
     private final AgentRoutingService agentRoutingService;
+    private final MeterRegistry registry;
+    private final Counter streamNotReadyCounter;
 
     GrpcHeartBeatServiceImpl(
         final AgentRoutingService agentRoutingService,
-        @Qualifier("heartBeatServiceTaskScheduler") final TaskScheduler taskScheduler
+        @Qualifier("heartBeatServiceTaskScheduler") final TaskScheduler taskScheduler,
+        @Qualifier("heartBeatServiceFanOutExecutor") final TaskExecutor fanOutExecutor,
+        final MeterRegistry registry
     ) {
         this.agentRoutingService = agentRoutingService;
         this.taskScheduler = taskScheduler;
+        this.fanOutExecutor = fanOutExecutor;
+        this.registry = registry;
+        this.registry.gaugeMapSize("genie.grpc.heartBeatService.activeStreams.gauge", Tags.empty(), activeStreamsMap);
+        this.streamNotReadyCounter = registry.counter("genie.grpc.heartBeatService.streamNotReady.rate");
         this.sendHeartbeatsFuture = this.taskScheduler.scheduleWithFixedDelay(
             this::sendHeartbeats,
             HEART_BEAT_PERIOD_MILLIS
@@ -77,14 +104,14 @@ class GrpcHeartBeatServiceImpl extends HeartBeatServiceGrpc.HeartBeatServiceImpl
             sendHeartbeatsFuture.cancel(false);
         }
 
-        synchronized (activeStreamsMap) {
-            for (final AgentStreamRecord agentStreamRecord : activeStreamsMap.values()) {
-                agentStreamRecord.responseObserver.onCompleted();
+        for (final String streamId : activeStreamsMap.keySet()) {
+            final AgentStreamRecord agentStreamRecord = activeStreamsMap.remove(streamId);
+            if (agentStreamRecord != null) {
+                agentStreamRecord.complete();
                 if (agentStreamRecord.hasJobId()) {
                     notifyAgentDisconnected(agentStreamRecord.getJobId());
                 }
             }
-            activeStreamsMap.clear();
         }
     }
 
@@ -93,10 +120,37 @@ class GrpcHeartBeatServiceImpl extends HeartBeatServiceGrpc.HeartBeatServiceImpl
      * Using the connection ensures server-side eventually detects a broken connection.
      */
     private void sendHeartbeats() {
-        synchronized (activeStreamsMap) {
-            for (final AgentStreamRecord agentStreamRecord : activeStreamsMap.values()) {
-                agentStreamRecord.responseObserver.onNext(ServerHeartBeat.getDefaultInstance());
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            // Work off a snapshot so streams can keep coming and going while heartbeats are sent
+            final List<AgentStreamRecord> agentStreamRecords = Lists.newArrayList(activeStreamsMap.values());
+            final List<CompletableFuture<Void>> batches = Lists.newArrayList();
+            for (final List<AgentStreamRecord> batch : Lists.partition(agentStreamRecords, FAN_OUT_BATCH_SIZE)) {
+                batches.add(CompletableFuture.runAsync(() -> batch.forEach(this::sendHeartbeat), fanOutExecutor));
             }
+            // Wait for the whole round so the next one is always a full period after this one finishes
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Throwable t) {
+            // Swallow so the scheduler keeps running the fan out
+            log.error("Unable to send heartbeats to agents", t);
+            MetricsUtils.addFailureTagsWithException(tags, t);
+        } finally {
+            registry
+                .timer(FAN_OUT_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sendHeartbeat(final AgentStreamRecord agentStreamRecord) {
+        try {
+            if (!agentStreamRecord.sendHeartbeat()) {
+                // The transport is backed up, no point queueing more on it. The next round will try again.
+                streamNotReadyCounter.increment();
+            }
+        } catch (final RuntimeException e) {
+            log.warn("Unable to send heartbeat to agent that claimed job: {}", agentStreamRecord.getJobId(), e);
         }
     }
 
@@ -110,11 +164,9 @@ class GrpcHeartBeatServiceImpl extends HeartBeatServiceGrpc.HeartBeatServiceImpl
         // Handle new stream / client connection
         final String streamId = UUID.randomUUID().toString();
         final RequestObserver requestObserver = new RequestObserver(this, streamId);
-        synchronized (activeStreamsMap) {
 
-            // Create a record for this connection
-            activeStreamsMap.put(streamId, new AgentStreamRecord(responseObserver));
-        }
+        // Create a record for this connection
+        activeStreamsMap.put(streamId, new AgentStreamRecord(responseObserver));
         return requestObserver;
     }
 
@@ -123,10 +175,7 @@ class GrpcHeartBeatServiceImpl extends HeartBeatServiceGrpc.HeartBeatServiceImpl
         final AgentHeartBeat agentHeartBeat
     ) {
         // Pull the record, if one exists
-        final AgentStreamRecord agentStreamRecord;
-        synchronized (activeStreamsMap) {
-            agentStreamRecord = activeStreamsMap.get(streamId);
-        }
+        final AgentStreamRecord agentStreamRecord = activeStreamsMap.get(streamId);
 
         final String claimedJobId = agentHeartBeat.getClaimedJobId();
         if (agentStreamRecord == null) {
@@ -145,15 +194,12 @@ class GrpcHeartBeatServiceImpl extends HeartBeatServiceGrpc.HeartBeatServiceImpl
 
     private void handleStreamCompletion(final String streamId) {
         // Pull the record, if one exists
-        final AgentStreamRecord agentStreamRecord;
-        synchronized (activeStreamsMap) {
-            agentStreamRecord = activeStreamsMap.remove(streamId);
-        }
+        final AgentStreamRecord agentStreamRecord = activeStreamsMap.remove(streamId);
 
         if (agentStreamRecord == null) {
             log.warn("Received completion from an unknown stream");
         } else {
-            agentStreamRecord.responseObserver.onCompleted();
+            agentStreamRecord.complete();
             if (agentStreamRecord.hasJobId()) {
                 notifyAgentDisconnected(agentStreamRecord.getJobId());
             }
@@ -162,15 +208,12 @@ class GrpcHeartBeatServiceImpl extends HeartBeatServiceGrpc.HeartBeatServiceImpl
 
     private void handleStreamError(final String streamId, final Throwable t) {
         // Pull the record, if one exists
-        final AgentStreamRecord agentStreamRecord;
-        synchronized (activeStreamsMap) {
-            agentStreamRecord = activeStreamsMap.remove(streamId);
-        }
+        final AgentStreamRecord agentStreamRecord = activeStreamsMap.remove(streamId);
 
         if (agentStreamRecord == null) {
             log.warn("Received error from an unknown stream");
         } else {
-            agentStreamRecord.responseObserver.onError(t);
+            agentStreamRecord.error(t);
             if (agentStreamRecord.hasJobId()) {
                 notifyAgentDisconnected(agentStreamRecord.getJobId());
             }
@@ -187,7 +230,8 @@ class GrpcHeartBeatServiceImpl extends HeartBeatServiceGrpc.HeartBeatServiceImpl
 
     private static class AgentStreamRecord {
         private final StreamObserver<ServerHeartBeat> responseObserver;
-        private String claimedJobId;
+        private volatile String claimedJobId;
+        private boolean closed;
 
         AgentStreamRecord(
             final StreamObserver<ServerHeartBeat> responseObserver
@@ -204,6 +248,33 @@ class GrpcHeartBeatServiceImpl extends HeartBeatServiceGrpc.HeartBeatServiceImpl
             }
         }
 
+        /**
+         * Send a heartbeat down the stream unless its transport can't take any more messages right now.
+         *
+         * @return False if the stream wasn't ready so the heartbeat was skipped
+         */
+        synchronized boolean sendHeartbeat() {
+            if (closed) {
+                return true;
+            }
+            if (responseObserver instanceof CallStreamObserver
+                && !((CallStreamObserver<ServerHeartBeat>) responseObserver).isReady()) {
+                return false;
+            }
+            responseObserver.onNext(ServerHeartBeat.getDefaultInstance());
+            return true;
+        }
+
+        synchronized void complete() {
+            closed = true;
+            responseObserver.onCompleted();
+        }
+
+        synchronized void error(final Throwable t) {
+            closed = true;
+            responseObserver.onError(t);
+        }
+
         String getJobId() {
             return claimedJobId;
         }
@@ -0,0 +1,59 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services;
+
+import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.exceptions.GenieException;
+import org.springframework.validation.annotation.Validated;
+
+import javax.annotation.Nullable;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Service which keeps track of how many active jobs each user has for the user active job limit check.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Validated
+public interface ActiveJobCountService {
+
+    /**
+     * Get the number of active jobs of the given user across all instances. Jobs waiting in the queue of a node
+     * aren't counted.
+     *
+     * @param user The user name
+     * @return The number of active jobs of the user
+     * @throws GenieException If the count can't be retrieved
+     */
+    long getActiveJobCount(@NotBlank final String user) throws GenieException;
+
+    /**
+     * Record that the status of a job of the given user has changed. Called once the change has been persisted.
+     *
+     * @param user           The user who submitted the job
+     * @param previousStatus The previous status of the job or null if the job was just created
+     * @param newStatus      The new status of the job
+     */
+    void jobStatusChanged(
+        @NotBlank final String user,
+        @Nullable final JobStatus previousStatus,
+        @NotNull final JobStatus newStatus
+    );
+}
@@ -20,7 +20,9 @@ package com.netflix.genie.web.services;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Persistence service to store and lookup which server is a given job/agent connected to.
@@ -54,6 +56,29 @@ public interface AgentConnectionPersistenceService {
         @NotBlank final String hostname
     );
 
+    /**
+     * Store a batch of connections currently active from the given agents to the given node.
+     *
+     * @param jobIds   the ids of the jobs the agents are running
+     * @param hostname the server owning the connections
+     */
+    void saveAgentConnections(
+        @NotNull Set<@NotBlank String> jobIds,
+        @NotBlank final String hostname
+    );
+
+    /**
+     * Remove a batch of existing connections from the given agents to the given node. As with
+     * {@link #removeAgentConnection(String, String)} entities already modified by a different server are left alone.
+     *
+     * @param jobIds   the ids of the jobs the agents are running
+     * @param hostname the hostname expected to be associated to the connections
+     */
+    void removeAgentConnections(
+        @NotNull Set<@NotBlank String> jobIds,
+        @NotBlank final String hostname
+    );
+
     /**
      * Lookup the hostname/address of the server with an active connection to a given agent.
      *
@@ -24,12 +24,15 @@ import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.internal.dto.v4.Application;
 import com.netflix.genie.common.internal.dto.v4.ApplicationRequest;
 import com.netflix.genie.common.internal.dto.v4.Command;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Nullable;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -67,6 +70,18 @@ public interface ApplicationPersistenceService {
         @NotBlank(message = "No id entered. Unable to get") final String id
     ) throws GenieException;
 
+    /**
+     * Get an opaque version of the application configuration which changes every time the configuration does. Much
+     * cheaper than {@link #getApplication(String)} as only the entity version and update time are read.
+     *
+     * @param id unique id of the application configuration
+     * @return The current version of the application configuration
+     * @throws GenieException if there is an error, e.g. no application with the id exists
+     */
+    String getApplicationVersion(
+        @NotBlank(message = "No id entered. Unable to get") final String id
+    ) throws GenieException;
+
     /**
      * Get applications for given filter criteria.
      *
@@ -87,6 +102,30 @@ public interface ApplicationPersistenceService {
         final Pageable pageable
     );
 
+    /**
+     * Get applications for given filter criteria using a keyset (seek) search instead of offset based paging.
+     * Results are ordered newest first and no total count is computed.
+     *
+     * @param name     Name of application. Can be null or empty.
+     * @param user     The user who created the application. Can be null/empty
+     * @param statuses The statuses of the applications to find. Can be null.
+     * @param tags     Tags allocated to this application
+     * @param type     The type of the application to find
+     * @param cursor   Where to resume the search from. Null to start from the newest application.
+     * @param limit    The maximum number of applications to return
+     * @return The applications matching the criteria and the cursor to get the next slice with if there is one
+     * @since 4.0.0
+     */
+    CursorSlice<Application> getApplications(
+        @Nullable final String name,
+        @Nullable final String user,
+        @Nullable final Set<ApplicationStatus> statuses,
+        @Nullable final Set<String> tags,
+        @Nullable final String type,
+        @Nullable final SearchCursor cursor,
+        @Min(1) final int limit
+    );
+
     /**
      * Update an application.
      *
@@ -26,12 +26,15 @@ import com.netflix.genie.common.internal.dto.v4.Cluster;
 import com.netflix.genie.common.internal.dto.v4.ClusterRequest;
 import com.netflix.genie.common.internal.dto.v4.Command;
 import com.netflix.genie.common.internal.dto.v4.Criterion;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Nullable;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -73,6 +76,18 @@ public interface ClusterPersistenceService {
         @NotBlank(message = "No id entered. Unable to get.") final String id
     ) throws GenieException;
 
+    /**
+     * Get an opaque version of the cluster configuration which changes every time the configuration does. Much cheaper
+     * than {@link #getCluster(String)} as only the entity version and update time are read.
+     *
+     * @param id unique id of the cluster configuration
+     * @return The current version of the cluster configuration
+     * @throws GenieException if there is an error, e.g. no cluster with the id exists
+     */
+    String getClusterVersion(
+        @NotBlank(message = "No id entered. Unable to get.") final String id
+    ) throws GenieException;
+
     /**
      * Get cluster info for various parameters. Null or empty parameters are
      * ignored.
@@ -94,6 +109,30 @@ public interface ClusterPersistenceService {
         final Pageable page
     );
 
+    /**
+     * Get cluster info for various parameters using a keyset (seek) search instead of offset based paging. Results
+     * are ordered newest first and no total count is computed. Null or empty parameters are ignored.
+     *
+     * @param name          cluster name
+     * @param statuses      valid types - Types.ClusterStatus
+     * @param tags          tags allocated to this cluster
+     * @param minUpdateTime min time when cluster configuration was updated
+     * @param maxUpdateTime max time when cluster configuration was updated
+     * @param cursor        Where to resume the search from. Null to start from the newest cluster.
+     * @param limit         The maximum number of clusters to return
+     * @return The clusters matching the criteria and the cursor to get the next slice with if there is one
+     * @since 4.0.0
+     */
+    CursorSlice<Cluster> getClusters(
+        @Nullable final String name,
+        @Nullable final Set<ClusterStatus> statuses,
+        @Nullable final Set<String> tags,
+        @Nullable final Instant minUpdateTime,
+        @Nullable final Instant maxUpdateTime,
+        @Nullable final SearchCursor cursor,
+        @Min(1) final int limit
+    );
+
     /**
      * Find the clusters and commands that can run a job given the criteria the user asked for in the job.
      *
@@ -25,12 +25,15 @@ import com.netflix.genie.common.internal.dto.v4.Application;
 import com.netflix.genie.common.internal.dto.v4.Cluster;
 import com.netflix.genie.common.internal.dto.v4.Command;
 import com.netflix.genie.common.internal.dto.v4.CommandRequest;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Nullable;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -71,6 +74,18 @@ public interface CommandPersistenceService {
         @NotBlank(message = "No id entered unable to get.") final String id
     ) throws GenieException;
 
+    /**
+     * Get an opaque version of the command configuration which changes every time the configuration does. Much cheaper
+     * than {@link #getCommand(String)} as only the entity version and update time are read.
+     *
+     * @param id unique id of the command configuration
+     * @return The current version of the command configuration
+     * @throws GenieException if there is an error, e.g. no command with the id exists
+     */
+    String getCommandVersion(
+        @NotBlank(message = "No id entered unable to get.") final String id
+    ) throws GenieException;
+
     /**
      * Get command configurations for given filter criteria.
      *
@@ -89,6 +104,28 @@ public interface CommandPersistenceService {
         final Pageable page
     );
 
+    /**
+     * Get command configurations for given filter criteria using a keyset (seek) search instead of offset based
+     * paging. Results are ordered newest first and no total count is computed.
+     *
+     * @param name     Name of command config
+     * @param user     The name of the user who created the configuration
+     * @param statuses The status of the applications to get. Can be null.
+     * @param tags     tags allocated to this command
+     * @param cursor   Where to resume the search from. Null to start from the newest command.
+     * @param limit    The maximum number of commands to return
+     * @return The commands matching the criteria and the cursor to get the next slice with if there is one
+     * @since 4.0.0
+     */
+    CursorSlice<Command> getCommands(
+        @Nullable final String name,
+        @Nullable final String user,
+        @Nullable final Set<CommandStatus> statuses,
+        @Nullable final Set<String> tags,
+        @Nullable final SearchCursor cursor,
+        @Min(1) final int limit
+    );
+
     /**
      * Update command configuration.
      *
@@ -19,12 +19,15 @@ package com.netflix.genie.web.services;
 
 import com.netflix.genie.common.dto.JobMetadata;
 import com.netflix.genie.common.dto.JobRequest;
+import com.netflix.genie.common.dto.JobSubmissionResult;
 import com.netflix.genie.common.exceptions.GenieException;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import java.util.List;
 
 /**
  * Job Coordination APIs.
@@ -50,6 +53,24 @@ public interface JobCoordinatorService {
         @Valid final JobMetadata jobMetadata
     ) throws GenieException;
 
+    /**
+     * Takes in many Job Request objects submitted together and does the necessary preparation for their execution.
+     * The jobs are saved in groups and the candidate clusters and commands of jobs with identical criteria are only
+     * looked up once. The cluster is still selected for each job on its own and each job is then accepted or rejected
+     * on its own.
+     *
+     * @param jobRequests The job requests to run. Each must have an id
+     * @param jobMetadata Metadata about the http request the jobs were submitted with
+     * @return The outcome of each job in the same order as the job requests
+     * @throws GenieException if there is an error which prevents handling any of the jobs
+     */
+    List<JobSubmissionResult> coordinateJobs(
+        @NotEmpty(message = "No job requests provided. Unable to execute.")
+        @Valid final List<JobRequest> jobRequests,
+        @NotNull(message = "No job metadata provided. Unable to execute.")
+        @Valid final JobMetadata jobMetadata
+    ) throws GenieException;
+
     /**
      * Kill the job identified by the given id.
      *
@@ -0,0 +1,52 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services;
+
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+
+/**
+ * API definition for maintaining the partitions of the jobs tables when the database has been migrated to the
+ * partitioned layout.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Validated
+public interface JobPartitionService {
+
+    /**
+     * Close off the partition currently receiving new jobs so that every job which exists now ends up in a partition
+     * that can later be dropped as a whole. Idempotent for a given day.
+     *
+     * @param now The time the partition is being closed. Used to name the new partition.
+     * @return True if a new partition was created. False if one already exists for the day or there were no new jobs.
+     */
+    boolean closeCurrentPartition(@NotNull final Instant now);
+
+    /**
+     * Drop all the partitions which only contain jobs created before the given threshold along with the criteria
+     * owned by those jobs.
+     *
+     * @param createdThreshold Partitions whose jobs were all created before this instant are dropped. Exclusive.
+     * @return The number of partitions dropped
+     */
+    int dropPartitionsCreatedBefore(@NotNull final Instant createdThreshold);
+}
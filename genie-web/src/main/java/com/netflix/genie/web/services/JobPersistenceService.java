@@ -17,6 +17,7 @@
  */
 package com.netflix.genie.web.services;
 
+import com.google.common.collect.Range;
 import com.netflix.genie.common.dto.Job;
 import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobStatus;
@@ -43,6 +44,7 @@ import javax.validation.constraints.NotNull;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interfaces for providing persistence functions for jobs other than search.
@@ -69,6 +71,22 @@ public interface JobPersistenceService {
         @NotNull final JobExecution jobExecution
     ) throws GenieException;
 
+    /**
+     * Save all the initial fields of many jobs at once. Either all the jobs are created or none of them are.
+     *
+     * @param jobRequests   The job requests to save. Not null
+     * @param jobMetadata   Metadata about the request the jobs were submitted with. Not null
+     * @param jobs          The Job objects to create in the same order as the job requests
+     * @param jobExecutions The job execution objects to create in the same order as the job requests
+     * @throws GenieException if there is an error
+     */
+    void createJobs(
+        @NotNull final List<com.netflix.genie.common.dto.JobRequest> jobRequests,
+        @NotNull final com.netflix.genie.common.dto.JobMetadata jobMetadata,
+        @NotNull final List<Job> jobs,
+        @NotNull final List<JobExecution> jobExecutions
+    ) throws GenieException;
+
     /**
      * Update the job with the various resources used to run the job including the cluster, command and applications.
      *
@@ -152,6 +170,73 @@ public interface JobPersistenceService {
         @Min(1) final int pageSize
     );
 
+    /**
+     * Get the range of internal ids of the jobs which were created before the given date. Note the range can contain
+     * ids of jobs created after the date as ids and creation times aren't strictly ordered with one another.
+     *
+     * @param date The date before which the jobs were created
+     * @return The closed range of ids or {@link Optional#empty()} if no jobs were created before the date
+     */
+    Optional<Range<Long>> getIdRangeOfJobsCreatedBeforeDate(@NotNull final Instant date);
+
+    /**
+     * Delete, using set based statements, all the jobs whose internal id is within the given range and which were
+     * created before the given date. All of the deletion happens in a single transaction so callers should keep the
+     * range small.
+     *
+     * @param date    The date before which the jobs should be deleted
+     * @param idRange The range of internal ids to delete jobs within
+     * @return The number of deleted jobs
+     */
+    long deleteJobsCreatedBeforeDateInIdRange(@NotNull final Instant date, @NotNull final Range<Long> idRange);
+
+    /**
+     * Move a batch of jobs which finished before the given date out of the jobs tables and into the archive. Archived
+     * jobs can still be read by id but are no longer returned by searches.
+     *
+     * @param date      The date before which the jobs must have finished
+     * @param batchSize The maximum number of jobs to archive
+     * @return The number of jobs archived. If less than the batch size there are no more jobs to archive.
+     */
+    long archiveJobsFinishedBefore(@NotNull final Instant date, @Min(1) final int batchSize);
+
+    /**
+     * Delete a batch of the archived jobs which were originally created before the given date in a single
+     * transaction.
+     *
+     * @param date      The date before which the jobs were created
+     * @param batchSize The maximum number of archived jobs to delete
+     * @return The number of archived jobs deleted. If less than the batch size there are no more to delete.
+     */
+    long deleteBatchOfArchivedJobsCreatedBefore(@NotNull final Instant date, @Min(1) final int batchSize);
+
+    /**
+     * Release a batch of the reservations of job ids which were made before the given date in a single transaction.
+     * Released ids can be used for new jobs again so only call this once the jobs themselves are past retention.
+     *
+     * @param date      The date before which the ids were reserved
+     * @param batchSize The maximum number of ids to release
+     * @return The number of ids released. If less than the batch size there are no more to release.
+     */
+    long releaseBatchOfJobIdsCreatedBefore(@NotNull final Instant date, @Min(1) final int batchSize);
+
+    /**
+     * Mark all the active jobs running on Genie nodes which haven't written a liveness heartbeat since the given
+     * threshold as failed. Each job goes through the regular status change so the active job counts and status change
+     * listeners see the jobs finish. Jobs created after the threshold are left alone so nodes which just started have a
+     * chance to write their first heartbeat.
+     *
+     * @param threshold     The instant a node must have written a heartbeat at or after to be considered alive
+     * @param exitCode      The exit code to set on the jobs
+     * @param statusMessage The status message to set on the jobs
+     * @return The unique ids of the jobs marked as failed
+     */
+    Set<String> failActiveJobsOnNodesWithoutHeartbeatSince(
+        @NotNull final Instant threshold,
+        final int exitCode,
+        @NotBlank final String statusMessage
+    );
+
     // V4 APIs
 
     /**
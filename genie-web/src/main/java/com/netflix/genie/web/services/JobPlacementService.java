@@ -0,0 +1,42 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services;
+
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import java.util.Optional;
+
+/**
+ * Service which decides which node of the Genie cluster a job should be placed on based on the load of every node.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Validated
+public interface JobPlacementService {
+
+    /**
+     * Select the node a job needing the given amount of memory should run on. The local node is preferred as long as
+     * the job fits on it. Otherwise the live node with the least memory in use which can still fit the job is chosen.
+     *
+     * @param memory The memory, in MB, the job needs
+     * @return The hostname of the selected node or empty if no node currently has room for the job
+     */
+    Optional<String> selectNode(@Min(1) final int memory);
+}
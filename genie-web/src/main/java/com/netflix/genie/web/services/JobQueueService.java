@@ -0,0 +1,70 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services;
+
+import com.netflix.genie.common.dto.JobRequest;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.internal.dto.v4.Application;
+import com.netflix.genie.common.internal.dto.v4.Cluster;
+import com.netflix.genie.common.internal.dto.v4.Command;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Service which holds the jobs accepted by this node until there are resources to run them. Jobs are dispatched in
+ * weighted fair share order of the user or group which submitted them and then by priority.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Validated
+public interface JobQueueService {
+
+    /**
+     * Add a job whose cluster, command and applications have been resolved to the queue of this node. Whatever the
+     * node has capacity for, in queue order, is dispatched right away. If the job has to wait it's marked as
+     * {@link com.netflix.genie.common.dto.JobStatus#QUEUED}.
+     *
+     * @param jobId        The id of the job
+     * @param jobRequest   The job request
+     * @param cluster      The cluster the job will run on
+     * @param command      The command the job will run
+     * @param applications The applications the command depends on
+     * @param memory       The memory, in MB, the job needs
+     * @throws GenieException If the queue is full or the job can't be queued
+     */
+    void enqueue(
+        @NotBlank final String jobId,
+        @NotNull final JobRequest jobRequest,
+        @NotNull final Cluster cluster,
+        @NotNull final Command command,
+        @NotNull final List<Application> applications,
+        @Min(1) final int memory
+    ) throws GenieException;
+
+    /**
+     * Get the number of jobs currently waiting in the queue of this node.
+     *
+     * @return The queue depth
+     */
+    int getQueueDepth();
+}
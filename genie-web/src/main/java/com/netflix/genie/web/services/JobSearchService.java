@@ -27,15 +27,20 @@ import com.netflix.genie.common.dto.JobRequest;
 import com.netflix.genie.common.dto.JobStatus;
 import com.netflix.genie.common.dto.search.JobSearchResult;
 import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Nullable;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -48,7 +53,8 @@ import java.util.Set;
 public interface JobSearchService {
 
     /**
-     * Search for jobs which match the given filter criteria.
+     * Search for jobs which match the given filter criteria. Jobs which have been moved into the archive aren't
+     * searched, they can only be fetched by id.
      *
      * @param id               id for job
      * @param name             name of job (can be a SQL-style pattern such as HIVE%)
@@ -88,6 +94,54 @@ public interface JobSearchService {
         @NotNull final Pageable page
     );
 
+    /**
+     * Search for jobs which match the given filter criteria using a keyset (seek) search instead of offset based
+     * paging. Results are ordered newest first and, unlike {@link #findJobs(String, String, String, Set, Set, String,
+     * String, String, String, Instant, Instant, Instant, Instant, String, String, Pageable)}, no count query is run so
+     * the cost of fetching a slice doesn't grow with how deep into the results it is. Like the offset based search it
+     * doesn't cover jobs which have been moved into the archive.
+     *
+     * @param id               id for job
+     * @param name             name of job (can be a SQL-style pattern such as HIVE%)
+     * @param user             user who submitted job
+     * @param statuses         statuses of job
+     * @param tags             tags for the job
+     * @param clusterName      name of cluster for job
+     * @param clusterId        id of cluster for job
+     * @param commandName      name of the command run in the job
+     * @param commandId        id of the command run in the job
+     * @param minStarted       The time which the job had to start after in order to be return (inclusive)
+     * @param maxStarted       The time which the job had to start before in order to be returned (exclusive)
+     * @param minFinished      The time which the job had to finish after in order to be return (inclusive)
+     * @param maxFinished      The time which the job had to finish before in order to be returned (exclusive)
+     * @param grouping         The job grouping to search for
+     * @param groupingInstance The job grouping instance to search for
+     * @param cursor           Where to resume the search from. Null to start from the newest job.
+     * @param limit            The maximum number of jobs to return
+     * @return Metadata information on jobs which match the criteria and the cursor to the next slice if there is one
+     * @since 4.0.0
+     */
+    @SuppressWarnings("checkstyle:parameternumber")
+    CursorSlice<JobSearchResult> findJobs(
+        @Nullable final String id,
+        @Nullable final String name,
+        @Nullable final String user,
+        @Nullable final Set<JobStatus> statuses,
+        @Nullable final Set<String> tags,
+        @Nullable final String clusterName,
+        @Nullable final String clusterId,
+        @Nullable final String commandName,
+        @Nullable final String commandId,
+        @Nullable final Instant minStarted,
+        @Nullable final Instant maxStarted,
+        @Nullable final Instant minFinished,
+        @Nullable final Instant maxFinished,
+        @Nullable final String grouping,
+        @Nullable final String groupingInstance,
+        @Nullable final SearchCursor cursor,
+        @Min(1) final int limit
+    );
+
     /**
      * Given a hostname return a set of all the jobs currently active on that host.
      *
@@ -121,6 +175,36 @@ public interface JobSearchService {
      */
     JobStatus getJobStatus(@NotBlank final String id) throws GenieException;
 
+    /**
+     * Get when each of the jobs with the given ids finished without loading the jobs in full. Meant for callers which
+     * need to check a large number of jobs at once.
+     *
+     * @param ids The ids of the jobs to get the finish times for
+     * @return Map of job id to the time the job finished. Jobs which are still active map to an empty Optional. Ids
+     * which don't match any job are left out
+     * @throws GenieException When any error is encountered
+     */
+    Map<String, Optional<Instant>> getJobFinishTimes(@NotNull final Set<String> ids) throws GenieException;
+
+    /**
+     * Get the status of each of the jobs with the given ids in as few queries as possible. Meant for callers which
+     * need to check a large number of jobs at once.
+     *
+     * @param ids The ids of the jobs to get the status of
+     * @return Map of job id to the current status of the job. Ids which don't match any job are left out
+     * @throws GenieException When any error is encountered
+     */
+    Map<String, JobStatus> getJobStatuses(@NotNull final Set<String> ids) throws GenieException;
+
+    /**
+     * Get the execution information of each of the jobs with the given ids in as few queries as possible.
+     *
+     * @param ids The ids of the jobs to get the execution information of
+     * @return Map of job id to the execution information of the job. Ids which don't match any job are left out
+     * @throws GenieException When any error is encountered
+     */
+    Map<String, JobExecution> getJobExecutions(@NotNull final Set<String> ids) throws GenieException;
+
     /**
      * Get job request for given job id.
      *
@@ -176,7 +260,8 @@ public interface JobSearchService {
     String getJobHost(@NotBlank final String jobId) throws GenieException;
 
     /**
-     * Get the count of 'active' jobs for a given user across all instances.
+     * Get the count of 'active' jobs for a given user across all instances. Jobs waiting in the queue of a node
+     * aren't counted.
      *
      * @param user The user name
      * @return the number of active jobs for a given user
@@ -184,6 +269,22 @@ public interface JobSearchService {
      */
     long getActiveJobCountForUser(@NotBlank final String user) throws GenieException;
 
+    /**
+     * Get the count of 'active' jobs of every user with at least one across all instances in a single query. Jobs
+     * waiting in the queue of a node aren't counted.
+     *
+     * @return Map of user name to the number of active jobs of that user
+     */
+    Map<String, Long> getActiveJobCountsByUser();
+
+    /**
+     * Get the count of 'active' jobs running on every cluster with at least one across all instances in a single
+     * query. Jobs waiting in the queue of a node aren't counted.
+     *
+     * @return Map of cluster id to the number of active jobs on that cluster
+     */
+    Map<String, Long> getActiveJobCountsByCluster();
+
     /**
      * Get the metadata about a job.
      *
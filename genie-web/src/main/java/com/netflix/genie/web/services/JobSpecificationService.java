@@ -17,12 +17,14 @@
  */
 package com.netflix.genie.web.services;
 
+import com.netflix.genie.common.internal.dto.v4.Cluster;
 import com.netflix.genie.common.internal.dto.v4.JobRequest;
 import com.netflix.genie.common.internal.dto.v4.JobSpecification;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.validation.Valid;
+import java.util.Map;
 
 /**
  * Service API definition and helper methods for working with Genie Job Specifications to be used by the Agent.
@@ -42,4 +44,30 @@ public interface JobSpecificationService {
      * @return The complete job specification
      */
     JobSpecification resolveJobSpecification(final String id, @Valid final JobRequest jobRequest);
+
+    /**
+     * Find the clusters matching the criteria of the given job request along with the id of the command to use on each
+     * of them. Only the criteria of the request are used so the result can be reused for any other job with the same
+     * criteria. No cluster is selected yet.
+     *
+     * @param jobRequest The job request containing the criteria
+     * @return The candidate clusters and the id of the command matching the command criterion for each of them
+     */
+    Map<Cluster, String> resolveClustersAndCommands(@Valid final JobRequest jobRequest);
+
+    /**
+     * Given a job request and the clusters and commands already found for its criteria resolve all the details needed
+     * for a complete job specification. The cluster is still selected from the candidates for this job alone.
+     *
+     * @param id                  The id of the job
+     * @param jobRequest          The job request containing all details a user wants to have for their job
+     * @param clustersAndCommands The candidate clusters and commands from
+     *                            {@link #resolveClustersAndCommands(JobRequest)}
+     * @return The complete job specification
+     */
+    JobSpecification resolveJobSpecification(
+        final String id,
+        @Valid final JobRequest jobRequest,
+        final Map<Cluster, String> clustersAndCommands
+    );
 }
@@ -0,0 +1,53 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services;
+
+import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.exceptions.GenieException;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service which lets callers wait for the status of a job to change without polling for it.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Validated
+public interface JobStatusWaitService {
+
+    /**
+     * Wait for the status of a job to no longer be one of the given statuses. The returned future completes with the
+     * status the job moved to, or exceptionally if the job can't be read anymore. It never times out on its own so
+     * callers should cancel it once they stop waiting.
+     *
+     * @param id       The id of the job
+     * @param statuses The statuses to wait while the job is in
+     * @return A future completed with the new status of the job. Already completed if the job isn't in any of the
+     * statuses
+     * @throws GenieException If the job doesn't exist or its status can't be read
+     */
+    CompletableFuture<JobStatus> waitWhileStatus(
+        @NotBlank final String id,
+        @NotEmpty final Set<JobStatus> statuses
+    ) throws GenieException;
+}
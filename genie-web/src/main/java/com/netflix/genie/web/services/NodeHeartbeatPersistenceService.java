@@ -0,0 +1,86 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services;
+
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * APIs for saving and querying the liveness heartbeats each Genie node writes.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Validated
+public interface NodeHeartbeatPersistenceService {
+
+    /**
+     * Save the latest heartbeat of a node, replacing the previous one if there was one.
+     *
+     * @param hostname       The hostname of the node
+     * @param heartbeat      The time of the heartbeat
+     * @param numRunningJobs The number of jobs running on the node
+     * @param usedMemory     The amount of memory, in MB, used by the jobs running on the node
+     */
+    void saveHeartbeat(
+        @NotBlank final String hostname,
+        @NotNull final Instant heartbeat,
+        @Min(0) final int numRunningJobs,
+        @Min(0) final int usedMemory
+    );
+
+    /**
+     * Get the hostnames of all the nodes whose last heartbeat was before the given threshold.
+     *
+     * @param threshold The instant before which the last heartbeat must have been written. Exclusive.
+     * @return The hostnames of the nodes
+     */
+    Set<String> getHostsWithHeartbeatBefore(@NotNull final Instant threshold);
+
+    /**
+     * Get the hostnames of all the nodes whose last heartbeat was at or after the given threshold. In other words the
+     * nodes currently considered alive.
+     *
+     * @param threshold The instant from which the last heartbeat must have been written. Inclusive.
+     * @return The hostnames of the nodes
+     */
+    Set<String> getHostsWithHeartbeatSince(@NotNull final Instant threshold);
+
+    /**
+     * Get the memory, in MB, used by jobs on each of the nodes whose last heartbeat was at or after the given
+     * threshold, as reported in that heartbeat.
+     *
+     * @param threshold The instant from which the last heartbeat must have been written. Inclusive.
+     * @return The used memory keyed by the hostname of the node
+     */
+    Map<String, Integer> getUsedMemoryOfHostsWithHeartbeatSince(@NotNull final Instant threshold);
+
+    /**
+     * Delete the heartbeats of all the nodes whose last heartbeat was before the given threshold.
+     *
+     * @param threshold The instant before which the last heartbeat must have been written. Exclusive.
+     * @return The number of heartbeats deleted
+     */
+    long deleteHeartbeatsBefore(@NotNull final Instant threshold);
+}
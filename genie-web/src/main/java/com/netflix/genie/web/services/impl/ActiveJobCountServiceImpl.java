@@ -0,0 +1,163 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.web.properties.JobsUsersActiveLimitProperties;
+import com.netflix.genie.web.services.ActiveJobCountService;
+import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default implementation of the {@link ActiveJobCountService}. When the cache is enabled the count of every user is
+ * kept in memory. It's seeded from the database, kept up to date with the status changes made by this node and
+ * periodically reconciled with the database to pick up the changes made by other nodes. Until it has been seeded, or
+ * when the cache is disabled, counts are read from the database.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class ActiveJobCountServiceImpl implements ActiveJobCountService {
+
+    static final String RECONCILE_TIMER_NAME = "genie.jobs.users.activeCounts.reconcile.timer";
+    static final String USERS_GAUGE_NAME = "genie.jobs.users.activeCounts.users.gauge";
+
+    private final JobSearchService jobSearchService;
+    private final JobsUsersActiveLimitProperties activeLimitProperties;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Long> counts = Maps.newConcurrentMap();
+    private final ScheduledFuture<?> reconcileFuture;
+    private volatile boolean seeded;
+
+    /**
+     * Constructor.
+     *
+     * @param jobSearchService      The service to read the counts from the database with
+     * @param activeLimitProperties The user active job limit properties
+     * @param taskScheduler         The scheduler to reconcile the counts with the database with
+     * @param registry              The metrics registry
+     */
+    public ActiveJobCountServiceImpl(
+        @NotNull final JobSearchService jobSearchService,
+        @NotNull final JobsUsersActiveLimitProperties activeLimitProperties,
+        @NotNull final TaskScheduler taskScheduler,
+        @NotNull final MeterRegistry registry
+    ) {
+        this.jobSearchService = jobSearchService;
+        this.activeLimitProperties = activeLimitProperties;
+        this.registry = registry;
+        this.registry.gaugeMapSize(USERS_GAUGE_NAME, Tags.empty(), this.counts);
+        // The first run seeds the counts
+        this.reconcileFuture = activeLimitProperties.isCacheEnabled()
+            ? taskScheduler.scheduleWithFixedDelay(this::reconcile, activeLimitProperties.getCacheReconcileInterval())
+            : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getActiveJobCount(@NotBlank final String user) throws GenieException {
+        if (this.seeded) {
+            return this.counts.getOrDefault(user, 0L);
+        }
+        return this.jobSearchService.getActiveJobCountForUser(user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void jobStatusChanged(
+        @NotBlank final String user,
+        @Nullable final JobStatus previousStatus,
+        @NotNull final JobStatus newStatus
+    ) {
+        if (this.reconcileFuture == null) {
+            return;
+        }
+        final long delta = (isCounted(newStatus) ? 1L : 0L) - (isCounted(previousStatus) ? 1L : 0L);
+        if (delta != 0L) {
+            this.counts.compute(
+                user,
+                (key, count) -> {
+                    final long newCount = (count == null ? 0L : count) + delta;
+                    return newCount > 0L ? newCount : null;
+                }
+            );
+        }
+    }
+
+    /**
+     * Stop reconciling the counts with the database.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (this.reconcileFuture != null) {
+            this.reconcileFuture.cancel(false);
+        }
+    }
+
+    /**
+     * Replace the counts with the ones currently in the database. Changes made by this node while the query runs may
+     * be missed or counted twice until the next reconciliation.
+     */
+    void reconcile() {
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            final Map<String, Long> databaseCounts = this.jobSearchService.getActiveJobCountsByUser();
+            this.counts.keySet().retainAll(databaseCounts.keySet());
+            this.counts.putAll(databaseCounts);
+            this.seeded = true;
+            log.debug("Reconciled active job counts of {} users", databaseCounts.size());
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Exception e) {
+            log.error("Unable to reconcile the active job counts of users", e);
+            MetricsUtils.addFailureTagsWithException(tags, e);
+        } finally {
+            this.registry
+                .timer(RECONCILE_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Queued jobs don't use any resources yet so they don't count against the limit
+    private static boolean isCounted(@Nullable final JobStatus status) {
+        return status != null && status.isActive() && status != JobStatus.QUEUED;
+    }
+}
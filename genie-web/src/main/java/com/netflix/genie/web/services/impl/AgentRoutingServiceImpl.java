@@ -15,20 +15,42 @@
  *     limitations under the License.
  *
  */
-
 package com.netflix.genie.web.services.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.netflix.genie.common.internal.util.GenieHostInfo;
+import com.netflix.genie.web.properties.AgentRoutingProperties;
 import com.netflix.genie.web.services.AgentConnectionPersistenceService;
 import com.netflix.genie.web.services.AgentRoutingService;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.validation.annotation.Validated;
 
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotBlank;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of {@link AgentRoutingService}.
+ * <p>
+ * The set of agents connected to this node is kept in memory and is authoritative for local lookups. Changes to it
+ * are coalesced per job and written to the database in batches in the background so the threads handling agent
+ * connections never wait on the database. Lookups of agents connected to other nodes are cached for a short time.
  *
  * @author mprimi
  * @since 4.0.0
@@ -37,21 +59,57 @@ import java.util.Optional;
 @Slf4j
 public class AgentRoutingServiceImpl implements AgentRoutingService {
 
+    private static final String FLUSH_TIMER_NAME = "genie.agents.routing.flush.timer";
+
     private final AgentConnectionPersistenceService agentConnectionPersistenceService;
     private final GenieHostInfo genieHostInfo;
+    private final AgentRoutingProperties agentRoutingProperties;
+    private final MeterRegistry registry;
+    private final Set<String> localConnections = Sets.newConcurrentHashSet();
+    // Latest state not yet written to the database for each job. True for connected and false for disconnected.
+    private final ConcurrentMap<String, Boolean> pendingWrites = Maps.newConcurrentMap();
+    private final Cache<String, String> remoteConnections;
+    private final Counter remoteCacheHitCounter;
+    private final Counter remoteCacheMissCounter;
+    private final ScheduledFuture<?> flushFuture;
 
     /**
      * Constructor.
      *
      * @param agentConnectionPersistenceService agent connection persistence service
      * @param genieHostInfo                     local genie node host information
+     * @param agentRoutingProperties            the routing cache and write behind configuration
+     * @param taskScheduler                     the scheduler to flush pending writes to the database with
+     * @param registry                          the metrics registry
      */
     public AgentRoutingServiceImpl(
         final AgentConnectionPersistenceService agentConnectionPersistenceService,
-        final GenieHostInfo genieHostInfo
+        final GenieHostInfo genieHostInfo,
+        final AgentRoutingProperties agentRoutingProperties,
+        final TaskScheduler taskScheduler,
+        final MeterRegistry registry
     ) {
         this.agentConnectionPersistenceService = agentConnectionPersistenceService;
         this.genieHostInfo = genieHostInfo;
+        this.agentRoutingProperties = agentRoutingProperties;
+        this.registry = registry;
+        this.remoteConnections = CacheBuilder
+            .newBuilder()
+            .maximumSize(agentRoutingProperties.getRemoteCacheMaxSize())
+            .expireAfterWrite(agentRoutingProperties.getRemoteCacheExpiry(), TimeUnit.MILLISECONDS)
+            .build();
+        this.registry.gaugeCollectionSize(
+            "genie.agents.routing.localConnections.gauge",
+            Tags.empty(),
+            this.localConnections
+        );
+        this.registry.gaugeMapSize("genie.agents.routing.pendingWrites.gauge", Tags.empty(), this.pendingWrites);
+        this.remoteCacheHitCounter = registry.counter("genie.agents.routing.remoteCache.hit.rate");
+        this.remoteCacheMissCounter = registry.counter("genie.agents.routing.remoteCache.miss.rate");
+        this.flushFuture = taskScheduler.scheduleWithFixedDelay(
+            this::flushPendingWrites,
+            agentRoutingProperties.getFlushInterval()
+        );
     }
 
     /**
@@ -59,7 +117,28 @@ public class AgentRoutingServiceImpl implements AgentRoutingService {
      */
     @Override
     public Optional<String> getHostnameForAgentConnection(final @NotBlank String jobId) {
-        return this.agentConnectionPersistenceService.lookupAgentConnectionServer(jobId);
+        final String localHostname = this.genieHostInfo.getHostname();
+        if (this.localConnections.contains(jobId)) {
+            return Optional.of(localHostname);
+        }
+
+        final String cachedHostname = this.remoteConnections.getIfPresent(jobId);
+        if (cachedHostname != null) {
+            this.remoteCacheHitCounter.increment();
+            return Optional.of(cachedHostname);
+        }
+
+        this.remoteCacheMissCounter.increment();
+        final Optional<String> hostname = this.agentConnectionPersistenceService.lookupAgentConnectionServer(jobId);
+        if (hostname.isPresent()) {
+            if (hostname.get().equals(localHostname)) {
+                // The local set is authoritative. This is a row whose removal hasn't been written yet or that was
+                // left behind by a previous run of this node.
+                return Optional.empty();
+            }
+            this.remoteConnections.put(jobId, hostname.get());
+        }
+        return hostname;
     }
 
     /**
@@ -67,8 +146,7 @@ public class AgentRoutingServiceImpl implements AgentRoutingService {
      */
     @Override
     public boolean isAgentConnectionLocal(final @NotBlank String jobId) {
-        final Optional<String> hostname = getHostnameForAgentConnection(jobId);
-        return hostname.isPresent() && hostname.get().equals(genieHostInfo.getHostname());
+        return this.localConnections.contains(jobId);
     }
 
     /**
@@ -77,7 +155,10 @@ public class AgentRoutingServiceImpl implements AgentRoutingService {
     @Override
     public void handleClientConnected(@NotBlank final String jobId) {
         log.info("Agent executing job {} connected", jobId);
-        this.agentConnectionPersistenceService.saveAgentConnection(jobId, genieHostInfo.getHostname());
+        this.localConnections.add(jobId);
+        // The agent may have been connected to another node until now
+        this.remoteConnections.invalidate(jobId);
+        this.pendingWrites.put(jobId, Boolean.TRUE);
     }
 
     /**
@@ -86,6 +167,78 @@ public class AgentRoutingServiceImpl implements AgentRoutingService {
     @Override
     public void handleClientDisconnected(@NotBlank final String jobId) {
         log.info("Agent executing job {} disconnected", jobId);
-        this.agentConnectionPersistenceService.removeAgentConnection(jobId, genieHostInfo.getHostname());
+        this.localConnections.remove(jobId);
+        this.pendingWrites.put(jobId, Boolean.FALSE);
+    }
+
+    /**
+     * Stop the background flush and write whatever is still pending to the database.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (this.flushFuture != null) {
+            this.flushFuture.cancel(false);
+        }
+        this.flushPendingWrites();
+    }
+
+    /**
+     * Write the connection changes accumulated since the last flush to the database in batches.
+     */
+    synchronized void flushPendingWrites() {
+        if (this.pendingWrites.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            final Set<String> connected = Sets.newHashSet();
+            final Set<String> disconnected = Sets.newHashSet();
+            for (final Map.Entry<String, Boolean> entry : this.pendingWrites.entrySet()) {
+                // Only claim the entry if it didn't change under us, otherwise the newer state is left for next time
+                if (this.pendingWrites.remove(entry.getKey(), entry.getValue())) {
+                    if (entry.getValue()) {
+                        connected.add(entry.getKey());
+                    } else {
+                        disconnected.add(entry.getKey());
+                    }
+                }
+            }
+
+            final String hostname = this.genieHostInfo.getHostname();
+            final int batchSize = this.agentRoutingProperties.getFlushBatchSize();
+            RuntimeException failure = null;
+            for (final List<String> batch : Iterables.partition(connected, batchSize)) {
+                try {
+                    this.agentConnectionPersistenceService.saveAgentConnections(Sets.newHashSet(batch), hostname);
+                } catch (final RuntimeException e) {
+                    log.error("Unable to save {} agent connections. Will retry.", batch.size(), e);
+                    batch.forEach(jobId -> this.pendingWrites.putIfAbsent(jobId, Boolean.TRUE));
+                    failure = e;
+                }
+            }
+            for (final List<String> batch : Iterables.partition(disconnected, batchSize)) {
+                try {
+                    this.agentConnectionPersistenceService.removeAgentConnections(Sets.newHashSet(batch), hostname);
+                } catch (final RuntimeException e) {
+                    log.error("Unable to remove {} agent connections. Will retry.", batch.size(), e);
+                    batch.forEach(jobId -> this.pendingWrites.putIfAbsent(jobId, Boolean.FALSE));
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                MetricsUtils.addFailureTagsWithException(tags, failure);
+            } else {
+                MetricsUtils.addSuccessTags(tags);
+            }
+        } catch (final Throwable t) {
+            // Swallow so the scheduler keeps running the flush
+            log.error("Unable to flush agent connections", t);
+            MetricsUtils.addFailureTagsWithException(tags, t);
+        } finally {
+            this.registry
+                .timer(FLUSH_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 }
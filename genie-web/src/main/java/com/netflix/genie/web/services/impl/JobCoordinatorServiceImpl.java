@@ -19,12 +19,14 @@ package com.netflix.genie.web.services.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.netflix.genie.common.dto.Job;
 import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobMetadata;
 import com.netflix.genie.common.dto.JobRequest;
 import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.dto.JobSubmissionResult;
 import com.netflix.genie.common.exceptions.GenieConflictException;
 import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.exceptions.GeniePreconditionException;
@@ -39,13 +41,14 @@ import com.netflix.genie.common.internal.jobs.JobConstants;
 import com.netflix.genie.web.controllers.DtoConverters;
 import com.netflix.genie.web.properties.JobsProperties;
 import com.netflix.genie.web.properties.JobsUsersActiveLimitProperties;
+import com.netflix.genie.web.services.ActiveJobCountService;
 import com.netflix.genie.web.services.ApplicationPersistenceService;
 import com.netflix.genie.web.services.ClusterPersistenceService;
 import com.netflix.genie.web.services.CommandPersistenceService;
 import com.netflix.genie.web.services.JobCoordinatorService;
 import com.netflix.genie.web.services.JobKillService;
 import com.netflix.genie.web.services.JobPersistenceService;
-import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.JobQueueService;
 import com.netflix.genie.web.services.JobSpecificationService;
 import com.netflix.genie.web.services.JobStateService;
 import com.netflix.genie.web.util.MetricsUtils;
@@ -54,10 +57,13 @@ import io.micrometer.core.instrument.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.annotation.Nullable;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -73,15 +79,15 @@ import java.util.stream.Collectors;
 public class JobCoordinatorServiceImpl implements JobCoordinatorService {
 
     static final String OVERALL_COORDINATION_TIMER_NAME = "genie.jobs.coordination.timer";
+    static final String BATCH_COORDINATION_TIMER_NAME = "genie.jobs.coordination.batch.timer";
     static final String SET_JOB_ENVIRONMENT_TIMER_NAME = "genie.jobs.submit.localRunner.setJobEnvironment.timer";
 
-    private static final String NO_ID_FOUND = "No id found";
-
     private final JobPersistenceService jobPersistenceService;
     private final JobKillService jobKillService;
     private final JobStateService jobStateService;
+    private final JobQueueService jobQueueService;
     private final ApplicationPersistenceService applicationPersistenceService;
-    private final JobSearchService jobSearchService;
+    private final ActiveJobCountService activeJobCountService;
     private final ClusterPersistenceService clusterPersistenceService;
     private final CommandPersistenceService commandPersistenceService;
     private final JobSpecificationService specificationService;
@@ -98,9 +104,10 @@ public class JobCoordinatorServiceImpl implements JobCoordinatorService {
      * @param jobKillService                The job kill service to use
      * @param jobStateService               The service where we report the job state and keep track of
      *                                      various metrics about jobs currently running
+     * @param jobQueueService               The queue jobs wait in for resources when queueing is enabled
      * @param jobsProperties                The jobs properties to use
      * @param applicationPersistenceService Implementation of application service interface
-     * @param jobSearchService              Implementation of job search service
+     * @param activeJobCountService         The service to get the number of active jobs of a user from
      * @param clusterPersistenceService     Implementation of cluster service interface
      * @param commandPersistenceService     Implementation of command service interface
      * @param specificationService          The job specification service to use
@@ -111,9 +118,10 @@ public class JobCoordinatorServiceImpl implements JobCoordinatorService {
         @NotNull final JobPersistenceService jobPersistenceService,
         @NotNull final JobKillService jobKillService,
         @NotNull final JobStateService jobStateService,
+        @NotNull final JobQueueService jobQueueService,
         @NotNull final JobsProperties jobsProperties,
         @NotNull final ApplicationPersistenceService applicationPersistenceService,
-        @NotNull final JobSearchService jobSearchService,
+        @NotNull final ActiveJobCountService activeJobCountService,
         @NotNull final ClusterPersistenceService clusterPersistenceService,
         @NotNull final CommandPersistenceService commandPersistenceService,
         @NotNull final JobSpecificationService specificationService,
@@ -123,8 +131,9 @@ public class JobCoordinatorServiceImpl implements JobCoordinatorService {
         this.jobPersistenceService = jobPersistenceService;
         this.jobKillService = jobKillService;
         this.jobStateService = jobStateService;
+        this.jobQueueService = jobQueueService;
         this.applicationPersistenceService = applicationPersistenceService;
-        this.jobSearchService = jobSearchService;
+        this.activeJobCountService = activeJobCountService;
         this.clusterPersistenceService = clusterPersistenceService;
         this.commandPersistenceService = commandPersistenceService;
         this.specificationService = specificationService;
@@ -144,73 +153,83 @@ public class JobCoordinatorServiceImpl implements JobCoordinatorService {
         @NotNull(message = "No job request provided. Unable to execute.") final JobRequest jobRequest,
         @Valid
         @NotNull(message = "No job metadata provided. Unable to execute.") final JobMetadata jobMetadata
+    ) throws GenieException {
+        return this.coordinateJob(jobRequest, jobMetadata, false, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<JobSubmissionResult> coordinateJobs(
+        @NotEmpty(message = "No job requests provided. Unable to execute.")
+        @Valid final List<JobRequest> jobRequests,
+        @NotNull(message = "No job metadata provided. Unable to execute.")
+        @Valid final JobMetadata jobMetadata
+    ) throws GenieException {
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            log.info("Called to schedule the launch of {} jobs", jobRequests.size());
+            final List<JobSubmissionResult> results = Lists.newArrayListWithExpectedSize(jobRequests.size());
+            final Map<List<Object>, Map<Cluster, String>> resolvedCandidates = Maps.newHashMap();
+            final int groupSize = this.jobsProperties.getBatch().getGroupSize();
+            for (final List<JobRequest> group : Lists.partition(jobRequests, groupSize)) {
+                final boolean created = this.createJobs(group, jobMetadata);
+                for (final JobRequest jobRequest : group) {
+                    final String jobId = this.getJobId(jobRequest);
+                    try {
+                        this.coordinateJob(jobRequest, jobMetadata, created, resolvedCandidates);
+                        results.add(JobSubmissionResult.accepted(jobId));
+                    } catch (final GenieException e) {
+                        results.add(JobSubmissionResult.rejected(jobId, e.getErrorCode(), e.getMessage()));
+                    }
+                }
+            }
+            MetricsUtils.addSuccessTags(tags);
+            return results;
+        } catch (final Throwable t) {
+            MetricsUtils.addFailureTagsWithException(tags, t);
+            throw t;
+        } finally {
+            this.registry
+                .timer(BATCH_COORDINATION_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String coordinateJob(
+        final JobRequest jobRequest,
+        final JobMetadata jobMetadata,
+        final boolean created,
+        @Nullable final Map<List<Object>, Map<Cluster, String>> resolvedCandidates
     ) throws GenieException {
         final long coordinationStart = System.nanoTime();
         final Set<Tag> tags = Sets.newHashSet();
-        final String jobId = jobRequest
-            .getId()
-            .orElseThrow(() -> new GenieServerException("Id of the jobRequest cannot be null"));
+        final String jobId = this.getJobId(jobRequest);
         JobStatus jobStatus = JobStatus.FAILED;
         try {
             log.info("Called to schedule job launch for job {}", jobId);
-            // create the job object in the database with status INIT
-            final Job.Builder jobBuilder = new Job.Builder(
-                jobRequest.getName(),
-                jobRequest.getUser(),
-                jobRequest.getVersion()
-            )
-                .withId(jobId)
-                .withTags(jobRequest.getTags())
-                .withStatus(JobStatus.INIT)
-                .withStatusMsg("Job Accepted and in initialization phase.");
-
-            jobRequest.getCommandArgs().ifPresent(
-                commandArgs ->
-                    jobBuilder
-                        .withCommandArgs(
-                            Lists.newArrayList(StringUtils.splitByWholeSeparator(commandArgs, StringUtils.SPACE))
-                        )
-            );
-            jobRequest.getDescription().ifPresent(jobBuilder::withDescription);
-            if (!jobRequest.isDisableLogArchival()) {
-                jobBuilder.withArchiveLocation(
-                    this.jobsProperties.getLocations().getArchives()
-                        + JobConstants.FILE_PATH_DELIMITER + jobId + ".tar.gz"
+            if (!created) {
+                // create the job object in the database with status INIT
+                this.jobPersistenceService.createJob(
+                    jobRequest,
+                    jobMetadata,
+                    this.buildJob(jobId, jobRequest),
+                    this.buildJobExecution(jobId)
                 );
             }
-
-            final JobExecution jobExecution = new JobExecution
-                .Builder(this.hostname)
-                .withId(jobId)
-                .build();
-
-            // Log all the job initial job information
-            this.jobPersistenceService.createJob(jobRequest, jobMetadata, jobBuilder.build(), jobExecution);
             this.jobStateService.init(jobId);
-            log.info("Finding possible clusters and commands for job {}", jobRequest.getId().orElse(NO_ID_FOUND));
-            final JobSpecification jobSpecification;
-            try {
-                jobSpecification = this.specificationService.resolveJobSpecification(
-                    jobId,
-                    DtoConverters.toV4JobRequest(jobRequest)
-                );
-            } catch (final RuntimeException re) {
-                //TODO: Here for now as we figure out what to do with exceptions for JobSpecificationServiceImpl
-                throw new GeniePreconditionException(re.getMessage(), re);
-            }
-            final Cluster cluster = this.clusterPersistenceService.getCluster(jobSpecification.getCluster().getId());
-            final Command command = this.commandPersistenceService.getCommand(jobSpecification.getCommand().getId());
+
+            final ExecutionResources resources = this.resolveExecutionResources(jobId, jobRequest, resolvedCandidates);
+            final Cluster cluster = resources.cluster;
+            final Command command = resources.command;
+            final ImmutableList<Application> applications = resources.applications;
 
             // Now that we have command how much memory should the job use?
             final int memory = jobRequest.getMemory()
                 .orElse(command.getMemory().orElse(this.jobsProperties.getMemory().getDefaultJobMemory()));
 
-            final ImmutableList.Builder<Application> applicationsBuilder = ImmutableList.builder();
-            for (final JobSpecification.ExecutionResource applicationResource : jobSpecification.getApplications()) {
-                applicationsBuilder.add(this.applicationPersistenceService.getApplication(applicationResource.getId()));
-            }
-            final ImmutableList<Application> applications = applicationsBuilder.build();
-
             // Save all the runtime information
             this.setRuntimeEnvironment(jobId, cluster, command, applications, memory);
 
@@ -226,11 +245,20 @@ public class JobCoordinatorServiceImpl implements JobCoordinatorService {
                 );
             }
 
+            if (this.jobsProperties.getQueue().isEnabled()) {
+                // Jobs which can't run yet, for lack of memory or because the user is over their limit, wait in the
+                // queue instead of being rejected
+                log.info("Queueing job {}", jobId);
+                this.jobQueueService.enqueue(jobId, jobRequest, cluster, command, applications, memory);
+                MetricsUtils.addSuccessTags(tags);
+                return jobId;
+            }
+
             log.info("Checking if can run job {} from user {}", jobRequest.getId(), jobRequest.getUser());
             final JobsUsersActiveLimitProperties activeLimit = this.jobsProperties.getUsers().getActiveLimit();
             if (activeLimit.isEnabled()) {
                 final long activeJobsLimit = activeLimit.getCount();
-                final long activeJobsCount = this.jobSearchService.getActiveJobCountForUser(jobRequest.getUser());
+                final long activeJobsCount = this.activeJobCountService.getActiveJobCount(jobRequest.getUser());
                 if (activeJobsCount >= activeJobsLimit) {
                     throw GenieUserLimitExceededException.createForActiveJobsLimit(
                         jobRequest.getUser(),
@@ -321,6 +349,121 @@ public class JobCoordinatorServiceImpl implements JobCoordinatorService {
         this.jobKillService.killJob(jobId, reason);
     }
 
+    private String getJobId(final JobRequest jobRequest) throws GenieServerException {
+        return jobRequest
+            .getId()
+            .orElseThrow(() -> new GenieServerException("Id of the jobRequest cannot be null"));
+    }
+
+    private Job buildJob(final String jobId, final JobRequest jobRequest) {
+        final Job.Builder jobBuilder = new Job.Builder(
+            jobRequest.getName(),
+            jobRequest.getUser(),
+            jobRequest.getVersion()
+        )
+            .withId(jobId)
+            .withTags(jobRequest.getTags())
+            .withStatus(JobStatus.INIT)
+            .withStatusMsg("Job Accepted and in initialization phase.");
+
+        jobRequest.getCommandArgs().ifPresent(
+            commandArgs ->
+                jobBuilder
+                    .withCommandArgs(
+                        Lists.newArrayList(StringUtils.splitByWholeSeparator(commandArgs, StringUtils.SPACE))
+                    )
+        );
+        jobRequest.getDescription().ifPresent(jobBuilder::withDescription);
+        if (!jobRequest.isDisableLogArchival()) {
+            jobBuilder.withArchiveLocation(
+                this.jobsProperties.getLocations().getArchives()
+                    + JobConstants.FILE_PATH_DELIMITER + jobId + ".tar.gz"
+            );
+        }
+        return jobBuilder.build();
+    }
+
+    private JobExecution buildJobExecution(final String jobId) {
+        return new JobExecution
+            .Builder(this.hostname)
+            .withId(jobId)
+            .build();
+    }
+
+    /**
+     * Save all the jobs of a group at once. If that fails the jobs are saved one by one instead so a single bad job
+     * doesn't fail the others.
+     *
+     * @param jobRequests The job requests of the group
+     * @param jobMetadata The metadata of the request the jobs were submitted with
+     * @return true if all the jobs were saved
+     */
+    private boolean createJobs(final List<JobRequest> jobRequests, final JobMetadata jobMetadata) {
+        try {
+            final List<Job> jobs = Lists.newArrayListWithExpectedSize(jobRequests.size());
+            final List<JobExecution> jobExecutions = Lists.newArrayListWithExpectedSize(jobRequests.size());
+            for (final JobRequest jobRequest : jobRequests) {
+                final String jobId = this.getJobId(jobRequest);
+                jobs.add(this.buildJob(jobId, jobRequest));
+                jobExecutions.add(this.buildJobExecution(jobId));
+            }
+            this.jobPersistenceService.createJobs(jobRequests, jobMetadata, jobs, jobExecutions);
+            return true;
+        } catch (final GenieException | RuntimeException e) {
+            log.warn("Unable to save {} jobs at once. Saving them one by one", jobRequests.size(), e);
+            return false;
+        }
+    }
+
+    private ExecutionResources resolveExecutionResources(
+        final String jobId,
+        final JobRequest jobRequest,
+        @Nullable final Map<List<Object>, Map<Cluster, String>> resolvedCandidates
+    ) throws GenieException {
+        log.info("Finding possible clusters and commands for job {}", jobId);
+        final JobSpecification jobSpecification;
+        try {
+            final com.netflix.genie.common.internal.dto.v4.JobRequest v4JobRequest
+                = DtoConverters.toV4JobRequest(jobRequest);
+            if (resolvedCandidates == null) {
+                jobSpecification = this.specificationService.resolveJobSpecification(jobId, v4JobRequest);
+            } else {
+                jobSpecification = this.resolveJobSpecification(jobId, jobRequest, v4JobRequest, resolvedCandidates);
+            }
+        } catch (final RuntimeException re) {
+            //TODO: Here for now as we figure out what to do with exceptions for JobSpecificationServiceImpl
+            throw new GeniePreconditionException(re.getMessage(), re);
+        }
+        final Cluster cluster = this.clusterPersistenceService.getCluster(jobSpecification.getCluster().getId());
+        final Command command = this.commandPersistenceService.getCommand(jobSpecification.getCommand().getId());
+
+        final ImmutableList.Builder<Application> applicationsBuilder = ImmutableList.builder();
+        for (final JobSpecification.ExecutionResource applicationResource : jobSpecification.getApplications()) {
+            applicationsBuilder.add(this.applicationPersistenceService.getApplication(applicationResource.getId()));
+        }
+        return new ExecutionResources(cluster, command, applicationsBuilder.build());
+    }
+
+    private JobSpecification resolveJobSpecification(
+        final String jobId,
+        final JobRequest jobRequest,
+        final com.netflix.genie.common.internal.dto.v4.JobRequest v4JobRequest,
+        final Map<List<Object>, Map<Cluster, String>> resolvedCandidates
+    ) {
+        // Jobs submitted together with identical criteria share the candidate clusters and commands but the load
+        // balancers still select the cluster for each job on its own
+        final List<Object> criteria = ImmutableList.of(
+            jobRequest.getClusterCriterias(),
+            jobRequest.getCommandCriteria()
+        );
+        Map<Cluster, String> clustersAndCommands = resolvedCandidates.get(criteria);
+        if (clustersAndCommands == null) {
+            clustersAndCommands = this.specificationService.resolveClustersAndCommands(v4JobRequest);
+            resolvedCandidates.put(criteria, clustersAndCommands);
+        }
+        return this.specificationService.resolveJobSpecification(jobId, v4JobRequest, clustersAndCommands);
+    }
+
     private void setRuntimeEnvironment(
         final String jobId,
         final Cluster cluster,
@@ -353,4 +496,23 @@ public class JobCoordinatorServiceImpl implements JobCoordinatorService {
                 .record(System.nanoTime() - jobEnvironmentStart, TimeUnit.NANOSECONDS);
         }
     }
+
+    /**
+     * The cluster, command and applications resolved for a job.
+     */
+    private static final class ExecutionResources {
+        private final Cluster cluster;
+        private final Command command;
+        private final ImmutableList<Application> applications;
+
+        private ExecutionResources(
+            final Cluster cluster,
+            final Command command,
+            final ImmutableList<Application> applications
+        ) {
+            this.cluster = cluster;
+            this.command = command;
+            this.applications = applications;
+        }
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Sets;
+import com.netflix.genie.web.properties.JobsProperties;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.JobPlacementService;
+import com.netflix.genie.web.services.JobStateService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Default implementation of the {@link JobPlacementService}. The load of the local node is taken from the
+ * {@link JobStateService} while the load of the other nodes is read from their latest liveness heartbeat and cached
+ * for a short period.
+ * <p>
+ * All nodes are assumed to be configured with the same maximum system memory.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class JobPlacementServiceImpl implements JobPlacementService {
+
+    static final String SELECT_NODE_TIMER_NAME = "genie.jobs.placement.selectNode.timer";
+    static final String PLACEMENT_TAG = "placement";
+    static final String LOCAL_PLACEMENT = "local";
+    static final String REMOTE_PLACEMENT = "remote";
+    static final String NONE_PLACEMENT = "none";
+
+    private final JobStateService jobStateService;
+    private final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
+    private final JobsProperties jobsProperties;
+    private final NodeHeartbeatProperties nodeHeartbeatProperties;
+    private final String hostname;
+    private final MeterRegistry registry;
+    private final Supplier<ConcurrentMap<String, Integer>> clusterLoad;
+
+    /**
+     * Constructor.
+     *
+     * @param jobStateService                 The service to get the load of this node from
+     * @param nodeHeartbeatPersistenceService The service to read the load other nodes reported in their heartbeats
+     * @param jobsProperties                  The jobs properties to use
+     * @param nodeHeartbeatProperties         The heartbeat properties used to decide which nodes are alive
+     * @param hostname                        The hostname of this node
+     * @param registry                        The metrics registry
+     */
+    public JobPlacementServiceImpl(
+        @NotNull final JobStateService jobStateService,
+        @NotNull final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService,
+        @NotNull final JobsProperties jobsProperties,
+        @NotNull final NodeHeartbeatProperties nodeHeartbeatProperties,
+        @NotBlank final String hostname,
+        @NotNull final MeterRegistry registry
+    ) {
+        this.jobStateService = jobStateService;
+        this.nodeHeartbeatPersistenceService = nodeHeartbeatPersistenceService;
+        this.jobsProperties = jobsProperties;
+        this.nodeHeartbeatProperties = nodeHeartbeatProperties;
+        this.hostname = hostname;
+        this.registry = registry;
+        this.clusterLoad = Suppliers.memoizeWithExpiration(
+            this::loadClusterLoad,
+            jobsProperties.getPlacement().getLoadRefreshInterval(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<String> selectNode(@Min(1) final int memory) {
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            final int maxSystemMemory = this.jobsProperties.getMemory().getMaxSystemMemory();
+            final Optional<String> node;
+            if (this.jobStateService.getUsedMemory() + memory <= maxSystemMemory) {
+                node = Optional.of(this.hostname);
+                tags.add(Tag.of(PLACEMENT_TAG, LOCAL_PLACEMENT));
+            } else {
+                node = this.selectRemoteNode(memory, maxSystemMemory);
+                tags.add(Tag.of(PLACEMENT_TAG, node.isPresent() ? REMOTE_PLACEMENT : NONE_PLACEMENT));
+            }
+            MetricsUtils.addSuccessTags(tags);
+            return node;
+        } catch (final RuntimeException e) {
+            MetricsUtils.addFailureTagsWithException(tags, e);
+            throw e;
+        } finally {
+            this.registry
+                .timer(SELECT_NODE_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized Optional<String> selectRemoteNode(final int memory, final int maxSystemMemory) {
+        final ConcurrentMap<String, Integer> load = this.clusterLoad.get();
+        final Optional<String> node = load
+            .entrySet()
+            .stream()
+            .filter(entry -> !this.hostname.equals(entry.getKey()))
+            .filter(entry -> entry.getValue() + memory <= maxSystemMemory)
+            .min(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey);
+        // Account for the job until the next refresh so a burst of submissions isn't all sent to the same node
+        node.ifPresent(selected -> load.merge(selected, memory, Integer::sum));
+        log.debug("Selected node {} for a job needing {} MB out of {}", node, memory, load);
+        return node;
+    }
+
+    private ConcurrentMap<String, Integer> loadClusterLoad() {
+        final Instant threshold = Instant.now().minusMillis(this.nodeHeartbeatProperties.getStaleThreshold());
+        return new ConcurrentHashMap<>(
+            this.nodeHeartbeatPersistenceService.getUsedMemoryOfHostsWithHeartbeatSince(threshold)
+        );
+    }
+}
@@ -0,0 +1,489 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.Job;
+import com.netflix.genie.common.dto.JobRequest;
+import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.dto.JobStatusMessages;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.exceptions.GenieServerException;
+import com.netflix.genie.common.exceptions.GenieServerUnavailableException;
+import com.netflix.genie.common.internal.dto.v4.Application;
+import com.netflix.genie.common.internal.dto.v4.Cluster;
+import com.netflix.genie.common.internal.dto.v4.Command;
+import com.netflix.genie.web.events.JobFinishedEvent;
+import com.netflix.genie.web.properties.JobsProperties;
+import com.netflix.genie.web.properties.JobsQueueProperties;
+import com.netflix.genie.web.properties.JobsUsersActiveLimitProperties;
+import com.netflix.genie.web.services.ActiveJobCountService;
+import com.netflix.genie.web.services.ApplicationPersistenceService;
+import com.netflix.genie.web.services.ClusterPersistenceService;
+import com.netflix.genie.web.services.CommandPersistenceService;
+import com.netflix.genie.web.services.JobPersistenceService;
+import com.netflix.genie.web.services.JobQueueService;
+import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.JobStateService;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.annotation.PreDestroy;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default implementation of the {@link JobQueueService}. The queue is kept in memory and mirrored in the database by
+ * the {@link JobStatus#QUEUED} status of the jobs in it so it can be rebuilt when the node restarts.
+ * <p>
+ * The fair share of a user (or group) is the memory its jobs dispatched by this node are using divided by its
+ * configured weight. The queued job of the user with the lowest share goes next, then the one with the highest
+ * priority and then the oldest. If that job doesn't fit in the memory left on the node nothing else is dispatched
+ * until it does so large jobs aren't starved by a stream of small ones.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class JobQueueServiceImpl implements JobQueueService {
+
+    static final String DEPTH_GAUGE_NAME = "genie.jobs.queue.depth.gauge";
+    static final String WAIT_TIMER_NAME = "genie.jobs.queue.wait.timer";
+    static final String DISPATCH_TIMER_NAME = "genie.jobs.queue.dispatch.timer";
+    static final String REJECTED_COUNTER_NAME = "genie.jobs.queue.rejected.rate";
+    static final String QUEUED_STATUS_MESSAGE = "Job queued waiting for resources to free up.";
+    static final String INIT_STATUS_MESSAGE = "Job Accepted and in initialization phase.";
+    static final String DISPATCH_FAILED_STATUS_MESSAGE = "Unable to dispatch the job from the queue.";
+
+    private final JobPersistenceService jobPersistenceService;
+    private final JobSearchService jobSearchService;
+    private final ActiveJobCountService activeJobCountService;
+    private final JobStateService jobStateService;
+    private final ApplicationPersistenceService applicationPersistenceService;
+    private final ClusterPersistenceService clusterPersistenceService;
+    private final CommandPersistenceService commandPersistenceService;
+    private final JobsProperties jobsProperties;
+    private final String hostname;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, QueuedJob> queue = Maps.newConcurrentMap();
+    private final ConcurrentMap<String, DispatchedJob> dispatched = Maps.newConcurrentMap();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    private final ScheduledFuture<?> dispatchFuture;
+
+    /**
+     * Constructor.
+     *
+     * @param jobPersistenceService         The service to update the status of queued jobs with
+     * @param jobSearchService              The service to check job statuses and reload queued jobs with
+     * @param activeJobCountService         The service to get the number of active jobs of a user from
+     * @param jobStateService               The service which runs the jobs on this node and tracks their memory
+     * @param applicationPersistenceService The service to load the applications of queued jobs with on startup
+     * @param clusterPersistenceService     The service to load the clusters of queued jobs with on startup
+     * @param commandPersistenceService     The service to load the commands of queued jobs with on startup
+     * @param jobsProperties                The jobs properties to use
+     * @param taskScheduler                 The scheduler to periodically dispatch queued jobs with
+     * @param registry                      The metrics registry
+     * @param hostname                      The hostname of this node
+     */
+    public JobQueueServiceImpl(
+        @NotNull final JobPersistenceService jobPersistenceService,
+        @NotNull final JobSearchService jobSearchService,
+        @NotNull final ActiveJobCountService activeJobCountService,
+        @NotNull final JobStateService jobStateService,
+        @NotNull final ApplicationPersistenceService applicationPersistenceService,
+        @NotNull final ClusterPersistenceService clusterPersistenceService,
+        @NotNull final CommandPersistenceService commandPersistenceService,
+        @NotNull final JobsProperties jobsProperties,
+        @NotNull final TaskScheduler taskScheduler,
+        @NotNull final MeterRegistry registry,
+        @NotBlank final String hostname
+    ) {
+        this.jobPersistenceService = jobPersistenceService;
+        this.jobSearchService = jobSearchService;
+        this.activeJobCountService = activeJobCountService;
+        this.jobStateService = jobStateService;
+        this.applicationPersistenceService = applicationPersistenceService;
+        this.clusterPersistenceService = clusterPersistenceService;
+        this.commandPersistenceService = commandPersistenceService;
+        this.jobsProperties = jobsProperties;
+        this.hostname = hostname;
+        this.registry = registry;
+        this.registry.gaugeMapSize(DEPTH_GAUGE_NAME, Tags.empty(), this.queue);
+        this.waitTimer = Timer
+            .builder(WAIT_TIMER_NAME)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.rejectedCounter = registry.counter(REJECTED_COUNTER_NAME);
+        final JobsQueueProperties queueProperties = jobsProperties.getQueue();
+        this.dispatchFuture = queueProperties.isEnabled()
+            ? taskScheduler.scheduleWithFixedDelay(this::dispatch, queueProperties.getDispatchInterval())
+            : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void enqueue(
+        @NotBlank final String jobId,
+        @NotNull final JobRequest jobRequest,
+        @NotNull final Cluster cluster,
+        @NotNull final Command command,
+        @NotNull final List<Application> applications,
+        @Min(1) final int memory
+    ) throws GenieException {
+        final int maxDepth = this.jobsProperties.getQueue().getMaxDepth();
+        if (this.queue.size() >= maxDepth) {
+            this.rejectedCounter.increment();
+            throw new GenieServerUnavailableException(
+                "Job " + jobId + " can't be queued as " + maxDepth + " jobs are already waiting on this node"
+            );
+        }
+
+        final QueuedJob queuedJob = new QueuedJob(
+            jobId,
+            jobRequest,
+            cluster,
+            command,
+            applications,
+            memory,
+            this.getShareKey(jobRequest),
+            this.getPriority(jobRequest),
+            this.sequence.getAndIncrement(),
+            Instant.now()
+        );
+        this.queue.put(jobId, queuedJob);
+        this.dispatch();
+
+        if (this.queue.containsKey(jobId)) {
+            log.info("Job {} has to wait for resources. {} jobs are queued on this node", jobId, this.queue.size());
+            try {
+                this.jobPersistenceService.updateJobStatus(jobId, JobStatus.QUEUED, QUEUED_STATUS_MESSAGE);
+                queuedJob.setPersisted(true);
+            } catch (final GenieException | RuntimeException e) {
+                this.queue.remove(jobId);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    /**
+     * When the application is ready put any jobs which were queued on this node before it stopped back in the queue.
+     *
+     * @param event The context refreshed event
+     */
+    @EventListener
+    public synchronized void onStartup(final ContextRefreshedEvent event) {
+        if (!this.jobsProperties.getQueue().isEnabled()) {
+            return;
+        }
+
+        for (final Job job : this.jobSearchService.getAllActiveJobsOnHost(this.hostname)) {
+            final Optional<String> jobId = job.getId();
+            if (job.getStatus() == JobStatus.QUEUED && jobId.isPresent() && !this.queue.containsKey(jobId.get())) {
+                this.reQueue(jobId.get(), job.getCreated().orElse(Instant.now()));
+            }
+        }
+        log.info("{} jobs queued on this node at startup", this.queue.size());
+        this.dispatch();
+    }
+
+    /**
+     * Stop tracking a job once it's finished whether it was still in the queue or not.
+     *
+     * @param event The job finished event
+     */
+    @EventListener
+    public void onJobFinished(final JobFinishedEvent event) {
+        this.queue.remove(event.getId());
+        this.dispatched.remove(event.getId());
+    }
+
+    /**
+     * Stop dispatching queued jobs.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (this.dispatchFuture != null) {
+            this.dispatchFuture.cancel(false);
+        }
+    }
+
+    /**
+     * Start as many queued jobs as the node currently has resources for in fair share order.
+     */
+    synchronized void dispatch() {
+        if (this.queue.isEmpty()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            final int maxSystemMemory = this.jobsProperties.getMemory().getMaxSystemMemory();
+            final Set<String> usersAtLimit = Sets.newHashSet();
+            while (true) {
+                final Map<String, Double> shares = this.getShares();
+                final Optional<QueuedJob> next = this.queue
+                    .values()
+                    .stream()
+                    .filter(queuedJob -> !usersAtLimit.contains(queuedJob.getJobRequest().getUser()))
+                    .min(
+                        Comparator
+                            .<QueuedJob>comparingDouble(queuedJob -> shares.getOrDefault(queuedJob.getShareKey(), 0.0))
+                            .thenComparing(QueuedJob::getPriority, Comparator.reverseOrder())
+                            .thenComparingLong(QueuedJob::getSequence)
+                    );
+                if (!next.isPresent()) {
+                    break;
+                }
+
+                final QueuedJob queuedJob = next.get();
+                if (this.jobStateService.getUsedMemory() + queuedJob.getMemory() > maxSystemMemory) {
+                    break;
+                }
+                if (this.isUserAtActiveLimit(queuedJob)) {
+                    usersAtLimit.add(queuedJob.getJobRequest().getUser());
+                    continue;
+                }
+
+                this.queue.remove(queuedJob.getJobId());
+                this.start(queuedJob);
+            }
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Exception e) {
+            log.error("Unable to dispatch queued jobs", e);
+            MetricsUtils.addFailureTagsWithException(tags, e);
+        } finally {
+            this.registry
+                .timer(DISPATCH_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void start(final QueuedJob queuedJob) {
+        final String jobId = queuedJob.getJobId();
+        try {
+            if (queuedJob.isPersisted()) {
+                // The job may have been killed since it was queued
+                if (this.jobSearchService.getJobStatus(jobId) != JobStatus.QUEUED) {
+                    log.info("Job {} is no longer queued. Not dispatching it.", jobId);
+                    this.jobStateService.done(jobId);
+                    return;
+                }
+                this.jobPersistenceService.updateJobStatus(jobId, JobStatus.INIT, INIT_STATUS_MESSAGE);
+            }
+            this.dispatched.put(jobId, new DispatchedJob(queuedJob.getShareKey(), queuedJob.getMemory()));
+            log.info("Dispatching job {} from the queue", jobId);
+            this.jobStateService.schedule(
+                jobId,
+                queuedJob.getJobRequest(),
+                queuedJob.getCluster(),
+                queuedJob.getCommand(),
+                queuedJob.getApplications(),
+                queuedJob.getMemory()
+            );
+            this.waitTimer.record(Duration.between(queuedJob.getQueuedAt(), Instant.now()));
+        } catch (final GenieException | RuntimeException e) {
+            log.error("Unable to dispatch job {} from the queue", jobId, e);
+            this.dispatched.remove(jobId);
+            try {
+                this.jobStateService.done(jobId);
+                this.jobPersistenceService.updateJobStatus(jobId, JobStatus.FAILED, DISPATCH_FAILED_STATUS_MESSAGE);
+            } catch (final GenieException ge) {
+                log.error("Unable to mark job {} failed", jobId, ge);
+            }
+        }
+    }
+
+    private void reQueue(final String jobId, final Instant queuedAt) {
+        try {
+            final JobRequest jobRequest = this.jobSearchService.getJobRequest(jobId);
+            final Cluster cluster = this.clusterPersistenceService.getCluster(
+                this.jobSearchService
+                    .getJobCluster(jobId)
+                    .getId()
+                    .orElseThrow(() -> new GenieServerException("Cluster of job " + jobId + " has no id"))
+            );
+            final Command command = this.commandPersistenceService.getCommand(
+                this.jobSearchService
+                    .getJobCommand(jobId)
+                    .getId()
+                    .orElseThrow(() -> new GenieServerException("Command of job " + jobId + " has no id"))
+            );
+            final ImmutableList.Builder<Application> applications = ImmutableList.builder();
+            for (final com.netflix.genie.common.dto.Application application
+                : this.jobSearchService.getJobApplications(jobId)) {
+                applications.add(
+                    this.applicationPersistenceService.getApplication(
+                        application
+                            .getId()
+                            .orElseThrow(() -> new GenieServerException("Application of job " + jobId + " has no id"))
+                    )
+                );
+            }
+            final int memory = this.jobSearchService
+                .getJobExecution(jobId)
+                .getMemory()
+                .orElse(this.jobsProperties.getMemory().getDefaultJobMemory());
+
+            final QueuedJob queuedJob = new QueuedJob(
+                jobId,
+                jobRequest,
+                cluster,
+                command,
+                applications.build(),
+                memory,
+                this.getShareKey(jobRequest),
+                this.getPriority(jobRequest),
+                this.sequence.getAndIncrement(),
+                queuedAt
+            );
+            queuedJob.setPersisted(true);
+            this.jobStateService.init(jobId);
+            this.queue.put(jobId, queuedJob);
+            log.info("Re-queued job {}", jobId);
+        } catch (final GenieException | RuntimeException e) {
+            log.error("Unable to re-queue job {} on startup", jobId, e);
+            try {
+                this.jobPersistenceService.updateJobStatus(
+                    jobId,
+                    JobStatus.FAILED,
+                    JobStatusMessages.UNABLE_TO_RE_QUEUE_ON_STARTUP
+                );
+            } catch (final GenieException ge) {
+                log.error("Unable to mark job {} failed", jobId, ge);
+            }
+        }
+    }
+
+    private boolean isUserAtActiveLimit(final QueuedJob queuedJob) throws GenieException {
+        final JobsUsersActiveLimitProperties activeLimit = this.jobsProperties.getUsers().getActiveLimit();
+        if (!activeLimit.isEnabled()) {
+            return false;
+        }
+        // Queued jobs aren't counted as active so add this job back in if it was marked queued to match the check
+        // done for jobs submitted while queueing is disabled
+        final long activeJobs = this.activeJobCountService.getActiveJobCount(queuedJob.getJobRequest().getUser())
+            + (queuedJob.isPersisted() ? 1 : 0);
+        return activeJobs >= activeLimit.getCount();
+    }
+
+    private Map<String, Double> getShares() {
+        final JobsQueueProperties queueProperties = this.jobsProperties.getQueue();
+        final Map<String, Double> shares = Maps.newHashMap();
+        for (final DispatchedJob dispatchedJob : this.dispatched.values()) {
+            shares.merge(
+                dispatchedJob.getShareKey(),
+                dispatchedJob.getMemory() / queueProperties.getWeight(dispatchedJob.getShareKey()),
+                Double::sum
+            );
+        }
+        return shares;
+    }
+
+    private String getShareKey(final JobRequest jobRequest) {
+        if (this.jobsProperties.getQueue().getShareBy() == JobsQueueProperties.ShareBy.GROUP) {
+            return jobRequest.getGroup().orElse(jobRequest.getUser());
+        }
+        return jobRequest.getUser();
+    }
+
+    private int getPriority(final JobRequest jobRequest) {
+        final String prefix = this.jobsProperties.getQueue().getPriorityTagPrefix();
+        int priority = 0;
+        for (final String tag : jobRequest.getTags()) {
+            if (tag.startsWith(prefix)) {
+                try {
+                    priority = Math.max(priority, Integer.parseInt(StringUtils.removeStart(tag, prefix)));
+                } catch (final NumberFormatException nfe) {
+                    log.warn("Ignoring invalid priority tag {} of job {}", tag, jobRequest.getId().orElse(null));
+                }
+            }
+        }
+        return priority;
+    }
+
+    /**
+     * A job waiting in the queue along with everything needed to launch it.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class QueuedJob {
+        private final String jobId;
+        private final JobRequest jobRequest;
+        private final Cluster cluster;
+        private final Command command;
+        private final List<Application> applications;
+        private final int memory;
+        private final String shareKey;
+        private final int priority;
+        private final long sequence;
+        private final Instant queuedAt;
+        // Whether the job has been marked queued in the database
+        @Setter
+        private boolean persisted;
+    }
+
+    /**
+     * The resources a job dispatched by this node is counted as using against its fair share.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class DispatchedJob {
+        private final String shareKey;
+        private final int memory;
+    }
+}
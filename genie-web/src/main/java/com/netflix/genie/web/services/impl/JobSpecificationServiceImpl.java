@@ -49,6 +49,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.aop.TargetClassAware;
 import org.springframework.validation.annotation.Validated;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
@@ -162,6 +163,43 @@ public class JobSpecificationServiceImpl implements JobSpecificationService {
      */
     @Override
     public JobSpecification resolveJobSpecification(final String id, @Valid final JobRequest jobRequest) {
+        return this.resolve(id, jobRequest, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Cluster, String> resolveClustersAndCommands(@Valid final JobRequest jobRequest) {
+        try {
+            return ImmutableMap.copyOf(
+                this.queryForClustersAndCommands(
+                    jobRequest.getCriteria().getClusterCriteria(),
+                    jobRequest.getCriteria().getCommandCriterion()
+                )
+            );
+        } catch (final GenieException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JobSpecification resolveJobSpecification(
+        final String id,
+        @Valid final JobRequest jobRequest,
+        final Map<Cluster, String> clustersAndCommands
+    ) {
+        return this.resolve(id, jobRequest, clustersAndCommands);
+    }
+
+    private JobSpecification resolve(
+        final String id,
+        final JobRequest jobRequest,
+        @Nullable final Map<Cluster, String> clustersAndCommands
+    ) {
         final long start = System.nanoTime();
         final Set<Tag> tags = Sets.newHashSet();
         try {
@@ -170,10 +208,13 @@ public class JobSpecificationServiceImpl implements JobSpecificationService {
                 id,
                 jobRequest
             );
-            final Map<Cluster, String> clustersAndCommandsForJob = this.queryForClustersAndCommands(
-                jobRequest.getCriteria().getClusterCriteria(),
-                jobRequest.getCriteria().getCommandCriterion()
-            );
+            // Jobs with the same criteria can share the candidates so only query for them if they weren't passed in
+            final Map<Cluster, String> clustersAndCommandsForJob = clustersAndCommands != null
+                ? clustersAndCommands
+                : this.queryForClustersAndCommands(
+                    jobRequest.getCriteria().getClusterCriteria(),
+                    jobRequest.getCriteria().getCommandCriterion()
+                );
             // Resolve the cluster for the job request based on the tags specified
             final Cluster cluster = this.selectCluster(id, jobRequest, clustersAndCommandsForJob.keySet());
             // Resolve the command for the job request based on command tags and cluster chosen
@@ -0,0 +1,207 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.exceptions.GenieNotFoundException;
+import com.netflix.genie.web.events.JobStatusChangedEvent;
+import com.netflix.genie.web.properties.JobsStatusWaitProperties;
+import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.JobStatusWaitService;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.annotation.PreDestroy;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default implementation of the {@link JobStatusWaitService}. Status changes made by this node complete the waiting
+ * futures as soon as they're committed. The statuses of all the jobs being waited on are also periodically read from
+ * the database in a single query to pick up the changes made by other nodes.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class JobStatusWaitServiceImpl implements JobStatusWaitService {
+
+    static final String CHECK_TIMER_NAME = "genie.jobs.statusWait.check.timer";
+    static final String WAITERS_GAUGE_NAME = "genie.jobs.statusWait.waiters.gauge";
+
+    private final JobSearchService jobSearchService;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Queue<Waiter>> waiters = Maps.newConcurrentMap();
+    private final ScheduledFuture<?> checkFuture;
+
+    /**
+     * Constructor.
+     *
+     * @param jobSearchService     The service to read the statuses of the jobs with
+     * @param statusWaitProperties The job status wait properties
+     * @param taskScheduler        The scheduler to periodically check the statuses of the jobs with
+     * @param registry             The metrics registry
+     */
+    public JobStatusWaitServiceImpl(
+        @NotNull final JobSearchService jobSearchService,
+        @NotNull final JobsStatusWaitProperties statusWaitProperties,
+        @NotNull final TaskScheduler taskScheduler,
+        @NotNull final MeterRegistry registry
+    ) {
+        this.jobSearchService = jobSearchService;
+        this.registry = registry;
+        this.registry.gaugeMapSize(WAITERS_GAUGE_NAME, Tags.empty(), this.waiters);
+        this.checkFuture = taskScheduler.scheduleWithFixedDelay(
+            this::checkAll,
+            statusWaitProperties.getCheckInterval()
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<JobStatus> waitWhileStatus(
+        @NotBlank final String id,
+        @NotEmpty final Set<JobStatus> statuses
+    ) throws GenieException {
+        final JobStatus status = this.jobSearchService.getJobStatus(id);
+        if (!statuses.contains(status)) {
+            return CompletableFuture.completedFuture(status);
+        }
+
+        final Waiter waiter = new Waiter(statuses);
+        this.waiters.compute(
+            id,
+            (key, queue) -> {
+                final Queue<Waiter> newQueue = queue == null ? new ConcurrentLinkedQueue<>() : queue;
+                newQueue.add(waiter);
+                return newQueue;
+            }
+        );
+        // Stop tracking the waiter however it ends including the caller cancelling it
+        waiter.future.whenComplete((newStatus, throwable) -> this.remove(id, waiter));
+
+        // The status may have changed between the first read and the registration in which case the event was missed
+        waiter.statusChanged(this.jobSearchService.getJobStatus(id));
+        return waiter.future;
+    }
+
+    /**
+     * Complete the futures waiting on the job whose status changed.
+     *
+     * @param event The job status changed event
+     */
+    @EventListener
+    public void onJobStatusChanged(final JobStatusChangedEvent event) {
+        final Queue<Waiter> queue = this.waiters.get(event.getId());
+        if (queue != null) {
+            queue.forEach(waiter -> waiter.statusChanged(event.getNewStatus()));
+        }
+    }
+
+    /**
+     * Stop checking the statuses of the jobs being waited on.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.checkFuture.cancel(false);
+    }
+
+    /**
+     * Read the statuses of all the jobs currently being waited on from the database and complete the futures of those
+     * whose status changed.
+     */
+    void checkAll() {
+        if (this.waiters.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            final Set<String> ids = Sets.newHashSet(this.waiters.keySet());
+            final Map<String, JobStatus> statuses = this.jobSearchService.getJobStatuses(ids);
+            for (final String id : ids) {
+                final Queue<Waiter> queue = this.waiters.get(id);
+                if (queue == null) {
+                    continue;
+                }
+                final JobStatus status = statuses.get(id);
+                if (status == null) {
+                    final GenieNotFoundException notFound = new GenieNotFoundException("No job with id " + id);
+                    queue.forEach(waiter -> waiter.future.completeExceptionally(notFound));
+                } else {
+                    queue.forEach(waiter -> waiter.statusChanged(status));
+                }
+            }
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Exception e) {
+            log.error("Unable to check the statuses of the jobs being waited on", e);
+            MetricsUtils.addFailureTagsWithException(tags, e);
+        } finally {
+            this.registry
+                .timer(CHECK_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void remove(final String id, final Waiter waiter) {
+        this.waiters.computeIfPresent(
+            id,
+            (key, queue) -> {
+                queue.remove(waiter);
+                return queue.isEmpty() ? null : queue;
+            }
+        );
+    }
+
+    /**
+     * A caller waiting for the status of a job to no longer be one of a set of statuses.
+     */
+    private static final class Waiter {
+        private final Set<JobStatus> statuses;
+        private final CompletableFuture<JobStatus> future = new CompletableFuture<>();
+
+        private Waiter(final Set<JobStatus> statuses) {
+            this.statuses = statuses;
+        }
+
+        private void statusChanged(final JobStatus status) {
+            if (!this.statuses.contains(status)) {
+                this.future.complete(status);
+            }
+        }
+    }
+}
@@ -111,7 +111,17 @@ public class LocalJobKillServiceImpl implements JobKillService {
         // Will throw exception if not found
         // TODO: Could instead check JobMonitorCoordinator eventually for in memory check
         final JobStatus jobStatus = this.jobSearchService.getJobStatus(id);
-        if (jobStatus == JobStatus.INIT) {
+        if (jobStatus == JobStatus.QUEUED) {
+            // Send a job finished event to take the job out of the queue and update it to killed
+            this.genieEventBus.publishSynchronousEvent(
+                new JobFinishedEvent(
+                    id,
+                    JobFinishedReason.KILLED,
+                    JobStatusMessages.USER_REQUESTED_JOB_BE_KILLED_WHILE_QUEUED,
+                    this
+                )
+            );
+        } else if (jobStatus == JobStatus.INIT) {
             // Send a job finished event to force system to update the job to killed
             this.genieEventBus.publishSynchronousEvent(
                 new JobFinishedEvent(
@@ -0,0 +1,246 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.netflix.genie.web.services.JobPartitionService;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.validation.constraints.NotNull;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains the partitions of the jobs tables on MySQL after the {@code db/partitioned/mysql} migrations have been
+ * applied. All the tables are range partitioned by job id with identical boundaries so a partition of the jobs table
+ * and the partitions of the same name in the child tables always hold exactly the same jobs.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class MySqlJobPartitionServiceImpl implements JobPartitionService {
+
+    /**
+     * The name of the trailing partition which receives all new jobs.
+     */
+    static final String FUTURE_PARTITION = "p_future";
+
+    /**
+     * The tables which are partitioned by the id of the job their rows belong to. The jobs table itself is handled
+     * separately.
+     */
+    static final List<String> CHILD_TABLES = ImmutableList.of(
+        "job_command_arguments",
+        "job_environment_variables",
+        "job_requested_applications",
+        "job_requested_environment_variables",
+        "jobs_applications",
+        "jobs_cluster_criteria",
+        "jobs_configs",
+        "jobs_dependencies",
+        "jobs_tags"
+    );
+
+    static final String JOBS_TABLE = "jobs";
+
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT
+        = DateTimeFormatter.ofPattern("'p'yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final String MAX_VALUE = "MAXVALUE";
+    private static final int CRITERIA_DELETE_CHUNK_SIZE = 1_000;
+
+    private static final String SELECT_PARTITIONS_SQL =
+        "SELECT PARTITION_NAME, PARTITION_DESCRIPTION "
+            + "FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+            + "ORDER BY PARTITION_ORDINAL_POSITION";
+    private static final String SELECT_NEXT_JOB_ID_SQL = "SELECT IFNULL(MAX(id), 0) + 1 FROM jobs";
+    private static final String SELECT_MIN_ID_CREATED_AFTER_SQL = "SELECT MIN(id) FROM jobs WHERE created >= ?";
+    private static final String SELECT_PARTITION_CRITERIA_SQL =
+        "SELECT command_criterion FROM jobs PARTITION (%1$s) "
+            + "UNION "
+            + "SELECT criterion_id FROM jobs_cluster_criteria PARTITION (%1$s)";
+    private static final String SPLIT_FUTURE_PARTITION_SQL =
+        "ALTER TABLE %s REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+            + "PARTITION %s VALUES LESS THAN (%d), "
+            + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)";
+    private static final String DROP_PARTITION_SQL = "ALTER TABLE %s DROP PARTITION %s";
+    private static final String DELETE_CRITERIA_TAGS_SQL = "DELETE FROM criteria_tags WHERE criterion_id IN (:ids)";
+    private static final String DELETE_CRITERIA_SQL = "DELETE FROM criteria WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate The template to use to query and alter the jobs tables
+     */
+    public MySqlJobPartitionServiceImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean closeCurrentPartition(@NotNull final Instant now) {
+        final String partitionName = PARTITION_NAME_FORMAT.format(now);
+        final List<Partition> jobPartitions = this.getPartitions(JOBS_TABLE);
+        if (jobPartitions.stream().anyMatch(partition -> partition.getName().equals(partitionName))) {
+            log.info("Partition {} already exists. Not creating another one", partitionName);
+            return false;
+        }
+
+        final Long nextJobId = this.jdbcTemplate.queryForObject(SELECT_NEXT_JOB_ID_SQL, Long.class);
+        final long bound = nextJobId == null ? 1L : nextJobId;
+        final long lastBound = jobPartitions
+            .stream()
+            .filter(partition -> !partition.isFuture())
+            .mapToLong(Partition::getBound)
+            .max()
+            .orElse(0L);
+        if (bound <= lastBound) {
+            log.info("No jobs created since the last partition was closed. Not creating {}", partitionName);
+            return false;
+        }
+
+        // Children first so that if this fails part way through the jobs table, which is what's checked above,
+        // hasn't been split yet and the next run will pick up where this one left off
+        for (final String table : CHILD_TABLES) {
+            this.splitFuturePartition(table, partitionName, bound);
+        }
+        this.splitFuturePartition(JOBS_TABLE, partitionName, bound);
+        log.info("Closed partition {} for jobs with ids less than {}", partitionName, bound);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int dropPartitionsCreatedBefore(@NotNull final Instant createdThreshold) {
+        final Long oldestRetainedJobId = this.jdbcTemplate.queryForObject(
+            SELECT_MIN_ID_CREATED_AFTER_SQL,
+            Long.class,
+            Timestamp.from(createdThreshold)
+        );
+        // Every job with an id lower than the oldest job being retained was created before the threshold
+        final long dropBelow;
+        if (oldestRetainedJobId != null) {
+            dropBelow = oldestRetainedJobId;
+        } else {
+            final Long nextJobId = this.jdbcTemplate.queryForObject(SELECT_NEXT_JOB_ID_SQL, Long.class);
+            dropBelow = nextJobId == null ? 1L : nextJobId;
+        }
+
+        int dropped = 0;
+        for (final Partition partition : this.getPartitions(JOBS_TABLE)) {
+            if (partition.isFuture() || partition.getBound() > dropBelow) {
+                break;
+            }
+            final List<Long> criterionIds = this.jdbcTemplate.queryForList(
+                String.format(SELECT_PARTITION_CRITERIA_SQL, partition.getName()),
+                Long.class
+            );
+            for (final String table : CHILD_TABLES) {
+                this.dropPartition(table, partition.getName());
+            }
+            this.dropPartition(JOBS_TABLE, partition.getName());
+            this.deleteCriteria(criterionIds);
+            log.info(
+                "Dropped partition {} containing jobs with ids less than {}",
+                partition.getName(),
+                partition.getBound()
+            );
+            dropped++;
+        }
+        return dropped;
+    }
+
+    private void splitFuturePartition(final String table, final String partitionName, final long bound) {
+        if (this.hasPartition(table, partitionName)) {
+            log.debug("Table {} already has partition {}", table, partitionName);
+            return;
+        }
+        this.jdbcTemplate.execute(String.format(SPLIT_FUTURE_PARTITION_SQL, table, partitionName, bound));
+    }
+
+    private void dropPartition(final String table, final String partitionName) {
+        if (!this.hasPartition(table, partitionName)) {
+            log.debug("Table {} has no partition {} to drop", table, partitionName);
+            return;
+        }
+        this.jdbcTemplate.execute(String.format(DROP_PARTITION_SQL, table, partitionName));
+    }
+
+    private void deleteCriteria(final List<Long> criterionIds) {
+        // The criteria table isn't partitioned so the criteria owned by the dropped jobs have to be deleted
+        final Set<Long> uniqueIds = Sets.newHashSet(criterionIds);
+        for (final List<Long> chunk : Lists.partition(Lists.newArrayList(uniqueIds), CRITERIA_DELETE_CHUNK_SIZE)) {
+            final MapSqlParameterSource parameters = new MapSqlParameterSource("ids", chunk);
+            this.namedParameterJdbcTemplate.update(DELETE_CRITERIA_TAGS_SQL, parameters);
+            this.namedParameterJdbcTemplate.update(DELETE_CRITERIA_SQL, parameters);
+        }
+    }
+
+    private boolean hasPartition(final String table, final String partitionName) {
+        return this.getPartitions(table).stream().anyMatch(partition -> partition.getName().equals(partitionName));
+    }
+
+    private List<Partition> getPartitions(final String table) {
+        return this.jdbcTemplate.query(
+            SELECT_PARTITIONS_SQL,
+            (resultSet, rowNum) -> new Partition(resultSet.getString(1), resultSet.getString(2)),
+            table
+        );
+    }
+
+    /**
+     * A single range partition of a table.
+     */
+    @Getter
+    static final class Partition {
+        private final String name;
+        private final String description;
+
+        Partition(final String name, final String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        private boolean isFuture() {
+            return MAX_VALUE.equalsIgnoreCase(this.description);
+        }
+
+        private long getBound() {
+            return Long.parseLong(this.description);
+        }
+    }
+}
@@ -27,8 +27,8 @@ import lombok.extern.slf4j.Slf4j;
 import javax.annotation.Nonnull;
 import javax.validation.constraints.NotEmpty;
 import java.util.ArrayList;
-import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Basic implementation of a load balancer where a cluster is picked at random.
@@ -50,8 +50,6 @@ public class RandomizedClusterLoadBalancerImpl implements ClusterLoadBalancer {
         log.debug("called");
 
         // return a random one
-        final Random rand = new Random();
-
-        return new ArrayList<>(clusters).get(Math.abs(rand.nextInt(clusters.size())));
+        return new ArrayList<>(clusters).get(ThreadLocalRandom.current().nextInt(clusters.size()));
     }
 }
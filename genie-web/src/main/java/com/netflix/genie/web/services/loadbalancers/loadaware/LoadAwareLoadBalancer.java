@@ -0,0 +1,224 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.loadbalancers.loadaware;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.JobRequest;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.internal.dto.v4.Cluster;
+import com.netflix.genie.web.properties.LoadAwareLoadBalancerProperties;
+import com.netflix.genie.web.services.ClusterLoadBalancer;
+import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+import javax.validation.constraints.NotEmpty;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An implementation of the ClusterLoadBalancer interface which sends jobs to the candidate clusters with the fewest
+ * Genie jobs running on them relative to their capacity.
+ * <p>
+ * The number of active jobs on each cluster is periodically read from the database and kept in memory so selecting a
+ * cluster doesn't touch the database. Jobs this node sends to a cluster between two refreshes are added to the
+ * counts so a burst of submissions doesn't all land on the cluster which was the least loaded at the last refresh.
+ * The capacity of a cluster is read from a tag starting with the configured prefix (e.g. {@code genie.capacity:4})
+ * and defaults to the configured default capacity when the cluster has no such tag.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class LoadAwareLoadBalancer implements ClusterLoadBalancer {
+
+    static final String SELECT_TIMER_NAME = "genie.jobs.clusters.loadBalancers.loadAware.select.timer";
+    static final String REFRESH_TIMER_NAME = "genie.jobs.clusters.loadBalancers.loadAware.refresh.timer";
+
+    private final JobSearchService jobSearchService;
+    private final LoadAwareLoadBalancerProperties properties;
+    private final MeterRegistry registry;
+    private final AtomicReference<Map<String, Long>> activeJobCounts = new AtomicReference<>(ImmutableMap.of());
+    private final ConcurrentMap<String, AtomicLong> recentSelections = Maps.newConcurrentMap();
+    private final ScheduledFuture<?> refreshFuture;
+
+    /**
+     * Constructor.
+     *
+     * @param jobSearchService The job search service to read the active job counts of clusters with
+     * @param properties       The properties of this load balancer
+     * @param taskScheduler    The task scheduler to schedule the refresh of the active job counts with
+     * @param registry         The metrics registry to use for collecting metrics
+     */
+    public LoadAwareLoadBalancer(
+        final JobSearchService jobSearchService,
+        final LoadAwareLoadBalancerProperties properties,
+        final TaskScheduler taskScheduler,
+        final MeterRegistry registry
+    ) {
+        this.jobSearchService = jobSearchService;
+        this.properties = properties;
+        this.registry = registry;
+        this.refreshFuture = taskScheduler.scheduleWithFixedDelay(this::refresh, properties.getRefreshRate());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cluster selectCluster(
+        @Nonnull @NonNull @NotEmpty final Set<Cluster> clusters,
+        @Nonnull @NonNull final JobRequest jobRequest
+    ) throws GenieException {
+        final long selectStart = System.nanoTime();
+        log.debug("Called");
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            final List<Cluster> candidates = new ArrayList<>(clusters);
+            final Map<String, Long> counts = this.activeJobCounts.get();
+            final Cluster selected;
+            if (
+                this.properties.getStrategy() == LoadAwareLoadBalancerProperties.Strategy.POWER_OF_TWO_CHOICES
+                    && candidates.size() > 2
+            ) {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                final int first = random.nextInt(candidates.size());
+                // Pick a second index out of the remaining ones so the two choices are always distinct
+                int second = random.nextInt(candidates.size() - 1);
+                if (second >= first) {
+                    second++;
+                }
+                final Cluster firstCluster = candidates.get(first);
+                final Cluster secondCluster = candidates.get(second);
+                selected = this.getLoad(secondCluster, counts) < this.getLoad(firstCluster, counts)
+                    ? secondCluster
+                    : firstCluster;
+            } else {
+                selected = this.getLeastLoaded(candidates, counts);
+            }
+
+            this.recentSelections.computeIfAbsent(selected.getId(), id -> new AtomicLong()).incrementAndGet();
+            log.debug("Selected cluster {} for job {}", selected.getId(), jobRequest.getId().orElse("without id"));
+            MetricsUtils.addSuccessTags(tags);
+            return selected;
+        } catch (final Exception e) {
+            log.error("Unable to select a cluster based on load due to {}", e.getMessage(), e);
+            MetricsUtils.addFailureTagsWithException(tags, e);
+            // Defer to any subsequent load balancer in the chain
+            return null;
+        } finally {
+            this.registry
+                .timer(SELECT_TIMER_NAME, tags)
+                .record(System.nanoTime() - selectStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Replace the in memory active job counts of clusters with the ones currently in the database.
+     */
+    public void refresh() {
+        log.debug("Refreshing");
+        final long refreshStart = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            this.activeJobCounts.set(ImmutableMap.copyOf(this.jobSearchService.getActiveJobCountsByCluster()));
+            // Jobs selected before the query ran are now part of the database counts. Jobs selected while it ran
+            // may be missed until the next refresh.
+            this.recentSelections.clear();
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Exception e) {
+            log.error("Refreshing the active job counts of clusters failed due to {}", e.getMessage(), e);
+            MetricsUtils.addFailureTagsWithException(tags, e);
+        } finally {
+            this.registry
+                .timer(REFRESH_TIMER_NAME, tags)
+                .record(System.nanoTime() - refreshStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stop refreshing the active job counts.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.refreshFuture.cancel(false);
+    }
+
+    private Cluster getLeastLoaded(final List<Cluster> candidates, final Map<String, Long> counts) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        Cluster leastLoaded = null;
+        double lowestLoad = Double.MAX_VALUE;
+        int ties = 0;
+        for (final Cluster candidate : candidates) {
+            final double load = this.getLoad(candidate, counts);
+            if (load < lowestLoad) {
+                leastLoaded = candidate;
+                lowestLoad = load;
+                ties = 1;
+            } else if (load == lowestLoad && random.nextInt(++ties) == 0) {
+                // Break ties uniformly at random so idle clusters share the work
+                leastLoaded = candidate;
+            }
+        }
+        return leastLoaded;
+    }
+
+    /*
+     * The load the cluster would be under if it got the job. Counting the new job makes the capacity matter even when
+     * the candidates are all idle.
+     */
+    private double getLoad(final Cluster cluster, final Map<String, Long> counts) {
+        final AtomicLong recent = this.recentSelections.get(cluster.getId());
+        final long active = counts.getOrDefault(cluster.getId(), 0L) + (recent == null ? 0L : recent.get());
+        return (active + 1) / this.getCapacity(cluster);
+    }
+
+    private double getCapacity(final Cluster cluster) {
+        final String prefix = this.properties.getCapacityTagPrefix();
+        for (final String tag : cluster.getMetadata().getTags()) {
+            if (tag.startsWith(prefix)) {
+                try {
+                    final double capacity = Double.parseDouble(StringUtils.substringAfter(tag, prefix));
+                    if (capacity > 0) {
+                        return capacity;
+                    }
+                } catch (final NumberFormatException e) {
+                    log.warn("Invalid capacity tag {} on cluster {}", tag, cluster.getId());
+                }
+            }
+        }
+        return this.properties.getDefaultCapacity();
+    }
+}
@@ -17,7 +17,10 @@
  */
 package com.netflix.genie.web.services.loadbalancers.script;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import com.netflix.genie.common.dto.JobRequest;
 import com.netflix.genie.common.exceptions.GenieException;
@@ -29,6 +32,8 @@ import com.netflix.genie.web.services.impl.GenieFileTransferService;
 import com.netflix.genie.web.util.MetricsConstants;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -46,20 +51,21 @@ import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 import javax.validation.constraints.NotEmpty;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 
 /**
  * An implementation of the ClusterLoadBalancer interface which uses user a supplied script to make decisions based
@@ -69,6 +75,10 @@ import java.util.stream.Collectors;
  * {@code clusters} and {@code jobRequest} which will be JSON strings representing the list (array) of clusters
  * matching the cluster criteria tags and the job request that kicked off this evaluation. The code expects the script
  * to either return the id of the cluster if one is selected or null if none was selected.
+ * <p>
+ * Script engines aren't guaranteed to be thread safe so the script is compiled into a pool of engines and each
+ * evaluation has exclusive use of one of them. The JSON of each cluster is cached until the cluster is updated so
+ * only the job request is serialized on every selection.
  *
  * @author tgianos
  * @since 3.1.0
@@ -84,6 +94,7 @@ public class ScriptLoadBalancer implements ClusterLoadBalancer {
     static final String STATUS_TAG_FOUND = "found";
     static final String STATUS_TAG_FAILED = "failed";
     private static final long DEFAULT_TIMEOUT_LENGTH = 5_000L;
+    private static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
     private static final Charset UTF_8 = Charset.forName("UTF-8");
     private static final String SLASH = "/";
     private static final String PERIOD = ".";
@@ -100,8 +111,12 @@ public class ScriptLoadBalancer implements ClusterLoadBalancer {
     private final ObjectMapper mapper;
     private final MeterRegistry registry;
 
-    private final AtomicReference<CompiledScript> script = new AtomicReference<>(null);
+    private final AtomicReference<BlockingQueue<CompiledScript>> scriptPool = new AtomicReference<>(null);
     private final AtomicLong timeoutLength = new AtomicLong(DEFAULT_TIMEOUT_LENGTH);
+    private final Cache<String, ClusterJson> clusterJsonCache = CacheBuilder
+        .newBuilder()
+        .expireAfterAccess(1L, TimeUnit.HOURS)
+        .build();
 
     /**
      * Constructor.
@@ -149,26 +164,18 @@ public class ScriptLoadBalancer implements ClusterLoadBalancer {
         log.debug("Called");
         final Set<Tag> tags = Sets.newHashSet();
         try {
-            if (this.isConfigured.get() && this.script.get() != null) {
+            final BlockingQueue<CompiledScript> pool = this.scriptPool.get();
+            if (this.isConfigured.get() && pool != null) {
                 log.debug("Evaluating script for job {}", jobRequest.getId().orElse("without id"));
                 final Bindings bindings = new SimpleBindings();
-                // TODO: For now for backwards compatibility with balancer scripts continue writing Clusters out in
-                //       V3 format. Change to V4 once stabalize a bit more
-                bindings.put(
-                    CLUSTERS_BINDING,
-                    this.mapper.writeValueAsString(
-                        clusters
-                            .stream()
-                            .map(DtoConverters::toV3Cluster)
-                            .collect(Collectors.toSet())
-                    )
-                );
+                bindings.put(CLUSTERS_BINDING, this.getClustersJson(clusters));
                 bindings.put(JOB_REQUEST_BINDING, this.mapper.writeValueAsString(jobRequest));
 
                 // Run as callable and timeout after the configured timeout length
+                final long timeout = this.timeoutLength.get();
                 final String clusterId = this.asyncTaskExecutor
-                    .submit(() -> (String) this.script.get().eval(bindings))
-                    .get(this.timeoutLength.get(), TimeUnit.MILLISECONDS);
+                    .submit(() -> evaluate(pool, bindings, timeout))
+                    .get(timeout, TimeUnit.MILLISECONDS);
 
                 // Find the cluster if not null
                 if (clusterId != null) {
@@ -264,21 +271,22 @@ public class ScriptLoadBalancer implements ClusterLoadBalancer {
             // Download and cache the file (if it's not already there)
             this.fileTransferService.getFile(scriptFileSource, scriptDestinationPath.toUri().toString());
 
-            final ScriptEngine engine = this.scriptEngineManager.getEngineByExtension(scriptExtension);
-            // We want a compilable engine so we can cache the script
-            if (!(engine instanceof Compilable)) {
-                throw new IllegalArgumentException(
-                    "Script engine must be of type " + Compilable.class.getName()
-                );
+            final String scriptContent = new String(Files.readAllBytes(scriptDestinationPath), UTF_8);
+            final int poolSize = this.environment.getProperty(
+                ScriptLoadBalancerProperties.POOL_SIZE_PROPERTY,
+                Integer.class,
+                DEFAULT_POOL_SIZE
+            );
+            if (poolSize < 1) {
+                throw new IllegalStateException("Invalid script pool size " + poolSize);
             }
-            final Compilable compilable = (Compilable) engine;
-            try (
-                final InputStream fis = Files.newInputStream(scriptDestinationPath);
-                final InputStreamReader reader = new InputStreamReader(fis, UTF_8)
-            ) {
-                log.debug("Compiling {}", scriptFileSource);
-                this.script.set(compilable.compile(reader));
+            log.debug("Compiling {} into a pool of {} script engines", scriptFileSource, poolSize);
+            final BlockingQueue<CompiledScript> pool = new ArrayBlockingQueue<>(poolSize);
+            for (int i = 0; i < poolSize; i++) {
+                pool.add(this.compile(scriptExtension, scriptContent));
             }
+            // Evaluations in progress return their engine to the previous pool which is then discarded
+            this.scriptPool.set(pool);
 
             tags.add(Tag.of(MetricsConstants.TagKeys.STATUS, STATUS_TAG_OK));
 
@@ -300,4 +308,65 @@ public class ScriptLoadBalancer implements ClusterLoadBalancer {
             log.debug("Refresh completed");
         }
     }
+
+    private CompiledScript compile(final String scriptExtension, final String scriptContent) throws ScriptException {
+        // Each call returns a new engine so the compiled scripts don't share any state
+        final ScriptEngine engine = this.scriptEngineManager.getEngineByExtension(scriptExtension);
+        // We want a compilable engine so we can cache the script
+        if (!(engine instanceof Compilable)) {
+            throw new IllegalArgumentException(
+                "Script engine must be of type " + Compilable.class.getName()
+            );
+        }
+        return ((Compilable) engine).compile(scriptContent);
+    }
+
+    private static String evaluate(
+        final BlockingQueue<CompiledScript> pool,
+        final Bindings bindings,
+        final long timeout
+    ) throws InterruptedException, ScriptException, TimeoutException {
+        final CompiledScript compiledScript = pool.poll(timeout, TimeUnit.MILLISECONDS);
+        if (compiledScript == null) {
+            throw new TimeoutException("No script engine became available within " + timeout + " ms");
+        }
+        try {
+            return (String) compiledScript.eval(bindings);
+        } finally {
+            pool.offer(compiledScript);
+        }
+    }
+
+    private String getClustersJson(final Set<Cluster> clusters) throws JsonProcessingException {
+        final StringBuilder json = new StringBuilder().append('[');
+        for (final Cluster cluster : clusters) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(this.getClusterJson(cluster));
+        }
+        return json.append(']').toString();
+    }
+
+    private String getClusterJson(final Cluster cluster) throws JsonProcessingException {
+        final ClusterJson cached = this.clusterJsonCache.getIfPresent(cluster.getId());
+        if (cached != null && cached.getUpdated().equals(cluster.getUpdated())) {
+            return cached.getJson();
+        }
+        // TODO: For now for backwards compatibility with balancer scripts continue writing Clusters out in
+        //       V3 format. Change to V4 once stabalize a bit more
+        final String json = this.mapper.writeValueAsString(DtoConverters.toV3Cluster(cluster));
+        this.clusterJsonCache.put(cluster.getId(), new ClusterJson(cluster.getUpdated(), json));
+        return json;
+    }
+
+    /**
+     * The serialized form of a cluster as of the last time it was updated.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class ClusterJson {
+        private final Instant updated;
+        private final String json;
+    }
 }
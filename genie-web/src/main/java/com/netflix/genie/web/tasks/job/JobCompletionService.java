@@ -196,7 +196,7 @@ public class JobCompletionService {
             final JobStatus status = job.getStatus();
             // Now we know this job should be marked in one of the finished states
             JobStatus eventStatus = null;
-            if (status == JobStatus.INIT) {
+            if (status == JobStatus.INIT || status == JobStatus.QUEUED) {
                 switch (event.getReason()) {
                     case KILLED:
                         eventStatus = JobStatus.KILLED;
@@ -159,6 +159,8 @@ public class JobMonitoringCoordinator extends JobStateServiceImpl {
             final String id = job.getId().orElseThrow(() -> new GenieServerException("Job has no id!"));
             if (jobExists(id)) {
                 log.info("Job {} is already being tracked. Ignoring.", id);
+            } else if (job.getStatus() == JobStatus.QUEUED && this.jobsProperties.getQueue().isEnabled()) {
+                log.info("Job {} is queued. Leaving it to the job queue.", id);
             } else if (job.getStatus() != JobStatus.RUNNING) {
                 this.genieEventBus.publishAsynchronousEvent(
                     new JobFinishedEvent(
@@ -19,6 +19,7 @@ package com.netflix.genie.web.tasks.leader;
 
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.google.common.base.Splitter;
+import com.google.common.collect.Sets;
 import com.netflix.genie.common.dto.Job;
 import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobStatus;
@@ -29,8 +30,11 @@ import com.netflix.genie.web.properties.ClusterCheckerProperties;
 import com.netflix.genie.web.services.JobPersistenceService;
 import com.netflix.genie.web.services.JobSearchService;
 import com.netflix.genie.web.tasks.GenieTaskScheduleType;
+import com.netflix.genie.web.util.MetricsConstants;
+import com.netflix.genie.web.util.MetricsUtils;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointProperties;
 import org.springframework.boot.actuate.health.Status;
@@ -42,6 +46,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * A task which checks to see if this leader node can communicate with all other nodes in the cluster. If it can't
@@ -53,14 +63,18 @@ import java.util.Set;
  * @since 3.0.0
  */
 @Slf4j
-public class ClusterCheckerTask extends LeadershipTask {
+public class ClusterCheckerTask extends LeadershipTask implements ShardedLeadershipTask {
     private static final String PROPERTY_STATUS = "status";
+    private static final String SWEEP_TIMER_NAME = "genie.tasks.clusterChecker.sweep.timer";
+    private static final String PROBE_TIMER_NAME = "genie.tasks.clusterChecker.probe.timer";
 
     private final String hostname;
     private final ClusterCheckerProperties properties;
     private final JobSearchService jobSearchService;
     private final JobPersistenceService jobPersistenceService;
     private final RestTemplate restTemplate;
+    private final Executor probeExecutor;
+    private final MeterRegistry registry;
     private final String scheme;
     private final String healthEndpoint;
     private final List<String> healthIndicatorsToIgnore;
@@ -70,6 +84,7 @@ public class ClusterCheckerTask extends LeadershipTask {
     // TODO: Add metrics
     private final Counter lostJobsCounter;
     private final Counter unableToUpdateJobCounter;
+    private final Counter probeTimeoutCounter;
 
     /**
      * Constructor.
@@ -78,7 +93,10 @@ public class ClusterCheckerTask extends LeadershipTask {
      * @param properties            The properties to use to configure the task
      * @param jobSearchService      The job search service to use
      * @param jobPersistenceService The job persistence service to use
-     * @param restTemplate          The rest template for http calls
+     * @param restTemplate          The rest template for http calls. Its timeouts bound how long a single probe of
+     *                              an unresponsive node can take.
+     * @param probeExecutor         The executor to run health probes on. Its size caps the number of nodes probed
+     *                              at once.
      * @param webEndpointProperties The properties where Spring actuator is running
      * @param registry              The spectator registry for getting metrics
      */
@@ -88,6 +106,7 @@ public class ClusterCheckerTask extends LeadershipTask {
         @NotNull final JobSearchService jobSearchService,
         @NotNull final JobPersistenceService jobPersistenceService,
         @NotNull final RestTemplate restTemplate,
+        @NotNull final Executor probeExecutor,
         @NotNull final WebEndpointProperties webEndpointProperties,
         @NotNull final MeterRegistry registry
     ) {
@@ -96,6 +115,8 @@ public class ClusterCheckerTask extends LeadershipTask {
         this.jobSearchService = jobSearchService;
         this.jobPersistenceService = jobPersistenceService;
         this.restTemplate = restTemplate;
+        this.probeExecutor = probeExecutor;
+        this.registry = registry;
         this.scheme = this.properties.getScheme() + "://";
         this.healthEndpoint = ":" + this.properties.getPort() + webEndpointProperties.getBasePath() + "/health";
         this.healthIndicatorsToIgnore = Splitter.on(",").omitEmptyStrings()
@@ -104,6 +125,7 @@ public class ClusterCheckerTask extends LeadershipTask {
         registry.gauge("genie.tasks.clusterChecker.errorCounts.gauge", this.errorCounts, Map::size);
         this.lostJobsCounter = registry.counter("genie.tasks.clusterChecker.lostJobs.rate");
         this.unableToUpdateJobCounter = registry.counter("genie.tasks.clusterChecker.unableToUpdateJob.rate");
+        this.probeTimeoutCounter = registry.counter("genie.tasks.clusterChecker.probeTimeout.rate");
     }
 
     /**
@@ -111,11 +133,39 @@ public class ClusterCheckerTask extends LeadershipTask {
      */
     @Override
     public void run() {
-        log.info("Checking for cluster node health...");
-        this.jobSearchService.getAllHostsWithActiveJobs()
-            .stream()
-            .filter(host -> !this.hostname.equals(host))
-            .forEach(this::validateHostAndUpdateErrorCount);
+        this.run(ShardAssignment.ALL);
+    }
+
+    /**
+     * Ping the health check endpoint of the other nodes with running jobs which belong to the given shard. Track
+     * results.
+     *
+     * @param shardAssignment The shard of the nodes to check
+     */
+    @Override
+    public void run(@NotNull final ShardAssignment shardAssignment) {
+        log.info("Checking for cluster node health of shard {}...", shardAssignment);
+        // Forget about nodes which moved to another shard, their new owner starts counting errors from scratch
+        this.errorCounts.keySet().removeIf(host -> !shardAssignment.isOwner(host));
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            this.probeHosts(
+                this.jobSearchService.getAllHostsWithActiveJobs()
+                    .stream()
+                    .filter(host -> !this.hostname.equals(host))
+                    .filter(shardAssignment::isOwner)
+                    .collect(Collectors.toSet())
+            ).forEach(this::updateErrorCount);
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Throwable t) {
+            MetricsUtils.addFailureTagsWithException(tags, t);
+            throw t;
+        } finally {
+            this.registry
+                .timer(SWEEP_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
 
         this.errorCounts.entrySet().removeIf(
             entry -> {
@@ -160,12 +210,66 @@ public class ClusterCheckerTask extends LeadershipTask {
         );
     }
 
-    private void validateHostAndUpdateErrorCount(final String host) {
+    private Map<String, Boolean> probeHosts(final Set<String> hosts) {
+        final Map<String, CompletableFuture<Boolean>> probes = new HashMap<>();
+        for (final String host : hosts) {
+            probes.put(host, CompletableFuture.supplyAsync(() -> this.probeHost(host), this.probeExecutor));
+        }
+
+        // The executor runs at most maxConcurrentProbes at once and the rest template timeouts bound each one to
+        // connect plus read time so give every wave of probes that long before giving up on whatever is left
+        final int maxConcurrentProbes = Math.max(this.properties.getMaxConcurrentProbes(), 1);
+        final long waves = (hosts.size() + maxConcurrentProbes - 1) / maxConcurrentProbes;
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(
+            2 * this.properties.getProbeTimeout() * waves
+        );
+
+        final Map<String, Boolean> results = new HashMap<>();
+        for (final Map.Entry<String, CompletableFuture<Boolean>> probe : probes.entrySet()) {
+            final String host = probe.getKey();
+            try {
+                results.put(
+                    host,
+                    probe.getValue().get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS)
+                );
+            } catch (final TimeoutException e) {
+                // Cancelling wouldn't interrupt the blocking HTTP call. The rest template timeouts end the probe on
+                // its own and its late result is ignored.
+                log.error("Timed out waiting for the health of {}", host);
+                this.probeTimeoutCounter.increment();
+                results.put(host, false);
+            } catch (final ExecutionException e) {
+                log.error("Unable to probe {}", host, e);
+                results.put(host, false);
+            } catch (final InterruptedException e) {
+                // Don't count the hosts we didn't get an answer for against them
+                log.warn("Interrupted while waiting for node health. Skipping the remaining hosts");
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return results;
+    }
+
+    private boolean probeHost(final String host) {
+        final long start = System.nanoTime();
+        final boolean healthy = this.isNodeHealthy(host);
+        this.registry
+            .timer(
+                PROBE_TIMER_NAME,
+                MetricsConstants.TagKeys.STATUS,
+                healthy ? MetricsConstants.TagValues.SUCCESS : MetricsConstants.TagValues.FAILURE
+            )
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return healthy;
+    }
+
+    private void updateErrorCount(final String host, final boolean healthy) {
         //
         // If node is healthy, remove the entry from the errorCounts.
         // If node is not healthy, update the entry in errorCounts
         //
-        if (this.isNodeHealthy(host)) {
+        if (healthy) {
             this.errorCounts.remove(host);
         } else {
             if (this.errorCounts.containsKey(host)) {
@@ -186,6 +290,10 @@ public class ClusterCheckerTask extends LeadershipTask {
             this.restTemplate.getForObject(this.scheme + host + this.healthEndpoint, String.class);
         } catch (final HttpStatusCodeException e) {
             log.error("Failed validating host {}", host, e);
+            if (this.healthIndicatorsToIgnore.isEmpty()) {
+                // Nothing to ignore so no need to look at which indicators are down
+                return false;
+            }
             try {
                 final Map<String, Object> responseMap = GenieObjectMapper.getMapper()
                     .readValue(
@@ -17,11 +17,14 @@
  */
 package com.netflix.genie.web.tasks.leader;
 
+import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.RateLimiter;
 import com.netflix.genie.common.internal.jobs.JobConstants;
 import com.netflix.genie.web.properties.DatabaseCleanupProperties;
 import com.netflix.genie.web.services.ClusterPersistenceService;
 import com.netflix.genie.web.services.FilePersistenceService;
+import com.netflix.genie.web.services.JobPartitionService;
 import com.netflix.genie.web.services.JobPersistenceService;
 import com.netflix.genie.web.services.TagPersistenceService;
 import com.netflix.genie.web.tasks.GenieTaskScheduleType;
@@ -33,12 +36,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.support.CronTrigger;
 
+import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 
 /**
  * A task which will clean up the database of old jobs if desired.
@@ -47,7 +53,7 @@ import java.util.concurrent.atomic.AtomicLong;
  * @since 3.0.0
  */
 @Slf4j
-public class DatabaseCleanupTask extends LeadershipTask {
+public class DatabaseCleanupTask extends LeadershipTask implements ShardedLeadershipTask {
 
     private static final String DATABASE_CLEANUP_DURATION_TIMER_NAME = "genie.tasks.databaseCleanup.duration.timer";
     private final DatabaseCleanupProperties cleanupProperties;
@@ -55,9 +61,13 @@ public class DatabaseCleanupTask extends LeadershipTask {
     private final ClusterPersistenceService clusterPersistenceService;
     private final FilePersistenceService filePersistenceService;
     private final TagPersistenceService tagPersistenceService;
+    private final JobPartitionService jobPartitionService;
 
     private final MeterRegistry registry;
     private final AtomicLong numDeletedJobs;
+    private final AtomicLong numDeletedArchivedJobs;
+    private final AtomicLong numReleasedJobIds;
+    private final AtomicLong numDroppedJobPartitions;
     private final AtomicLong numDeletedClusters;
     private final AtomicLong numDeletedTags;
     private final AtomicLong numDeletedFiles;
@@ -70,6 +80,8 @@ public class DatabaseCleanupTask extends LeadershipTask {
      * @param clusterPersistenceService The cluster service to use to delete terminated clusters
      * @param filePersistenceService    The file service to use to delete unused file references
      * @param tagPersistenceService     The tag service to use to delete unused tag references
+     * @param jobPartitionService       The service to use to drop partitions of old jobs. Null if the jobs tables
+     *                                  aren't partitioned.
      * @param registry                  The metrics registry
      */
     public DatabaseCleanupTask(
@@ -78,6 +90,7 @@ public class DatabaseCleanupTask extends LeadershipTask {
         @NotNull final ClusterPersistenceService clusterPersistenceService,
         @NotNull final FilePersistenceService filePersistenceService,
         @NotNull final TagPersistenceService tagPersistenceService,
+        @Nullable final JobPartitionService jobPartitionService,
         @NotNull final MeterRegistry registry
     ) {
         this.registry = registry;
@@ -86,11 +99,24 @@ public class DatabaseCleanupTask extends LeadershipTask {
         this.clusterPersistenceService = clusterPersistenceService;
         this.filePersistenceService = filePersistenceService;
         this.tagPersistenceService = tagPersistenceService;
+        this.jobPartitionService = jobPartitionService;
 
         this.numDeletedJobs = this.registry.gauge(
             "genie.tasks.databaseCleanup.numDeletedJobs.gauge",
             new AtomicLong()
         );
+        this.numDeletedArchivedJobs = this.registry.gauge(
+            "genie.tasks.databaseCleanup.numDeletedArchivedJobs.gauge",
+            new AtomicLong()
+        );
+        this.numReleasedJobIds = this.registry.gauge(
+            "genie.tasks.databaseCleanup.numReleasedJobIds.gauge",
+            new AtomicLong()
+        );
+        this.numDroppedJobPartitions = this.registry.gauge(
+            "genie.tasks.databaseCleanup.numDroppedJobPartitions.gauge",
+            new AtomicLong()
+        );
         this.numDeletedClusters = this.registry.gauge(
             "genie.tasks.databaseCleanup.numDeletedClusters.gauge",
             new AtomicLong()
@@ -126,6 +152,18 @@ public class DatabaseCleanupTask extends LeadershipTask {
      */
     @Override
     public void run() {
+        this.run(ShardAssignment.ALL);
+    }
+
+    /**
+     * Clean out the part of the database owned by the given shard. Old jobs are split between the shards by ranges of
+     * their ids. Everything else, including old jobs in the archive and the reservations of their ids, is only cleaned
+     * up by the primary shard.
+     *
+     * @param shardAssignment The shard of the work to do
+     */
+    @Override
+    public void run(@NotNull final ShardAssignment shardAssignment) {
         final long start = System.nanoTime();
         final Set<Tag> tags = Sets.newHashSet();
         try {
@@ -133,16 +171,65 @@ public class DatabaseCleanupTask extends LeadershipTask {
             if (this.cleanupProperties.isSkipJobsCleanup()) {
                 log.debug("Skipping job cleanup");
                 this.numDeletedJobs.set(0);
+                this.numDeletedArchivedJobs.set(0);
+                this.numReleasedJobIds.set(0);
+                this.numDroppedJobPartitions.set(0);
             } else {
-                final long countDeletedJobs = this.deleteJobs();
+                final Instant retentionLimit = TaskUtils
+                    .getMidnightUTC()
+                    .minus(this.cleanupProperties.getRetention(), ChronoUnit.DAYS);
+                if (
+                    this.cleanupProperties.isDropPartitions()
+                        && this.jobPartitionService != null
+                        && shardAssignment.isPrimary()
+                ) {
+                    final long countDroppedPartitions = this.dropJobPartitions(retentionLimit);
+                    log.info("Dropped {} partitions of jobs", countDroppedPartitions);
+                    this.numDroppedJobPartitions.set(countDroppedPartitions);
+                } else {
+                    this.numDroppedJobPartitions.set(0);
+                }
+                // Also catches any expired jobs which share a partition with jobs which are still retained
+                final long countDeletedJobs = this.deleteJobs(retentionLimit, shardAssignment);
                 log.info(
                     "Deleted {} jobs",
                     countDeletedJobs
                 );
                 this.numDeletedJobs.set(countDeletedJobs);
+
+                if (shardAssignment.isPrimary()) {
+                    final long countDeletedArchivedJobs = this.deleteInBatches(
+                        "archived jobs",
+                        retentionLimit,
+                        this.jobPersistenceService::deleteBatchOfArchivedJobsCreatedBefore
+                    );
+                    log.info("Deleted {} archived jobs", countDeletedArchivedJobs);
+                    this.numDeletedArchivedJobs.set(countDeletedArchivedJobs);
+
+                    // Only once both the jobs and the archived jobs are gone can their ids be used again
+                    final long countReleasedJobIds = this.deleteInBatches(
+                        "job id reservations",
+                        retentionLimit,
+                        this.jobPersistenceService::releaseBatchOfJobIdsCreatedBefore
+                    );
+                    log.info("Released {} job ids", countReleasedJobIds);
+                    this.numReleasedJobIds.set(countReleasedJobIds);
+                } else {
+                    this.numDeletedArchivedJobs.set(0);
+                    this.numReleasedJobIds.set(0);
+                }
             }
 
             // Delete all clusters that are marked terminated and aren't attached to any jobs after jobs were deleted
+            if (!shardAssignment.isPrimary()) {
+                log.debug("Leaving cleanup of clusters, files and tags to the primary shard");
+                this.numDeletedClusters.set(0);
+                this.numDeletedFiles.set(0);
+                this.numDeletedTags.set(0);
+                MetricsUtils.addSuccessTags(tags);
+                return;
+            }
+
             if (this.cleanupProperties.isSkipClustersCleanup()) {
                 log.debug("Skipping clusters cleanup");
                 this.numDeletedClusters.set(0);
@@ -199,34 +286,87 @@ public class DatabaseCleanupTask extends LeadershipTask {
     @Override
     public void cleanup() {
         this.numDeletedJobs.set(0L);
+        this.numDeletedArchivedJobs.set(0L);
+        this.numReleasedJobIds.set(0L);
+        this.numDroppedJobPartitions.set(0L);
         this.numDeletedClusters.set(0L);
         this.numDeletedTags.set(0L);
         this.numDeletedFiles.set(0L);
     }
 
-    private long deleteJobs() {
-        final Instant midnightUTC = TaskUtils.getMidnightUTC();
-        final Instant retentionLimit = midnightUTC.minus(this.cleanupProperties.getRetention(), ChronoUnit.DAYS);
-        final int batchSize = this.cleanupProperties.getMaxDeletedPerTransaction();
-        final int pageSize = this.cleanupProperties.getPageSize();
+    private long dropJobPartitions(final Instant retentionLimit) {
+        // Close off the jobs created since the last run first so that they're droppable once they expire
+        this.jobPartitionService.closeCurrentPartition(Instant.now());
+        log.info("Attempting to drop partitions of jobs from before {}", retentionLimit);
+        return this.jobPartitionService.dropPartitionsCreatedBefore(retentionLimit);
+    }
+
+    private long deleteJobs(final Instant retentionLimit, final ShardAssignment shardAssignment) {
+        final long chunkSize = Math.max(this.cleanupProperties.getMaxDeletedPerTransaction(), 1);
+        final int maxDeletedPerSecond = this.cleanupProperties.getMaxDeletedPerSecond();
+
+        final Optional<Range<Long>> idRange = this.jobPersistenceService.getIdRangeOfJobsCreatedBeforeDate(
+            retentionLimit
+        );
+        if (!idRange.isPresent()) {
+            log.info("No jobs created before {} to delete", retentionLimit);
+            return 0L;
+        }
+        final long lowestId = idRange.get().lowerEndpoint();
+        final long maxId = idRange.get().upperEndpoint();
 
         log.info(
-            "Attempting to delete jobs from before {} in batches of {} jobs per iteration",
+            "Attempting to delete jobs from before {} with ids in {} in chunks of {} ids per transaction",
             retentionLimit,
-            batchSize
+            idRange.get(),
+            chunkSize
         );
+        final RateLimiter rateLimiter = maxDeletedPerSecond > 0 ? RateLimiter.create(maxDeletedPerSecond) : null;
         long totalDeletedJobs = 0;
-        while (true) {
-            final long numberDeletedJobs = this.jobPersistenceService.deleteBatchOfJobsCreatedBeforeDate(
+        // Each chunk is its own transaction so locks are only held on a small range of rows at a time. Chunks are
+        // aligned to multiples of the chunk size and numbered by their absolute position so every node agrees on who
+        // owns which even if they saw different lowest ids
+        final long firstMinId = Math.floorDiv(lowestId, chunkSize) * chunkSize;
+        for (long minId = firstMinId; minId <= maxId; minId += chunkSize) {
+            if (!shardAssignment.isOwner(Math.floorDiv(minId, chunkSize))) {
+                continue;
+            }
+            final long numberDeletedJobs = this.jobPersistenceService.deleteJobsCreatedBeforeDateInIdRange(
                 retentionLimit,
-                batchSize,
-                pageSize
+                Range.closed(Math.max(minId, lowestId), Math.min(minId + chunkSize - 1, maxId))
             );
             totalDeletedJobs += numberDeletedJobs;
-            if (numberDeletedJobs == 0) {
-                break;
+            if (rateLimiter != null && numberDeletedJobs > 0) {
+                rateLimiter.acquire((int) numberDeletedJobs);
             }
         }
         return totalDeletedJobs;
     }
+
+    private long deleteInBatches(
+        final String description,
+        final Instant retentionLimit,
+        final BiFunction<Instant, Integer, Long> batchDeleter
+    ) {
+        final int chunkSize = Math.max(this.cleanupProperties.getMaxDeletedPerTransaction(), 1);
+        final int maxDeletedPerSecond = this.cleanupProperties.getMaxDeletedPerSecond();
+        final RateLimiter rateLimiter = maxDeletedPerSecond > 0 ? RateLimiter.create(maxDeletedPerSecond) : null;
+
+        log.info(
+            "Attempting to delete {} from before {} in chunks of {} per transaction",
+            description,
+            retentionLimit,
+            chunkSize
+        );
+        long totalDeleted = 0;
+        long numberDeleted;
+        do {
+            numberDeleted = batchDeleter.apply(retentionLimit, chunkSize);
+            totalDeleted += numberDeleted;
+            if (rateLimiter != null && numberDeleted > 0) {
+                rateLimiter.acquire((int) numberDeleted);
+            }
+        } while (numberDeleted >= chunkSize);
+        return totalDeleted;
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.leader;
+
+import com.google.common.collect.Sets;
+import com.netflix.genie.web.properties.JobArchiveProperties;
+import com.netflix.genie.web.services.JobPersistenceService;
+import com.netflix.genie.web.tasks.GenieTaskScheduleType;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A task which moves jobs that finished a while ago out of the jobs tables and into the archive so the tables
+ * searches and status updates run against only hold recent jobs.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class JobArchiveTask extends LeadershipTask {
+
+    private static final String JOB_ARCHIVE_DURATION_TIMER_NAME = "genie.tasks.jobArchive.duration.timer";
+    private final JobArchiveProperties jobArchiveProperties;
+    private final JobPersistenceService jobPersistenceService;
+
+    private final MeterRegistry registry;
+    private final AtomicLong numArchivedJobs;
+
+    /**
+     * Constructor.
+     *
+     * @param jobArchiveProperties  The properties to use to configure this task
+     * @param jobPersistenceService The persistence service to use to archive jobs
+     * @param registry              The metrics registry
+     */
+    public JobArchiveTask(
+        @NotNull final JobArchiveProperties jobArchiveProperties,
+        @NotNull final JobPersistenceService jobPersistenceService,
+        @NotNull final MeterRegistry registry
+    ) {
+        this.jobArchiveProperties = jobArchiveProperties;
+        this.jobPersistenceService = jobPersistenceService;
+        this.registry = registry;
+
+        this.numArchivedJobs = this.registry.gauge("genie.tasks.jobArchive.numArchivedJobs.gauge", new AtomicLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GenieTaskScheduleType getScheduleType() {
+        return GenieTaskScheduleType.FIXED_RATE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFixedRate() {
+        return this.jobArchiveProperties.getRate();
+    }
+
+    /**
+     * Archive all the jobs which finished before the configured threshold in batches.
+     */
+    @Override
+    public void run() {
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            final Instant threshold = Instant.now().minus(this.jobArchiveProperties.getArchiveAfter(), ChronoUnit.DAYS);
+            final int batchSize = Math.max(this.jobArchiveProperties.getBatchSize(), 1);
+            log.info("Attempting to archive jobs which finished before {}", threshold);
+
+            long totalArchived = 0L;
+            long archived;
+            do {
+                // Each batch is its own transaction so a failure part way through keeps the batches before it
+                archived = this.jobPersistenceService.archiveJobsFinishedBefore(threshold, batchSize);
+                totalArchived += archived;
+            } while (archived >= batchSize);
+
+            log.info("Archived {} jobs which finished before {}", totalArchived, threshold);
+            this.numArchivedJobs.set(totalArchived);
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Throwable t) {
+            MetricsUtils.addFailureTagsWithException(tags, t);
+            throw t;
+        } finally {
+            this.registry
+                .timer(JOB_ARCHIVE_DURATION_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cleanup() {
+        this.numArchivedJobs.set(0L);
+    }
+}
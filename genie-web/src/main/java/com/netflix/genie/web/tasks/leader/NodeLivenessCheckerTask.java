@@ -0,0 +1,155 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.leader;
+
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.JobExecution;
+import com.netflix.genie.web.events.GenieEventBus;
+import com.netflix.genie.web.events.JobFinishedEvent;
+import com.netflix.genie.web.events.JobFinishedReason;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.JobPersistenceService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import com.netflix.genie.web.tasks.GenieTaskScheduleType;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A task which finds the Genie nodes which stopped writing liveness heartbeats and marks the jobs running on them as
+ * lost. Replaces the health endpoint polling of the {@link ClusterCheckerTask} when node heartbeats are enabled.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class NodeLivenessCheckerTask extends LeadershipTask {
+
+    private static final String LOST_JOB_STATUS_MESSAGE
+        = "Genie node running job stopped sending heartbeats. Assuming node and job are lost.";
+    private static final String DURATION_TIMER_NAME = "genie.tasks.nodeLivenessChecker.duration.timer";
+
+    private final NodeHeartbeatProperties properties;
+    private final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
+    private final JobPersistenceService jobPersistenceService;
+    private final GenieEventBus genieEventBus;
+    private final MeterRegistry registry;
+    private final AtomicLong numStaleNodes;
+    private final Counter lostJobsCounter;
+
+    /**
+     * Constructor.
+     *
+     * @param properties                      The node heartbeat properties
+     * @param nodeHeartbeatPersistenceService The service to read and clean up node heartbeats with
+     * @param jobPersistenceService           The service to mark jobs as lost with
+     * @param genieEventBus                   The event bus to tell the rest of the system the lost jobs finished on
+     * @param registry                        The metrics registry
+     */
+    public NodeLivenessCheckerTask(
+        @NotNull final NodeHeartbeatProperties properties,
+        @NotNull final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService,
+        @NotNull final JobPersistenceService jobPersistenceService,
+        @NotNull final GenieEventBus genieEventBus,
+        @NotNull final MeterRegistry registry
+    ) {
+        this.properties = properties;
+        this.nodeHeartbeatPersistenceService = nodeHeartbeatPersistenceService;
+        this.jobPersistenceService = jobPersistenceService;
+        this.genieEventBus = genieEventBus;
+        this.registry = registry;
+        this.numStaleNodes = registry.gauge("genie.tasks.nodeLivenessChecker.staleNodes.gauge", new AtomicLong());
+        this.lostJobsCounter = registry.counter("genie.tasks.nodeLivenessChecker.lostJobs.rate");
+    }
+
+    /**
+     * Mark the jobs on nodes whose heartbeat is stale as lost and forget about those nodes.
+     */
+    @Override
+    public void run() {
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            final Instant threshold = Instant.now().minusMillis(this.properties.getStaleThreshold());
+            final Set<String> staleHosts = this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatBefore(threshold);
+            if (!staleHosts.isEmpty()) {
+                log.warn("Nodes {} haven't sent a heartbeat since before {}", staleHosts, threshold);
+            }
+            this.numStaleNodes.set(staleHosts.size());
+
+            // Also covers nodes which were running jobs but never wrote a heartbeat at all
+            final Set<String> lostJobIds = this.jobPersistenceService.failActiveJobsOnNodesWithoutHeartbeatSince(
+                threshold,
+                JobExecution.LOST_EXIT_CODE,
+                LOST_JOB_STATUS_MESSAGE
+            );
+            if (!lostJobIds.isEmpty()) {
+                log.info("Marked jobs {} on nodes without a heartbeat since {} as lost", lostJobIds, threshold);
+                this.lostJobsCounter.increment(lostJobIds.size());
+                for (final String lostJobId : lostJobIds) {
+                    this.genieEventBus.publishAsynchronousEvent(
+                        new JobFinishedEvent(lostJobId, JobFinishedReason.SYSTEM_CRASH, LOST_JOB_STATUS_MESSAGE, this)
+                    );
+                }
+            }
+
+            // Once their jobs are taken care of there's nothing left to track for the stale nodes
+            this.nodeHeartbeatPersistenceService.deleteHeartbeatsBefore(threshold);
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Throwable t) {
+            MetricsUtils.addFailureTagsWithException(tags, t);
+            throw t;
+        } finally {
+            this.registry
+                .timer(DURATION_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GenieTaskScheduleType getScheduleType() {
+        return GenieTaskScheduleType.FIXED_RATE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFixedRate() {
+        return this.properties.getRate();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cleanup() {
+        this.numStaleNodes.set(0L);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.leader;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * The slice of the cluster wide leadership work a node is responsible for. With {@code count} nodes in the cluster
+ * each node is given a distinct {@code index} between 0 and {@code count - 1} and owns every unit of work whose key
+ * hashes to that index.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ShardAssignment {
+
+    /**
+     * The assignment of a node which owns all the work. Used when leadership tasks aren't sharded.
+     */
+    public static final ShardAssignment ALL = new ShardAssignment(0, 1);
+
+    private final int index;
+    private final int count;
+
+    /**
+     * Constructor.
+     *
+     * @param index The index of the shard owned by this node
+     * @param count The total number of shards in the cluster
+     * @throws IllegalArgumentException If the index isn't within the number of shards
+     */
+    public ShardAssignment(final int index, final int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * Whether this shard is the primary shard. Work which can't be split up is done by the primary shard alone.
+     *
+     * @return True if this is the primary shard
+     */
+    public boolean isPrimary() {
+        return this.index == 0;
+    }
+
+    /**
+     * Whether the work keyed by the given string, for example a host name, belongs to this shard.
+     *
+     * @param key The key of the unit of work
+     * @return True if this shard owns the work
+     */
+    public boolean isOwner(@NotNull final String key) {
+        // String hash codes are defined by the language so every node agrees on the owner
+        return this.isOwner(key.hashCode());
+    }
+
+    /**
+     * Whether the work keyed by the given number, for example a range of job ids, belongs to this shard.
+     *
+     * @param key The key of the unit of work
+     * @return True if this shard owns the work
+     */
+    public boolean isOwner(final long key) {
+        return Math.floorMod(key, (long) this.count) == this.index;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.leader;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * A leadership task whose work can be split across all the nodes of the cluster rather than run entirely on the
+ * elected leader.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+public interface ShardedLeadershipTask {
+
+    /**
+     * Run only the part of the task owned by the given shard.
+     *
+     * @param shardAssignment The shard of the work this node is responsible for
+     */
+    void run(@NotNull final ShardAssignment shardAssignment);
+}
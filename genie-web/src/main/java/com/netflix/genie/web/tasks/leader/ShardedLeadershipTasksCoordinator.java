@@ -0,0 +1,217 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.leader;
+
+import com.netflix.genie.common.internal.util.GenieHostInfo;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import com.netflix.genie.web.tasks.GenieTaskScheduleType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.integration.leader.event.OnGrantedEvent;
+import org.springframework.integration.leader.event.OnRevokedEvent;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+
+import javax.annotation.PreDestroy;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the leadership tasks on every node of the cluster instead of only on the elected leader. Cluster membership
+ * is the set of nodes with a recent heartbeat in the database. The members are ordered by hostname and each node
+ * owns the shard matching its position, so every node computes the same assignment without coordinating. As the
+ * membership is read again before every run of a task the work rebalances itself whenever nodes join or leave.
+ * <p>
+ * Tasks implementing {@link ShardedLeadershipTask} are run for the shard of this node. Any other task is only run by
+ * the node owning the primary shard.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class ShardedLeadershipTasksCoordinator {
+
+    private static final String ROLE = "shard";
+
+    private final String hostname;
+    private final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
+    private final NodeHeartbeatProperties nodeHeartbeatProperties;
+    private final LeadershipTasksCoordinator coordinator;
+    private final AtomicReference<ShardAssignment> shardAssignment;
+    private final AtomicLong numMembers;
+    private final AtomicLong shardIndex;
+    private final Counter rebalanceCounter;
+
+    /**
+     * Constructor.
+     *
+     * @param taskScheduler                   The scheduler to run the tasks with
+     * @param tasks                           The leadership tasks to run
+     * @param genieHostInfo                   Information about the host this Genie process is running on
+     * @param nodeHeartbeatPersistenceService The service to find the live members of the cluster with
+     * @param nodeHeartbeatProperties         The node heartbeat properties
+     * @param registry                        The metrics registry
+     */
+    public ShardedLeadershipTasksCoordinator(
+        @NotNull final TaskScheduler taskScheduler,
+        @NotNull final Collection<LeadershipTask> tasks,
+        @NotNull final GenieHostInfo genieHostInfo,
+        @NotNull final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService,
+        @NotNull final NodeHeartbeatProperties nodeHeartbeatProperties,
+        @NotNull final MeterRegistry registry
+    ) {
+        this.hostname = genieHostInfo.getHostname();
+        this.nodeHeartbeatPersistenceService = nodeHeartbeatPersistenceService;
+        this.nodeHeartbeatProperties = nodeHeartbeatProperties;
+        // Reuse the scheduling of the leader coordinator but with every task first working out the shard to run for
+        this.coordinator = new LeadershipTasksCoordinator(
+            taskScheduler,
+            tasks.stream().map(ShardAwareTask::new).collect(Collectors.toList())
+        );
+        this.shardAssignment = new AtomicReference<>();
+        this.numMembers = registry.gauge("genie.tasks.sharding.members.gauge", new AtomicLong());
+        this.shardIndex = registry.gauge("genie.tasks.sharding.shardIndex.gauge", new AtomicLong());
+        this.rebalanceCounter = registry.counter("genie.tasks.sharding.rebalance.rate");
+    }
+
+    /**
+     * Start running the tasks once the application is up.
+     *
+     * @param event The context refreshed event
+     */
+    @EventListener
+    public void start(final ContextRefreshedEvent event) {
+        log.debug("Starting sharded leadership tasks due to {}", event);
+        this.coordinator.onLeaderEvent(new OnGrantedEvent(this, null, ROLE));
+    }
+
+    /**
+     * Stop running the tasks before the application shuts down.
+     *
+     * @param event The context closed event
+     */
+    @EventListener
+    public void stop(final ContextClosedEvent event) {
+        log.debug("Stopping sharded leadership tasks due to {}", event);
+        this.coordinator.onLeaderEvent(new OnRevokedEvent(this, null, ROLE));
+    }
+
+    /**
+     * Make sure any threads are taken care of before this object is destroyed.
+     */
+    @PreDestroy
+    public void preDestroy() {
+        this.coordinator.preDestroy();
+    }
+
+    /**
+     * Work out which shard this node currently owns based on the live members of the cluster.
+     *
+     * @return The shard assignment of this node
+     */
+    ShardAssignment getShardAssignment() {
+        final Instant threshold = Instant.now().minusMillis(this.nodeHeartbeatProperties.getStaleThreshold());
+        final TreeSet<String> members
+            = new TreeSet<>(this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatSince(threshold));
+        // This node is running so it's a member even if its first heartbeat hasn't been written yet
+        members.add(this.hostname);
+
+        final ShardAssignment assignment = new ShardAssignment(members.headSet(this.hostname).size(), members.size());
+        final ShardAssignment previous = this.shardAssignment.getAndSet(assignment);
+        if (!assignment.equals(previous)) {
+            log.info("Shard assignment of this node changed from {} to {}. Members: {}", previous, assignment, members);
+            if (previous != null) {
+                this.rebalanceCounter.increment();
+            }
+        }
+        this.numMembers.set(assignment.getCount());
+        this.shardIndex.set(assignment.getIndex());
+        return assignment;
+    }
+
+    private void run(final LeadershipTask task) {
+        final ShardAssignment assignment;
+        try {
+            assignment = this.getShardAssignment();
+        } catch (final RuntimeException e) {
+            // Better to skip a run than have every node think it owns all the work
+            log.error("Unable to determine the shard of this node. Skipping run of {}", task.getClass(), e);
+            return;
+        }
+
+        if (task instanceof ShardedLeadershipTask) {
+            ((ShardedLeadershipTask) task).run(assignment);
+        } else if (assignment.isPrimary()) {
+            task.run();
+        } else {
+            log.debug("Not running {} as this node doesn't own the primary shard", task.getClass());
+        }
+    }
+
+    /**
+     * Schedules exactly like the task it wraps but runs it through the shard assignment.
+     */
+    private final class ShardAwareTask extends LeadershipTask {
+
+        private final LeadershipTask task;
+
+        private ShardAwareTask(final LeadershipTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            ShardedLeadershipTasksCoordinator.this.run(this.task);
+        }
+
+        @Override
+        public GenieTaskScheduleType getScheduleType() {
+            return this.task.getScheduleType();
+        }
+
+        @Override
+        public Trigger getTrigger() {
+            return this.task.getTrigger();
+        }
+
+        @Override
+        public long getFixedRate() {
+            return this.task.getFixedRate();
+        }
+
+        @Override
+        public long getFixedDelay() {
+            return this.task.getFixedDelay();
+        }
+
+        @Override
+        public void cleanup() {
+            this.task.cleanup();
+        }
+    }
+}
@@ -17,7 +17,9 @@
  */
 package com.netflix.genie.web.tasks.node;
 
-import com.netflix.genie.common.dto.Job;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.internal.jobs.JobConstants;
 import com.netflix.genie.web.properties.DiskCleanupProperties;
@@ -32,15 +34,23 @@ import org.apache.commons.exec.Executor;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 
 import javax.validation.constraints.NotNull;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -58,6 +68,7 @@ public class DiskCleanupTask implements Runnable {
     private final JobSearchService jobSearchService;
     private final boolean runAsUser;
     private final Executor processExecutor;
+    private final TaskExecutor deleteExecutor;
 
     private final AtomicLong numberOfDeletedJobDirs;
     private final AtomicLong numberOfDirsUnableToDelete;
@@ -73,6 +84,7 @@ public class DiskCleanupTask implements Runnable {
      * @param jobSearchService The service to find jobs with
      * @param jobsProperties   The jobs properties to use
      * @param processExecutor  The process executor to use to delete directories
+     * @param deleteExecutor   The executor to delete job directories on. Its size bounds how many are deleted at once
      * @param registry         The metrics registry
      * @throws IOException When it is unable to open a file reference to the job directory
      */
@@ -83,6 +95,7 @@ public class DiskCleanupTask implements Runnable {
         @NotNull final JobSearchService jobSearchService,
         @NotNull final JobsProperties jobsProperties,
         @NotNull final Executor processExecutor,
+        @NotNull final TaskExecutor deleteExecutor,
         @NotNull final MeterRegistry registry
     ) throws IOException {
         // Job Directory is guaranteed to exist by the MvcConfig bean creation but just in case someone overrides
@@ -95,6 +108,7 @@ public class DiskCleanupTask implements Runnable {
         this.jobSearchService = jobSearchService;
         this.runAsUser = jobsProperties.getUsers().isRunAsUserEnabled();
         this.processExecutor = processExecutor;
+        this.deleteExecutor = deleteExecutor;
 
         this.numberOfDeletedJobDirs = registry.gauge(
             "genie.tasks.diskCleanup.numberDeletedJobDirs.gauge",
@@ -123,60 +137,101 @@ public class DiskCleanupTask implements Runnable {
     @Override
     public void run() {
         log.info("Running disk cleanup task...");
-        final File[] jobDirs = this.jobsDir.listFiles();
-        if (jobDirs == null) {
-            log.warn("No job dirs found. Returning.");
-            this.numberOfDeletedJobDirs.set(0);
-            this.numberOfDirsUnableToDelete.set(0);
+        // Delete anything with a finish time before today @12 AM UTC - retention
+        final Instant retentionThreshold = TaskUtils
+            .getMidnightUTC()
+            .minus(this.properties.getRetention(), ChronoUnit.DAYS);
+        final AtomicLong deletedCount = new AtomicLong();
+        final AtomicLong unableToDeleteCount = new AtomicLong();
+        // Stream the directory rather than listing it all at once as there could be a lot of old job directories
+        try (
+            DirectoryStream<Path> jobDirs = Files.newDirectoryStream(
+                this.jobsDir.toPath(),
+                path -> Files.isDirectory(path)
+            )
+        ) {
+            for (final List<Path> batch : Iterables.partition(jobDirs, Math.max(this.properties.getBatchSize(), 1))) {
+                this.cleanupBatch(batch, retentionThreshold, deletedCount, unableToDeleteCount);
+            }
+        } catch (final IOException | DirectoryIteratorException e) {
+            log.warn("Unable to list job dirs in {}", this.jobsDir, e);
+        }
+        this.numberOfDeletedJobDirs.set(deletedCount.get());
+        this.numberOfDirsUnableToDelete.set(unableToDeleteCount.get());
+    }
+
+    private void cleanupBatch(
+        final List<Path> batch,
+        final Instant retentionThreshold,
+        final AtomicLong deletedCount,
+        final AtomicLong unableToDeleteCount
+    ) {
+        final Map<String, File> dirs = Maps.newHashMap();
+        for (final Path path : batch) {
+            dirs.put(path.getFileName().toString(), path.toFile());
+        }
+
+        // One query for the whole batch instead of loading every job individually
+        final Map<String, Optional<Instant>> finishTimes;
+        try {
+            finishTimes = this.jobSearchService.getJobFinishTimes(dirs.keySet());
+        } catch (final GenieException ge) {
+            log.error("Unable to get jobs {}. Continuing.", dirs.keySet(), ge);
+            this.unableToGetJobCounter.increment(dirs.size());
+            unableToDeleteCount.addAndGet(dirs.size());
             return;
         }
-        // For each of the directories figure out if we need to delete the files or not
-        long deletedCount = 0;
-        long unableToDeleteCount = 0;
-        for (final File dir : jobDirs) {
-            if (!dir.isDirectory()) {
-                log.info("File {} isn't a directory. Skipping.", dir.getName());
+
+        final List<CompletableFuture<Void>> deletions = Lists.newArrayList();
+        for (final Map.Entry<String, File> dir : dirs.entrySet()) {
+            final String id = dir.getKey();
+            final Optional<Instant> finished = finishTimes.get(id);
+            if (finished == null) {
+                log.error("Unable to get job {}. Continuing.", id);
+                this.unableToGetJobCounter.increment();
+                unableToDeleteCount.incrementAndGet();
                 continue;
             }
 
-            final String id = dir.getName();
-            try {
-                final Job job = this.jobSearchService.getJob(id);
-                if (job.getStatus().isActive()) {
-                    // Don't want to delete anything still going
-                    continue;
-                }
-
-                // Delete anything with a finish time before today @12 AM UTC - retention
-                final Instant midnightUTC = TaskUtils.getMidnightUTC();
-                final Instant retentionThreshold = midnightUTC.minus(this.properties.getRetention(), ChronoUnit.DAYS);
-                final Optional<Instant> finished = job.getFinished();
-                if (finished.isPresent() && finished.get().isBefore(retentionThreshold)) {
-                    log.info("Attempting to delete job directory for job {}", id);
-                    if (this.runAsUser) {
-                        final CommandLine commandLine = new CommandLine("sudo");
-                        commandLine.addArgument("rm");
-                        commandLine.addArgument("-rf");
-                        commandLine.addArgument(dir.getAbsolutePath());
-                        this.processExecutor.execute(commandLine);
-                    } else {
-                        // Save forking a process ourselves if we don't have to
-                        FileUtils.deleteDirectory(dir);
-                    }
-                    deletedCount++;
-                    log.info("Successfully deleted job directory for job {}", id);
-                }
-            } catch (final GenieException ge) {
-                log.error("Unable to get job {}. Continuing.", id, ge);
-                this.unableToGetJobCounter.increment();
-                unableToDeleteCount++;
-            } catch (final IOException ioe) {
-                log.error("Unable to delete job directory for job with id: {}", id, ioe);
-                this.unableToDeleteJobDirCounter.increment();
-                unableToDeleteCount++;
+            // Jobs still going have no finish time so are never deleted
+            if (finished.isPresent() && finished.get().isBefore(retentionThreshold)) {
+                deletions.add(
+                    CompletableFuture.runAsync(
+                        () -> this.deleteJobDir(id, dir.getValue(), deletedCount, unableToDeleteCount),
+                        this.deleteExecutor
+                    )
+                );
+            }
+        }
+
+        // Wait for the batch to finish so the number of directories deleted at once is bounded by the executor
+        CompletableFuture.allOf(deletions.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void deleteJobDir(
+        final String id,
+        final File dir,
+        final AtomicLong deletedCount,
+        final AtomicLong unableToDeleteCount
+    ) {
+        try {
+            log.info("Attempting to delete job directory for job {}", id);
+            if (this.runAsUser) {
+                final CommandLine commandLine = new CommandLine("sudo");
+                commandLine.addArgument("rm");
+                commandLine.addArgument("-rf");
+                commandLine.addArgument(dir.getAbsolutePath());
+                this.processExecutor.execute(commandLine);
+            } else {
+                // Save forking a process ourselves if we don't have to
+                FileUtils.deleteDirectory(dir);
             }
+            deletedCount.incrementAndGet();
+            log.info("Successfully deleted job directory for job {}", id);
+        } catch (final IOException ioe) {
+            log.error("Unable to delete job directory for job with id: {}", id, ioe);
+            this.unableToDeleteJobDirCounter.increment();
+            unableToDeleteCount.incrementAndGet();
         }
-        this.numberOfDeletedJobDirs.set(deletedCount);
-        this.numberOfDirsUnableToDelete.set(unableToDeleteCount);
     }
 }
@@ -0,0 +1,104 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.node;
+
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.internal.util.GenieHostInfo;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.JobMetricsService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This task runs on every Genie node and periodically writes a liveness heartbeat for the node to the database so the
+ * leader can tell which nodes are gone.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Slf4j
+public class NodeHeartbeatTask implements Runnable {
+
+    private static final String HEARTBEAT_TIMER_NAME = "genie.tasks.nodeHeartbeat.timer";
+
+    private final String hostname;
+    private final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
+    private final JobMetricsService jobMetricsService;
+    private final MeterRegistry registry;
+
+    /**
+     * Constructor. Schedules this task to be run by the task scheduler.
+     *
+     * @param genieHostInfo                   Information about the host this Genie process is running on
+     * @param properties                      The node heartbeat properties to use
+     * @param scheduler                       The scheduler to use to schedule the heartbeats
+     * @param nodeHeartbeatPersistenceService The service to write the heartbeats with
+     * @param jobMetricsService               The service to get the number of running jobs and used memory from
+     * @param registry                        The metrics registry
+     */
+    public NodeHeartbeatTask(
+        @NotNull final GenieHostInfo genieHostInfo,
+        @NotNull final NodeHeartbeatProperties properties,
+        @NotNull final TaskScheduler scheduler,
+        @NotNull final NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService,
+        @NotNull final JobMetricsService jobMetricsService,
+        @NotNull final MeterRegistry registry
+    ) {
+        this.hostname = genieHostInfo.getHostname();
+        this.nodeHeartbeatPersistenceService = nodeHeartbeatPersistenceService;
+        this.jobMetricsService = jobMetricsService;
+        this.registry = registry;
+
+        scheduler.scheduleAtFixedRate(this, properties.getRate());
+    }
+
+    /**
+     * Write the current heartbeat of this node.
+     */
+    @Override
+    public void run() {
+        final long start = System.nanoTime();
+        final Set<Tag> tags = Sets.newHashSet();
+        try {
+            this.nodeHeartbeatPersistenceService.saveHeartbeat(
+                this.hostname,
+                Instant.now(),
+                this.jobMetricsService.getNumActiveJobs(),
+                this.jobMetricsService.getUsedMemory()
+            );
+            MetricsUtils.addSuccessTags(tags);
+        } catch (final Throwable t) {
+            // Swallow so the scheduler keeps running the task. A missed heartbeat is tolerated by the leader.
+            log.error("Unable to write heartbeat for node {}", this.hostname, t);
+            MetricsUtils.addFailureTagsWithException(tags, t);
+        } finally {
+            this.registry
+                .timer(HEARTBEAT_TIMER_NAME, tags)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.util;
+
+import com.google.common.collect.ImmutableList;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One slice of the results of a keyset (seek) search. Unlike a {@link org.springframework.data.domain.Page} no total
+ * count is computed, only whether there is more data after this slice and where to resume from.
+ *
+ * @param <T> The type of content in the slice
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CursorSlice<T> {
+
+    private final List<T> content;
+    private final SearchCursor next;
+
+    /**
+     * Constructor.
+     *
+     * @param content The results in this slice
+     * @param next    The cursor to resume the search from or null if there are no more results
+     */
+    public CursorSlice(final List<T> content, @Nullable final SearchCursor next) {
+        this.content = ImmutableList.copyOf(content);
+        this.next = next;
+    }
+
+    /**
+     * Get the cursor a client should send to retrieve the next slice.
+     *
+     * @return The cursor wrapped in an {@link Optional} or {@link Optional#empty()} if this is the last slice
+     */
+    public Optional<SearchCursor> getNext() {
+        return Optional.ofNullable(this.next);
+    }
+
+    /**
+     * Convert the content of this slice while retaining the continuation cursor.
+     *
+     * @param converter The function to apply to each element
+     * @param <U>       The type of the converted content
+     * @return A new slice with the converted content
+     */
+    public <U> CursorSlice<U> map(final Function<? super T, ? extends U> converter) {
+        return new CursorSlice<>(
+            this.content.stream().map(converter).collect(Collectors.toList()),
+            this.next
+        );
+    }
+}
@@ -81,6 +81,11 @@ public final class MetricsConstants {
          */
         public static final String STATUS = "status";
 
+        /**
+         * Key to tag the host an operation was performed against.
+         */
+        public static final String HOST = "host";
+
         /**
          * Utility class private constructor.
          */
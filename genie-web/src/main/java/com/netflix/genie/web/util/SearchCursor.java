@@ -0,0 +1,105 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.util;
+
+import com.netflix.genie.common.exceptions.GeniePreconditionException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * The position of the last record returned by a keyset (seek) search. Results of these searches are ordered by
+ * (created, id) descending so the next page is simply every record strictly "before" this position. Clients only
+ * ever see the opaque token produced by {@link #encode()}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class SearchCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final Instant created;
+    private final String id;
+
+    /**
+     * Constructor.
+     *
+     * @param created The creation time of the last record returned
+     * @param id      The unique id of the last record returned
+     */
+    public SearchCursor(@NotNull final Instant created, @NotBlank final String id) {
+        this.created = created;
+        this.id = id;
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode()}.
+     *
+     * @param token The opaque token sent by the client
+     * @return The cursor the token represents
+     * @throws GeniePreconditionException If the token isn't one Genie generated
+     */
+    public static SearchCursor decode(@NotBlank final String token) throws GeniePreconditionException {
+        final String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (final IllegalArgumentException iae) {
+            throw new GeniePreconditionException("Invalid search cursor " + token, iae);
+        }
+
+        final int separatorIndex = decoded.indexOf(SEPARATOR);
+        if (separatorIndex < 1 || separatorIndex == decoded.length() - 1) {
+            throw new GeniePreconditionException("Invalid search cursor " + token);
+        }
+
+        final String id = decoded.substring(separatorIndex + 1);
+        if (StringUtils.isBlank(id)) {
+            throw new GeniePreconditionException("Invalid search cursor " + token);
+        }
+
+        try {
+            return new SearchCursor(Instant.parse(decoded.substring(0, separatorIndex)), id);
+        } catch (final DateTimeParseException dtpe) {
+            throw new GeniePreconditionException("Invalid search cursor " + token, dtpe);
+        }
+    }
+
+    /**
+     * Encode this cursor as an opaque, URL safe token which can be handed back to clients.
+     *
+     * @return The token
+     */
+    public String encode() {
+        return Base64
+            .getUrlEncoder()
+            .withoutPadding()
+            .encodeToString((this.created.toString() + SEPARATOR + this.id).getBytes(StandardCharsets.UTF_8));
+    }
+}
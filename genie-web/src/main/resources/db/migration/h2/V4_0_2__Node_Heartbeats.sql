@@ -0,0 +1,34 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+CREATE TABLE `node_heartbeats` (
+  `id`               BIGINT(20)    NOT NULL     AUTO_INCREMENT,
+  `created`          DATETIME(3)   NOT NULL     DEFAULT CURRENT_TIMESTAMP(3),
+  `updated`          DATETIME(3)   NOT NULL     DEFAULT CURRENT_TIMESTAMP(3),
+  `entity_version`   INT(11)       NOT NULL     DEFAULT '0',
+  `hostname`         VARCHAR(255)  NOT NULL,
+  `last_heartbeat`   DATETIME(3)   NOT NULL,
+  `num_running_jobs` INT(11)       NOT NULL     DEFAULT '0',
+  `used_memory`      INT(11)       NOT NULL     DEFAULT '0',
+  PRIMARY KEY (`id`)
+);
+
+CREATE UNIQUE INDEX `NODE_HEARTBEATS_HOSTNAME_INDEX`
+  ON `node_heartbeats` (`hostname`);
+CREATE INDEX `NODE_HEARTBEATS_LAST_HEARTBEAT_INDEX`
+  ON `node_heartbeats` (`last_heartbeat`);
@@ -0,0 +1,35 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+CREATE TABLE `node_heartbeats` (
+  `id`               BIGINT(20)   AUTO_INCREMENT NOT NULL,
+  `created`          DATETIME(3)  DEFAULT CURRENT_TIMESTAMP(3) NOT NULL,
+  `updated`          DATETIME(3)  DEFAULT CURRENT_TIMESTAMP(3) NOT NULL,
+  `entity_version`   INT(11)      DEFAULT '0' NOT NULL,
+  `hostname`         VARCHAR(255) NOT NULL,
+  `last_heartbeat`   DATETIME(3)  NOT NULL,
+  `num_running_jobs` INT(11)      DEFAULT '0' NOT NULL,
+  `used_memory`      INT(11)      DEFAULT '0' NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `NODE_HEARTBEATS_HOSTNAME_INDEX` (`hostname`),
+  KEY `NODE_HEARTBEATS_LAST_HEARTBEAT_INDEX` (`last_heartbeat`)
+)
+  ENGINE = InnoDB
+  DEFAULT CHARSET = utf8
+  DEFAULT COLLATE = utf8_bin
+  ROW_FORMAT = DYNAMIC;
@@ -0,0 +1,40 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+-- Every job id ever handed out, until the database cleanup task releases it along with the job. The table isn't
+-- partitioned so its primary key rejects a reused id even when the jobs tables are partitioned (where jobs.unique_id
+-- can't be unique) or the job has been moved into archived_jobs.
+
+CREATE TABLE `job_ids` (
+  `unique_id` VARCHAR(255) NOT NULL,
+  `created`   DATETIME(3)  DEFAULT CURRENT_TIMESTAMP(3) NOT NULL,
+  PRIMARY KEY (`unique_id`),
+  KEY `JOB_IDS_CREATED_INDEX` (`created`)
+)
+  ENGINE = InnoDB
+  DEFAULT CHARSET = utf8
+  DEFAULT COLLATE = utf8_bin
+  ROW_FORMAT = DYNAMIC;
+
+INSERT INTO `job_ids` (`unique_id`, `created`)
+  SELECT `unique_id`, `created`
+  FROM `jobs`;
+
+INSERT INTO `job_ids` (`unique_id`, `created`)
+  SELECT `unique_id`, `job_created`
+  FROM `archived_jobs`;
@@ -0,0 +1,36 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+CREATE TABLE archived_jobs (
+  id             BIGSERIAL                                    NOT NULL,
+  created        TIMESTAMP(3) WITHOUT TIME ZONE DEFAULT now() NOT NULL,
+  updated        TIMESTAMP(3) WITHOUT TIME ZONE DEFAULT now() NOT NULL,
+  entity_version INTEGER      DEFAULT '0'                     NOT NULL,
+  unique_id      VARCHAR(255)                                 NOT NULL,
+  job_created    TIMESTAMP(3) WITHOUT TIME ZONE               NOT NULL,
+  job            TEXT                                         NOT NULL,
+  job_request    TEXT                                         NOT NULL,
+  job_execution  TEXT                                         NOT NULL,
+  job_metadata   TEXT                                         NOT NULL,
+  PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX archived_jobs_unique_id_index
+  ON archived_jobs (unique_id);
+CREATE INDEX archived_jobs_job_created_index
+  ON archived_jobs (job_created);
@@ -0,0 +1,34 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+CREATE TABLE node_heartbeats (
+  id               BIGSERIAL                                    NOT NULL,
+  created          TIMESTAMP(3) WITHOUT TIME ZONE DEFAULT now() NOT NULL,
+  updated          TIMESTAMP(3) WITHOUT TIME ZONE DEFAULT now() NOT NULL,
+  entity_version   INTEGER      DEFAULT '0'                     NOT NULL,
+  hostname         VARCHAR(255)                                 NOT NULL,
+  last_heartbeat   TIMESTAMP(3) WITHOUT TIME ZONE               NOT NULL,
+  num_running_jobs INTEGER      DEFAULT '0'                     NOT NULL,
+  used_memory      INTEGER      DEFAULT '0'                     NOT NULL,
+  PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX node_heartbeats_hostname_index
+  ON node_heartbeats (hostname);
+CREATE INDEX node_heartbeats_last_heartbeat_index
+  ON node_heartbeats (last_heartbeat);
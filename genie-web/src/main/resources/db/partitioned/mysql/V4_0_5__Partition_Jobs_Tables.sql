@@ -0,0 +1,129 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+
+-- Optional layout which range partitions the jobs table and every table hanging off of it by job id so that the
+-- database cleanup task can drop old jobs a partition at a time instead of deleting rows. Only applied when
+-- classpath:db/partitioned/{vendor} is added to spring.flyway.locations.
+--
+-- The version sorts after every migration of the regular layout it depends on, including the job_ids table of 4.0.3,
+-- so existing databases can add the location without enabling Flyway's outOfOrder. Add it before upgrading to a
+-- release with migrations newer than this one, otherwise spring.flyway.out-of-order has to be enabled to apply it.
+--
+-- MySQL requires every unique key of a partitioned table to contain the partitioning column and doesn't support
+-- foreign keys on partitioned tables at all. The foreign keys to and from the job tables are therefore dropped and
+-- the uniqueness of jobs.unique_id is enforced through the job_ids table instead.
+--
+-- The tables are partitioned by job id rather than by creation time as the child tables don't carry the creation
+-- time of their job. Job ids are assigned in creation order so the cleanup task closes a partition per day by
+-- splitting p_future at the next job id.
+--
+-- Partitioning rebuilds each table so expect this migration to take a while on a large jobs table.
+
+SELECT
+  CURRENT_TIMESTAMP                                   AS '',
+  'Dropping foreign keys on the jobs related tables' AS '';
+
+ALTER TABLE `jobs`
+  DROP FOREIGN KEY `JOBS_COMMAND_CRITERION_FK`,
+  DROP FOREIGN KEY `JOBS_CLUSTER_ID_FK`,
+  DROP FOREIGN KEY `JOBS_COMMAND_ID_FK`,
+  DROP FOREIGN KEY `JOBS_SETUP_FILE_ID_FK`,
+  DROP KEY `JOBS_UNIQUE_ID_UNIQUE_INDEX`,
+  ADD KEY `JOBS_UNIQUE_ID_INDEX` (`unique_id`);
+
+ALTER TABLE `jobs_applications`
+  DROP FOREIGN KEY `JOBS_APPLICATIONS_APPLICATION_ID_FK`,
+  DROP FOREIGN KEY `JOBS_APPLICATIONS_JOB_ID_FK`;
+
+ALTER TABLE `job_command_arguments`
+  DROP FOREIGN KEY `JOB_COMMAND_ARGUMENTS_JOB_ID_FK`;
+
+ALTER TABLE `jobs_tags`
+  DROP FOREIGN KEY `JOBS_TAGS_JOB_ID_FK`,
+  DROP FOREIGN KEY `JOBS_TAGS_TAG_ID_FK`;
+
+ALTER TABLE `jobs_cluster_criteria`
+  DROP FOREIGN KEY `JOBS_CLUSTER_CRITERIA_JOB_ID_FK`,
+  DROP FOREIGN KEY `JOBS_CLUSTER_CRITERIA_CRITERION_ID_FK`;
+
+ALTER TABLE `job_requested_applications`
+  DROP FOREIGN KEY `JOB_REQUESTED_APPLICATIONS_JOB_ID_FK`;
+
+ALTER TABLE `jobs_configs`
+  DROP FOREIGN KEY `JOBS_CONFIGS_JOB_ID_FK`,
+  DROP FOREIGN KEY `JOBS_CONFIGS_FILE_ID_FK`;
+
+ALTER TABLE `jobs_dependencies`
+  DROP FOREIGN KEY `JOBS_DEPENDENCIES_JOB_ID_FK`,
+  DROP FOREIGN KEY `JOBS_DEPENDENCIES_FILE_ID_FK`;
+
+ALTER TABLE `job_requested_environment_variables`
+  DROP FOREIGN KEY `JOB_REQUESTED_ENVIRONMENT_VARIABLES_JOB_ID_FK`;
+
+ALTER TABLE `job_environment_variables`
+  DROP FOREIGN KEY `JOB_ENVIRONMENT_VARIABLES_JOB_ID_FK`;
+
+SELECT
+  CURRENT_TIMESTAMP                                         AS '',
+  'Finished dropping foreign keys on the jobs related tables' AS '';
+
+SELECT
+  CURRENT_TIMESTAMP                   AS '',
+  'Partitioning the jobs related tables' AS '';
+
+DELIMITER $$
+CREATE PROCEDURE GENIE_PARTITION_JOBS_TABLE_400(
+  IN `p_table`  VARCHAR(64),
+  IN `p_column` VARCHAR(64),
+  IN `p_bound`  BIGINT(20)
+)
+  BEGIN
+    SET @partition_sql = CONCAT(
+        'ALTER TABLE `', `p_table`, '` PARTITION BY RANGE (`', `p_column`, '`) (',
+        'PARTITION `p_initial` VALUES LESS THAN (', `p_bound`, '), ',
+        'PARTITION `p_future` VALUES LESS THAN MAXVALUE)'
+    );
+    PREPARE `partition_statement` FROM @partition_sql;
+    EXECUTE `partition_statement`;
+    DEALLOCATE PREPARE `partition_statement`;
+  END;
+$$
+DELIMITER ;
+
+-- Every job which exists right now goes in the initial partition. Jobs created from here on land in p_future until
+-- the cleanup task closes off the first daily partition.
+SELECT IFNULL(MAX(`id`), 0) + 1
+INTO @genie_initial_bound
+FROM `jobs`;
+
+CALL GENIE_PARTITION_JOBS_TABLE_400('jobs', 'id', @genie_initial_bound);
+CALL GENIE_PARTITION_JOBS_TABLE_400('jobs_applications', 'job_id', @genie_initial_bound);
+CALL GENIE_PARTITION_JOBS_TABLE_400('job_command_arguments', 'job_id', @genie_initial_bound);
+CALL GENIE_PARTITION_JOBS_TABLE_400('jobs_tags', 'job_id', @genie_initial_bound);
+CALL GENIE_PARTITION_JOBS_TABLE_400('jobs_cluster_criteria', 'job_id', @genie_initial_bound);
+CALL GENIE_PARTITION_JOBS_TABLE_400('job_requested_applications', 'job_id', @genie_initial_bound);
+CALL GENIE_PARTITION_JOBS_TABLE_400('jobs_configs', 'job_id', @genie_initial_bound);
+CALL GENIE_PARTITION_JOBS_TABLE_400('jobs_dependencies', 'job_id', @genie_initial_bound);
+CALL GENIE_PARTITION_JOBS_TABLE_400('job_requested_environment_variables', 'job_id', @genie_initial_bound);
+CALL GENIE_PARTITION_JOBS_TABLE_400('job_environment_variables', 'job_id', @genie_initial_bound);
+
+DROP PROCEDURE GENIE_PARTITION_JOBS_TABLE_400;
+
+SELECT
+  CURRENT_TIMESTAMP                               AS '',
+  'Finished partitioning the jobs related tables' AS '';
@@ -18,6 +18,9 @@
 package com.netflix.genie.web.configs
 
 import com.netflix.genie.test.categories.UnitTest
+import com.netflix.genie.web.events.BoundedAsyncApplicationEventMulticaster
+import com.netflix.genie.web.properties.AsyncEventDispatchProperties
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.junit.experimental.categories.Category
 import org.springframework.core.task.AsyncTaskExecutor
 import org.springframework.core.task.SyncTaskExecutor
@@ -38,9 +41,34 @@ class GenieEventBusAutoConfigurationSpec extends Specification {
         def asyncExecutor = Mock(AsyncTaskExecutor)
 
         when:
-        def eventBus = config.applicationEventMulticaster(syncExecutor, asyncExecutor)
+        def eventBus = config.applicationEventMulticaster(
+            syncExecutor,
+            asyncExecutor,
+            new AsyncEventDispatchProperties(),
+            new SimpleMeterRegistry()
+        )
 
         then:
         eventBus != null
     }
+
+    def "Can create Genie Event Bus with bounded asynchronous dispatch"() {
+        def config = new GenieEventBusAutoConfiguration()
+        def syncExecutor = Mock(SyncTaskExecutor)
+        def asyncExecutor = Mock(AsyncTaskExecutor)
+        def properties = new AsyncEventDispatchProperties()
+        properties.setEnabled(true)
+
+        when:
+        def eventBus = config.applicationEventMulticaster(
+            syncExecutor,
+            asyncExecutor,
+            properties,
+            new SimpleMeterRegistry()
+        )
+
+        then:
+        eventBus != null
+        eventBus.asyncMulticaster instanceof BoundedAsyncApplicationEventMulticaster
+    }
 }
@@ -0,0 +1,217 @@
+/*
+ *
+ *  Copyright 2017 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.events
+
+import com.netflix.genie.test.categories.UnitTest
+import com.netflix.genie.web.properties.AsyncEventDispatchProperties
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.experimental.categories.Category
+import org.springframework.context.ApplicationListener
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Specification for the BoundedAsyncApplicationEventMulticaster.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+class BoundedAsyncApplicationEventMulticasterSpec extends Specification {
+
+    def properties = new AsyncEventDispatchProperties()
+    def registry = new SimpleMeterRegistry()
+    BoundedAsyncApplicationEventMulticaster multicaster
+
+    void setup() {
+        this.properties.setEnabled(true)
+        this.properties.setQueueCapacity(1)
+        this.multicaster = new BoundedAsyncApplicationEventMulticaster(this.properties, this.registry)
+    }
+
+    void cleanup() {
+        this.multicaster.destroy()
+    }
+
+    def "Delivers events off the publishing thread and records metrics"() {
+        def listener = new RecordingListener(new CountDownLatch(0), 1)
+        this.multicaster.addApplicationListener(listener)
+
+        when:
+        this.multicaster.multicastEvent(new KillJobEvent("job", "reason", this))
+
+        then:
+        listener.received.await(10, TimeUnit.SECONDS)
+        listener.threadName.get() != Thread.currentThread().getName()
+        listener.threadName.get().startsWith("genie-event-RecordingListener-")
+        this.registry
+            .get(BoundedAsyncApplicationEventMulticaster.DISPATCH_TIMER_NAME)
+            .tag(BoundedAsyncApplicationEventMulticaster.LISTENER_TAG, "RecordingListener")
+            .tag(BoundedAsyncApplicationEventMulticaster.EVENT_TYPE_TAG, "KillJobEvent")
+            .timer()
+            .count() == 1
+        this.registry
+            .get(BoundedAsyncApplicationEventMulticaster.QUEUE_SIZE_GAUGE_NAME)
+            .tag(BoundedAsyncApplicationEventMulticaster.EVENT_TYPE_TAG, "KillJobEvent")
+            .gauge() != null
+    }
+
+    def "A slow listener doesn't hold up other listeners"() {
+        def release = new CountDownLatch(1)
+        def slowListener = new RecordingListener(release, 1)
+        def fastListener = new OtherRecordingListener(new CountDownLatch(0), 3)
+        this.properties.setQueueCapacity(10)
+        this.multicaster.addApplicationListener(slowListener)
+        this.multicaster.addApplicationListener(fastListener)
+
+        when:
+        3.times {
+            this.multicaster.multicastEvent(new KillJobEvent("job" + it, "reason", this))
+        }
+
+        then:
+        fastListener.received.await(10, TimeUnit.SECONDS)
+        slowListener.count.get() <= 1
+
+        cleanup:
+        release.countDown()
+    }
+
+    def "Discards events for a listener whose queue is full"() {
+        def release = new CountDownLatch(1)
+        def listener = new RecordingListener(release, 2)
+        this.properties.setOverflowPolicy(AsyncEventDispatchProperties.OverflowPolicy.DISCARD)
+        this.multicaster.addApplicationListener(listener)
+
+        when: "One event is being handled, one is queued and the last has nowhere to go"
+        this.multicaster.multicastEvent(new KillJobEvent("job1", "reason", this))
+        listener.started.await(10, TimeUnit.SECONDS)
+        this.multicaster.multicastEvent(new KillJobEvent("job2", "reason", this))
+        this.multicaster.multicastEvent(new KillJobEvent("job3", "reason", this))
+        release.countDown()
+
+        then:
+        listener.received.await(10, TimeUnit.SECONDS)
+        listener.count.get() == 2
+        this.registry
+            .get(BoundedAsyncApplicationEventMulticaster.OVERFLOW_COUNTER_NAME)
+            .tag(BoundedAsyncApplicationEventMulticaster.OVERFLOW_POLICY_TAG, "DISCARD")
+            .counter()
+            .count() == 1
+    }
+
+    def "Runs the listener on the publishing thread when its queue is full"() {
+        def release = new CountDownLatch(1)
+        def listener = new RecordingListener(release, 3)
+        this.multicaster.addApplicationListener(listener)
+        def publisher = new Thread({
+            this.multicaster.multicastEvent(new KillJobEvent("job3", "reason", this))
+        }, "test-publisher")
+
+        when: "One event is being handled, one is queued and the last is published from another thread"
+        this.multicaster.multicastEvent(new KillJobEvent("job1", "reason", this))
+        listener.started.await(10, TimeUnit.SECONDS)
+        this.multicaster.multicastEvent(new KillJobEvent("job2", "reason", this))
+        publisher.start()
+
+        then: "The publisher ends up running the listener itself"
+        new PollingConditions(timeout: 10).eventually {
+            assert listener.threadNames.contains("test-publisher")
+        }
+
+        when:
+        release.countDown()
+        publisher.join(10_000L)
+
+        then:
+        listener.received.await(10, TimeUnit.SECONDS)
+        listener.count.get() == 3
+        this.registry
+            .get(BoundedAsyncApplicationEventMulticaster.OVERFLOW_COUNTER_NAME)
+            .tag(BoundedAsyncApplicationEventMulticaster.OVERFLOW_POLICY_TAG, "CALLER_RUNS")
+            .counter()
+            .count() == 1
+    }
+
+    def "Listener failures are recorded and don't stop delivery"() {
+        def listener = new FailingListener()
+        this.multicaster.addApplicationListener(listener)
+
+        when:
+        this.multicaster.multicastEvent(new KillJobEvent("job1", "reason", this))
+
+        then:
+        listener.received.await(10, TimeUnit.SECONDS)
+        noExceptionThrown()
+    }
+
+    def "Can name listeners"() {
+        expect:
+        BoundedAsyncApplicationEventMulticaster.getListenerName(
+            new RecordingListener(new CountDownLatch(0), 1)
+        ) == "RecordingListener"
+    }
+
+    static class RecordingListener implements ApplicationListener<KillJobEvent> {
+        final CountDownLatch release
+        final CountDownLatch started = new CountDownLatch(1)
+        final CountDownLatch received
+        final AtomicInteger count = new AtomicInteger()
+        final List<String> threadNames = Collections.synchronizedList([])
+        volatile String lastThreadName
+
+        RecordingListener(final CountDownLatch release, final int expected) {
+            this.release = release
+            this.received = new CountDownLatch(expected)
+        }
+
+        Optional<String> getThreadName() {
+            return Optional.ofNullable(this.lastThreadName)
+        }
+
+        @Override
+        void onApplicationEvent(final KillJobEvent event) {
+            this.lastThreadName = Thread.currentThread().getName()
+            this.threadNames.add(this.lastThreadName)
+            this.started.countDown()
+            this.release.await(10, TimeUnit.SECONDS)
+            this.count.incrementAndGet()
+            this.received.countDown()
+        }
+    }
+
+    static class OtherRecordingListener extends RecordingListener {
+        OtherRecordingListener(final CountDownLatch release, final int expected) {
+            super(release, expected)
+        }
+    }
+
+    static class FailingListener implements ApplicationListener<KillJobEvent> {
+        final CountDownLatch received = new CountDownLatch(1)
+
+        @Override
+        void onApplicationEvent(final KillJobEvent event) {
+            this.received.countDown()
+            throw new IllegalStateException("test")
+        }
+    }
+}
@@ -158,4 +158,21 @@ class GenieEventBusImplSpec extends Specification {
         1 * this.syncMulticaster.setBeanClassLoader(classLoader)
         1 * this.asyncMulticaster.setBeanClassLoader(classLoader)
     }
+
+    def "Can destroy"() {
+        def boundedMulticaster = Mock(BoundedAsyncApplicationEventMulticaster)
+        def boundedEventBus = new GenieEventBusImpl(this.syncMulticaster, boundedMulticaster)
+
+        when:
+        this.eventBus.destroy()
+
+        then:
+        noExceptionThrown()
+
+        when:
+        boundedEventBus.destroy()
+
+        then:
+        1 * boundedMulticaster.destroy()
+    }
 }
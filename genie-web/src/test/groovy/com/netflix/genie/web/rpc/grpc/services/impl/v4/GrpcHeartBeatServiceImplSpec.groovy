@@ -21,7 +21,11 @@ package com.netflix.genie.web.rpc.grpc.services.impl.v4
 import com.netflix.genie.proto.AgentHeartBeat
 import com.netflix.genie.proto.ServerHeartBeat
 import com.netflix.genie.web.services.AgentRoutingService
+import io.grpc.stub.CallStreamObserver
 import io.grpc.stub.StreamObserver
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.core.task.SyncTaskExecutor
 import org.springframework.scheduling.TaskScheduler
 import spock.lang.Specification
 
@@ -34,6 +38,7 @@ class GrpcHeartBeatServiceImplSpec extends Specification {
     TaskScheduler taskScheduler
     ScheduledFuture taskFuture
     Runnable task
+    MeterRegistry registry
 
     void setup() {
         this.taskFuture = Mock(ScheduledFuture)
@@ -46,7 +51,13 @@ class GrpcHeartBeatServiceImplSpec extends Specification {
         }
         this.agentRoutingService = Mock(AgentRoutingService)
         this.responseObserver = Mock(StreamObserver)
-        this.service = new GrpcHeartBeatServiceImpl(agentRoutingService, taskScheduler)
+        this.registry = new SimpleMeterRegistry()
+        this.service = new GrpcHeartBeatServiceImpl(
+            agentRoutingService,
+            taskScheduler,
+            new SyncTaskExecutor(),
+            registry
+        )
         assert task != null
     }
 
@@ -228,6 +239,51 @@ class GrpcHeartBeatServiceImplSpec extends Specification {
         1 * responseObserver2.onCompleted()
     }
 
+    def "Skip streams which aren't ready and track active streams"() {
+        setup:
+        CallStreamObserver<ServerHeartBeat> readyObserver = Mock(CallStreamObserver)
+        CallStreamObserver<ServerHeartBeat> backedUpObserver = Mock(CallStreamObserver)
+
+        when:
+        StreamObserver<AgentHeartBeat> readyRequestObserver = service.heartbeat(readyObserver)
+        service.heartbeat(backedUpObserver)
+
+        then:
+        registry.get("genie.grpc.heartBeatService.activeStreams.gauge").gauge().value() == 2.0d
+
+        when:
+        task.run()
+
+        then:
+        1 * readyObserver.isReady() >> true
+        1 * readyObserver.onNext(_ as ServerHeartBeat)
+        1 * backedUpObserver.isReady() >> false
+        0 * backedUpObserver.onNext(_ as ServerHeartBeat)
+        registry.get("genie.grpc.heartBeatService.streamNotReady.rate").counter().count() == 1.0d
+        registry.get("genie.grpc.heartBeatService.fanOut.timer").timer().count() == 1L
+
+        when:
+        readyRequestObserver.onCompleted()
+
+        then:
+        1 * readyObserver.onCompleted()
+        registry.get("genie.grpc.heartBeatService.activeStreams.gauge").gauge().value() == 1.0d
+    }
+
+    def "Keep sending heartbeats when one stream fails"() {
+        setup:
+        StreamObserver<ServerHeartBeat> brokenObserver = Mock(StreamObserver)
+        StreamObserver<ServerHeartBeat> healthyObserver = Mock(StreamObserver)
+
+        when:
+        service.heartbeat(brokenObserver)
+        service.heartbeat(healthyObserver)
+        task.run()
+
+        then:
+        1 * brokenObserver.onNext(_ as ServerHeartBeat) >> { throw new IllegalStateException("closed") }
+        1 * healthyObserver.onNext(_ as ServerHeartBeat)
+    }
 
     def "Accept anonymous agents"() {
         setup:
@@ -15,112 +15,200 @@
  *     limitations under the License.
  *
  */
-
 package com.netflix.genie.web.services.impl
 
 import com.netflix.genie.common.internal.util.GenieHostInfo
 import com.netflix.genie.test.categories.UnitTest
+import com.netflix.genie.web.properties.AgentRoutingProperties
 import com.netflix.genie.web.services.AgentConnectionPersistenceService
-import com.netflix.genie.web.services.AgentRoutingService
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.junit.experimental.categories.Category
+import org.springframework.scheduling.TaskScheduler
 import spock.lang.Specification
 
+import java.util.concurrent.ScheduledFuture
+
 @Category(UnitTest.class)
 class AgentRoutingServiceImplSpec extends Specification {
     private static final String HOSTNAME = "10.1.2.3"
 
     AgentConnectionPersistenceService persistenceService = Mock()
     GenieHostInfo genieHostInfo = Mock()
-    AgentRoutingService service
+    TaskScheduler taskScheduler = Mock()
+    ScheduledFuture<?> flushFuture = Mock()
+    AgentRoutingProperties properties
+    AgentRoutingServiceImpl service
     String jobId
 
     void setup() {
-        service = new AgentRoutingServiceImpl(persistenceService, genieHostInfo);
+        genieHostInfo.getHostname() >> HOSTNAME
+        properties = new AgentRoutingProperties()
+        properties.setFlushBatchSize(2)
+        service = new AgentRoutingServiceImpl(
+            persistenceService,
+            genieHostInfo,
+            properties,
+            taskScheduler,
+            new SimpleMeterRegistry()
+        )
         jobId = UUID.randomUUID().toString()
     }
 
-    def "getHostnameForAgentConnection"() {
-        boolean isLocalConnection
+    def "Schedules the background flush"() {
+        TaskScheduler scheduler = Mock()
 
         when:
-        Optional<String> optionalHostname = service.getHostnameForAgentConnection(jobId)
+        new AgentRoutingServiceImpl(
+            persistenceService,
+            genieHostInfo,
+            properties,
+            scheduler,
+            new SimpleMeterRegistry()
+        )
 
         then:
-        1 * persistenceService.lookupAgentConnectionServer(jobId) >> Optional.of(HOSTNAME)
+        1 * scheduler.scheduleWithFixedDelay(_ as Runnable, properties.getFlushInterval()) >> flushFuture
+    }
 
-        expect:
-        optionalHostname.isPresent()
-        HOSTNAME == optionalHostname.get()
+    def "getHostnameForAgentConnection"() {
+        Optional<String> optionalHostname
 
-        when:
-        isLocalConnection = service.isAgentConnectionLocal(jobId)
+        when: "The agent is connected to another node"
+        optionalHostname = service.getHostnameForAgentConnection(jobId)
 
-        then:
-        1 * persistenceService.lookupAgentConnectionServer(jobId) >> Optional.of(HOSTNAME)
-        1 * genieHostInfo.getHostname() >> HOSTNAME
+        then: "The database is consulted"
+        1 * persistenceService.lookupAgentConnectionServer(jobId) >> Optional.of("another.hostname")
+        optionalHostname.get() == "another.hostname"
 
-        expect:
-        isLocalConnection
+        when: "The same lookup happens again"
+        optionalHostname = service.getHostnameForAgentConnection(jobId)
 
-        when:
-        isLocalConnection = service.isAgentConnectionLocal(jobId)
+        then: "The cached value is used"
+        0 * persistenceService.lookupAgentConnectionServer(_)
+        optionalHostname.get() == "another.hostname"
 
-        then:
-        1 * persistenceService.lookupAgentConnectionServer(jobId) >> Optional.of("another.hostname")
-        1 * genieHostInfo.getHostname() >> HOSTNAME
+        when: "The agent moves to this node"
+        service.handleClientConnected(jobId)
+        optionalHostname = service.getHostnameForAgentConnection(jobId)
 
-        expect:
-        !isLocalConnection
+        then: "The local connection wins without a database lookup"
+        0 * persistenceService.lookupAgentConnectionServer(_)
+        optionalHostname.get() == HOSTNAME
+
+        when: "The agent disconnects before the removal is written"
+        service.handleClientDisconnected(jobId)
+        optionalHostname = service.getHostnameForAgentConnection(jobId)
+
+        then: "A stale row pointing at this node is ignored"
+        1 * persistenceService.lookupAgentConnectionServer(jobId) >> Optional.of(HOSTNAME)
+        !optionalHostname.isPresent()
+
+        when: "The agent isn't connected anywhere"
+        optionalHostname = service.getHostnameForAgentConnection(jobId)
+
+        then: "Misses aren't cached"
+        1 * persistenceService.lookupAgentConnectionServer(jobId) >> Optional.empty()
+        !optionalHostname.isPresent()
     }
 
     def "isAgentConnectionLocal"() {
-        boolean isLocalConnection
-
         when:
-        isLocalConnection = service.isAgentConnectionLocal(jobId)
+        boolean isLocalConnection = service.isAgentConnectionLocal(jobId)
 
         then:
-        1 * persistenceService.lookupAgentConnectionServer(jobId) >> Optional.of(HOSTNAME)
-        1 * genieHostInfo.getHostname() >> HOSTNAME
-
-        expect:
-        isLocalConnection
+        0 * persistenceService._
+        !isLocalConnection
 
         when:
+        service.handleClientConnected(jobId)
         isLocalConnection = service.isAgentConnectionLocal(jobId)
 
         then:
-        1 * persistenceService.lookupAgentConnectionServer(jobId) >> Optional.of("another.hostname")
-        1 * genieHostInfo.getHostname() >> HOSTNAME
-
-        expect:
-        !isLocalConnection
+        0 * persistenceService._
+        isLocalConnection
 
         when:
+        service.handleClientDisconnected(jobId)
         isLocalConnection = service.isAgentConnectionLocal(jobId)
 
         then:
-        1 * persistenceService.lookupAgentConnectionServer(jobId) >> Optional.empty()
-        0 * genieHostInfo.getHostname() >> HOSTNAME
-
-        expect:
+        0 * persistenceService._
         !isLocalConnection
     }
 
     def "Reacting to connection and disconnection"() {
+        def jobId2 = UUID.randomUUID().toString()
+        def jobId3 = UUID.randomUUID().toString()
+
+        when: "Agents connect"
+        service.handleClientConnected(jobId)
+        service.handleClientConnected(jobId2)
+        service.handleClientConnected(jobId3)
+
+        then: "Nothing is written synchronously"
+        0 * persistenceService._
+
+        when: "The pending writes are flushed"
+        service.flushPendingWrites()
+
+        then: "They are written in batches"
+        2 * persistenceService.saveAgentConnections(_ as Set<String>, HOSTNAME) >> { args ->
+            assert ((Set<String>) args[0]).size() <= properties.getFlushBatchSize()
+        }
+        0 * persistenceService.removeAgentConnections(_, _)
+
+        when: "An agent connects and disconnects between flushes"
+        service.handleClientDisconnected(jobId)
+        service.handleClientConnected(jobId)
+        service.handleClientDisconnected(jobId)
+        service.flushPendingWrites()
+
+        then: "Only the last state is written"
+        0 * persistenceService.saveAgentConnections(_, _)
+        1 * persistenceService.removeAgentConnections([jobId] as Set, HOSTNAME)
+
+        when: "Nothing changed"
+        service.flushPendingWrites()
+
+        then:
+        0 * persistenceService._
+    }
 
+    def "Failed writes are retried"() {
         when:
         service.handleClientConnected(jobId)
+        service.flushPendingWrites()
 
         then:
-        1 * genieHostInfo.getHostname() >> HOSTNAME
-        1 * persistenceService.saveAgentConnection(jobId, HOSTNAME)
+        1 * persistenceService.saveAgentConnections([jobId] as Set, HOSTNAME) >> {
+            throw new RuntimeException("test")
+        }
 
         when:
-        service.handleClientDisconnected(jobId)
+        service.flushPendingWrites()
+
+        then:
+        1 * persistenceService.saveAgentConnections([jobId] as Set, HOSTNAME)
+    }
+
+    def "Shutdown flushes pending writes"() {
+        TaskScheduler scheduler = Mock() {
+            scheduleWithFixedDelay(_ as Runnable, _ as Long) >> flushFuture
+        }
+        def shutdownService = new AgentRoutingServiceImpl(
+            persistenceService,
+            genieHostInfo,
+            properties,
+            scheduler,
+            new SimpleMeterRegistry()
+        )
+
+        when:
+        shutdownService.handleClientConnected(jobId)
+        shutdownService.shutdown()
 
         then:
-        1 * genieHostInfo.getHostname() >> HOSTNAME
-        1 * persistenceService.removeAgentConnection(jobId, HOSTNAME)
+        1 * flushFuture.cancel(false)
+        1 * persistenceService.saveAgentConnections([jobId] as Set, HOSTNAME)
     }
 }
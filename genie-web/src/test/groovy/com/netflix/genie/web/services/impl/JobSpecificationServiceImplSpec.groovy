@@ -179,6 +179,94 @@ class JobSpecificationServiceImplSpec extends Specification {
         jobSpec.getEnvironmentVariables().size() == 15
     }
 
+    def "Can select a cluster for every job from shared candidates"() {
+        def clusterCriteria = Lists.newArrayList(
+                new Criterion.Builder().withTags(Sets.newHashSet(UUID.randomUUID().toString())).build()
+        )
+        def commandCriterion = new Criterion.Builder().withTags(Sets.newHashSet(UUID.randomUUID().toString())).build()
+        def jobRequest = new JobRequest(
+                null,
+                null,
+                Lists.newArrayList(UUID.randomUUID().toString()),
+                new JobMetadata.Builder(UUID.randomUUID().toString(), UUID.randomUUID().toString()).build(),
+                new ExecutionResourceCriteria(clusterCriteria, commandCriterion, null),
+                null,
+                null
+        )
+        def cluster1 = new Cluster(
+                UUID.randomUUID().toString(),
+                Instant.now(),
+                Instant.now(),
+                new ExecutionEnvironment(null, null, null),
+                new ClusterMetadata.Builder(
+                        UUID.randomUUID().toString(),
+                        UUID.randomUUID().toString(),
+                        UUID.randomUUID().toString(),
+                        ClusterStatus.UP
+                ).build()
+        )
+        def cluster2 = new Cluster(
+                UUID.randomUUID().toString(),
+                Instant.now(),
+                Instant.now(),
+                new ExecutionEnvironment(null, null, null),
+                new ClusterMetadata.Builder(
+                        UUID.randomUUID().toString(),
+                        UUID.randomUUID().toString(),
+                        UUID.randomUUID().toString(),
+                        ClusterStatus.UP
+                ).build()
+        )
+        def commandId = UUID.randomUUID().toString()
+        def command = new Command(
+                commandId,
+                Instant.now(),
+                Instant.now(),
+                new ExecutionEnvironment(null, null, null),
+                new CommandMetadata.Builder(
+                        UUID.randomUUID().toString(),
+                        UUID.randomUUID().toString(),
+                        UUID.randomUUID().toString(),
+                        CommandStatus.ACTIVE
+                ).build(),
+                Lists.newArrayList(UUID.randomUUID().toString()),
+                null,
+                100L
+        )
+        Map<Cluster, String> clusterCommandMap = Maps.newHashMap()
+        clusterCommandMap.put(cluster1, commandId)
+        clusterCommandMap.put(cluster2, commandId)
+        def clusterService = Mock(ClusterPersistenceService)
+        def loadBalancer = Mock(ClusterLoadBalancer)
+        def commandService = Mock(CommandPersistenceService) {
+            2 * getCommand(commandId) >> command
+            2 * getApplicationsForCommand(commandId) >> Lists.newArrayList()
+        }
+        def service = new JobSpecificationServiceImpl(
+                Mock(ApplicationPersistenceService),
+                clusterService,
+                commandService,
+                Lists.newArrayList(loadBalancer),
+                new SimpleMeterRegistry(),
+                new JobsProperties()
+        )
+
+        when:
+        def candidates = service.resolveClustersAndCommands(jobRequest)
+        def jobSpec1 = service.resolveJobSpecification(UUID.randomUUID().toString(), jobRequest, candidates)
+        def jobSpec2 = service.resolveJobSpecification(UUID.randomUUID().toString(), jobRequest, candidates)
+
+        then:
+        1 * clusterService.findClustersAndCommandsForCriteria(clusterCriteria, commandCriterion) >> clusterCommandMap
+        2 * loadBalancer.selectCluster(clusterCommandMap.keySet(), _ as com.netflix.genie.common.dto.JobRequest) >>>
+                [cluster1, cluster2]
+        candidates == clusterCommandMap
+        jobSpec1.getCluster().getId() == cluster1.getId()
+        jobSpec2.getCluster().getId() == cluster2.getId()
+        jobSpec1.getCommand().getId() == commandId
+        jobSpec2.getCommand().getId() == commandId
+    }
+
     def "Can convert tags to string"() {
         def service = new JobSpecificationServiceImpl(
                 Mock(ApplicationPersistenceService),
@@ -46,6 +46,8 @@ import spock.lang.Unroll
 
 import java.nio.file.Paths
 import java.time.Instant
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 
 /**
@@ -226,6 +228,7 @@ class ScriptLoadBalancerSpec extends Specification {
         1 * environment.getProperty(ScriptLoadBalancerProperties.SCRIPT_FILE_SOURCE_PROPERTY) >> file
         1 * environment.getProperty(ScriptLoadBalancerProperties.SCRIPT_FILE_DESTINATION_PROPERTY) >> destDir
         1 * fileTransferService.getFile(file, file)
+        1 * environment.getProperty(ScriptLoadBalancerProperties.POOL_SIZE_PROPERTY, Integer.class, _ as Integer) >> 2
         1 * registry.timer(
             ScriptLoadBalancer.UPDATE_TIMER_NAME,
             ImmutableSet.of(Tag.of(MetricsConstants.TagKeys.STATUS, ScriptLoadBalancer.STATUS_TAG_OK))
@@ -244,6 +247,21 @@ class ScriptLoadBalancerSpec extends Specification {
         ) >> selectTimer
         1 * selectTimer.record(_ as Long, TimeUnit.NANOSECONDS)
 
+        when: "Script is called concurrently with more selections than script engines"
+        def callers = Executors.newFixedThreadPool(4)
+        def selections = (1..8).collect {
+            callers.submit({ loadBalancer.selectCluster(this.clustersGood, this.jobRequest) } as Callable)
+        }.collect { it.get() }
+        callers.shutdown()
+
+        then: "Every selection finds the cluster"
+        selections.every { it.getId() == "1" }
+        8 * registry.timer(
+            ScriptLoadBalancer.SELECT_TIMER_NAME,
+            ImmutableSet.of(Tag.of(MetricsConstants.TagKeys.STATUS, ScriptLoadBalancer.STATUS_TAG_FOUND))
+        ) >> selectTimer
+        8 * selectTimer.record(_ as Long, TimeUnit.NANOSECONDS)
+
         when: "Script is called with unhandled clusters"
         cluster = loadBalancer.selectCluster(this.clustersBad, this.jobRequest)
 
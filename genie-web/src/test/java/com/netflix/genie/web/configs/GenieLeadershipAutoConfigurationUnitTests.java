@@ -18,11 +18,15 @@
 package com.netflix.genie.web.configs;
 
 import com.google.common.collect.Sets;
+import com.netflix.genie.common.internal.util.GenieHostInfo;
 import com.netflix.genie.test.categories.UnitTest;
 import com.netflix.genie.web.events.GenieEventBus;
 import com.netflix.genie.web.properties.LeadershipProperties;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
 import com.netflix.genie.web.properties.ZookeeperLeadershipProperties;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
 import com.netflix.genie.web.tasks.leader.LeadershipTask;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.curator.framework.CuratorFramework;
 import org.junit.Assert;
 import org.junit.Test;
@@ -31,6 +35,7 @@ import org.mockito.Mockito;
 import org.springframework.scheduling.TaskScheduler;
 
 import java.util.Collection;
+import java.util.UUID;
 
 /**
  * Unit tests for the LeadershipConfig class.
@@ -51,6 +56,25 @@ public class GenieLeadershipAutoConfigurationUnitTests {
         Assert.assertNotNull(new GenieLeadershipAutoConfiguration().leadershipTasksCoordinator(scheduler, tasks));
     }
 
+    /**
+     * Make sure can get a valid sharded leadership tasks coordinator.
+     */
+    @Test
+    public void canGetShardedLeadershipTasksCoordinator() {
+        final TaskScheduler scheduler = Mockito.mock(TaskScheduler.class);
+        final Collection<LeadershipTask> tasks = Sets.newHashSet();
+        Assert.assertNotNull(
+            new GenieLeadershipAutoConfiguration().shardedLeadershipTasksCoordinator(
+                scheduler,
+                tasks,
+                new GenieHostInfo(UUID.randomUUID().toString()),
+                Mockito.mock(NodeHeartbeatPersistenceService.class),
+                new NodeHeartbeatProperties(),
+                new SimpleMeterRegistry()
+            )
+        );
+    }
+
     /**
      * Make sure the bean is created successfully.
      */
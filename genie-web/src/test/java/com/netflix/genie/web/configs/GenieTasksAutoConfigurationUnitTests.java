@@ -19,9 +19,18 @@ package com.netflix.genie.web.configs;
 
 import com.netflix.genie.test.categories.UnitTest;
 import com.netflix.genie.web.properties.TasksSchedulerPoolProperties;
+import com.netflix.genie.web.services.impl.MySqlJobPartitionServiceImpl;
+import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
 
 /**
  * Unit tests for the TaskConfig class.
@@ -47,4 +56,36 @@ public class GenieTasksAutoConfigurationUnitTests {
     public void canGetTaskScheduler() {
         Assert.assertNotNull(new GenieTasksAutoConfiguration().genieTaskScheduler(new TasksSchedulerPoolProperties()));
     }
+
+    /**
+     * Make sure partitions are only dropped on MySQL as the partitioned jobs layout doesn't exist for other vendors.
+     *
+     * @throws SQLException on error
+     */
+    @Test
+    public void canOnlyGetJobPartitionServiceForMySql() throws SQLException {
+        final GenieTasksAutoConfiguration config = new GenieTasksAutoConfiguration();
+        final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+        Assert.assertThat(
+            config.jobPartitionService(this.mockDataSource("MySQL"), jdbcTemplate),
+            Matchers.instanceOf(MySqlJobPartitionServiceImpl.class)
+        );
+        try {
+            config.jobPartitionService(this.mockDataSource("PostgreSQL"), jdbcTemplate);
+            Assert.fail();
+        } catch (final IllegalStateException e) {
+            Assert.assertThat(e.getMessage(), Matchers.containsString("only supported on MySQL"));
+        }
+    }
+
+    private DataSource mockDataSource(final String productName) throws SQLException {
+        final DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+        Mockito.when(metaData.getDatabaseProductName()).thenReturn(productName);
+        final Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getMetaData()).thenReturn(metaData);
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
 }
@@ -24,15 +24,20 @@ import com.netflix.genie.test.categories.UnitTest;
 import com.netflix.genie.web.events.GenieEventBus;
 import com.netflix.genie.web.jobs.workflow.WorkflowTask;
 import com.netflix.genie.web.properties.JobsProperties;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.ActiveJobCountService;
 import com.netflix.genie.web.services.ApplicationPersistenceService;
 import com.netflix.genie.web.services.ClusterPersistenceService;
 import com.netflix.genie.web.services.CommandPersistenceService;
 import com.netflix.genie.web.services.JobKillService;
 import com.netflix.genie.web.services.JobPersistenceService;
+import com.netflix.genie.web.services.JobQueueService;
 import com.netflix.genie.web.services.JobSearchService;
 import com.netflix.genie.web.services.JobSpecificationService;
 import com.netflix.genie.web.services.JobStateService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.exec.Executor;
 import org.junit.Assert;
 import org.junit.Before;
@@ -41,6 +46,7 @@ import org.junit.experimental.categories.Category;
 import org.mockito.Mockito;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.TaskScheduler;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -109,7 +115,8 @@ public class ServicesAutoConfigurationUnitTests {
                 Mockito.mock(JobPersistenceService.class),
                 Mockito.mock(JobKillService.class),
                 Mockito.mock(JobStateService.class),
-                Mockito.mock(JobSearchService.class),
+                Mockito.mock(JobQueueService.class),
+                Mockito.mock(ActiveJobCountService.class),
                 new JobsProperties(),
                 Mockito.mock(ApplicationPersistenceService.class),
                 Mockito.mock(ClusterPersistenceService.class),
@@ -121,6 +128,60 @@ public class ServicesAutoConfigurationUnitTests {
         );
     }
 
+    /**
+     * Can get a bean for the Job Placement Service.
+     */
+    @Test
+    public void canGetJobPlacementServiceBean() {
+        Assert.assertNotNull(
+            this.genieServicesAutoConfiguration.jobPlacementService(
+                Mockito.mock(JobStateService.class),
+                Mockito.mock(NodeHeartbeatPersistenceService.class),
+                new JobsProperties(),
+                new NodeHeartbeatProperties(),
+                new GenieHostInfo(UUID.randomUUID().toString()),
+                Mockito.mock(MeterRegistry.class)
+            )
+        );
+    }
+
+    /**
+     * Can get a bean for the Active Job Count Service.
+     */
+    @Test
+    public void canGetActiveJobCountServiceBean() {
+        Assert.assertNotNull(
+            this.genieServicesAutoConfiguration.activeJobCountService(
+                Mockito.mock(JobSearchService.class),
+                new JobsProperties(),
+                Mockito.mock(TaskScheduler.class),
+                new SimpleMeterRegistry()
+            )
+        );
+    }
+
+    /**
+     * Can get a bean for the Job Queue Service.
+     */
+    @Test
+    public void canGetJobQueueServiceBean() {
+        Assert.assertNotNull(
+            this.genieServicesAutoConfiguration.jobQueueService(
+                Mockito.mock(JobPersistenceService.class),
+                Mockito.mock(JobSearchService.class),
+                Mockito.mock(ActiveJobCountService.class),
+                Mockito.mock(JobStateService.class),
+                Mockito.mock(ApplicationPersistenceService.class),
+                Mockito.mock(ClusterPersistenceService.class),
+                Mockito.mock(CommandPersistenceService.class),
+                new JobsProperties(),
+                Mockito.mock(TaskScheduler.class),
+                new SimpleMeterRegistry(),
+                new GenieHostInfo(UUID.randomUUID().toString())
+            )
+        );
+    }
+
     /**
      * Can get a bean for Job Kill Service.
      */
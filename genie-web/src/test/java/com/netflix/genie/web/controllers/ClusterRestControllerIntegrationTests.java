@@ -29,6 +29,8 @@ import com.netflix.genie.common.dto.CommandStatus;
 import com.netflix.genie.common.util.GenieObjectMapper;
 import com.netflix.genie.web.hateoas.resources.ClusterResource;
 import io.restassured.RestAssured;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
 import org.apache.catalina.util.URLEncoder;
 import org.apache.http.client.utils.URLEncodedUtils;
 import org.hamcrest.Matchers;
@@ -37,6 +39,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.payload.PayloadDocumentation;
@@ -349,6 +352,80 @@ public class ClusterRestControllerIntegrationTests extends RestControllerIntegra
         Assert.assertThat(this.clusterRepository.count(), Matchers.is(3L));
     }
 
+    /**
+     * Make sure a cluster isn't sent again to a client which already has the current version of it.
+     *
+     * @throws Exception on configuration error
+     */
+    @Test
+    public void canGetClusterIfModified() throws Exception {
+        this.createConfigResource(
+            new Cluster.Builder(NAME, USER, VERSION, ClusterStatus.UP).withId(ID).build(),
+            null
+        );
+        final String clusterResource = CLUSTERS_API + "/{id}";
+
+        final ExtractableResponse<Response> response = RestAssured
+            .given(this.getRequestSpecification())
+            .when()
+            .port(this.port)
+            .get(clusterResource, ID)
+            .then()
+            .statusCode(Matchers.is(HttpStatus.OK.value()))
+            .header(HttpHeaders.ETAG, Matchers.notNullValue())
+            .header(HttpHeaders.CACHE_CONTROL, Matchers.is("no-cache"))
+            .extract();
+        final String eTag = response.header(HttpHeaders.ETAG);
+        final Cluster cluster = GenieObjectMapper.getMapper()
+            .readValue(response.asByteArray(), ClusterResource.class)
+            .getContent();
+
+        final RestDocumentationFilter getFilter = RestAssuredRestDocumentation.document(
+            "{class-name}/{method-name}/{step}/",
+            Snippets.ID_PATH_PARAM // path parameters
+        );
+
+        RestAssured
+            .given(this.getRequestSpecification())
+            .filter(getFilter)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .when()
+            .port(this.port)
+            .get(clusterResource, ID)
+            .then()
+            .statusCode(Matchers.is(HttpStatus.NOT_MODIFIED.value()))
+            .header(HttpHeaders.ETAG, Matchers.is(eTag));
+
+        final Cluster.Builder updateCluster = new Cluster.Builder(
+            cluster.getName(),
+            cluster.getUser(),
+            cluster.getVersion(),
+            ClusterStatus.OUT_OF_SERVICE
+        )
+            .withId(ID)
+            .withTags(cluster.getTags());
+        RestAssured
+            .given(this.getRequestSpecification())
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(GenieObjectMapper.getMapper().writeValueAsBytes(updateCluster.build()))
+            .when()
+            .port(this.port)
+            .put(clusterResource, ID)
+            .then()
+            .statusCode(Matchers.is(HttpStatus.NO_CONTENT.value()));
+
+        RestAssured
+            .given(this.getRequestSpecification())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .when()
+            .port(this.port)
+            .get(clusterResource, ID)
+            .then()
+            .statusCode(Matchers.is(HttpStatus.OK.value()))
+            .header(HttpHeaders.ETAG, Matchers.not(eTag))
+            .body(STATUS_PATH, Matchers.is(ClusterStatus.OUT_OF_SERVICE.toString()));
+    }
+
     /**
      * Test to make sure that a cluster can be updated.
      *
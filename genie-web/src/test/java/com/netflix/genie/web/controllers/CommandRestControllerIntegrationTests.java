@@ -36,6 +36,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.payload.PayloadDocumentation;
@@ -452,6 +453,85 @@ public class CommandRestControllerIntegrationTests extends RestControllerIntegra
         Assert.assertThat(this.commandRepository.count(), Matchers.is(3L));
     }
 
+    /**
+     * Test to make sure that a command is only returned when it changed since the version the client holds.
+     *
+     * @throws Exception on configuration errors
+     */
+    @Test
+    public void canGetCommandIfModified() throws Exception {
+        this.createConfigResource(
+            new Command
+                .Builder(NAME, USER, VERSION, CommandStatus.ACTIVE, EXECUTABLE, CHECK_DELAY)
+                .withId(ID)
+                .build(),
+            null
+        );
+        final String commandResource = COMMANDS_API + "/{id}";
+
+        final String eTag = RestAssured
+            .given(this.getRequestSpecification())
+            .when()
+            .port(this.port)
+            .get(commandResource, ID)
+            .then()
+            .statusCode(Matchers.is(HttpStatus.OK.value()))
+            .header(HttpHeaders.ETAG, Matchers.notNullValue())
+            .header(HttpHeaders.CACHE_CONTROL, Matchers.is("no-cache"))
+            .extract()
+            .header(HttpHeaders.ETAG);
+
+        final RestDocumentationFilter getFilter = RestAssuredRestDocumentation.document(
+            "{class-name}/{method-name}/{step}/",
+            Snippets.ID_PATH_PARAM // path parameters
+        );
+
+        RestAssured
+            .given(this.getRequestSpecification())
+            .filter(getFilter)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .when()
+            .port(this.port)
+            .get(commandResource, ID)
+            .then()
+            .statusCode(Matchers.is(HttpStatus.NOT_MODIFIED.value()))
+            .header(HttpHeaders.ETAG, Matchers.is(eTag));
+
+        // Only the tags change so the updated column alone wouldn't necessarily move but the entity version does
+        final String tag = UUID.randomUUID().toString();
+        RestAssured
+            .given(this.getRequestSpecification())
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(GenieObjectMapper.getMapper().writeValueAsBytes(Sets.newHashSet(tag)))
+            .when()
+            .port(this.port)
+            .post(commandResource + "/tags", ID)
+            .then()
+            .statusCode(Matchers.is(HttpStatus.NO_CONTENT.value()));
+
+        final String newETag = RestAssured
+            .given(this.getRequestSpecification())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .when()
+            .port(this.port)
+            .get(commandResource, ID)
+            .then()
+            .statusCode(Matchers.is(HttpStatus.OK.value()))
+            .header(HttpHeaders.ETAG, Matchers.not(eTag))
+            .body(TAGS_PATH, Matchers.hasItem(tag))
+            .extract()
+            .header(HttpHeaders.ETAG);
+
+        RestAssured
+            .given(this.getRequestSpecification())
+            .header(HttpHeaders.IF_NONE_MATCH, newETag)
+            .when()
+            .port(this.port)
+            .get(commandResource, ID)
+            .then()
+            .statusCode(Matchers.is(HttpStatus.NOT_MODIFIED.value()));
+    }
+
     /**
      * Test to make sure that a command can be updated.
      *
@@ -17,7 +17,14 @@
  */
 package com.netflix.genie.web.controllers;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.exceptions.GenieNotFoundException;
+import com.netflix.genie.common.exceptions.GeniePreconditionException;
 import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
@@ -26,6 +33,8 @@ import org.mockito.Mockito;
 import org.springframework.web.servlet.HandlerMapping;
 
 import javax.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import java.util.UUID;
 
 /**
  * Unit tests for the ControllerUtils class.
@@ -77,4 +86,130 @@ public class ControllerUtilsUnitTests {
             .thenReturn("/api/v3/jobs/{id}/output/**");
         Assert.assertThat(ControllerUtils.getRemainingPath(request), Matchers.is("stdout"));
     }
+
+    /**
+     * Test the keyset search parameter helpers.
+     *
+     * @throws GeniePreconditionException on invalid input
+     */
+    @Test
+    public void canGetSearchCursorAndLimit() throws GeniePreconditionException {
+        Assert.assertNull(ControllerUtils.getSearchCursor(null));
+        Assert.assertNull(ControllerUtils.getSearchCursor(""));
+        Assert.assertNull(ControllerUtils.getSearchCursor("  "));
+
+        final SearchCursor cursor = new SearchCursor(Instant.now(), UUID.randomUUID().toString());
+        Assert.assertThat(ControllerUtils.getSearchCursor(cursor.encode()), Matchers.is(cursor));
+
+        Assert.assertThat(ControllerUtils.getCursorLimit(1), Matchers.is(1));
+        Assert.assertThat(ControllerUtils.getCursorLimit(64), Matchers.is(64));
+        Assert.assertThat(
+            ControllerUtils.getCursorLimit(ControllerUtils.MAX_CURSOR_LIMIT + 1),
+            Matchers.is(ControllerUtils.MAX_CURSOR_LIMIT)
+        );
+    }
+
+    /**
+     * Make sure a limit below one is rejected.
+     *
+     * @throws GeniePreconditionException on invalid input
+     */
+    @Test(expected = GeniePreconditionException.class)
+    public void cantGetCursorLimitBelowOne() throws GeniePreconditionException {
+        ControllerUtils.getCursorLimit(0);
+    }
+
+    /**
+     * Make sure resources requested by id tags are looked up directly without searching.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void canSearchWithCursorByIdTags() throws GenieException {
+        final String id1 = UUID.randomUUID().toString();
+        final String id2 = UUID.randomUUID().toString();
+        final String missingId = UUID.randomUUID().toString();
+        final ControllerUtils.CursorSearch<String> search = Mockito.mock(ControllerUtils.CursorSearch.class);
+
+        final CursorSlice<String> slice = ControllerUtils.searchWithCursor(
+            null,
+            Sets.newHashSet(
+                DtoConverters.GENIE_ID_PREFIX + id1,
+                DtoConverters.GENIE_ID_PREFIX + id2,
+                DtoConverters.GENIE_ID_PREFIX + missingId,
+                "foo"
+            ),
+            id -> {
+                if (id.equals(missingId)) {
+                    throw new GenieNotFoundException("No resource with id " + id);
+                }
+                return id;
+            },
+            search
+        );
+
+        Assert.assertThat(slice.getContent(), Matchers.containsInAnyOrder(id1, id2));
+        Assert.assertFalse(slice.getNext().isPresent());
+        Mockito.verify(search, Mockito.never()).search(Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Make sure name tags are turned into the name of the search.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canSearchWithCursorByNameTags() throws GenieException {
+        final CursorSlice<String> result = new CursorSlice<>(
+            Lists.newArrayList("result"),
+            new SearchCursor(Instant.now(), UUID.randomUUID().toString())
+        );
+        final ControllerUtils.ResourceLookup<String> lookup = id -> {
+            throw new IllegalStateException("No lookup by id expected");
+        };
+
+        Assert.assertThat(
+            ControllerUtils.searchWithCursor(
+                null,
+                Sets.newHashSet(DtoConverters.GENIE_NAME_PREFIX + "name", "foo"),
+                lookup,
+                (name, tags) -> {
+                    Assert.assertThat(name, Matchers.is("name"));
+                    Assert.assertThat(tags, Matchers.contains("foo"));
+                    return result;
+                }
+            ),
+            Matchers.is(result)
+        );
+
+        // An explicitly requested name wins over name tags
+        Assert.assertThat(
+            ControllerUtils.searchWithCursor(
+                "other",
+                Sets.newHashSet(DtoConverters.GENIE_NAME_PREFIX + "name"),
+                lookup,
+                (name, tags) -> {
+                    Assert.assertThat(name, Matchers.is("other"));
+                    Assert.assertThat(tags, Matchers.empty());
+                    return result;
+                }
+            ),
+            Matchers.is(result)
+        );
+
+        Assert.assertThat(
+            ControllerUtils.searchWithCursor(
+                null,
+                null,
+                lookup,
+                (name, tags) -> {
+                    Assert.assertNull(name);
+                    Assert.assertNull(tags);
+                    return result;
+                }
+            ),
+            Matchers.is(result)
+        );
+    }
 }
@@ -274,6 +274,7 @@ public class JobRestControllerIntegrationTests extends RestControllerIntegration
         this.waitForDone(id);
 
         this.checkJobStatus(documentationId, id);
+        this.checkJobStatuses(documentationId, id);
         this.checkJob(documentationId, id, commandArgs);
         this.checkJobOutput(documentationId, id);
         this.checkJobRequest(
@@ -410,6 +411,50 @@ public class JobRestControllerIntegrationTests extends RestControllerIntegration
             .body(STATUS_PATH, Matchers.is(JobStatus.SUCCEEDED.toString()));
     }
 
+    private void checkJobStatuses(final int documentationId, final String id) throws Exception {
+        final RestDocumentationFilter getResultFilter = RestAssuredRestDocumentation.document(
+            "{class-name}/" + documentationId + "/getJobStatuses/",
+            Snippets.CONTENT_TYPE_HEADER, // Request headers
+            RequestDocumentation.requestParameters(
+                RequestDocumentation
+                    .parameterWithName("includeExecution")
+                    .description("Whether to also return the execution information of each job. Defaults to false")
+                    .optional()
+            ), // Request query parameters
+            PayloadDocumentation.requestFields(
+                PayloadDocumentation
+                    .fieldWithPath("[]")
+                    .description("The ids of the jobs to get the status of. At most 1000")
+                    .attributes(Snippets.EMPTY_CONSTRAINTS)
+            ), // Request fields
+            Snippets.JSON_CONTENT_TYPE_HEADER, // Response Headers
+            PayloadDocumentation.responseFields(
+                PayloadDocumentation
+                    .fieldWithPath("*.status")
+                    .description(
+                        "The status of the job with the id used as field name. One of: "
+                            + Arrays.toString(JobStatus.values())
+                            + ". Ids which don't match any job are left out"
+                    )
+                    .attributes(Snippets.EMPTY_CONSTRAINTS)
+            ) // Response fields
+        );
+
+        RestAssured
+            .given(this.getRequestSpecification())
+            .filter(getResultFilter)
+            .contentType(MediaType.APPLICATION_JSON_VALUE)
+            .body(GenieObjectMapper.getMapper().writeValueAsBytes(Sets.newHashSet(id, UUID.randomUUID().toString())))
+            .when()
+            .port(this.port)
+            .post(JOBS_API + "/statuses")
+            .then()
+            .statusCode(Matchers.is(HttpStatus.OK.value()))
+            .contentType(Matchers.containsString(MediaType.APPLICATION_JSON_VALUE))
+            .body("size()", Matchers.is(1))
+            .body("'" + id + "'." + STATUS_PATH, Matchers.is(JobStatus.SUCCEEDED.toString()));
+    }
+
     private void checkJob(final int documentationId, final String id, final List<String> commandArgs) {
         final RestDocumentationFilter getResultFilter = RestAssuredRestDocumentation.document(
             "{class-name}/" + documentationId + "/getJob/",
@@ -17,8 +17,19 @@
  */
 package com.netflix.genie.web.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.ClusterCriteria;
+import com.netflix.genie.common.dto.JobExecution;
+import com.netflix.genie.common.dto.JobMetadata;
+import com.netflix.genie.common.dto.JobRequest;
+import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.dto.JobSubmissionResult;
 import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.exceptions.GeniePreconditionException;
+import com.netflix.genie.common.exceptions.GenieServerException;
 import com.netflix.genie.common.internal.util.GenieHostInfo;
 import com.netflix.genie.test.categories.UnitTest;
 import com.netflix.genie.web.hateoas.assemblers.ApplicationResourceAssembler;
@@ -33,7 +44,9 @@ import com.netflix.genie.web.properties.JobsProperties;
 import com.netflix.genie.web.resources.handlers.GenieResourceHttpRequestHandler;
 import com.netflix.genie.web.services.AttachmentService;
 import com.netflix.genie.web.services.JobCoordinatorService;
+import com.netflix.genie.web.services.JobPlacementService;
 import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.JobStatusWaitService;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.catalina.ssi.ByteArrayServletOutputStream;
@@ -42,29 +55,48 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
 import org.hamcrest.Matchers;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
 import java.nio.charset.Charset;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Unit tests for the Job rest controller.
@@ -78,7 +110,10 @@ public class JobRestControllerUnitTests {
     private static final Charset UTF_8 = Charset.forName("UTF-8");
 
     //Mocked variables
+    private JobCoordinatorService jobCoordinatorService;
     private JobSearchService jobSearchService;
+    private JobPlacementService jobPlacementService;
+    private JobStatusWaitService jobStatusWaitService;
     private String hostname;
     private RestTemplate restTemplate;
     private GenieResourceHttpRequestHandler genieResourceHttpRequestHandler;
@@ -91,7 +126,10 @@ public class JobRestControllerUnitTests {
      */
     @Before
     public void setup() {
+        this.jobCoordinatorService = Mockito.mock(JobCoordinatorService.class);
         this.jobSearchService = Mockito.mock(JobSearchService.class);
+        this.jobPlacementService = Mockito.mock(JobPlacementService.class);
+        this.jobStatusWaitService = Mockito.mock(JobStatusWaitService.class);
         this.hostname = UUID.randomUUID().toString();
         this.restTemplate = Mockito.mock(RestTemplate.class);
         this.genieResourceHttpRequestHandler = Mockito.mock(GenieResourceHttpRequestHandler.class);
@@ -102,8 +140,10 @@ public class JobRestControllerUnitTests {
         Mockito.when(registry.counter(Mockito.anyString())).thenReturn(counter);
 
         this.controller = new JobRestController(
-            Mockito.mock(JobCoordinatorService.class),
+            this.jobCoordinatorService,
             this.jobSearchService,
+            this.jobPlacementService,
+            this.jobStatusWaitService,
             Mockito.mock(AttachmentService.class),
             Mockito.mock(ApplicationResourceAssembler.class),
             Mockito.mock(ClusterResourceAssembler.class),
@@ -117,10 +157,147 @@ public class JobRestControllerUnitTests {
             this.restTemplate,
             this.genieResourceHttpRequestHandler,
             this.jobsProperties,
+            Validation.buildDefaultValidatorFactory().getValidator(),
             registry
         );
     }
 
+    /**
+     * Clean up after the tests.
+     */
+    @After
+    public void cleanup() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * Make sure a submission which doesn't fit on this node is forwarded to the node selected by the placement service.
+     *
+     * @throws GenieException On Error
+     */
+    @Test
+    public void canForwardSubmissionToAnotherNode() throws GenieException {
+        this.jobsProperties.getForwarding().setEnabled(true);
+        this.jobsProperties.getPlacement().setEnabled(true);
+        final String otherNode = UUID.randomUUID().toString();
+        final JobRequest jobRequest = this.createJobRequest(2_048);
+        final MockHttpServletRequest request = this.createSubmitRequest();
+        Mockito.when(this.jobPlacementService.selectNode(2_048)).thenReturn(Optional.of(otherNode));
+
+        final ResponseEntity<Void> response = this.controller.submitJob(jobRequest, null, null, null, request);
+
+        Assert.assertThat(response.getStatusCode(), Matchers.is(HttpStatus.ACCEPTED));
+        Assert.assertThat(
+            response.getHeaders().getLocation().toString(),
+            Matchers.is("http://localhost/api/v3/jobs/" + jobRequest.getId().orElseThrow(IllegalStateException::new))
+        );
+        Mockito
+            .verify(this.restTemplate, Mockito.times(1))
+            .execute(
+                Mockito.eq("http://" + otherNode + ":8080/api/v3/jobs"),
+                Mockito.eq(HttpMethod.POST),
+                Mockito.any(),
+                Mockito.isNull()
+            );
+        Mockito.verify(this.jobCoordinatorService, Mockito.never()).coordinateJob(Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Make sure a submission is handled locally when it fits on this node, when it was already forwarded or when the
+     * forward fails.
+     *
+     * @throws GenieException On Error
+     */
+    @Test
+    public void wontForwardSubmissionUnlessNeeded() throws GenieException {
+        this.jobsProperties.getForwarding().setEnabled(true);
+        this.jobsProperties.getPlacement().setEnabled(true);
+        final String otherNode = UUID.randomUUID().toString();
+        final MockHttpServletRequest request = this.createSubmitRequest();
+
+        Mockito.when(this.jobPlacementService.selectNode(1_024)).thenReturn(Optional.of(this.hostname));
+        this.controller.submitJob(this.createJobRequest(1_024), null, null, null, request);
+
+        Mockito.when(this.jobPlacementService.selectNode(2_048)).thenReturn(Optional.empty());
+        this.controller.submitJob(this.createJobRequest(2_048), null, null, null, request);
+
+        Mockito.when(this.jobPlacementService.selectNode(3_072)).thenReturn(Optional.of(otherNode));
+        this.controller.submitJob(this.createJobRequest(3_072), null, null, "http://another.node", request);
+
+        Mockito
+            .when(
+                this.restTemplate.execute(
+                    Mockito.anyString(),
+                    Mockito.eq(HttpMethod.POST),
+                    Mockito.any(),
+                    Mockito.<ResponseExtractor<Object>>isNull()
+                )
+            )
+            .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        this.controller.submitJob(this.createJobRequest(3_072), null, null, null, request);
+
+        Mockito.verify(this.jobCoordinatorService, Mockito.times(4)).coordinateJob(Mockito.any(), Mockito.any());
+        Mockito.verify(this.jobPlacementService, Mockito.times(3)).selectNode(Mockito.anyInt());
+    }
+
+    /**
+     * Make sure a submission only falls back to running locally when the other node provably never got it.
+     *
+     * @throws GenieException On Error
+     */
+    @Test
+    public void onlyRunsLocallyWhenForwardNeverArrived() throws GenieException {
+        this.jobsProperties.getForwarding().setEnabled(true);
+        this.jobsProperties.getPlacement().setEnabled(true);
+        final MockHttpServletRequest request = this.createSubmitRequest();
+        Mockito.when(this.jobPlacementService.selectNode(2_048)).thenReturn(Optional.of(UUID.randomUUID().toString()));
+        Mockito
+            .when(
+                this.restTemplate.execute(
+                    Mockito.anyString(),
+                    Mockito.eq(HttpMethod.POST),
+                    Mockito.any(),
+                    Mockito.<ResponseExtractor<Object>>isNull()
+                )
+            )
+            .thenThrow(new ResourceAccessException("refused", new ConnectException("Connection refused")))
+            .thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR))
+            .thenThrow(new ResourceAccessException("timeout", new SocketTimeoutException("Read timed out")));
+
+        this.controller.submitJob(this.createJobRequest(2_048), null, null, null, request);
+        Mockito.verify(this.jobCoordinatorService, Mockito.times(1)).coordinateJob(Mockito.any(), Mockito.any());
+
+        try {
+            this.controller.submitJob(this.createJobRequest(2_048), null, null, null, request);
+            Assert.fail();
+        } catch (final GenieException e) {
+            Assert.assertThat(e.getErrorCode(), Matchers.is(HttpStatus.INTERNAL_SERVER_ERROR.value()));
+        }
+        try {
+            this.controller.submitJob(this.createJobRequest(2_048), null, null, null, request);
+            Assert.fail();
+        } catch (final GenieServerException e) {
+            Assert.assertThat(e.getMessage(), Matchers.containsString("Check the status of the job"));
+        }
+        Mockito.verify(this.jobCoordinatorService, Mockito.times(1)).coordinateJob(Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Make sure the placement service isn't consulted when placement is disabled.
+     *
+     * @throws GenieException On Error
+     */
+    @Test
+    public void wontPlaceSubmissionIfNotEnabled() throws GenieException {
+        this.jobsProperties.getForwarding().setEnabled(true);
+        this.jobsProperties.getPlacement().setEnabled(false);
+
+        this.controller.submitJob(this.createJobRequest(1_024), null, null, null, this.createSubmitRequest());
+
+        Mockito.verify(this.jobPlacementService, Mockito.never()).selectNode(Mockito.anyInt());
+        Mockito.verify(this.jobCoordinatorService, Mockito.times(1)).coordinateJob(Mockito.any(), Mockito.any());
+    }
+
     /**
      * Make sure if forwarding isn't enabled we don't even try to forward no matter where the job is running.
      *
@@ -362,6 +539,183 @@ public class JobRestControllerUnitTests {
         Mockito.verify(this.genieResourceHttpRequestHandler, Mockito.times(1)).handleRequest(request, response);
     }
 
+    /**
+     * Make sure a request waiting for the status of a job to change is answered once the status changed.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canWaitForJobStatusChange() throws GenieException {
+        final String jobId = UUID.randomUUID().toString();
+        final CompletableFuture<JobStatus> future = new CompletableFuture<>();
+        Mockito
+            .when(this.jobStatusWaitService.waitWhileStatus(jobId, EnumSet.of(JobStatus.INIT, JobStatus.RUNNING)))
+            .thenReturn(future);
+
+        final DeferredResult<JsonNode> result
+            = this.controller.waitForJobStatusChange(jobId, Sets.newHashSet("INIT", "running"), 10_000L);
+        Assert.assertThat(result.hasResult(), Matchers.is(false));
+
+        future.complete(JobStatus.SUCCEEDED);
+        Assert.assertThat(result.hasResult(), Matchers.is(true));
+        Assert.assertThat(((JsonNode) result.getResult()).get("status").asText(), Matchers.is("SUCCEEDED"));
+        Mockito.verify(this.jobSearchService, Mockito.never()).getJobStatus(jobId);
+    }
+
+    /**
+     * Make sure a request which doesn't want to wait gets the current status of the job right away.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canGetJobStatusWithoutWaiting() throws GenieException {
+        final String jobId = UUID.randomUUID().toString();
+        final CompletableFuture<JobStatus> future = new CompletableFuture<>();
+        Mockito
+            .when(this.jobStatusWaitService.waitWhileStatus(jobId, EnumSet.of(JobStatus.RUNNING)))
+            .thenReturn(future);
+        Mockito.when(this.jobSearchService.getJobStatus(jobId)).thenReturn(JobStatus.RUNNING);
+
+        final DeferredResult<JsonNode> result
+            = this.controller.waitForJobStatusChange(jobId, Sets.newHashSet("RUNNING"), 0L);
+
+        Assert.assertThat(((JsonNode) result.getResult()).get("status").asText(), Matchers.is("RUNNING"));
+        Assert.assertThat(future.isCancelled(), Matchers.is(true));
+    }
+
+    /**
+     * Make sure the statuses of many jobs can be fetched at once with and without their execution information.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canGetJobStatuses() throws GenieException {
+        final String jobId1 = UUID.randomUUID().toString();
+        final String jobId2 = UUID.randomUUID().toString();
+        final Set<String> ids = Sets.newHashSet(jobId1, jobId2, UUID.randomUUID().toString());
+        Mockito
+            .when(this.jobSearchService.getJobStatuses(ids))
+            .thenReturn(ImmutableMap.of(jobId1, JobStatus.RUNNING, jobId2, JobStatus.SUCCEEDED));
+        Mockito
+            .when(this.jobSearchService.getJobExecutions(Sets.newHashSet(jobId1, jobId2)))
+            .thenReturn(ImmutableMap.of(jobId1, new JobExecution.Builder(this.hostname).withProcessId(318).build()));
+
+        JsonNode result = this.controller.getJobStatuses(ids, false);
+        Assert.assertThat(result.size(), Matchers.is(2));
+        Assert.assertThat(result.get(jobId1).get("status").asText(), Matchers.is("RUNNING"));
+        Assert.assertThat(result.get(jobId2).get("status").asText(), Matchers.is("SUCCEEDED"));
+        Assert.assertFalse(result.get(jobId1).has("execution"));
+        Mockito.verify(this.jobSearchService, Mockito.never()).getJobExecutions(Mockito.anySet());
+
+        result = this.controller.getJobStatuses(ids, true);
+        Assert.assertThat(result.get(jobId1).get("execution").get("hostName").asText(), Matchers.is(this.hostname));
+        Assert.assertThat(result.get(jobId1).get("execution").get("processId").asInt(), Matchers.is(318));
+        Assert.assertFalse(result.get(jobId2).has("execution"));
+    }
+
+    /**
+     * Make sure asking for the statuses of too many jobs at once is rejected.
+     *
+     * @throws GenieException on error
+     */
+    @Test(expected = GeniePreconditionException.class)
+    public void cantGetTooManyJobStatuses() throws GenieException {
+        final Set<String> ids = Sets.newHashSet();
+        for (int i = 0; i < 1_001; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        this.controller.getJobStatuses(ids, false);
+    }
+
+    /**
+     * Make sure a batch of jobs is submitted with ids assigned to the jobs which didn't have one.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void canSubmitJobs() throws GenieException {
+        final JobRequest jobRequestWithId = this.createJobRequest(1_024);
+        final JobRequest jobRequestWithoutId = new JobRequest.Builder(
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            Lists.newArrayList(new ClusterCriteria(Sets.newHashSet(UUID.randomUUID().toString()))),
+            Sets.newHashSet(UUID.randomUUID().toString())
+        ).build();
+        final List<JobSubmissionResult> results = Lists.newArrayList(
+            JobSubmissionResult.accepted(UUID.randomUUID().toString())
+        );
+        Mockito
+            .when(this.jobCoordinatorService.coordinateJobs(Mockito.anyList(), Mockito.any(JobMetadata.class)))
+            .thenReturn(results);
+        final MockHttpServletRequest request = this.createSubmitRequest();
+        final String userAgent = UUID.randomUUID().toString();
+
+        Assert.assertThat(
+            this.controller.submitJobs(
+                Lists.newArrayList(jobRequestWithId, jobRequestWithoutId),
+                "192.168.0.1, 10.0.0.1",
+                userAgent,
+                request
+            ),
+            Matchers.is(results)
+        );
+
+        final ArgumentCaptor<List<JobRequest>> jobRequestsCaptor = ArgumentCaptor.forClass(List.class);
+        final ArgumentCaptor<JobMetadata> jobMetadataCaptor = ArgumentCaptor.forClass(JobMetadata.class);
+        Mockito
+            .verify(this.jobCoordinatorService, Mockito.times(1))
+            .coordinateJobs(jobRequestsCaptor.capture(), jobMetadataCaptor.capture());
+        final List<JobRequest> submitted = jobRequestsCaptor.getValue();
+        Assert.assertThat(submitted.size(), Matchers.is(2));
+        Assert.assertThat(submitted.get(0), Matchers.is(jobRequestWithId));
+        Assert.assertTrue(submitted.get(1).getId().isPresent());
+        Assert.assertThat(submitted.get(1).getName(), Matchers.is(jobRequestWithoutId.getName()));
+        Assert.assertThat(jobMetadataCaptor.getValue().getClientHost().orElse(null), Matchers.is("192.168.0.1"));
+        Assert.assertThat(jobMetadataCaptor.getValue().getUserAgent().orElse(null), Matchers.is(userAgent));
+        Assert.assertThat(jobMetadataCaptor.getValue().getNumAttachments().orElse(null), Matchers.is(0));
+    }
+
+    /**
+     * Make sure submitting more jobs than allowed at once is rejected.
+     *
+     * @throws GenieException on error
+     */
+    @Test(expected = GeniePreconditionException.class)
+    public void cantSubmitTooManyJobs() throws GenieException {
+        this.jobsProperties.getBatch().setMaxSize(1);
+        try {
+            this.controller.submitJobs(
+                Lists.newArrayList(this.createJobRequest(1_024), this.createJobRequest(1_024)),
+                null,
+                null,
+                this.createSubmitRequest()
+            );
+        } finally {
+            Mockito.verifyNoMoreInteractions(this.jobCoordinatorService);
+        }
+    }
+
+    /**
+     * Make sure the whole batch is rejected if any of the job requests is invalid.
+     *
+     * @throws GenieException on error
+     */
+    @Test(expected = ConstraintViolationException.class)
+    public void cantSubmitJobsIfAnyIsInvalid() throws GenieException {
+        try {
+            this.controller.submitJobs(
+                Lists.newArrayList(this.createJobRequest(1_024), this.createJobRequest(0)),
+                null,
+                null,
+                this.createSubmitRequest()
+            );
+        } finally {
+            Mockito.verifyNoMoreInteractions(this.jobCoordinatorService);
+        }
+    }
+
     /**
      * Make sure directory forwarding happens when all conditions are met.
      *
@@ -423,6 +777,55 @@ public class JobRestControllerUnitTests {
         Mockito.verify(this.genieResourceHttpRequestHandler, Mockito.never()).handleRequest(request, response);
     }
 
+    /**
+     * Make sure the size of the file is passed on to the client when the other node can't satisfy the range asked for.
+     *
+     * @throws IOException      on error
+     * @throws ServletException on error
+     * @throws GenieException   on error
+     */
+    @Test
+    public void canHandleForwardJobOutputRequestWithUnsatisfiableRange()
+        throws IOException, ServletException, GenieException {
+        this.jobsProperties.getForwarding().setEnabled(true);
+        final String jobId = UUID.randomUUID().toString();
+        final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(this.jobSearchService.getJobHost(jobId)).thenReturn(UUID.randomUUID().toString());
+        Mockito.when(request.getRequestURI()).thenReturn("/" + jobId + "/" + UUID.randomUUID().toString());
+        Mockito.when(request.getRequestURL()).thenReturn(new StringBuffer(UUID.randomUUID().toString()));
+
+        final HttpHeaders errorHeaders = new HttpHeaders();
+        errorHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes */1024");
+        Mockito.when(
+            this.restTemplate.execute(
+                Mockito.anyString(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.anyString(),
+                Mockito.anyString()
+            )
+        )
+            .thenThrow(
+                new HttpClientErrorException(
+                    HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE,
+                    HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.getReasonPhrase(),
+                    errorHeaders,
+                    null,
+                    null
+                )
+            );
+
+        this.controller.getJobOutput(jobId, null, request, response);
+
+        Mockito.verify(response, Mockito.times(1)).setHeader(HttpHeaders.CONTENT_RANGE, "bytes */1024");
+        Mockito
+            .verify(response, Mockito.times(1))
+            .sendError(Mockito.eq(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()), Mockito.anyString());
+        Mockito.verify(this.genieResourceHttpRequestHandler, Mockito.never()).handleRequest(request, response);
+    }
+
     /**
      * Make sure directory forwarding happens when all conditions are met.
      *
@@ -493,6 +896,8 @@ public class JobRestControllerUnitTests {
         final JobRestController jobController = new JobRestController(
             Mockito.mock(JobCoordinatorService.class),
             this.jobSearchService,
+            this.jobPlacementService,
+            this.jobStatusWaitService,
             Mockito.mock(AttachmentService.class),
             Mockito.mock(ApplicationResourceAssembler.class),
             Mockito.mock(ClusterResourceAssembler.class),
@@ -506,6 +911,7 @@ public class JobRestControllerUnitTests {
             template,
             this.genieResourceHttpRequestHandler,
             this.jobsProperties,
+            Validation.buildDefaultValidatorFactory().getValidator(),
             registry
         );
         jobController.getJobOutput(jobId, forwardedFrom, request, response);
@@ -516,4 +922,23 @@ public class JobRestControllerUnitTests {
         Mockito.verify(response, Mockito.never()).sendError(Mockito.anyInt());
         Mockito.verify(this.genieResourceHttpRequestHandler, Mockito.never()).handleRequest(request, response);
     }
+
+    private JobRequest createJobRequest(final int memory) {
+        return new JobRequest.Builder(
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            Lists.newArrayList(new ClusterCriteria(Sets.newHashSet(UUID.randomUUID().toString()))),
+            Sets.newHashSet(UUID.randomUUID().toString())
+        )
+            .withId(UUID.randomUUID().toString())
+            .withMemory(memory)
+            .build();
+    }
+
+    private MockHttpServletRequest createSubmitRequest() {
+        final MockHttpServletRequest request = new MockHttpServletRequest(HttpMethod.POST.name(), "/api/v3/jobs");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return request;
+    }
 }
@@ -0,0 +1,165 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.datasources;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.genie.test.categories.UnitTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Unit tests for {@link ReadReplicaRoutingDataSource}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class ReadReplicaRoutingDataSourceUnitTests {
+
+    private static final String REPLICA_1 = "replica1";
+    private static final String REPLICA_2 = "replica2";
+
+    private DataSource replica1;
+    private TaskScheduler taskScheduler;
+    private MeterRegistry registry;
+    private ReadReplicaRoutingDataSource dataSource;
+
+    /**
+     * Setup for tests.
+     */
+    @Before
+    public void setup() {
+        this.replica1 = Mockito.mock(DataSource.class);
+        this.taskScheduler = Mockito.mock(TaskScheduler.class);
+        this.registry = new SimpleMeterRegistry();
+        this.dataSource = new ReadReplicaRoutingDataSource(
+            Mockito.mock(DataSource.class),
+            ImmutableMap.of(REPLICA_1, this.replica1, REPLICA_2, Mockito.mock(DataSource.class)),
+            1_000L,
+            "SELECT 0",
+            10_000L,
+            this.taskScheduler,
+            this.registry
+        );
+    }
+
+    /**
+     * Clean up the thread bound transaction state.
+     */
+    @After
+    public void cleanup() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    /**
+     * Make sure the lag check is scheduled when a query is configured.
+     */
+    @Test
+    public void schedulesLagCheck() {
+        Mockito
+            .verify(this.taskScheduler, Mockito.times(1))
+            .scheduleWithFixedDelay(Mockito.any(Runnable.class), Mockito.eq(10_000L));
+    }
+
+    /**
+     * Make sure the lag check isn't scheduled when no query is configured.
+     */
+    @Test
+    public void doesNotScheduleLagCheckWithoutQuery() {
+        final TaskScheduler scheduler = Mockito.mock(TaskScheduler.class);
+        new ReadReplicaRoutingDataSource(
+            Mockito.mock(DataSource.class),
+            ImmutableMap.of(REPLICA_1, this.replica1),
+            1_000L,
+            null,
+            10_000L,
+            scheduler,
+            this.registry
+        );
+        Mockito.verifyZeroInteractions(scheduler);
+    }
+
+    /**
+     * Make sure read write transactions always go to the primary.
+     */
+    @Test
+    public void readWriteGoesToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertThat(
+                this.dataSource.determineCurrentLookupKey(),
+                Matchers.is(ReadReplicaRoutingDataSource.PRIMARY_KEY)
+            );
+        }
+        Assert.assertThat(
+            this.registry
+                .counter(
+                    ReadReplicaRoutingDataSource.ROUTE_COUNTER_NAME,
+                    ReadReplicaRoutingDataSource.TARGET_TAG,
+                    ReadReplicaRoutingDataSource.PRIMARY_KEY
+                )
+                .count(),
+            Matchers.is(4.0)
+        );
+    }
+
+    /**
+     * Make sure read only transactions are spread across the replicas.
+     */
+    @Test
+    public void readOnlyGoesToReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        final Object first = this.dataSource.determineCurrentLookupKey();
+        final Object second = this.dataSource.determineCurrentLookupKey();
+        Assert.assertThat(first, Matchers.isOneOf(REPLICA_1, REPLICA_2));
+        Assert.assertThat(second, Matchers.isOneOf(REPLICA_1, REPLICA_2));
+        Assert.assertThat(first, Matchers.not(second));
+    }
+
+    /**
+     * Make sure a replica whose lag can't be determined stops serving reads and once none are left reads go to the
+     * primary.
+     *
+     * @throws SQLException on error
+     */
+    @Test
+    public void unavailableReplicasAreSkipped() throws SQLException {
+        Mockito.when(this.replica1.getConnection()).thenThrow(new SQLException("down"));
+        this.dataSource.checkReplicaLag();
+        Assert.assertFalse(this.dataSource.isReplicaAvailable(REPLICA_1));
+        Assert.assertFalse(this.dataSource.isReplicaAvailable(REPLICA_2));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Assert.assertThat(
+            this.dataSource.determineCurrentLookupKey(),
+            Matchers.is(ReadReplicaRoutingDataSource.PRIMARY_KEY)
+        );
+    }
+}
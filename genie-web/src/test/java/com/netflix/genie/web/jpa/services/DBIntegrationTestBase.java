@@ -21,15 +21,18 @@ import com.github.springtestdbunit.TransactionDbUnitTestExecutionListener;
 import com.netflix.genie.GenieTestApp;
 import com.netflix.genie.web.jpa.repositories.JpaAgentConnectionRepository;
 import com.netflix.genie.web.jpa.repositories.JpaApplicationRepository;
+import com.netflix.genie.web.jpa.repositories.JpaArchivedJobRepository;
 import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
 import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
 import com.netflix.genie.web.jpa.repositories.JpaFileRepository;
 import com.netflix.genie.web.jpa.repositories.JpaJobRepository;
+import com.netflix.genie.web.jpa.repositories.JpaNodeHeartbeatRepository;
 import com.netflix.genie.web.jpa.repositories.JpaTagRepository;
 import org.junit.After;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -66,6 +69,9 @@ public abstract class DBIntegrationTestBase {
     @Autowired
     protected JpaApplicationRepository applicationRepository;
 
+    @Autowired
+    protected JpaArchivedJobRepository archivedJobRepository;
+
     @Autowired
     protected JpaClusterRepository clusterRepository;
 
@@ -84,6 +90,12 @@ public abstract class DBIntegrationTestBase {
     @Autowired
     protected JpaAgentConnectionRepository agentConnectionRepository;
 
+    @Autowired
+    protected JpaNodeHeartbeatRepository nodeHeartbeatRepository;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
     /**
      * Clean out the db after every test.
      */
@@ -96,5 +108,9 @@ public abstract class DBIntegrationTestBase {
         this.fileRepository.deleteAll();
         this.tagRepository.deleteAll();
         this.agentConnectionRepository.deleteAll();
+        this.nodeHeartbeatRepository.deleteAll();
+        this.archivedJobRepository.deleteAll();
+        // Job ids are reserved with native statements so there's no repository to clear them with
+        this.jdbcTemplate.update("DELETE FROM job_ids");
     }
 }
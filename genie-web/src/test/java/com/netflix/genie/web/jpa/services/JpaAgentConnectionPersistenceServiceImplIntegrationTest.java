@@ -18,6 +18,7 @@
 package com.netflix.genie.web.jpa.services;
 
 import com.github.springtestdbunit.annotation.DatabaseTearDown;
+import com.google.common.collect.Sets;
 import com.netflix.genie.test.categories.IntegrationTest;
 import com.netflix.genie.web.services.AgentConnectionPersistenceService;
 import org.apache.commons.lang3.tuple.Pair;
@@ -104,6 +105,33 @@ public class JpaAgentConnectionPersistenceServiceImplIntegrationTest extends DBI
         verifyExpectedConnections();
     }
 
+    /**
+     * Make sure connections can be saved and removed in batches.
+     */
+    @Test
+    public void canSaveAndRemoveInBatches() {
+        this.agentConnectionPersistenceService.saveAgentConnection(JOB1, HOST2);
+        this.agentConnectionPersistenceService.saveAgentConnections(Sets.newHashSet(JOB1, JOB2), HOST1);
+        verifyExpectedConnections(
+            Pair.of(JOB1, HOST1),
+            Pair.of(JOB2, HOST1)
+        );
+
+        // Connections that moved to another server are left alone
+        this.agentConnectionPersistenceService.saveAgentConnection(JOB2, HOST2);
+        this.agentConnectionPersistenceService.removeAgentConnections(Sets.newHashSet(JOB1, JOB2), HOST1);
+        verifyExpectedConnections(
+            Pair.of(JOB2, HOST2)
+        );
+
+        // Empty batches are a no-op
+        this.agentConnectionPersistenceService.saveAgentConnections(Sets.newHashSet(), HOST1);
+        this.agentConnectionPersistenceService.removeAgentConnections(Sets.newHashSet(), HOST2);
+        verifyExpectedConnections(
+            Pair.of(JOB2, HOST2)
+        );
+    }
+
     @SafeVarargs
     private final void verifyExpectedConnections(final Pair<String, String>... expectedConnections) {
         Assert.assertThat(this.agentConnectionRepository.count(), Matchers.is((long) expectedConnections.length));
@@ -39,6 +39,8 @@ import com.netflix.genie.common.util.GenieObjectMapper;
 import com.netflix.genie.test.categories.IntegrationTest;
 import com.netflix.genie.web.services.ClusterPersistenceService;
 import com.netflix.genie.web.services.CommandPersistenceService;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
@@ -178,6 +180,40 @@ public class JpaClusterPersistenceServiceImplIntegrationTests extends DBIntegrat
         Assert.assertEquals(CLUSTER_1_ID, clusters.getContent().get(1).getId());
     }
 
+    /**
+     * Test the keyset version of the get clusters method walks all the results newest first.
+     */
+    @Test
+    public void testGetClustersWithCursor() {
+        CursorSlice<Cluster> clusters = this.service.getClusters(null, null, null, null, null, null, 1);
+        Assert.assertThat(clusters.getContent().size(), Matchers.is(1));
+        Assert.assertThat(clusters.getContent().get(0).getId(), Matchers.is(CLUSTER_2_ID));
+        Assert.assertTrue(clusters.getNext().isPresent());
+
+        final SearchCursor cursor = clusters.getNext().get();
+        Assert.assertThat(cursor.getId(), Matchers.is(CLUSTER_2_ID));
+        clusters = this.service.getClusters(null, null, null, null, null, cursor, 1);
+        Assert.assertThat(clusters.getContent().size(), Matchers.is(1));
+        Assert.assertThat(clusters.getContent().get(0).getId(), Matchers.is(CLUSTER_1_ID));
+        Assert.assertFalse(clusters.getNext().isPresent());
+
+        clusters = this.service.getClusters(null, null, null, null, null, null, 10);
+        Assert.assertThat(clusters.getContent().size(), Matchers.is(2));
+        Assert.assertFalse(clusters.getNext().isPresent());
+
+        clusters = this.service.getClusters(
+            null,
+            null,
+            Sets.newHashSet("somethingThatWouldNeverReallyExist"),
+            null,
+            null,
+            null,
+            10
+        );
+        Assert.assertTrue(clusters.getContent().isEmpty());
+        Assert.assertFalse(clusters.getNext().isPresent());
+    }
+
     /**
      * Test the get clusters method.
      */
@@ -20,6 +20,7 @@ package com.netflix.genie.web.jpa.services;
 import com.github.springtestdbunit.annotation.DatabaseSetup;
 import com.github.springtestdbunit.annotation.DatabaseTearDown;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
 import com.netflix.genie.common.dto.ClusterCriteria;
 import com.netflix.genie.common.dto.ClusterStatus;
@@ -56,6 +57,7 @@ import com.netflix.genie.web.services.ClusterPersistenceService;
 import com.netflix.genie.web.services.CommandPersistenceService;
 import com.netflix.genie.web.services.JobPersistenceService;
 import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
 import org.assertj.core.util.Lists;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
@@ -88,6 +90,7 @@ import java.util.UUID;
 @DatabaseTearDown("cleanup.xml")
 public class JpaJobPersistenceImplIntegrationTests extends DBIntegrationTestBase {
 
+    private static final String JOB_2_ID = "job2";
     private static final String JOB_3_ID = "job3";
 
     // Job Request fields
@@ -161,6 +164,8 @@ public class JpaJobPersistenceImplIntegrationTests extends DBIntegrationTestBase
     private CommandPersistenceService commandPersistenceService;
     @Autowired
     private ApplicationPersistenceService applicationPersistenceService;
+    @Autowired
+    private NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
 
     /**
      * Setup.
@@ -234,6 +239,60 @@ public class JpaJobPersistenceImplIntegrationTests extends DBIntegrationTestBase
         Assert.assertTrue(this.jobRepository.findByUniqueId(JOB_3_ID).isPresent());
     }
 
+    /**
+     * Make sure we can delete jobs that were created before a given date one id range at a time.
+     */
+    @Test
+    public void canDeleteJobsCreatedBeforeDateInIdRange() {
+        final Instant cal = ZonedDateTime
+            .of(2016, Month.JANUARY.getValue(), 1, 0, 0, 0, 0, ZoneId.of("UTC"))
+            .toInstant();
+
+        final Range<Long> idRange = this.jobPersistenceService
+            .getIdRangeOfJobsCreatedBeforeDate(cal)
+            .orElseThrow(IllegalStateException::new);
+        Assert.assertThat(idRange, Matchers.is(Range.closed(1L, 2L)));
+
+        Assert.assertThat(
+            this.jobPersistenceService.deleteJobsCreatedBeforeDateInIdRange(cal, Range.closed(1L, 1L)),
+            Matchers.is(1L)
+        );
+        Assert.assertThat(this.jobRepository.count(), Matchers.is(2L));
+        Assert.assertThat(
+            this.jobPersistenceService.deleteJobsCreatedBeforeDateInIdRange(cal, Range.closed(2L, 3L)),
+            Matchers.is(1L)
+        );
+        Assert.assertThat(this.jobRepository.count(), Matchers.is(1L));
+        Assert.assertTrue(this.jobRepository.findByUniqueId(JOB_3_ID).isPresent());
+        Assert.assertFalse(this.jobPersistenceService.getIdRangeOfJobsCreatedBeforeDate(cal).isPresent());
+    }
+
+    /**
+     * Make sure the active jobs on nodes which haven't sent a heartbeat recently are failed.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canFailActiveJobsOnNodesWithoutHeartbeatSince() throws GenieException {
+        final Instant now = Instant.now();
+        this.nodeHeartbeatPersistenceService.saveHeartbeat("b.netflix.com", now, 1, 1024);
+
+        Assert.assertThat(
+            this.jobPersistenceService.failActiveJobsOnNodesWithoutHeartbeatSince(
+                now.minusSeconds(60L),
+                JobExecution.LOST_EXIT_CODE,
+                "lost"
+            ),
+            Matchers.contains(JOB_2_ID)
+        );
+        Assert.assertThat(this.jobSearchService.getJobStatus(JOB_2_ID), Matchers.is(JobStatus.FAILED));
+        Assert.assertThat(
+            this.jobSearchService.getJobExecution(JOB_2_ID).getExitCode().orElseThrow(IllegalStateException::new),
+            Matchers.is(JobExecution.LOST_EXIT_CODE)
+        );
+        Assert.assertThat(this.jobSearchService.getJobStatus(JOB_3_ID), Matchers.is(JobStatus.RUNNING));
+    }
+
     /**
      * Make sure a job can be saved AND criterion are saved properly.
      *
@@ -349,6 +408,41 @@ public class JpaJobPersistenceImplIntegrationTests extends DBIntegrationTestBase
         }
     }
 
+    /**
+     * Make sure the id of a job stays reserved after the job leaves the jobs table until the reservation is released.
+     *
+     * @throws GenieException on error
+     * @throws IOException    on JSON error
+     */
+    @Test
+    public void canReserveAndReleaseJobIds() throws GenieException, IOException {
+        final String jobId = UUID.randomUUID().toString();
+        final JobRequest jobRequest = this.createJobRequest(jobId);
+        final JobRequestMetadata jobRequestMetadata = this.createJobRequestMetadata();
+
+        Assert.assertThat(
+            this.jobPersistenceService.saveJobRequest(jobRequest, jobRequestMetadata),
+            Matchers.is(jobId)
+        );
+        // As it would be when the job is moved into the archive or its partition is dropped
+        this.jobRepository.deleteAll();
+        try {
+            this.jobPersistenceService.saveJobRequest(jobRequest, jobRequestMetadata);
+            Assert.fail();
+        } catch (final GenieIdAlreadyExistsException e) {
+            // Expected
+        }
+
+        Assert.assertThat(
+            this.jobPersistenceService.releaseBatchOfJobIdsCreatedBefore(Instant.now().plusSeconds(60L), 10),
+            Matchers.is(1L)
+        );
+        Assert.assertThat(
+            this.jobPersistenceService.saveJobRequest(jobRequest, jobRequestMetadata),
+            Matchers.is(jobId)
+        );
+    }
+
     /**
      * Make sure saving and retrieving a job specification works as expected.
      *
@@ -19,6 +19,7 @@ package com.netflix.genie.web.jpa.services;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.ClusterCriteria;
 import com.netflix.genie.common.dto.Job;
 import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobMetadata;
@@ -37,18 +38,23 @@ import com.netflix.genie.common.internal.exceptions.unchecked.GenieInvalidStatus
 import com.netflix.genie.common.internal.exceptions.unchecked.GenieJobAlreadyClaimedException;
 import com.netflix.genie.common.internal.exceptions.unchecked.GenieJobNotFoundException;
 import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.events.GenieEventBus;
+import com.netflix.genie.web.events.JobStatusChangedEvent;
 import com.netflix.genie.web.jpa.entities.ApplicationEntity;
 import com.netflix.genie.web.jpa.entities.ClusterEntity;
 import com.netflix.genie.web.jpa.entities.CommandEntity;
 import com.netflix.genie.web.jpa.entities.FileEntity;
 import com.netflix.genie.web.jpa.entities.JobEntity;
 import com.netflix.genie.web.jpa.entities.TagEntity;
+import com.netflix.genie.web.jpa.entities.projections.IdProjection;
 import com.netflix.genie.web.jpa.entities.projections.v4.JobSpecificationProjection;
 import com.netflix.genie.web.jpa.entities.projections.v4.V4JobRequestProjection;
 import com.netflix.genie.web.jpa.repositories.JpaApplicationRepository;
+import com.netflix.genie.web.jpa.repositories.JpaArchivedJobRepository;
 import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
 import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
 import com.netflix.genie.web.jpa.repositories.JpaJobRepository;
+import com.netflix.genie.web.services.ActiveJobCountService;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Before;
@@ -57,6 +63,8 @@ import org.junit.experimental.categories.Category;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.Instant;
 import java.util.List;
@@ -82,12 +90,15 @@ public class JpaJobPersistenceServiceImplUnitTests {
     private static final String JOB_1_STATUS_MSG = "Default message";
 
     private JpaJobRepository jobRepository;
+    private JpaArchivedJobRepository archivedJobRepository;
     private JpaApplicationRepository applicationRepository;
     private JpaClusterRepository clusterRepository;
     private JpaCommandRepository commandRepository;
     private JpaFilePersistenceService filePersistenceService;
     private JpaTagPersistenceService tagPersistenceService;
 
+    private ActiveJobCountService activeJobCountService;
+    private GenieEventBus genieEventBus;
     private JpaJobPersistenceServiceImpl jobPersistenceService;
 
     /**
@@ -96,11 +107,14 @@ public class JpaJobPersistenceServiceImplUnitTests {
     @Before
     public void setup() {
         this.jobRepository = Mockito.mock(JpaJobRepository.class);
+        this.archivedJobRepository = Mockito.mock(JpaArchivedJobRepository.class);
         this.applicationRepository = Mockito.mock(JpaApplicationRepository.class);
         this.clusterRepository = Mockito.mock(JpaClusterRepository.class);
         this.commandRepository = Mockito.mock(JpaCommandRepository.class);
         this.tagPersistenceService = Mockito.mock(JpaTagPersistenceService.class);
         this.filePersistenceService = Mockito.mock(JpaFilePersistenceService.class);
+        this.activeJobCountService = Mockito.mock(ActiveJobCountService.class);
+        this.genieEventBus = Mockito.mock(GenieEventBus.class);
 
         this.jobPersistenceService = new JpaJobPersistenceServiceImpl(
             this.tagPersistenceService,
@@ -108,7 +122,10 @@ public class JpaJobPersistenceServiceImplUnitTests {
             this.applicationRepository,
             this.clusterRepository,
             this.commandRepository,
-            this.jobRepository
+            this.jobRepository,
+            this.archivedJobRepository,
+            this.activeJobCountService,
+            this.genieEventBus
         );
     }
 
@@ -274,6 +291,191 @@ public class JpaJobPersistenceServiceImplUnitTests {
         this.jobPersistenceService.createJob(jobRequest, metadata, job, execution);
     }
 
+    /**
+     * Make sure a job whose id is already reserved, even by a job which has since been archived, is rejected before
+     * attempting to save it.
+     *
+     * @throws GenieException For any problem
+     */
+    @Test
+    public void testCreateJobIdAlreadyReserved() throws GenieException {
+        final JobRequest jobRequest = new JobRequest.Builder(
+            JOB_1_NAME,
+            JOB_1_USER,
+            JOB_1_VERSION,
+            Lists.newArrayList(),
+            Sets.newHashSet()
+        )
+            .withId(JOB_1_ID)
+            .withCommandArgs(JOB_1_COMMAND_ARGS)
+            .build();
+        final JobMetadata metadata = new JobMetadata.Builder().build();
+        final Job job = new Job.Builder(JOB_1_NAME, JOB_1_USER, JOB_1_VERSION).build();
+        final JobExecution execution = new JobExecution.Builder(UUID.randomUUID().toString()).build();
+
+        Mockito
+            .doThrow(new DuplicateKeyException("Duplicate Key"))
+            .when(this.jobRepository)
+            .reserveUniqueIds(Mockito.eq(Lists.newArrayList(JOB_1_ID)), Mockito.any(Instant.class));
+        try {
+            this.jobPersistenceService.createJob(jobRequest, metadata, job, execution);
+            Assert.fail();
+        } catch (final GenieConflictException e) {
+            Mockito.verify(this.jobRepository, Mockito.never()).save(Mockito.any(JobEntity.class));
+        }
+    }
+
+    /**
+     * Make sure many jobs can be created at once with each shared tag and file only looked up once.
+     *
+     * @throws GenieException For any problem
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void canCreateJobs() throws GenieException {
+        final List<JobRequest> jobRequests = Lists.newArrayList();
+        final List<Job> jobs = Lists.newArrayList();
+        final List<JobExecution> jobExecutions = Lists.newArrayList();
+        for (int i = 0; i < 3; i++) {
+            jobRequests.add(
+                new JobRequest.Builder(
+                    JOB_1_NAME,
+                    JOB_1_USER,
+                    JOB_1_VERSION,
+                    Lists.newArrayList(new ClusterCriteria(Sets.newHashSet("sched:adhoc", "type:yarn"))),
+                    Sets.newHashSet("type:spark")
+                )
+                    .withId(UUID.randomUUID().toString())
+                    .withTags(Sets.newHashSet("backfill"))
+                    .withDependencies(Sets.newHashSet("s3://bucket/app.jar"))
+                    .build()
+            );
+            jobs.add(new Job.Builder(JOB_1_NAME, JOB_1_USER, JOB_1_VERSION).build());
+            jobExecutions.add(new JobExecution.Builder(UUID.randomUUID().toString()).build());
+        }
+        Mockito
+            .when(this.tagPersistenceService.getTag(Mockito.anyString()))
+            .thenAnswer(invocation -> Optional.of(new TagEntity(invocation.getArgument(0))));
+        Mockito
+            .when(this.filePersistenceService.getFile(Mockito.anyString()))
+            .thenAnswer(invocation -> Optional.of(new FileEntity(invocation.getArgument(0))));
+
+        this.jobPersistenceService.createJobs(jobRequests, new JobMetadata.Builder().build(), jobs, jobExecutions);
+
+        Mockito
+            .verify(this.jobRepository, Mockito.times(1))
+            .reserveUniqueIds(
+                Mockito.eq(
+                    jobRequests.stream().map(request -> request.getId().orElse(null)).collect(Collectors.toList())
+                ),
+                Mockito.any(Instant.class)
+            );
+        final ArgumentCaptor<List<JobEntity>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(this.jobRepository, Mockito.times(1)).saveAll(captor.capture());
+        Assert.assertThat(
+            captor.getValue().stream().map(JobEntity::getUniqueId).collect(Collectors.toList()),
+            Matchers.is(jobRequests.stream().map(request -> request.getId().orElse(null)).collect(Collectors.toList()))
+        );
+        for (final String tag : Lists.newArrayList("sched:adhoc", "type:yarn", "type:spark", "backfill")) {
+            Mockito.verify(this.tagPersistenceService, Mockito.times(1)).getTag(tag);
+        }
+        Mockito.verify(this.filePersistenceService, Mockito.times(1)).getFile("s3://bucket/app.jar");
+        Mockito
+            .verify(this.genieEventBus, Mockito.times(3))
+            .publishSynchronousEvent(Mockito.any(JobStatusChangedEvent.class));
+    }
+
+    /**
+     * Make sure no job is created when any job of the batch already exists or an id is used twice.
+     *
+     * @throws GenieException For any problem
+     */
+    @Test
+    public void cantCreateJobsWithConflictingIds() throws GenieException {
+        final JobRequest jobRequest = new JobRequest.Builder(
+            JOB_1_NAME,
+            JOB_1_USER,
+            JOB_1_VERSION,
+            Lists.newArrayList(),
+            Sets.newHashSet()
+        )
+            .withId(JOB_1_ID)
+            .build();
+        final JobMetadata metadata = new JobMetadata.Builder().build();
+        final Job job = new Job.Builder(JOB_1_NAME, JOB_1_USER, JOB_1_VERSION).build();
+        final JobExecution execution = new JobExecution.Builder(UUID.randomUUID().toString()).build();
+
+        try {
+            this.jobPersistenceService.createJobs(
+                Lists.newArrayList(jobRequest, jobRequest),
+                metadata,
+                Lists.newArrayList(job, job),
+                Lists.newArrayList(execution, execution)
+            );
+            Assert.fail();
+        } catch (final GenieConflictException e) {
+            Mockito.verify(this.jobRepository, Mockito.never()).saveAll(Mockito.anyIterable());
+        }
+
+        Mockito
+            .doThrow(new DuplicateKeyException("Duplicate Key"))
+            .when(this.jobRepository)
+            .reserveUniqueIds(Mockito.eq(Lists.newArrayList(JOB_1_ID)), Mockito.any(Instant.class));
+        try {
+            this.jobPersistenceService.createJobs(
+                Lists.newArrayList(jobRequest),
+                metadata,
+                Lists.newArrayList(job),
+                Lists.newArrayList(execution)
+            );
+            Assert.fail();
+        } catch (final GenieConflictException e) {
+            Mockito.verify(this.jobRepository, Mockito.never()).saveAll(Mockito.anyIterable());
+        }
+    }
+
+    /**
+     * Make sure nothing is written to the archive when there are no jobs to archive.
+     */
+    @Test
+    public void testArchiveJobsFinishedBeforeNoJobs() {
+        final Instant date = Instant.now();
+        Mockito
+            .when(
+                this.jobRepository.findByStatusInAndFinishedBefore(
+                    Mockito.eq(JobStatus.getFinishedStatuses()),
+                    Mockito.eq(date),
+                    Mockito.any(Pageable.class)
+                )
+            )
+            .thenReturn(new SliceImpl<>(Lists.newArrayList()));
+
+        Assert.assertThat(this.jobPersistenceService.archiveJobsFinishedBefore(date, 10), Matchers.is(0L));
+        Mockito.verify(this.archivedJobRepository, Mockito.never()).saveAll(Mockito.anyIterable());
+        Mockito.verify(this.jobRepository, Mockito.never()).purgeByIdIn(Mockito.anyList());
+    }
+
+    /**
+     * Make sure a batch of old archived jobs is deleted with a single statement.
+     */
+    @Test
+    public void canDeleteBatchOfArchivedJobsCreatedBefore() {
+        final Instant date = Instant.now();
+        final IdProjection id1 = Mockito.mock(IdProjection.class);
+        Mockito.when(id1.getId()).thenReturn(1L);
+        final IdProjection id2 = Mockito.mock(IdProjection.class);
+        Mockito.when(id2.getId()).thenReturn(2L);
+        Mockito
+            .when(this.archivedJobRepository.findByJobCreatedBefore(Mockito.eq(date), Mockito.any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(Lists.newArrayList(id1, id2)))
+            .thenReturn(new SliceImpl<>(Lists.newArrayList()));
+        Mockito.when(this.archivedJobRepository.deleteByIdIn(Lists.newArrayList(1L, 2L))).thenReturn(2);
+
+        Assert.assertThat(this.jobPersistenceService.deleteBatchOfArchivedJobsCreatedBefore(date, 2), Matchers.is(2L));
+        Assert.assertThat(this.jobPersistenceService.deleteBatchOfArchivedJobsCreatedBefore(date, 2), Matchers.is(0L));
+        Mockito.verify(this.archivedJobRepository, Mockito.times(1)).deleteByIdIn(Mockito.anyList());
+    }
+
     /**
      * Test the updateJobStatus method.
      *
@@ -352,6 +554,94 @@ public class JpaJobPersistenceServiceImplUnitTests {
         Assert.assertFalse(jobEntity.getStarted().isPresent());
     }
 
+    /**
+     * Make sure status changes are reported to the active job count service.
+     *
+     * @throws GenieException For any problem
+     */
+    @Test
+    public void canReportStatusChange() throws GenieException {
+        final String id = UUID.randomUUID().toString();
+        final JobEntity jobEntity = new JobEntity();
+        jobEntity.setUniqueId(id);
+        jobEntity.setUser(JOB_1_USER);
+        jobEntity.setStatus(JobStatus.RUNNING);
+
+        Mockito.when(this.jobRepository.findByUniqueId(Mockito.eq(id))).thenReturn(Optional.of(jobEntity));
+        this.jobPersistenceService.updateJobStatus(id, JobStatus.SUCCEEDED, JOB_1_STATUS_MSG);
+        // Finished jobs can't change status anymore so there is nothing more to report
+        this.jobPersistenceService.updateJobStatus(id, JobStatus.FAILED, JOB_1_STATUS_MSG);
+
+        Mockito
+            .verify(this.activeJobCountService, Mockito.times(1))
+            .jobStatusChanged(JOB_1_USER, JobStatus.RUNNING, JobStatus.SUCCEEDED);
+        Mockito.verifyNoMoreInteractions(this.activeJobCountService);
+
+        final ArgumentCaptor<JobStatusChangedEvent> eventCaptor = ArgumentCaptor.forClass(JobStatusChangedEvent.class);
+        Mockito.verify(this.genieEventBus, Mockito.times(1)).publishSynchronousEvent(eventCaptor.capture());
+        Assert.assertThat(eventCaptor.getValue().getId(), Matchers.is(id));
+        Assert.assertThat(eventCaptor.getValue().getPreviousStatus(), Matchers.is(JobStatus.RUNNING));
+        Assert.assertThat(eventCaptor.getValue().getNewStatus(), Matchers.is(JobStatus.SUCCEEDED));
+    }
+
+    /**
+     * Make sure the jobs on nodes without a heartbeat are failed through the regular status change so the active job
+     * counts and status listeners see them finish.
+     */
+    @Test
+    public void canFailActiveJobsOnNodesWithoutHeartbeatSince() {
+        final Instant threshold = Instant.now().minusSeconds(60L);
+        final String runningId = UUID.randomUUID().toString();
+        final JobEntity runningJob = new JobEntity();
+        runningJob.setUniqueId(runningId);
+        runningJob.setUser(JOB_1_USER);
+        runningJob.setStatus(JobStatus.RUNNING);
+        runningJob.setStarted(Instant.EPOCH);
+        // Finished between the query and the update so should be left alone
+        final String finishedId = UUID.randomUUID().toString();
+        final JobEntity finishedJob = new JobEntity();
+        finishedJob.setUniqueId(finishedId);
+        finishedJob.setUser(JOB_1_USER);
+        finishedJob.setStatus(JobStatus.SUCCEEDED);
+
+        Mockito
+            .when(
+                this.jobRepository.findUniqueIdsOfActiveJobsOnNodesWithoutHeartbeatSince(
+                    JobStatus.getActiveStatuses(),
+                    threshold
+                )
+            )
+            .thenReturn(Sets.newHashSet(runningId, finishedId));
+        Mockito.when(this.jobRepository.findByUniqueId(runningId)).thenReturn(Optional.of(runningJob));
+        Mockito.when(this.jobRepository.findByUniqueId(finishedId)).thenReturn(Optional.of(finishedJob));
+
+        Assert.assertThat(
+            this.jobPersistenceService.failActiveJobsOnNodesWithoutHeartbeatSince(
+                threshold,
+                JobExecution.LOST_EXIT_CODE,
+                JOB_1_STATUS_MSG
+            ),
+            Matchers.contains(runningId)
+        );
+
+        Assert.assertThat(runningJob.getStatus(), Matchers.is(JobStatus.FAILED));
+        Assert.assertThat(runningJob.getStatusMsg(), Matchers.is(Optional.of(JOB_1_STATUS_MSG)));
+        Assert.assertThat(runningJob.getExitCode(), Matchers.is(Optional.of(JobExecution.LOST_EXIT_CODE)));
+        Assert.assertTrue(runningJob.getFinished().isPresent());
+        Assert.assertThat(finishedJob.getStatus(), Matchers.is(JobStatus.SUCCEEDED));
+
+        Mockito
+            .verify(this.activeJobCountService, Mockito.times(1))
+            .jobStatusChanged(JOB_1_USER, JobStatus.RUNNING, JobStatus.FAILED);
+        Mockito.verifyNoMoreInteractions(this.activeJobCountService);
+
+        final ArgumentCaptor<JobStatusChangedEvent> eventCaptor = ArgumentCaptor.forClass(JobStatusChangedEvent.class);
+        Mockito.verify(this.genieEventBus, Mockito.times(1)).publishSynchronousEvent(eventCaptor.capture());
+        Assert.assertThat(eventCaptor.getValue().getId(), Matchers.is(runningId));
+        Assert.assertThat(eventCaptor.getValue().getPreviousStatus(), Matchers.is(JobStatus.RUNNING));
+        Assert.assertThat(eventCaptor.getValue().getNewStatus(), Matchers.is(JobStatus.FAILED));
+    }
+
     /**
      * Test the updateJobStatus with status KILLED.
      *
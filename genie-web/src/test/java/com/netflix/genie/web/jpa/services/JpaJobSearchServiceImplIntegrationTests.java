@@ -19,9 +19,11 @@ package com.netflix.genie.web.jpa.services;
 
 import com.github.springtestdbunit.annotation.DatabaseSetup;
 import com.github.springtestdbunit.annotation.DatabaseTearDown;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.netflix.genie.common.dto.Application;
 import com.netflix.genie.common.dto.Job;
+import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobMetadata;
 import com.netflix.genie.common.dto.JobStatus;
 import com.netflix.genie.common.dto.search.JobSearchResult;
@@ -29,7 +31,10 @@ import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.exceptions.GenieNotFoundException;
 import com.netflix.genie.test.categories.IntegrationTest;
 import com.netflix.genie.test.suppliers.RandomSuppliers;
+import com.netflix.genie.web.services.JobPersistenceService;
 import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.util.CursorSlice;
+import com.netflix.genie.web.util.SearchCursor;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
@@ -40,10 +45,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import javax.annotation.Nullable;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Integration tests for the Job Search Service using JPA.
@@ -64,6 +74,9 @@ public class JpaJobSearchServiceImplIntegrationTests extends DBIntegrationTestBa
     @Autowired
     private JobSearchService service;
 
+    @Autowired
+    private JobPersistenceService jobPersistenceService;
+
     /**
      * Make sure we can search jobs successfully.
      */
@@ -231,6 +244,47 @@ public class JpaJobSearchServiceImplIntegrationTests extends DBIntegrationTestBa
         Assert.assertTrue(jobs.getContent().isEmpty());
     }
 
+    /**
+     * Make sure a keyset search pages through every job exactly once, including across jobs created at the same time.
+     */
+    @Test
+    public void canFindJobsWithCursor() {
+        final List<String> ids = Lists.newArrayList();
+        SearchCursor cursor = null;
+        SearchCursor job3Cursor = null;
+        do {
+            final CursorSlice<JobSearchResult> slice = this.findJobs(cursor, 1);
+            Assert.assertThat(slice.getContent().size(), Matchers.is(1));
+            ids.add(slice.getContent().get(0).getId());
+            cursor = slice.getNext().orElse(null);
+            if (job3Cursor == null) {
+                job3Cursor = cursor;
+            }
+        } while (cursor != null);
+        Assert.assertThat(ids, Matchers.contains(JOB_3_ID, JOB_2_ID, JOB_1_ID));
+        Assert.assertNotNull(job3Cursor);
+        Assert.assertThat(job3Cursor.getId(), Matchers.is(JOB_3_ID));
+
+        // Resuming after a job created at the same time as job 3 but with a greater id must still return job 3
+        final CursorSlice<JobSearchResult> sameCreated = this.findJobs(
+            new SearchCursor(job3Cursor.getCreated(), JOB_3_ID + "a"),
+            2
+        );
+        Assert.assertThat(
+            sameCreated.getContent().stream().map(JobSearchResult::getId).collect(Collectors.toList()),
+            Matchers.contains(JOB_3_ID, JOB_2_ID)
+        );
+        Assert.assertTrue(sameCreated.getNext().isPresent());
+
+        // While resuming after job 3 itself must skip it
+        final CursorSlice<JobSearchResult> afterJob3 = this.findJobs(job3Cursor, 10);
+        Assert.assertThat(
+            afterJob3.getContent().stream().map(JobSearchResult::getId).collect(Collectors.toList()),
+            Matchers.contains(JOB_2_ID, JOB_1_ID)
+        );
+        Assert.assertFalse(afterJob3.getNext().isPresent());
+    }
+
     /**
      * Make sure we can get the correct number of jobs which are active on a given host.
      */
@@ -320,6 +374,60 @@ public class JpaJobSearchServiceImplIntegrationTests extends DBIntegrationTestBa
         }
     }
 
+    /**
+     * Make sure the finish times of many jobs can be fetched at once.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canGetJobFinishTimes() throws GenieException {
+        Assert.assertTrue(this.service.getJobFinishTimes(Sets.newHashSet()).isEmpty());
+
+        final Map<String, Optional<Instant>> finishTimes = this.service.getJobFinishTimes(
+            Sets.newHashSet(JOB_1_ID, JOB_2_ID, JOB_3_ID, UUID.randomUUID().toString())
+        );
+        Assert.assertThat(finishTimes.keySet(), Matchers.containsInAnyOrder(JOB_1_ID, JOB_2_ID, JOB_3_ID));
+        // Job 1 is done but never recorded a finish time while the other two are still active
+        Assert.assertFalse(finishTimes.get(JOB_1_ID).isPresent());
+        Assert.assertFalse(finishTimes.get(JOB_2_ID).isPresent());
+        Assert.assertFalse(finishTimes.get(JOB_3_ID).isPresent());
+    }
+
+    /**
+     * Make sure the statuses of several jobs can be read at once.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canGetJobStatuses() throws GenieException {
+        Assert.assertTrue(this.service.getJobStatuses(Sets.newHashSet()).isEmpty());
+
+        final Map<String, JobStatus> statuses = this.service.getJobStatuses(
+            Sets.newHashSet(JOB_1_ID, JOB_2_ID, JOB_3_ID, UUID.randomUUID().toString())
+        );
+        Assert.assertThat(statuses.size(), Matchers.is(3));
+        Assert.assertThat(statuses.get(JOB_1_ID), Matchers.is(JobStatus.SUCCEEDED));
+        Assert.assertThat(statuses.get(JOB_2_ID), Matchers.is(JobStatus.INIT));
+        Assert.assertThat(statuses.get(JOB_3_ID), Matchers.is(JobStatus.RUNNING));
+    }
+
+    /**
+     * Make sure the execution information of many jobs can be read at once.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canGetJobExecutions() throws GenieException {
+        Assert.assertTrue(this.service.getJobExecutions(Sets.newHashSet()).isEmpty());
+
+        final Map<String, JobExecution> executions = this.service.getJobExecutions(
+            Sets.newHashSet(JOB_1_ID, JOB_3_ID, UUID.randomUUID().toString())
+        );
+        Assert.assertThat(executions.size(), Matchers.is(2));
+        Assert.assertThat(executions.get(JOB_1_ID).getProcessId().orElse(null), Matchers.is(317));
+        Assert.assertThat(executions.get(JOB_3_ID).getProcessId().orElse(null), Matchers.is(319));
+    }
+
     /**
      * Make sure the getting job request method works.
      *
@@ -419,6 +527,73 @@ public class JpaJobSearchServiceImplIntegrationTests extends DBIntegrationTestBa
         Assert.assertThat(applications.get(1).getId().orElseGet(RandomSuppliers.STRING), Matchers.is("app2"));
     }
 
+    /**
+     * Make sure every lookup by id still works once a job has been moved into the archive while searches no longer
+     * find it.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canGetArchivedJob() throws GenieException {
+        this.jdbcTemplate.update(
+            "UPDATE jobs SET finished = ? WHERE unique_id = ?",
+            Timestamp.from(Instant.parse("2015-08-11T02:59:00Z")),
+            JOB_1_ID
+        );
+        Assert.assertThat(this.jobPersistenceService.archiveJobsFinishedBefore(Instant.now(), 10), Matchers.is(1L));
+        Assert.assertThat(this.jobRepository.existsByUniqueId(JOB_1_ID), Matchers.is(false));
+
+        Assert.assertThat(this.service.getJob(JOB_1_ID).getName(), Matchers.is("testSparkJob"));
+        Assert.assertThat(this.service.getJobStatus(JOB_1_ID), Matchers.is(JobStatus.SUCCEEDED));
+        Assert.assertThat(this.service.getJobExecution(JOB_1_ID).getProcessId().orElse(null), Matchers.is(317));
+        Assert.assertThat(
+            this.service.getJobRequest(JOB_1_ID).getCommandArgs().orElseThrow(IllegalArgumentException::new),
+            Matchers.is("-f query.q")
+        );
+        Assert.assertThat(this.service.getJobMetadata(JOB_1_ID).getNumAttachments().orElse(null), Matchers.is(2));
+        Assert.assertThat(
+            this.service.getJobCluster(JOB_1_ID).getId().orElseThrow(IllegalArgumentException::new),
+            Matchers.is("cluster1")
+        );
+        Assert.assertThat(
+            this.service.getJobCommand(JOB_1_ID).getId().orElseThrow(IllegalArgumentException::new),
+            Matchers.is("command1")
+        );
+        final List<Application> applications = this.service.getJobApplications(JOB_1_ID);
+        Assert.assertThat(applications.size(), Matchers.is(2));
+        Assert.assertThat(applications.get(0).getId().orElseGet(RandomSuppliers.STRING), Matchers.is("app1"));
+        Assert.assertThat(applications.get(1).getId().orElseGet(RandomSuppliers.STRING), Matchers.is("app3"));
+        Assert.assertThat(this.service.getJobHost(JOB_1_ID), Matchers.is("a.netflix.com"));
+        Assert.assertThat(
+            this.service.getJobStatuses(Sets.newHashSet(JOB_1_ID, JOB_2_ID)).get(JOB_1_ID),
+            Matchers.is(JobStatus.SUCCEEDED)
+        );
+
+        Assert.assertThat(
+            this.service
+                .findJobs(
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    PageRequest.of(0, 10)
+                )
+                .getTotalElements(),
+            Matchers.is(2L)
+        );
+    }
+
     /**
      * Make sure we can get the correct number of jobs which are active for a given user.
      *
@@ -430,6 +605,26 @@ public class JpaJobSearchServiceImplIntegrationTests extends DBIntegrationTestBa
         Assert.assertThat(this.service.getActiveJobCountForUser("tgianos"), Matchers.is(2L));
     }
 
+    /**
+     * Make sure we can get the number of active jobs of every user at once.
+     */
+    @Test
+    public void canGetActiveJobCountsByUser() {
+        final Map<String, Long> counts = this.service.getActiveJobCountsByUser();
+        Assert.assertThat(counts.size(), Matchers.is(1));
+        Assert.assertThat(counts.get("tgianos"), Matchers.is(2L));
+    }
+
+    /**
+     * Make sure we can get the number of active jobs on every cluster at once.
+     */
+    @Test
+    public void canGetActiveJobCountsByCluster() {
+        final Map<String, Long> counts = this.service.getActiveJobCountsByCluster();
+        Assert.assertThat(counts.size(), Matchers.is(1));
+        Assert.assertThat(counts.get("cluster1"), Matchers.is(2L));
+    }
+
     /**
      * Make sure the getting job execution method works.
      *
@@ -445,4 +640,26 @@ public class JpaJobSearchServiceImplIntegrationTests extends DBIntegrationTestBa
         Assert.assertThat(jobMetadata.getStdErrSize(), Matchers.is(Optional.empty()));
         Assert.assertThat(jobMetadata.getStdOutSize(), Matchers.is(Optional.empty()));
     }
+
+    private CursorSlice<JobSearchResult> findJobs(@Nullable final SearchCursor cursor, final int limit) {
+        return this.service.findJobs(
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            cursor,
+            limit
+        );
+    }
 }
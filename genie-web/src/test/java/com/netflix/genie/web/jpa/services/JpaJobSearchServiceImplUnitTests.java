@@ -18,16 +18,25 @@
 package com.netflix.genie.web.jpa.services;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.netflix.genie.common.dto.Job;
+import com.netflix.genie.common.dto.JobStatus;
 import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.exceptions.GenieNotFoundException;
+import com.netflix.genie.common.exceptions.GenieServerException;
+import com.netflix.genie.common.util.GenieObjectMapper;
 import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.jpa.entities.ArchivedJobEntity;
 import com.netflix.genie.web.jpa.entities.JobEntity;
 import com.netflix.genie.web.jpa.entities.projections.AgentHostnameProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobApplicationsProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobClusterProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobCommandProjection;
+import com.netflix.genie.web.jpa.entities.projections.JobExecutionProjection;
+import com.netflix.genie.web.jpa.entities.projections.JobFinishedProjection;
 import com.netflix.genie.web.jpa.entities.projections.JobProjection;
+import com.netflix.genie.web.jpa.entities.projections.JobStatusProjection;
+import com.netflix.genie.web.jpa.repositories.JpaArchivedJobRepository;
 import com.netflix.genie.web.jpa.repositories.JpaClusterRepository;
 import com.netflix.genie.web.jpa.repositories.JpaCommandRepository;
 import com.netflix.genie.web.jpa.repositories.JpaJobRepository;
@@ -38,7 +47,9 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.mockito.Mockito;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -51,6 +62,7 @@ import java.util.UUID;
 public class JpaJobSearchServiceImplUnitTests {
 
     private JpaJobRepository jobRepository;
+    private JpaArchivedJobRepository archivedJobRepository;
     private JpaJobSearchServiceImpl service;
 
     /**
@@ -59,10 +71,12 @@ public class JpaJobSearchServiceImplUnitTests {
     @Before
     public void setup() {
         this.jobRepository = Mockito.mock(JpaJobRepository.class);
+        this.archivedJobRepository = Mockito.mock(JpaArchivedJobRepository.class);
         this.service = new JpaJobSearchServiceImpl(
             this.jobRepository,
             Mockito.mock(JpaClusterRepository.class),
-            Mockito.mock(JpaCommandRepository.class)
+            Mockito.mock(JpaCommandRepository.class),
+            this.archivedJobRepository
         );
     }
 
@@ -96,6 +110,147 @@ public class JpaJobSearchServiceImplUnitTests {
         Assert.assertThat(returnedJob.getId().orElseThrow(IllegalArgumentException::new), Matchers.is(id));
     }
 
+    /**
+     * Make sure jobs which have been moved to the archive can still be read.
+     *
+     * @throws Exception If there is any problem
+     */
+    @Test
+    public void canGetArchivedJob() throws Exception {
+        final String id = UUID.randomUUID().toString();
+        final Job job = new Job.Builder(
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString()
+        )
+            .withId(id)
+            .withStatus(JobStatus.SUCCEEDED)
+            .build();
+        final ArchivedJobEntity archivedJobEntity = new ArchivedJobEntity();
+        archivedJobEntity.setUniqueId(id);
+        archivedJobEntity.setJob(GenieObjectMapper.getMapper().writeValueAsString(job));
+        Mockito.when(this.jobRepository.findByUniqueId(id, JobProjection.class)).thenReturn(Optional.empty());
+        Mockito
+            .when(this.jobRepository.findByUniqueId(id, JobStatusProjection.class))
+            .thenReturn(Optional.empty());
+        Mockito.when(this.archivedJobRepository.findByUniqueId(id)).thenReturn(Optional.of(archivedJobEntity));
+
+        final Job returnedJob = this.service.getJob(id);
+        Assert.assertThat(returnedJob.getId().orElseThrow(IllegalArgumentException::new), Matchers.is(id));
+        Assert.assertThat(returnedJob.getName(), Matchers.is(job.getName()));
+        Assert.assertThat(this.service.getJobStatus(id), Matchers.is(JobStatus.SUCCEEDED));
+    }
+
+    /**
+     * Make sure the bulk lookups fetch every job missing from the jobs tables from the archive in a single query.
+     *
+     * @throws Exception If there is any problem
+     */
+    @Test
+    public void canGetArchivedJobStatusesInBulk() throws Exception {
+        final String activeId = UUID.randomUUID().toString();
+        final String archivedId1 = UUID.randomUUID().toString();
+        final String archivedId2 = UUID.randomUUID().toString();
+        final String missingId = UUID.randomUUID().toString();
+        final Set<String> ids = Sets.newHashSet(activeId, archivedId1, archivedId2, missingId);
+        final Set<String> notActiveIds = Sets.newHashSet(archivedId1, archivedId2, missingId);
+
+        final JobFinishedProjection activeJob = Mockito.mock(JobFinishedProjection.class);
+        Mockito.when(activeJob.getUniqueId()).thenReturn(activeId);
+        Mockito.when(activeJob.getStatus()).thenReturn(JobStatus.RUNNING);
+        Mockito.when(this.jobRepository.findByUniqueIdIn(ids)).thenReturn(Sets.newHashSet(activeJob));
+        Mockito
+            .when(this.archivedJobRepository.findByUniqueIdIn(notActiveIds))
+            .thenReturn(
+                Sets.newHashSet(
+                    this.createArchivedJob(archivedId1, JobStatus.SUCCEEDED),
+                    this.createArchivedJob(archivedId2, JobStatus.FAILED)
+                )
+            );
+
+        final Map<String, JobStatus> statuses = this.service.getJobStatuses(ids);
+        Assert.assertThat(statuses.size(), Matchers.is(3));
+        Assert.assertThat(statuses.get(activeId), Matchers.is(JobStatus.RUNNING));
+        Assert.assertThat(statuses.get(archivedId1), Matchers.is(JobStatus.SUCCEEDED));
+        Assert.assertThat(statuses.get(archivedId2), Matchers.is(JobStatus.FAILED));
+        Mockito.verify(this.archivedJobRepository, Mockito.times(1)).findByUniqueIdIn(notActiveIds);
+        Mockito.verify(this.archivedJobRepository, Mockito.never()).findByUniqueId(Mockito.anyString());
+    }
+
+    /**
+     * Make sure the archive isn't queried at all when every job is still in the jobs tables.
+     *
+     * @throws GenieException If there is any problem
+     */
+    @Test
+    public void doesNotQueryArchiveWhenAllJobExecutionsFound() throws GenieException {
+        final String id = UUID.randomUUID().toString();
+        final JobEntity jobEntity = new JobEntity();
+        jobEntity.setUniqueId(id);
+        Mockito
+            .when(this.jobRepository.findByUniqueIdIn(Sets.newHashSet(id), JobExecutionProjection.class))
+            .thenReturn(Sets.newHashSet(jobEntity));
+
+        Assert.assertThat(this.service.getJobExecutions(Sets.newHashSet(id)).keySet(), Matchers.contains(id));
+        Mockito.verify(this.archivedJobRepository, Mockito.never()).findByUniqueIdIn(Mockito.anySet());
+    }
+
+    /**
+     * Make sure jobs archived before their resources were recorded result in not found rather than an error.
+     *
+     * @throws GenieException If there is any problem
+     */
+    @Test
+    public void cantGetArchivedJobResourcesIfNotRecorded() throws GenieException {
+        final String id = UUID.randomUUID().toString();
+        final ArchivedJobEntity archivedJobEntity = new ArchivedJobEntity();
+        archivedJobEntity.setUniqueId(id);
+        Mockito.when(this.archivedJobRepository.findByUniqueId(id)).thenReturn(Optional.of(archivedJobEntity));
+
+        try {
+            this.service.getJobCluster(id);
+            Assert.fail();
+        } catch (final GenieNotFoundException e) {
+            // expected
+        }
+        try {
+            this.service.getJobCommand(id);
+            Assert.fail();
+        } catch (final GenieNotFoundException e) {
+            // expected
+        }
+        try {
+            this.service.getJobApplications(id);
+            Assert.fail();
+        } catch (final GenieNotFoundException e) {
+            // expected
+        }
+        try {
+            this.service.getJobHost(id);
+            Assert.fail();
+        } catch (final GenieNotFoundException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Make sure an archived job which can't be read results in a server error rather than not found.
+     *
+     * @throws GenieException For any problem
+     */
+    @Test(expected = GenieServerException.class)
+    public void cantGetArchivedJobExecutionIfUnreadable() throws GenieException {
+        final String id = UUID.randomUUID().toString();
+        final ArchivedJobEntity archivedJobEntity = new ArchivedJobEntity();
+        archivedJobEntity.setUniqueId(id);
+        archivedJobEntity.setJobExecution("{not json");
+        Mockito
+            .when(this.jobRepository.findByUniqueId(id, JobExecutionProjection.class))
+            .thenReturn(Optional.empty());
+        Mockito.when(this.archivedJobRepository.findByUniqueId(id)).thenReturn(Optional.of(archivedJobEntity));
+        this.service.getJobExecution(id);
+    }
+
     /**
      * Test the getJobCluster method.
      *
@@ -209,4 +364,19 @@ public class JpaJobSearchServiceImplUnitTests {
 
         Assert.assertThat(this.service.getJobHost(jobId), Matchers.is(hostName));
     }
+
+    private ArchivedJobEntity createArchivedJob(final String id, final JobStatus status) throws Exception {
+        final Job job = new Job.Builder(
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString()
+        )
+            .withId(id)
+            .withStatus(status)
+            .build();
+        final ArchivedJobEntity archivedJobEntity = new ArchivedJobEntity();
+        archivedJobEntity.setUniqueId(id);
+        archivedJobEntity.setJob(GenieObjectMapper.getMapper().writeValueAsString(job));
+        return archivedJobEntity;
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.jpa.services;
+
+import com.github.springtestdbunit.annotation.DatabaseTearDown;
+import com.netflix.genie.test.categories.IntegrationTest;
+import com.netflix.genie.web.jpa.entities.NodeHeartbeatEntity;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Integration tests for the JpaNodeHeartbeatPersistenceServiceImpl class.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(IntegrationTest.class)
+@DatabaseTearDown("cleanup.xml")
+public class JpaNodeHeartbeatPersistenceServiceImplIntegrationTests extends DBIntegrationTestBase {
+
+    private static final String HOST1 = "host1";
+    private static final String HOST2 = "host2";
+
+    // This needs to be injected as a Spring Bean otherwise transactions don't work as there is no proxy
+    @Autowired
+    private NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
+
+    /**
+     * Make sure heartbeats can be written, replaced, found when stale and removed.
+     */
+    @Test
+    public void canSaveFindAndDeleteHeartbeats() {
+        final Instant now = Instant.now();
+        final Instant earlier = now.minusSeconds(300L);
+
+        this.nodeHeartbeatPersistenceService.saveHeartbeat(HOST1, earlier, 1, 1024);
+        this.nodeHeartbeatPersistenceService.saveHeartbeat(HOST2, earlier, 2, 2048);
+        Assert.assertThat(this.nodeHeartbeatRepository.count(), Matchers.is(2L));
+
+        // Replaces the previous heartbeat rather than adding one
+        this.nodeHeartbeatPersistenceService.saveHeartbeat(HOST1, now, 3, 3072);
+        Assert.assertThat(this.nodeHeartbeatRepository.count(), Matchers.is(2L));
+        final NodeHeartbeatEntity heartbeat = this.nodeHeartbeatRepository
+            .findByHostname(HOST1)
+            .orElseThrow(IllegalStateException::new);
+        Assert.assertThat(heartbeat.getNumRunningJobs(), Matchers.is(3));
+        Assert.assertThat(heartbeat.getUsedMemory(), Matchers.is(3072));
+
+        final Instant threshold = now.minusSeconds(60L);
+        Assert.assertThat(
+            this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatBefore(threshold),
+            Matchers.contains(HOST2)
+        );
+        Assert.assertThat(
+            this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatSince(threshold),
+            Matchers.contains(HOST1)
+        );
+        final Map<String, Integer> usedMemory
+            = this.nodeHeartbeatPersistenceService.getUsedMemoryOfHostsWithHeartbeatSince(threshold);
+        Assert.assertThat(usedMemory.size(), Matchers.is(1));
+        Assert.assertThat(usedMemory.get(HOST1), Matchers.is(3072));
+        Assert.assertThat(this.nodeHeartbeatPersistenceService.deleteHeartbeatsBefore(threshold), Matchers.is(1L));
+        Assert.assertTrue(this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatBefore(threshold).isEmpty());
+        Assert.assertTrue(this.nodeHeartbeatRepository.findByHostname(HOST1).isPresent());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for AgentRoutingProperties.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class AgentRoutingPropertiesUnitTests {
+
+    private AgentRoutingProperties properties;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new AgentRoutingProperties();
+    }
+
+    /**
+     * Make sure we get reasonable default properties.
+     */
+    @Test
+    public void canConstructWithValidProperties() {
+        Assert.assertThat(this.properties.getFlushInterval(), Matchers.is(1_000L));
+        Assert.assertThat(this.properties.getFlushBatchSize(), Matchers.is(500));
+        Assert.assertThat(this.properties.getRemoteCacheMaxSize(), Matchers.is(10_000L));
+        Assert.assertThat(this.properties.getRemoteCacheExpiry(), Matchers.is(10_000L));
+    }
+
+    /**
+     * Make sure we can set the flush interval.
+     */
+    @Test
+    public void canSetFlushInterval() {
+        final long flushInterval = 5_000L;
+        this.properties.setFlushInterval(flushInterval);
+        Assert.assertThat(this.properties.getFlushInterval(), Matchers.is(flushInterval));
+    }
+
+    /**
+     * Make sure we can set the flush batch size.
+     */
+    @Test
+    public void canSetFlushBatchSize() {
+        final int flushBatchSize = 100;
+        this.properties.setFlushBatchSize(flushBatchSize);
+        Assert.assertThat(this.properties.getFlushBatchSize(), Matchers.is(flushBatchSize));
+    }
+
+    /**
+     * Make sure we can set the remote cache size.
+     */
+    @Test
+    public void canSetRemoteCacheMaxSize() {
+        final long remoteCacheMaxSize = 50L;
+        this.properties.setRemoteCacheMaxSize(remoteCacheMaxSize);
+        Assert.assertThat(this.properties.getRemoteCacheMaxSize(), Matchers.is(remoteCacheMaxSize));
+    }
+
+    /**
+     * Make sure we can set the remote cache expiry.
+     */
+    @Test
+    public void canSetRemoteCacheExpiry() {
+        final long remoteCacheExpiry = 30_000L;
+        this.properties.setRemoteCacheExpiry(remoteCacheExpiry);
+        Assert.assertThat(this.properties.getRemoteCacheExpiry(), Matchers.is(remoteCacheExpiry));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for AsyncEventDispatchProperties.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class AsyncEventDispatchPropertiesUnitTests {
+
+    private AsyncEventDispatchProperties properties;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new AsyncEventDispatchProperties();
+    }
+
+    /**
+     * Make sure we get reasonable default properties.
+     */
+    @Test
+    public void canConstructWithValidProperties() {
+        Assert.assertFalse(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getQueueCapacity(), Matchers.is(1_000));
+        Assert.assertThat(this.properties.getThreadsPerListener(), Matchers.is(1));
+        Assert.assertThat(this.properties.getKeepAlive(), Matchers.is(60_000L));
+        Assert.assertThat(
+            this.properties.getOverflowPolicy(),
+            Matchers.is(AsyncEventDispatchProperties.OverflowPolicy.CALLER_RUNS)
+        );
+    }
+
+    /**
+     * Make sure we can change the properties.
+     */
+    @Test
+    public void canSetProperties() {
+        this.properties.setEnabled(true);
+        this.properties.setQueueCapacity(10);
+        this.properties.setThreadsPerListener(2);
+        this.properties.setKeepAlive(1_000L);
+        this.properties.setOverflowPolicy(AsyncEventDispatchProperties.OverflowPolicy.DISCARD);
+        Assert.assertTrue(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getQueueCapacity(), Matchers.is(10));
+        Assert.assertThat(this.properties.getThreadsPerListener(), Matchers.is(2));
+        Assert.assertThat(this.properties.getKeepAlive(), Matchers.is(1_000L));
+        Assert.assertThat(
+            this.properties.getOverflowPolicy(),
+            Matchers.is(AsyncEventDispatchProperties.OverflowPolicy.DISCARD)
+        );
+    }
+}
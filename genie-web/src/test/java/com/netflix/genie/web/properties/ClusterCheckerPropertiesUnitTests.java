@@ -54,6 +54,8 @@ public class ClusterCheckerPropertiesUnitTests {
         Assert.assertThat(this.properties.getScheme(), Matchers.is("http"));
         Assert.assertThat(this.properties.getLostThreshold(), Matchers.is(3));
         Assert.assertThat(this.properties.getRate(), Matchers.is(300000L));
+        Assert.assertThat(this.properties.getMaxConcurrentProbes(), Matchers.is(16));
+        Assert.assertThat(this.properties.getProbeTimeout(), Matchers.is(5000L));
     }
 
     /**
@@ -95,4 +97,24 @@ public class ClusterCheckerPropertiesUnitTests {
         this.properties.setRate(rate);
         Assert.assertThat(this.properties.getRate(), Matchers.is(rate));
     }
+
+    /**
+     * Make sure we can set the maximum number of concurrent probes.
+     */
+    @Test
+    public void canSetMaxConcurrentProbes() {
+        final int maxConcurrentProbes = 32;
+        this.properties.setMaxConcurrentProbes(maxConcurrentProbes);
+        Assert.assertThat(this.properties.getMaxConcurrentProbes(), Matchers.is(maxConcurrentProbes));
+    }
+
+    /**
+     * Make sure we can set the probe timeout.
+     */
+    @Test
+    public void canSetProbeTimeout() {
+        final long probeTimeout = 2_500L;
+        this.properties.setProbeTimeout(probeTimeout);
+        Assert.assertThat(this.properties.getProbeTimeout(), Matchers.is(probeTimeout));
+    }
 }
@@ -55,10 +55,12 @@ public class DatabaseCleanupPropertiesUnitTests {
         Assert.assertThat(this.properties.getRetention(), Matchers.is(90));
         Assert.assertThat(this.properties.getMaxDeletedPerTransaction(), Matchers.is(1000));
         Assert.assertThat(this.properties.getPageSize(), Matchers.is(1000));
+        Assert.assertThat(this.properties.getMaxDeletedPerSecond(), Matchers.is(0));
         Assert.assertFalse(this.properties.isSkipJobsCleanup());
         Assert.assertFalse(this.properties.isSkipClustersCleanup());
         Assert.assertFalse(this.properties.isSkipTagsCleanup());
         Assert.assertFalse(this.properties.isSkipFilesCleanup());
+        Assert.assertFalse(this.properties.isDropPartitions());
     }
 
     /**
@@ -100,6 +102,16 @@ public class DatabaseCleanupPropertiesUnitTests {
         Assert.assertThat(this.properties.getMaxDeletedPerTransaction(), Matchers.is(max));
     }
 
+    /**
+     * Make sure can set a deletion rate.
+     */
+    @Test
+    public void canSetMaxDeletedPerSecond() {
+        final int max = 2318;
+        this.properties.setMaxDeletedPerSecond(max);
+        Assert.assertThat(this.properties.getMaxDeletedPerSecond(), Matchers.is(max));
+    }
+
     /**
      * Make sure can set a new page size.
      */
@@ -145,4 +157,13 @@ public class DatabaseCleanupPropertiesUnitTests {
         this.properties.setSkipFilesCleanup(true);
         Assert.assertTrue(this.properties.isSkipFilesCleanup());
     }
+
+    /**
+     * Make sure can enable dropping partitions.
+     */
+    @Test
+    public void canEnableDropPartitions() {
+        this.properties.setDropPartitions(true);
+        Assert.assertTrue(this.properties.isDropPartitions());
+    }
 }
@@ -53,6 +53,8 @@ public class DiskCleanupPropertiesUnitTests {
         Assert.assertFalse(this.properties.isEnabled());
         Assert.assertThat(this.properties.getExpression(), Matchers.is("0 0 0 * * *"));
         Assert.assertThat(this.properties.getRetention(), Matchers.is(3));
+        Assert.assertThat(this.properties.getBatchSize(), Matchers.is(1_000));
+        Assert.assertThat(this.properties.getMaxConcurrentDeletes(), Matchers.is(4));
     }
 
     /**
@@ -83,4 +85,24 @@ public class DiskCleanupPropertiesUnitTests {
         this.properties.setRetention(retention);
         Assert.assertThat(this.properties.getRetention(), Matchers.is(retention));
     }
+
+    /**
+     * Make sure can set a new batch size.
+     */
+    @Test
+    public void canSetBatchSize() {
+        final int batchSize = 50;
+        this.properties.setBatchSize(batchSize);
+        Assert.assertThat(this.properties.getBatchSize(), Matchers.is(batchSize));
+    }
+
+    /**
+     * Make sure can set the maximum number of concurrent deletes.
+     */
+    @Test
+    public void canSetMaxConcurrentDeletes() {
+        final int maxConcurrentDeletes = 12;
+        this.properties.setMaxConcurrentDeletes(maxConcurrentDeletes);
+        Assert.assertThat(this.properties.getMaxConcurrentDeletes(), Matchers.is(maxConcurrentDeletes));
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for JobArchiveProperties.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class JobArchivePropertiesUnitTests {
+
+    private JobArchiveProperties properties;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new JobArchiveProperties();
+    }
+
+    /**
+     * Make sure we get reasonable default properties.
+     */
+    @Test
+    public void canConstructWithValidProperties() {
+        Assert.assertFalse(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getRate(), Matchers.is(3_600_000L));
+        Assert.assertThat(this.properties.getArchiveAfter(), Matchers.is(30));
+        Assert.assertThat(this.properties.getBatchSize(), Matchers.is(1_000));
+    }
+
+    /**
+     * Make sure we can enable the task.
+     */
+    @Test
+    public void canEnable() {
+        this.properties.setEnabled(true);
+        Assert.assertTrue(this.properties.isEnabled());
+    }
+
+    /**
+     * Make sure we can set the rate.
+     */
+    @Test
+    public void canSetRate() {
+        final long rate = 808283L;
+        this.properties.setRate(rate);
+        Assert.assertThat(this.properties.getRate(), Matchers.is(rate));
+    }
+
+    /**
+     * Make sure we can set the number of days after which jobs are archived.
+     */
+    @Test
+    public void canSetArchiveAfter() {
+        final int archiveAfter = 7;
+        this.properties.setArchiveAfter(archiveAfter);
+        Assert.assertThat(this.properties.getArchiveAfter(), Matchers.is(archiveAfter));
+    }
+
+    /**
+     * Make sure we can set the batch size.
+     */
+    @Test
+    public void canSetBatchSize() {
+        final int batchSize = 250;
+        this.properties.setBatchSize(batchSize);
+        Assert.assertThat(this.properties.getBatchSize(), Matchers.is(batchSize));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for JobsPlacementProperties.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class JobsPlacementPropertiesUnitTests {
+
+    private JobsPlacementProperties properties;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new JobsPlacementProperties();
+    }
+
+    /**
+     * Test to make sure default constructor sets default values.
+     */
+    @Test
+    public void hasDefaultValues() {
+        Assert.assertFalse(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getLoadRefreshInterval(), Matchers.is(5_000L));
+    }
+
+    /**
+     * Make sure setting the enabled property is persisted.
+     */
+    @Test
+    public void canEnable() {
+        this.properties.setEnabled(true);
+        Assert.assertTrue(this.properties.isEnabled());
+    }
+
+    /**
+     * Make sure setting the load refresh interval is persisted.
+     */
+    @Test
+    public void canSetLoadRefreshInterval() {
+        final long loadRefreshInterval = 1_000L;
+        this.properties.setLoadRefreshInterval(loadRefreshInterval);
+        Assert.assertThat(this.properties.getLoadRefreshInterval(), Matchers.is(loadRefreshInterval));
+    }
+}
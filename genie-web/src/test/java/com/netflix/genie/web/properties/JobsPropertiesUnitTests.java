@@ -48,10 +48,14 @@ public class JobsPropertiesUnitTests {
      */
     @Test
     public void canConstruct() {
+        Assert.assertNotNull(this.properties.getBatch());
         Assert.assertNotNull(this.properties.getMemory());
         Assert.assertNotNull(this.properties.getForwarding());
         Assert.assertNotNull(this.properties.getLocations());
         Assert.assertNotNull(this.properties.getMax());
+        Assert.assertNotNull(this.properties.getPlacement());
+        Assert.assertNotNull(this.properties.getQueue());
+        Assert.assertNotNull(this.properties.getStatusWait());
         Assert.assertNotNull(this.properties.getUsers());
     }
 
@@ -60,16 +64,24 @@ public class JobsPropertiesUnitTests {
      */
     @Test
     public void canSet() {
+        final JobsBatchProperties batch = Mockito.mock(JobsBatchProperties.class);
         final JobsMemoryProperties memory = Mockito.mock(JobsMemoryProperties.class);
         final JobsForwardingProperties forwarding = Mockito.mock(JobsForwardingProperties.class);
         final JobsLocationsProperties locations = Mockito.mock(JobsLocationsProperties.class);
         final JobsMaxProperties max = Mockito.mock(JobsMaxProperties.class);
+        final JobsPlacementProperties placement = Mockito.mock(JobsPlacementProperties.class);
+        final JobsQueueProperties queue = Mockito.mock(JobsQueueProperties.class);
+        final JobsStatusWaitProperties statusWait = Mockito.mock(JobsStatusWaitProperties.class);
         final JobsUsersProperties users = Mockito.mock(JobsUsersProperties.class);
 
+        this.properties.setBatch(batch);
         this.properties.setForwarding(forwarding);
         this.properties.setLocations(locations);
         this.properties.setMax(max);
         this.properties.setMemory(memory);
+        this.properties.setPlacement(placement);
+        this.properties.setQueue(queue);
+        this.properties.setStatusWait(statusWait);
         this.properties.setUsers(users);
     }
 }
@@ -0,0 +1,91 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for JobsQueueProperties.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class JobsQueuePropertiesUnitTests {
+
+    private JobsQueueProperties properties;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new JobsQueueProperties();
+    }
+
+    /**
+     * Test to make sure default constructor sets default values.
+     */
+    @Test
+    public void hasDefaultValues() {
+        Assert.assertFalse(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getMaxDepth(), Matchers.is(1_000));
+        Assert.assertThat(this.properties.getDispatchInterval(), Matchers.is(1_000L));
+        Assert.assertThat(this.properties.getShareBy(), Matchers.is(JobsQueueProperties.ShareBy.USER));
+        Assert.assertThat(this.properties.getDefaultWeight(), Matchers.is(1.0));
+        Assert.assertTrue(this.properties.getWeights().isEmpty());
+        Assert.assertThat(this.properties.getPriorityTagPrefix(), Matchers.is("genie.priority:"));
+    }
+
+    /**
+     * Make sure all the setters work.
+     */
+    @Test
+    public void canSetProperties() {
+        this.properties.setEnabled(true);
+        this.properties.setMaxDepth(10);
+        this.properties.setDispatchInterval(500L);
+        this.properties.setShareBy(JobsQueueProperties.ShareBy.GROUP);
+        this.properties.setDefaultWeight(2.0);
+        this.properties.setPriorityTagPrefix("priority:");
+
+        Assert.assertTrue(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getMaxDepth(), Matchers.is(10));
+        Assert.assertThat(this.properties.getDispatchInterval(), Matchers.is(500L));
+        Assert.assertThat(this.properties.getShareBy(), Matchers.is(JobsQueueProperties.ShareBy.GROUP));
+        Assert.assertThat(this.properties.getDefaultWeight(), Matchers.is(2.0));
+        Assert.assertThat(this.properties.getPriorityTagPrefix(), Matchers.is("priority:"));
+    }
+
+    /**
+     * Make sure the configured weight is used and the default otherwise.
+     */
+    @Test
+    public void canGetWeight() {
+        this.properties.setWeights(ImmutableMap.of("etl", 4.0, "broken", -1.0));
+        Assert.assertThat(this.properties.getWeight("etl"), Matchers.is(4.0));
+        Assert.assertThat(this.properties.getWeight("broken"), Matchers.is(1.0));
+        Assert.assertThat(this.properties.getWeight("adhoc"), Matchers.is(1.0));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link JobsStatusWaitProperties}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class JobsStatusWaitPropertiesUnitTests {
+
+    private JobsStatusWaitProperties properties;
+
+    /**
+     * Setup for tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new JobsStatusWaitProperties();
+    }
+
+    /**
+     * Make sure constructor sets reasonable defaults.
+     */
+    @Test
+    public void canGetDefaultValues() {
+        Assert.assertThat(this.properties.getCheckInterval(), Matchers.is(5_000L));
+        Assert.assertThat(this.properties.getDefaultTimeout(), Matchers.is(30_000L));
+        Assert.assertThat(this.properties.getMaxTimeout(), Matchers.is(60_000L));
+    }
+
+    /**
+     * Make sure all the properties can be set.
+     */
+    @Test
+    public void canSetValues() {
+        this.properties.setCheckInterval(1_234L);
+        this.properties.setDefaultTimeout(2_318L);
+        this.properties.setMaxTimeout(9_876L);
+
+        Assert.assertThat(this.properties.getCheckInterval(), Matchers.is(1_234L));
+        Assert.assertThat(this.properties.getDefaultTimeout(), Matchers.is(2_318L));
+        Assert.assertThat(this.properties.getMaxTimeout(), Matchers.is(9_876L));
+    }
+}
@@ -48,6 +48,19 @@ public class JobsUsersActiveLimitPropertiesUnitTests {
     public void canConstruct() {
         Assert.assertEquals(JobsUsersActiveLimitProperties.DEFAULT_ENABLED, this.properties.isEnabled());
         Assert.assertEquals(JobsUsersActiveLimitProperties.DEFAULT_COUNT, this.properties.getCount());
+        Assert.assertFalse(this.properties.isCacheEnabled());
+        Assert.assertEquals(60_000L, this.properties.getCacheReconcileInterval());
+    }
+
+    /**
+     * Make sure we can set the cache fields.
+     */
+    @Test
+    public void canSetCache() {
+        this.properties.setCacheEnabled(true);
+        this.properties.setCacheReconcileInterval(5_000L);
+        Assert.assertTrue(this.properties.isCacheEnabled());
+        Assert.assertEquals(5_000L, this.properties.getCacheReconcileInterval());
     }
 
     /**
@@ -0,0 +1,81 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for {@link LoadAwareLoadBalancerProperties}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class LoadAwareLoadBalancerPropertiesUnitTests {
+
+    private LoadAwareLoadBalancerProperties properties;
+
+    /**
+     * Setup for tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new LoadAwareLoadBalancerProperties();
+    }
+
+    /**
+     * Make sure constructor sets reasonable defaults.
+     */
+    @Test
+    public void canGetDefaultValues() {
+        Assert.assertFalse(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getRefreshRate(), Matchers.is(10_000L));
+        Assert.assertThat(
+            this.properties.getStrategy(),
+            Matchers.is(LoadAwareLoadBalancerProperties.Strategy.POWER_OF_TWO_CHOICES)
+        );
+        Assert.assertThat(this.properties.getCapacityTagPrefix(), Matchers.is("genie.capacity:"));
+        Assert.assertThat(this.properties.getDefaultCapacity(), Matchers.is(1.0));
+    }
+
+    /**
+     * Make sure all the properties can be set.
+     */
+    @Test
+    public void canSetValues() {
+        this.properties.setEnabled(true);
+        this.properties.setRefreshRate(2_318L);
+        this.properties.setStrategy(LoadAwareLoadBalancerProperties.Strategy.LEAST_LOADED);
+        this.properties.setCapacityTagPrefix("capacity=");
+        this.properties.setDefaultCapacity(4.0);
+
+        Assert.assertTrue(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getRefreshRate(), Matchers.is(2_318L));
+        Assert.assertThat(
+            this.properties.getStrategy(),
+            Matchers.is(LoadAwareLoadBalancerProperties.Strategy.LEAST_LOADED)
+        );
+        Assert.assertThat(this.properties.getCapacityTagPrefix(), Matchers.is("capacity="));
+        Assert.assertThat(this.properties.getDefaultCapacity(), Matchers.is(4.0));
+    }
+}
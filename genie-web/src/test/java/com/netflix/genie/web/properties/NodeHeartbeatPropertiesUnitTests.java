@@ -0,0 +1,84 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for NodeHeartbeatProperties.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class NodeHeartbeatPropertiesUnitTests {
+
+    private NodeHeartbeatProperties properties;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new NodeHeartbeatProperties();
+    }
+
+    /**
+     * Make sure we get reasonable default properties.
+     */
+    @Test
+    public void canConstructWithValidProperties() {
+        Assert.assertFalse(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getRate(), Matchers.is(10_000L));
+        Assert.assertThat(this.properties.getStaleThreshold(), Matchers.is(60_000L));
+    }
+
+    /**
+     * Make sure we can enable heartbeats.
+     */
+    @Test
+    public void canEnable() {
+        this.properties.setEnabled(true);
+        Assert.assertTrue(this.properties.isEnabled());
+    }
+
+    /**
+     * Make sure we can set the heartbeat rate.
+     */
+    @Test
+    public void canSetRate() {
+        final long rate = 5_000L;
+        this.properties.setRate(rate);
+        Assert.assertThat(this.properties.getRate(), Matchers.is(rate));
+    }
+
+    /**
+     * Make sure we can set the stale threshold.
+     */
+    @Test
+    public void canSetStaleThreshold() {
+        final long staleThreshold = 120_000L;
+        this.properties.setStaleThreshold(staleThreshold);
+        Assert.assertThat(this.properties.getStaleThreshold(), Matchers.is(staleThreshold));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.properties;
+
+import com.google.common.collect.Lists;
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.UUID;
+
+/**
+ * Unit tests for {@link ReadReplicaProperties}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class ReadReplicaPropertiesUnitTests {
+
+    private ReadReplicaProperties properties;
+
+    /**
+     * Setup for tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new ReadReplicaProperties();
+    }
+
+    /**
+     * Make sure constructor sets reasonable defaults.
+     */
+    @Test
+    public void canGetDefaultValues() {
+        Assert.assertFalse(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getMaxLag(), Matchers.is(5_000L));
+        Assert.assertThat(this.properties.getLagCheckRate(), Matchers.is(10_000L));
+        Assert.assertThat(this.properties.getLagQuery(), Matchers.nullValue());
+        Assert.assertThat(this.properties.getReplicas(), Matchers.empty());
+    }
+
+    /**
+     * Make sure all the properties can be set.
+     */
+    @Test
+    public void canSetValues() {
+        final String lagQuery = UUID.randomUUID().toString();
+        this.properties.setEnabled(true);
+        this.properties.setMaxLag(1_234L);
+        this.properties.setLagCheckRate(2_318L);
+        this.properties.setLagQuery(lagQuery);
+
+        final ReadReplicaProperties.Replica replica = new ReadReplicaProperties.Replica();
+        Assert.assertThat(replica.getMaxPoolSize(), Matchers.is(10));
+        final String name = UUID.randomUUID().toString();
+        final String url = UUID.randomUUID().toString();
+        replica.setName(name);
+        replica.setUrl(url);
+        replica.setMaxPoolSize(3);
+        this.properties.setReplicas(Lists.newArrayList(replica));
+
+        Assert.assertTrue(this.properties.isEnabled());
+        Assert.assertThat(this.properties.getMaxLag(), Matchers.is(1_234L));
+        Assert.assertThat(this.properties.getLagCheckRate(), Matchers.is(2_318L));
+        Assert.assertThat(this.properties.getLagQuery(), Matchers.is(lagQuery));
+        Assert.assertThat(this.properties.getReplicas().size(), Matchers.is(1));
+        Assert.assertThat(this.properties.getReplicas().get(0).getName(), Matchers.is(name));
+        Assert.assertThat(this.properties.getReplicas().get(0).getUrl(), Matchers.is(url));
+        Assert.assertThat(this.properties.getReplicas().get(0).getMaxPoolSize(), Matchers.is(3));
+    }
+}
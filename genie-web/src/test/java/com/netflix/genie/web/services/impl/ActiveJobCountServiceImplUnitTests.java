@@ -0,0 +1,183 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.properties.JobsUsersActiveLimitProperties;
+import com.netflix.genie.web.services.JobSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Unit tests for the ActiveJobCountServiceImpl class.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class ActiveJobCountServiceImplUnitTests {
+
+    private static final String USER = "tgianos";
+
+    private JobSearchService jobSearchService;
+    private JobsUsersActiveLimitProperties activeLimitProperties;
+    private TaskScheduler taskScheduler;
+    private MeterRegistry registry;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.jobSearchService = Mockito.mock(JobSearchService.class);
+        this.activeLimitProperties = new JobsUsersActiveLimitProperties();
+        this.activeLimitProperties.setCacheEnabled(true);
+        this.taskScheduler = Mockito.mock(TaskScheduler.class);
+        Mockito
+            .doReturn(Mockito.mock(ScheduledFuture.class))
+            .when(this.taskScheduler)
+            .scheduleWithFixedDelay(Mockito.any(Runnable.class), Mockito.anyLong());
+        this.registry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Make sure counts are read from the database when the cache is disabled.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void readsDatabaseWhenCacheDisabled() throws GenieException {
+        this.activeLimitProperties.setCacheEnabled(false);
+        final ActiveJobCountServiceImpl service = this.createService();
+        Mockito.when(this.jobSearchService.getActiveJobCountForUser(USER)).thenReturn(3L);
+
+        service.jobStatusChanged(USER, null, JobStatus.INIT);
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(3L));
+        Mockito
+            .verify(this.taskScheduler, Mockito.never())
+            .scheduleWithFixedDelay(Mockito.any(Runnable.class), Mockito.anyLong());
+    }
+
+    /**
+     * Make sure counts are read from the database until the cache has been seeded.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void readsDatabaseUntilSeeded() throws GenieException {
+        final ActiveJobCountServiceImpl service = this.createService();
+        Mockito.when(this.jobSearchService.getActiveJobCountForUser(USER)).thenReturn(3L);
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(3L));
+
+        Mockito.when(this.jobSearchService.getActiveJobCountsByUser()).thenReturn(ImmutableMap.of(USER, 2L));
+        service.reconcile();
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(2L));
+        Mockito.verify(this.jobSearchService, Mockito.times(1)).getActiveJobCountForUser(USER);
+        Assert.assertThat(
+            this.registry.get(ActiveJobCountServiceImpl.RECONCILE_TIMER_NAME).timer().count(),
+            Matchers.is(1L)
+        );
+    }
+
+    /**
+     * Make sure status changes update the cached counts.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canTrackStatusChanges() throws GenieException {
+        final ActiveJobCountServiceImpl service = this.createService();
+        Mockito.when(this.jobSearchService.getActiveJobCountsByUser()).thenReturn(ImmutableMap.of());
+        service.reconcile();
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(0L));
+
+        service.jobStatusChanged(USER, null, JobStatus.INIT);
+        service.jobStatusChanged(USER, null, JobStatus.RESERVED);
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(2L));
+
+        // Active to active doesn't change anything
+        service.jobStatusChanged(USER, JobStatus.INIT, JobStatus.RUNNING);
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(2L));
+
+        // Queued jobs aren't counted
+        service.jobStatusChanged(USER, JobStatus.RESERVED, JobStatus.QUEUED);
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(1L));
+        service.jobStatusChanged(USER, JobStatus.QUEUED, JobStatus.INIT);
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(2L));
+
+        service.jobStatusChanged(USER, JobStatus.RUNNING, JobStatus.SUCCEEDED);
+        service.jobStatusChanged(USER, JobStatus.INIT, JobStatus.KILLED);
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(0L));
+        Assert.assertThat(
+            this.registry.get(ActiveJobCountServiceImpl.USERS_GAUGE_NAME).gauge().value(),
+            Matchers.is(0.0)
+        );
+
+        // Never goes negative
+        service.jobStatusChanged(USER, JobStatus.RUNNING, JobStatus.FAILED);
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(0L));
+    }
+
+    /**
+     * Make sure reconciling replaces the cached counts with the ones in the database.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canReconcile() throws GenieException {
+        final ActiveJobCountServiceImpl service = this.createService();
+        Mockito
+            .when(this.jobSearchService.getActiveJobCountsByUser())
+            .thenReturn(ImmutableMap.of(USER, 1L, "amsharma", 4L))
+            .thenReturn(ImmutableMap.of(USER, 5L))
+            .thenThrow(new RuntimeException("test"));
+        service.reconcile();
+        service.jobStatusChanged(USER, null, JobStatus.INIT);
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(2L));
+        Assert.assertThat(service.getActiveJobCount("amsharma"), Matchers.is(4L));
+
+        service.reconcile();
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(5L));
+        Assert.assertThat(service.getActiveJobCount("amsharma"), Matchers.is(0L));
+
+        // A failed reconciliation keeps the current counts
+        service.reconcile();
+        Assert.assertThat(service.getActiveJobCount(USER), Matchers.is(5L));
+    }
+
+    private ActiveJobCountServiceImpl createService() {
+        return new ActiveJobCountServiceImpl(
+            this.jobSearchService,
+            this.activeLimitProperties,
+            this.taskScheduler,
+            this.registry
+        );
+    }
+}
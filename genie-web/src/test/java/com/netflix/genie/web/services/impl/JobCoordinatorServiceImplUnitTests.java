@@ -17,6 +17,7 @@
  */
 package com.netflix.genie.web.services.impl;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.netflix.genie.common.dto.Job;
@@ -24,6 +25,7 @@ import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobMetadata;
 import com.netflix.genie.common.dto.JobRequest;
 import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.dto.JobSubmissionResult;
 import com.netflix.genie.common.exceptions.GenieConflictException;
 import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.exceptions.GeniePreconditionException;
@@ -37,18 +39,21 @@ import com.netflix.genie.common.internal.dto.v4.ExecutionEnvironment;
 import com.netflix.genie.common.internal.dto.v4.JobSpecification;
 import com.netflix.genie.test.categories.UnitTest;
 import com.netflix.genie.web.properties.JobsProperties;
+import com.netflix.genie.web.services.ActiveJobCountService;
 import com.netflix.genie.web.services.ApplicationPersistenceService;
 import com.netflix.genie.web.services.ClusterPersistenceService;
 import com.netflix.genie.web.services.CommandPersistenceService;
 import com.netflix.genie.web.services.JobKillService;
 import com.netflix.genie.web.services.JobPersistenceService;
-import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.JobQueueService;
 import com.netflix.genie.web.services.JobSpecificationService;
 import com.netflix.genie.web.services.JobStateService;
 import com.netflix.genie.web.util.MetricsUtils;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -58,6 +63,7 @@ import org.mockito.MockitoAnnotations;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -87,7 +93,8 @@ public class JobCoordinatorServiceImplUnitTests {
     private JobPersistenceService jobPersistenceService;
     private JobKillService jobKillService;
     private JobStateService jobStateService;
-    private JobSearchService jobSearchService;
+    private ActiveJobCountService activeJobCountService;
+    private JobQueueService jobQueueService;
     private ApplicationPersistenceService applicationPersistenceService;
     private ClusterPersistenceService clusterPersistenceService;
     private CommandPersistenceService commandPersistenceService;
@@ -95,6 +102,7 @@ public class JobCoordinatorServiceImplUnitTests {
     private JobsProperties jobsProperties;
     private MeterRegistry registry;
     private Timer coordinationTimer;
+    private Timer batchCoordinationTimer;
     private Timer setJobEnvironmentTimer;
 
     /**
@@ -106,7 +114,8 @@ public class JobCoordinatorServiceImplUnitTests {
         this.jobPersistenceService = Mockito.mock(JobPersistenceService.class);
         this.jobKillService = Mockito.mock(JobKillService.class);
         this.jobStateService = Mockito.mock(JobStateService.class);
-        this.jobSearchService = Mockito.mock(JobSearchService.class);
+        this.activeJobCountService = Mockito.mock(ActiveJobCountService.class);
+        this.jobQueueService = Mockito.mock(JobQueueService.class);
         this.jobsProperties = new JobsProperties();
         this.jobsProperties.getLocations().setArchives(BASE_ARCHIVE_LOCATION);
         this.jobsProperties.getMemory().setDefaultJobMemory(MEMORY);
@@ -126,6 +135,15 @@ public class JobCoordinatorServiceImplUnitTests {
                 )
             )
             .thenReturn(this.coordinationTimer);
+        this.batchCoordinationTimer = Mockito.mock(Timer.class);
+        Mockito
+            .when(
+                this.registry.timer(
+                    Mockito.eq(JobCoordinatorServiceImpl.BATCH_COORDINATION_TIMER_NAME),
+                    Mockito.anySet()
+                )
+            )
+            .thenReturn(this.batchCoordinationTimer);
         this.setJobEnvironmentTimer = Mockito.mock(Timer.class);
         Mockito
             .when(
@@ -140,9 +158,10 @@ public class JobCoordinatorServiceImplUnitTests {
             this.jobPersistenceService,
             this.jobKillService,
             this.jobStateService,
+            this.jobQueueService,
             this.jobsProperties,
             this.applicationPersistenceService,
-            this.jobSearchService,
+            this.activeJobCountService,
             this.clusterPersistenceService,
             this.commandPersistenceService,
             this.specificationService,
@@ -525,6 +544,123 @@ public class JobCoordinatorServiceImplUnitTests {
         }
     }
 
+    /**
+     * Test the coordinate job method queues the job instead of rejecting it when there isn't enough memory available
+     * and queueing is enabled.
+     *
+     * @throws GenieException If there is any problem
+     */
+    @Test
+    public void canQueueJobIfNotEnoughMemoryAvailable() throws GenieException {
+        this.jobsProperties.getQueue().setEnabled(true);
+        final Set<String> commandCriteria = Sets.newHashSet(
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString(),
+            UUID.randomUUID().toString()
+        );
+
+        final JobRequest jobRequest = this.getJobRequest(false, commandCriteria, null, null);
+        final JobMetadata jobMetadata = this.getJobMetadata();
+
+        final String clusterId = UUID.randomUUID().toString();
+        final Cluster cluster = Mockito.mock(Cluster.class);
+        Mockito.when(cluster.getId()).thenReturn(clusterId);
+        Mockito.when(this.clusterPersistenceService.getCluster(clusterId)).thenReturn(cluster);
+
+        final String commandId = UUID.randomUUID().toString();
+        final Command command = Mockito.mock(Command.class);
+        Mockito.when(command.getId()).thenReturn(commandId);
+        Mockito.when(command.getMemory()).thenReturn(Optional.of(1));
+        Mockito.when(this.commandPersistenceService.getCommand(commandId)).thenReturn(command);
+
+        final String application0Id = UUID.randomUUID().toString();
+        final Application application0 = Mockito.mock(Application.class);
+        Mockito.when(application0.getId()).thenReturn(application0Id);
+        Mockito.when(this.applicationPersistenceService.getApplication(application0Id)).thenReturn(application0);
+
+        final String application1Id = UUID.randomUUID().toString();
+        final Application application1 = Mockito.mock(Application.class);
+        Mockito.when(application1.getId()).thenReturn(application1Id);
+        Mockito.when(this.applicationPersistenceService.getApplication(application1Id)).thenReturn(application1);
+
+        final JobSpecification jobSpecification = new JobSpecification(
+            null,
+            new JobSpecification.ExecutionResource(
+                jobRequest.getId().orElseThrow(IllegalArgumentException::new),
+                new ExecutionEnvironment(null, null, null)
+            ),
+            new JobSpecification.ExecutionResource(
+                clusterId,
+                new ExecutionEnvironment(null, null, null)
+            ),
+            new JobSpecification.ExecutionResource(
+                commandId,
+                new ExecutionEnvironment(null, null, null)
+            ),
+            Lists.newArrayList(
+                new JobSpecification.ExecutionResource(
+                    application0Id,
+                    new ExecutionEnvironment(null, null, null)
+                ),
+                new JobSpecification.ExecutionResource(
+                    application1Id,
+                    new ExecutionEnvironment(null, null, null)
+                )
+            ),
+            null,
+            false,
+            new File("/tmp/genie/jobs/" + JOB_1_ID)
+        );
+
+        Mockito
+            .when(
+                this.specificationService.resolveJobSpecification(
+                    Mockito.anyString(),
+                    Mockito.any(com.netflix.genie.common.internal.dto.v4.JobRequest.class))
+            )
+            .thenReturn(jobSpecification);
+
+        Mockito
+            .when(this.jobStateService.getUsedMemory())
+            .thenReturn(this.jobsProperties.getMemory().getMaxSystemMemory());
+
+        Mockito
+            .when(this.jobStateService.jobExists(Mockito.anyString()))
+            .thenReturn(true);
+
+        Assert.assertThat(
+            this.jobCoordinatorService.coordinateJob(jobRequest, jobMetadata),
+            Matchers.is(JOB_1_ID)
+        );
+
+        Mockito
+            .verify(this.jobQueueService, Mockito.times(1))
+            .enqueue(
+                Mockito.eq(JOB_1_ID),
+                Mockito.eq(jobRequest),
+                Mockito.eq(cluster),
+                Mockito.eq(command),
+                Mockito.eq(Lists.newArrayList(application0, application1)),
+                Mockito.eq(1)
+            );
+        Mockito
+            .verify(this.jobStateService, Mockito.never())
+            .schedule(
+                Mockito.anyString(),
+                Mockito.any(JobRequest.class),
+                Mockito.any(Cluster.class),
+                Mockito.any(Command.class),
+                Mockito.anyList(),
+                Mockito.anyInt()
+            );
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.never())
+            .updateJobStatus(Mockito.eq(JOB_1_ID), Mockito.eq(JobStatus.FAILED), Mockito.anyString());
+        Mockito
+            .verify(this.registry, Mockito.times(1))
+            .timer(JobCoordinatorServiceImpl.OVERALL_COORDINATION_TIMER_NAME, SUCCESS_TIMER_TAGS);
+    }
+
     /**
      * Test the coordinate job method allows a job through if the job user limit is exceeded but the limit itself is
      * disabled.
@@ -605,7 +741,7 @@ public class JobCoordinatorServiceImplUnitTests {
             .thenReturn(jobSpecification);
 
         Mockito
-            .when(this.jobSearchService.getActiveJobCountForUser(Mockito.any(String.class)))
+            .when(this.activeJobCountService.getActiveJobCount(Mockito.any(String.class)))
             .thenReturn(Long.valueOf(userActiveJobsLimit));
 
         this.jobCoordinatorService.coordinateJob(jobRequest, jobMetadata);
@@ -703,7 +839,7 @@ public class JobCoordinatorServiceImplUnitTests {
             .thenReturn(jobSpecification);
 
         Mockito
-            .when(this.jobSearchService.getActiveJobCountForUser(Mockito.any(String.class)))
+            .when(this.activeJobCountService.getActiveJobCount(Mockito.any(String.class)))
             .thenReturn(Long.valueOf(userActiveJobsLimit));
 
         try {
@@ -901,6 +1037,149 @@ public class JobCoordinatorServiceImplUnitTests {
         }
     }
 
+    /**
+     * Make sure a batch of jobs is saved at once and the candidate clusters and commands of jobs with identical
+     * criteria are only looked up once while the cluster is still selected for every job.
+     *
+     * @throws GenieException On error
+     */
+    @Test
+    public void canCoordinateJobs() throws GenieException {
+        final Set<String> commandCriteria = Sets.newHashSet(UUID.randomUUID().toString());
+        final List<JobRequest> jobRequests = Lists.newArrayList(
+            this.getJobRequest(UUID.randomUUID().toString(), commandCriteria),
+            this.getJobRequest(UUID.randomUUID().toString(), commandCriteria),
+            this.getJobRequest(UUID.randomUUID().toString(), commandCriteria)
+        );
+        final JobMetadata jobMetadata = this.getJobMetadata();
+        final Cluster cluster = this.mockJobSpecificationResolution();
+        final Map<Cluster, String> clustersAndCommands = ImmutableMap.of(cluster, UUID.randomUUID().toString());
+        Mockito
+            .when(
+                this.specificationService.resolveClustersAndCommands(
+                    Mockito.any(com.netflix.genie.common.internal.dto.v4.JobRequest.class)
+                )
+            )
+            .thenReturn(clustersAndCommands);
+        Mockito.when(this.jobStateService.getUsedMemory()).thenReturn(0);
+
+        final List<JobSubmissionResult> results = this.jobCoordinatorService.coordinateJobs(jobRequests, jobMetadata);
+
+        Assert.assertThat(results.size(), Matchers.is(jobRequests.size()));
+        for (int i = 0; i < jobRequests.size(); i++) {
+            final JobSubmissionResult result = results.get(i);
+            Assert.assertThat(result.getId(), Matchers.is(jobRequests.get(i).getId().orElse(null)));
+            Assert.assertTrue(result.isAccepted());
+        }
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .createJobs(
+                Mockito.eq(jobRequests),
+                Mockito.eq(jobMetadata),
+                Mockito.anyList(),
+                Mockito.anyList()
+            );
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.never())
+            .createJob(
+                Mockito.any(JobRequest.class),
+                Mockito.any(JobMetadata.class),
+                Mockito.any(Job.class),
+                Mockito.any(JobExecution.class)
+            );
+        Mockito
+            .verify(this.specificationService, Mockito.times(1))
+            .resolveClustersAndCommands(Mockito.any(com.netflix.genie.common.internal.dto.v4.JobRequest.class));
+        Mockito
+            .verify(this.specificationService, Mockito.times(jobRequests.size()))
+            .resolveJobSpecification(
+                Mockito.anyString(),
+                Mockito.any(com.netflix.genie.common.internal.dto.v4.JobRequest.class),
+                Mockito.eq(clustersAndCommands)
+            );
+        Mockito
+            .verify(this.specificationService, Mockito.never())
+            .resolveJobSpecification(
+                Mockito.anyString(),
+                Mockito.any(com.netflix.genie.common.internal.dto.v4.JobRequest.class)
+            );
+        Mockito
+            .verify(this.jobStateService, Mockito.times(jobRequests.size()))
+            .schedule(
+                Mockito.anyString(),
+                Mockito.any(JobRequest.class),
+                Mockito.eq(cluster),
+                Mockito.any(Command.class),
+                Mockito.anyList(),
+                Mockito.eq(MEMORY)
+            );
+        Mockito
+            .verify(this.batchCoordinationTimer, Mockito.times(1))
+            .record(Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS));
+        Mockito
+            .verify(this.registry, Mockito.times(1))
+            .timer(JobCoordinatorServiceImpl.BATCH_COORDINATION_TIMER_NAME, SUCCESS_TIMER_TAGS);
+    }
+
+    /**
+     * Make sure if a batch can't be saved at once the jobs are saved one by one and a rejected job doesn't fail the
+     * rest of the batch.
+     *
+     * @throws GenieException On error
+     */
+    @Test
+    public void canCoordinateJobsIfSomeAreRejected() throws GenieException {
+        final Set<String> commandCriteria = Sets.newHashSet(UUID.randomUUID().toString());
+        final JobRequest jobRequest1 = this.getJobRequest(UUID.randomUUID().toString(), commandCriteria);
+        final JobRequest jobRequest2 = this.getJobRequest(UUID.randomUUID().toString(), commandCriteria);
+        final List<JobRequest> jobRequests = Lists.newArrayList(jobRequest1, jobRequest2);
+        final JobMetadata jobMetadata = this.getJobMetadata();
+        this.mockJobSpecificationResolution();
+        Mockito.when(this.jobStateService.getUsedMemory()).thenReturn(0);
+
+        final GenieConflictException conflict = new GenieConflictException("Job already exists");
+        Mockito
+            .doThrow(conflict)
+            .when(this.jobPersistenceService)
+            .createJobs(Mockito.anyList(), Mockito.any(JobMetadata.class), Mockito.anyList(), Mockito.anyList());
+        Mockito
+            .doThrow(conflict)
+            .when(this.jobPersistenceService)
+            .createJob(
+                Mockito.eq(jobRequest1),
+                Mockito.any(JobMetadata.class),
+                Mockito.any(Job.class),
+                Mockito.any(JobExecution.class)
+            );
+
+        final List<JobSubmissionResult> results = this.jobCoordinatorService.coordinateJobs(jobRequests, jobMetadata);
+
+        Assert.assertThat(results.size(), Matchers.is(2));
+        Assert.assertFalse(results.get(0).isAccepted());
+        Assert.assertThat(results.get(0).getErrorCode().orElse(null), Matchers.is(conflict.getErrorCode()));
+        Assert.assertThat(results.get(0).getErrorMessage().orElse(null), Matchers.is(conflict.getMessage()));
+        Assert.assertTrue(results.get(1).isAccepted());
+        Assert.assertThat(results.get(1).getId(), Matchers.is(jobRequest2.getId().orElse(null)));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(2))
+            .createJob(
+                Mockito.any(JobRequest.class),
+                Mockito.any(JobMetadata.class),
+                Mockito.any(Job.class),
+                Mockito.any(JobExecution.class)
+            );
+        Mockito
+            .verify(this.jobStateService, Mockito.times(1))
+            .schedule(
+                Mockito.eq(jobRequest2.getId().orElse(null)),
+                Mockito.eq(jobRequest2),
+                Mockito.any(Cluster.class),
+                Mockito.any(Command.class),
+                Mockito.anyList(),
+                Mockito.eq(MEMORY)
+            );
+    }
+
     /**
      * Test killing a job without throwing an exception.
      *
@@ -955,6 +1234,53 @@ public class JobCoordinatorServiceImplUnitTests {
             .build();
     }
 
+    private JobRequest getJobRequest(final String id, final Set<String> commandCriteria) {
+        return new JobRequest.Builder(
+            JOB_1_NAME,
+            JOB_1_USER,
+            JOB_1_VERSION,
+            Lists.newArrayList(),
+            commandCriteria
+        )
+            .withId(id)
+            .withDisableLogArchival(true)
+            .build();
+    }
+
+    private Cluster mockJobSpecificationResolution() throws GenieException {
+        final String clusterId = UUID.randomUUID().toString();
+        final Cluster cluster = Mockito.mock(Cluster.class);
+        Mockito.when(cluster.getId()).thenReturn(clusterId);
+        Mockito.when(this.clusterPersistenceService.getCluster(clusterId)).thenReturn(cluster);
+
+        final String commandId = UUID.randomUUID().toString();
+        final Command command = Mockito.mock(Command.class);
+        Mockito.when(command.getId()).thenReturn(commandId);
+        Mockito.when(command.getMemory()).thenReturn(Optional.empty());
+        Mockito.when(this.commandPersistenceService.getCommand(commandId)).thenReturn(command);
+
+        final JobSpecification jobSpecification = new JobSpecification(
+            null,
+            new JobSpecification.ExecutionResource(JOB_1_ID, new ExecutionEnvironment(null, null, null)),
+            new JobSpecification.ExecutionResource(clusterId, new ExecutionEnvironment(null, null, null)),
+            new JobSpecification.ExecutionResource(commandId, new ExecutionEnvironment(null, null, null)),
+            Lists.newArrayList(),
+            null,
+            false,
+            new File("/tmp/genie/jobs/" + JOB_1_ID)
+        );
+        Mockito
+            .when(
+                this.specificationService.resolveJobSpecification(
+                    Mockito.anyString(),
+                    Mockito.any(com.netflix.genie.common.internal.dto.v4.JobRequest.class),
+                    Mockito.anyMap()
+                )
+            )
+            .thenReturn(jobSpecification);
+        return cluster;
+    }
+
     private JobMetadata getJobMetadata() {
         return new JobMetadata
             .Builder()
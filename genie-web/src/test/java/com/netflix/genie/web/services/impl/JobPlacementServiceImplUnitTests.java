@@ -0,0 +1,142 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.properties.JobsProperties;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.JobStateService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Unit tests for the JobPlacementServiceImpl class.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class JobPlacementServiceImplUnitTests {
+
+    private static final String LOCAL_HOST = "local.netflix.com";
+    private static final String HOST_A = "a.netflix.com";
+    private static final String HOST_B = "b.netflix.com";
+
+    private JobStateService jobStateService;
+    private NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
+    private MeterRegistry registry;
+    private JobPlacementServiceImpl service;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.jobStateService = Mockito.mock(JobStateService.class);
+        this.nodeHeartbeatPersistenceService = Mockito.mock(NodeHeartbeatPersistenceService.class);
+        this.registry = new SimpleMeterRegistry();
+        final JobsProperties jobsProperties = new JobsProperties();
+        jobsProperties.getMemory().setMaxSystemMemory(10_240);
+        jobsProperties.getPlacement().setLoadRefreshInterval(60_000L);
+        this.service = new JobPlacementServiceImpl(
+            this.jobStateService,
+            this.nodeHeartbeatPersistenceService,
+            jobsProperties,
+            new NodeHeartbeatProperties(),
+            LOCAL_HOST,
+            this.registry
+        );
+    }
+
+    /**
+     * Make sure the local node is chosen without looking at the rest of the cluster when the job fits.
+     */
+    @Test
+    public void prefersLocalNodeWhenJobFits() {
+        Mockito.when(this.jobStateService.getUsedMemory()).thenReturn(8_192);
+
+        Assert.assertThat(this.service.selectNode(2_048), Matchers.is(Optional.of(LOCAL_HOST)));
+        Mockito
+            .verify(this.nodeHeartbeatPersistenceService, Mockito.never())
+            .getUsedMemoryOfHostsWithHeartbeatSince(Mockito.any(Instant.class));
+        Assert.assertThat(
+            this.registry
+                .get(JobPlacementServiceImpl.SELECT_NODE_TIMER_NAME)
+                .tag(JobPlacementServiceImpl.PLACEMENT_TAG, JobPlacementServiceImpl.LOCAL_PLACEMENT)
+                .timer()
+                .count(),
+            Matchers.is(1L)
+        );
+    }
+
+    /**
+     * Make sure the least loaded remote node with room is chosen when the local node is full and that the chosen
+     * node is charged for the job until the load is refreshed.
+     */
+    @Test
+    public void selectsLeastLoadedRemoteNode() {
+        Mockito.when(this.jobStateService.getUsedMemory()).thenReturn(10_240);
+        Mockito
+            .when(this.nodeHeartbeatPersistenceService.getUsedMemoryOfHostsWithHeartbeatSince(Mockito.any()))
+            .thenReturn(ImmutableMap.of(LOCAL_HOST, 0, HOST_A, 4_096, HOST_B, 6_144));
+
+        Assert.assertThat(this.service.selectNode(2_048), Matchers.is(Optional.of(HOST_A)));
+        // A is now at 6 GB so it's a tie. Either is fine but B is the only one left after that.
+        Assert.assertTrue(this.service.selectNode(2_048).isPresent());
+        Assert.assertTrue(this.service.selectNode(2_048).isPresent());
+        // Both are at 8 GB now so a 4 GB job fits nowhere
+        Assert.assertFalse(this.service.selectNode(4_096).isPresent());
+
+        // The load is cached between refreshes
+        Mockito
+            .verify(this.nodeHeartbeatPersistenceService, Mockito.times(1))
+            .getUsedMemoryOfHostsWithHeartbeatSince(Mockito.any(Instant.class));
+        Assert.assertThat(
+            this.registry
+                .get(JobPlacementServiceImpl.SELECT_NODE_TIMER_NAME)
+                .tag(JobPlacementServiceImpl.PLACEMENT_TAG, JobPlacementServiceImpl.NONE_PLACEMENT)
+                .timer()
+                .count(),
+            Matchers.is(1L)
+        );
+    }
+
+    /**
+     * Make sure nothing is selected when no node has room for the job.
+     */
+    @Test
+    public void selectsNothingWhenClusterIsFull() {
+        Mockito.when(this.jobStateService.getUsedMemory()).thenReturn(10_000);
+        Mockito
+            .when(this.nodeHeartbeatPersistenceService.getUsedMemoryOfHostsWithHeartbeatSince(Mockito.any()))
+            .thenReturn(ImmutableMap.of(HOST_A, 9_216));
+
+        Assert.assertFalse(this.service.selectNode(2_048).isPresent());
+    }
+}
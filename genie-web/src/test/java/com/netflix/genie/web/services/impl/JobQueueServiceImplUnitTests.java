@@ -0,0 +1,382 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.ClusterCriteria;
+import com.netflix.genie.common.dto.JobRequest;
+import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.exceptions.GenieServerUnavailableException;
+import com.netflix.genie.common.internal.dto.v4.Cluster;
+import com.netflix.genie.common.internal.dto.v4.Command;
+import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.events.JobFinishedEvent;
+import com.netflix.genie.web.events.JobFinishedReason;
+import com.netflix.genie.web.properties.JobsProperties;
+import com.netflix.genie.web.services.ActiveJobCountService;
+import com.netflix.genie.web.services.ApplicationPersistenceService;
+import com.netflix.genie.web.services.ClusterPersistenceService;
+import com.netflix.genie.web.services.CommandPersistenceService;
+import com.netflix.genie.web.services.JobPersistenceService;
+import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.services.JobStateService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the JobQueueServiceImpl class.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class JobQueueServiceImplUnitTests {
+
+    private static final String HOST_NAME = "local.netflix.com";
+    private static final int MAX_SYSTEM_MEMORY = 2_048;
+    private static final int JOB_MEMORY = 1_024;
+
+    private JobPersistenceService jobPersistenceService;
+    private JobSearchService jobSearchService;
+    private ActiveJobCountService activeJobCountService;
+    private JobStateService jobStateService;
+    private JobsProperties jobsProperties;
+    private MeterRegistry registry;
+    private AtomicInteger usedMemory;
+    private JobQueueServiceImpl service;
+
+    /**
+     * Setup for the tests.
+     *
+     * @throws GenieException on error
+     */
+    @Before
+    public void setup() throws GenieException {
+        this.jobPersistenceService = Mockito.mock(JobPersistenceService.class);
+        this.jobSearchService = Mockito.mock(JobSearchService.class);
+        this.activeJobCountService = Mockito.mock(ActiveJobCountService.class);
+        this.jobStateService = Mockito.mock(JobStateService.class);
+        this.jobsProperties = new JobsProperties();
+        this.jobsProperties.getMemory().setMaxSystemMemory(MAX_SYSTEM_MEMORY);
+        this.jobsProperties.getQueue().setEnabled(true);
+        this.registry = new SimpleMeterRegistry();
+
+        // Scheduling a job charges its memory to the node like the real job state service does
+        this.usedMemory = new AtomicInteger();
+        Mockito.when(this.jobStateService.getUsedMemory()).thenAnswer(invocation -> this.usedMemory.get());
+        Mockito
+            .doAnswer(invocation -> this.usedMemory.addAndGet(invocation.<Integer>getArgument(5)))
+            .when(this.jobStateService)
+            .schedule(
+                Mockito.anyString(),
+                Mockito.any(JobRequest.class),
+                Mockito.any(Cluster.class),
+                Mockito.any(Command.class),
+                Mockito.anyList(),
+                Mockito.anyInt()
+            );
+        Mockito.when(this.jobSearchService.getJobStatus(Mockito.anyString())).thenReturn(JobStatus.QUEUED);
+
+        this.service = new JobQueueServiceImpl(
+            this.jobPersistenceService,
+            this.jobSearchService,
+            this.activeJobCountService,
+            this.jobStateService,
+            Mockito.mock(ApplicationPersistenceService.class),
+            Mockito.mock(ClusterPersistenceService.class),
+            Mockito.mock(CommandPersistenceService.class),
+            this.jobsProperties,
+            Mockito.mock(TaskScheduler.class),
+            this.registry,
+            HOST_NAME
+        );
+    }
+
+    /**
+     * Make sure a job is dispatched right away without being marked queued when the node has room for it.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canDispatchImmediately() throws GenieException {
+        final JobRequest jobRequest = this.createJobRequest("user");
+        this.enqueue(jobRequest);
+
+        this.verifyScheduled(jobRequest, 1);
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.never())
+            .updateJobStatus(Mockito.anyString(), Mockito.eq(JobStatus.QUEUED), Mockito.anyString());
+        Assert.assertThat(this.service.getQueueDepth(), Matchers.is(0));
+    }
+
+    /**
+     * Make sure a job which doesn't fit is marked queued and dispatched once memory frees up.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canQueueUntilMemoryFreesUp() throws GenieException {
+        this.usedMemory.set(MAX_SYSTEM_MEMORY);
+        final JobRequest jobRequest = this.createJobRequest("user");
+        final String jobId = jobRequest.getId().orElseThrow(IllegalArgumentException::new);
+        this.enqueue(jobRequest);
+
+        this.verifyScheduled(jobRequest, 0);
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .updateJobStatus(jobId, JobStatus.QUEUED, JobQueueServiceImpl.QUEUED_STATUS_MESSAGE);
+        Assert.assertThat(this.service.getQueueDepth(), Matchers.is(1));
+        Assert.assertThat(
+            this.registry.get(JobQueueServiceImpl.DEPTH_GAUGE_NAME).gauge().value(),
+            Matchers.is(1.0)
+        );
+
+        // Nothing changes until memory frees up
+        this.service.dispatch();
+        this.verifyScheduled(jobRequest, 0);
+
+        this.usedMemory.set(0);
+        this.service.dispatch();
+        this.verifyScheduled(jobRequest, 1);
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .updateJobStatus(jobId, JobStatus.INIT, JobQueueServiceImpl.INIT_STATUS_MESSAGE);
+        Assert.assertThat(this.service.getQueueDepth(), Matchers.is(0));
+        Assert.assertThat(this.registry.get(JobQueueServiceImpl.WAIT_TIMER_NAME).timer().count(), Matchers.is(1L));
+    }
+
+    /**
+     * Make sure the user who is using the least of their share goes first regardless of submission order.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canDispatchInFairShareOrder() throws GenieException {
+        this.usedMemory.set(MAX_SYSTEM_MEMORY);
+        final JobRequest a1 = this.createJobRequest("a");
+        final JobRequest a2 = this.createJobRequest("a");
+        final JobRequest b1 = this.createJobRequest("b");
+        this.enqueue(a1);
+        this.enqueue(a2);
+        this.enqueue(b1);
+        Assert.assertThat(this.service.getQueueDepth(), Matchers.is(3));
+
+        this.usedMemory.set(0);
+        this.service.dispatch();
+
+        // a1 is the oldest. After that user a is using its share so b goes ahead of a2.
+        this.verifyScheduled(a1, 1);
+        this.verifyScheduled(b1, 1);
+        this.verifyScheduled(a2, 0);
+        Assert.assertThat(this.service.getQueueDepth(), Matchers.is(1));
+    }
+
+    /**
+     * Make sure a heavier weight lets a user use more of the node before others go ahead of it.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canWeighShares() throws GenieException {
+        this.jobsProperties.getMemory().setMaxSystemMemory(5 * JOB_MEMORY);
+        this.jobsProperties.getQueue().getWeights().put("a", 3.0);
+        this.usedMemory.set(5 * JOB_MEMORY);
+        final JobRequest a1 = this.createJobRequest("a");
+        final JobRequest a2 = this.createJobRequest("a");
+        final JobRequest a3 = this.createJobRequest("a");
+        final JobRequest b1 = this.createJobRequest("b");
+        final JobRequest b2 = this.createJobRequest("b");
+        this.enqueue(a1);
+        this.enqueue(a2);
+        this.enqueue(a3);
+        this.enqueue(b1);
+        this.enqueue(b2);
+
+        // Room for four jobs
+        this.usedMemory.set(JOB_MEMORY);
+        this.service.dispatch();
+
+        // a1 is the oldest and b1 goes next as b has no share yet. With a weight of three a can then run two more
+        // jobs before its share matches the one job of b.
+        this.verifyScheduled(a1, 1);
+        this.verifyScheduled(b1, 1);
+        this.verifyScheduled(a2, 1);
+        this.verifyScheduled(a3, 1);
+        this.verifyScheduled(b2, 0);
+    }
+
+    /**
+     * Make sure a higher priority job of the same share goes first.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canDispatchByPriority() throws GenieException {
+        this.usedMemory.set(MAX_SYSTEM_MEMORY);
+        final JobRequest low = this.createJobRequest("user");
+        final JobRequest high = this.createJobRequest("user", "genie.priority:10");
+        final JobRequest invalid = this.createJobRequest("user", "genie.priority:high");
+        this.enqueue(low);
+        this.enqueue(high);
+        this.enqueue(invalid);
+
+        this.usedMemory.set(JOB_MEMORY);
+        this.service.dispatch();
+
+        this.verifyScheduled(high, 1);
+        this.verifyScheduled(low, 0);
+        this.verifyScheduled(invalid, 0);
+    }
+
+    /**
+     * Make sure a job whose status changed while it was queued, for example because it was killed, is dropped.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void wontDispatchJobNoLongerQueued() throws GenieException {
+        this.usedMemory.set(MAX_SYSTEM_MEMORY);
+        final JobRequest jobRequest = this.createJobRequest("user");
+        final String jobId = jobRequest.getId().orElseThrow(IllegalArgumentException::new);
+        this.enqueue(jobRequest);
+        Mockito.when(this.jobSearchService.getJobStatus(jobId)).thenReturn(JobStatus.KILLED);
+
+        this.usedMemory.set(0);
+        this.service.dispatch();
+
+        this.verifyScheduled(jobRequest, 0);
+        Mockito.verify(this.jobStateService, Mockito.times(1)).done(jobId);
+        Assert.assertThat(this.service.getQueueDepth(), Matchers.is(0));
+    }
+
+    /**
+     * Make sure a finished job is taken out of the queue.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canRemoveFinishedJob() throws GenieException {
+        this.usedMemory.set(MAX_SYSTEM_MEMORY);
+        final JobRequest jobRequest = this.createJobRequest("user");
+        this.enqueue(jobRequest);
+        Assert.assertThat(this.service.getQueueDepth(), Matchers.is(1));
+
+        this.service.onJobFinished(
+            new JobFinishedEvent(
+                jobRequest.getId().orElseThrow(IllegalArgumentException::new),
+                JobFinishedReason.KILLED,
+                "killed",
+                this
+            )
+        );
+        Assert.assertThat(this.service.getQueueDepth(), Matchers.is(0));
+    }
+
+    /**
+     * Make sure users over their active job limit wait while others go ahead of them.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canHoldUsersOverActiveLimit() throws GenieException {
+        this.jobsProperties.getUsers().getActiveLimit().setEnabled(true);
+        this.jobsProperties.getUsers().getActiveLimit().setCount(2);
+        Mockito.when(this.activeJobCountService.getActiveJobCount("a")).thenReturn(2L);
+        Mockito.when(this.activeJobCountService.getActiveJobCount("b")).thenReturn(0L);
+        final JobRequest a1 = this.createJobRequest("a");
+        final JobRequest b1 = this.createJobRequest("b");
+        this.enqueue(a1);
+        this.enqueue(b1);
+
+        this.verifyScheduled(a1, 0);
+        this.verifyScheduled(b1, 1);
+        Assert.assertThat(this.service.getQueueDepth(), Matchers.is(1));
+    }
+
+    /**
+     * Make sure submissions are rejected once the queue is full.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void cantEnqueueWhenQueueIsFull() throws GenieException {
+        this.jobsProperties.getQueue().setMaxDepth(1);
+        this.usedMemory.set(MAX_SYSTEM_MEMORY);
+        this.enqueue(this.createJobRequest("user"));
+
+        try {
+            this.enqueue(this.createJobRequest("user"));
+            Assert.fail();
+        } catch (final GenieServerUnavailableException e) {
+            Assert.assertThat(this.service.getQueueDepth(), Matchers.is(1));
+            Assert.assertThat(
+                this.registry.get(JobQueueServiceImpl.REJECTED_COUNTER_NAME).counter().count(),
+                Matchers.is(1.0)
+            );
+        }
+    }
+
+    private JobRequest createJobRequest(final String user, final String... tags) {
+        return new JobRequest.Builder(
+            UUID.randomUUID().toString(),
+            user,
+            UUID.randomUUID().toString(),
+            Lists.newArrayList(new ClusterCriteria(Sets.newHashSet(UUID.randomUUID().toString()))),
+            Sets.newHashSet(UUID.randomUUID().toString())
+        )
+            .withId(UUID.randomUUID().toString())
+            .withTags(Sets.newHashSet(tags))
+            .build();
+    }
+
+    private void enqueue(final JobRequest jobRequest) throws GenieException {
+        this.service.enqueue(
+            jobRequest.getId().orElseThrow(IllegalArgumentException::new),
+            jobRequest,
+            Mockito.mock(Cluster.class),
+            Mockito.mock(Command.class),
+            Lists.newArrayList(),
+            JOB_MEMORY
+        );
+    }
+
+    private void verifyScheduled(final JobRequest jobRequest, final int times) {
+        Mockito
+            .verify(this.jobStateService, Mockito.times(times))
+            .schedule(
+                Mockito.eq(jobRequest.getId().orElseThrow(IllegalArgumentException::new)),
+                Mockito.eq(jobRequest),
+                Mockito.any(Cluster.class),
+                Mockito.any(Command.class),
+                Mockito.anyList(),
+                Mockito.eq(JOB_MEMORY)
+            );
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.exceptions.GenieNotFoundException;
+import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.events.JobStatusChangedEvent;
+import com.netflix.genie.web.properties.JobsStatusWaitProperties;
+import com.netflix.genie.web.services.JobSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Unit tests for the JobStatusWaitServiceImpl class.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class JobStatusWaitServiceImplUnitTests {
+
+    private static final String JOB_ID = "job1";
+    private static final Set<JobStatus> ACTIVE = Sets.newHashSet(JobStatus.INIT, JobStatus.RUNNING);
+
+    private JobSearchService jobSearchService;
+    private MeterRegistry registry;
+    private JobStatusWaitServiceImpl service;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.jobSearchService = Mockito.mock(JobSearchService.class);
+        final TaskScheduler taskScheduler = Mockito.mock(TaskScheduler.class);
+        Mockito
+            .doReturn(Mockito.mock(ScheduledFuture.class))
+            .when(taskScheduler)
+            .scheduleWithFixedDelay(Mockito.any(Runnable.class), Mockito.anyLong());
+        this.registry = new SimpleMeterRegistry();
+        this.service = new JobStatusWaitServiceImpl(
+            this.jobSearchService,
+            new JobsStatusWaitProperties(),
+            taskScheduler,
+            this.registry
+        );
+    }
+
+    /**
+     * Make sure the future is completed right away when the job isn't in any of the statuses.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    public void completesImmediatelyWhenNotInStatuses() throws Exception {
+        Mockito.when(this.jobSearchService.getJobStatus(JOB_ID)).thenReturn(JobStatus.SUCCEEDED);
+
+        final CompletableFuture<JobStatus> future = this.service.waitWhileStatus(JOB_ID, ACTIVE);
+
+        Assert.assertThat(future.isDone(), Matchers.is(true));
+        Assert.assertThat(future.get(), Matchers.is(JobStatus.SUCCEEDED));
+        Assert.assertThat(this.getWaiters(), Matchers.is(0.0));
+    }
+
+    /**
+     * Make sure a status change made by this node completes the future once it moves out of the statuses.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    public void completesOnStatusChangedEvent() throws Exception {
+        Mockito.when(this.jobSearchService.getJobStatus(JOB_ID)).thenReturn(JobStatus.INIT);
+
+        final CompletableFuture<JobStatus> future = this.service.waitWhileStatus(JOB_ID, ACTIVE);
+        Assert.assertThat(future.isDone(), Matchers.is(false));
+        Assert.assertThat(this.getWaiters(), Matchers.is(1.0));
+
+        this.service.onJobStatusChanged(new JobStatusChangedEvent(JOB_ID, JobStatus.INIT, JobStatus.RUNNING, this));
+        Assert.assertThat(future.isDone(), Matchers.is(false));
+
+        this.service.onJobStatusChanged(new JobStatusChangedEvent(JOB_ID, JobStatus.RUNNING, JobStatus.FAILED, this));
+        Assert.assertThat(future.get(), Matchers.is(JobStatus.FAILED));
+        Assert.assertThat(this.getWaiters(), Matchers.is(0.0));
+    }
+
+    /**
+     * Make sure a status change missed between the first read and the registration of the waiter isn't lost.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    public void completesWhenStatusChangedDuringRegistration() throws Exception {
+        Mockito
+            .when(this.jobSearchService.getJobStatus(JOB_ID))
+            .thenReturn(JobStatus.RUNNING)
+            .thenReturn(JobStatus.KILLED);
+
+        final CompletableFuture<JobStatus> future = this.service.waitWhileStatus(JOB_ID, ACTIVE);
+
+        Assert.assertThat(future.get(), Matchers.is(JobStatus.KILLED));
+    }
+
+    /**
+     * Make sure the periodic check completes the futures of jobs changed by other nodes and fails those of jobs which
+     * can't be found anymore.
+     *
+     * @throws Exception on error
+     */
+    @Test
+    public void canCheckAll() throws Exception {
+        final String otherId = "job2";
+        final String missingId = "job3";
+        Mockito.when(this.jobSearchService.getJobStatus(Mockito.anyString())).thenReturn(JobStatus.RUNNING);
+        final CompletableFuture<JobStatus> future = this.service.waitWhileStatus(JOB_ID, ACTIVE);
+        final CompletableFuture<JobStatus> otherFuture = this.service.waitWhileStatus(otherId, ACTIVE);
+        final CompletableFuture<JobStatus> missingFuture = this.service.waitWhileStatus(missingId, ACTIVE);
+        Mockito
+            .when(this.jobSearchService.getJobStatuses(Sets.newHashSet(JOB_ID, otherId, missingId)))
+            .thenReturn(ImmutableMap.of(JOB_ID, JobStatus.SUCCEEDED, otherId, JobStatus.RUNNING));
+
+        this.service.checkAll();
+
+        Assert.assertThat(future.get(), Matchers.is(JobStatus.SUCCEEDED));
+        Assert.assertThat(otherFuture.isDone(), Matchers.is(false));
+        try {
+            missingFuture.get();
+            Assert.fail();
+        } catch (final ExecutionException e) {
+            Assert.assertThat(e.getCause(), Matchers.instanceOf(GenieNotFoundException.class));
+        }
+        Assert.assertThat(this.getWaiters(), Matchers.is(1.0));
+        Assert.assertThat(
+            this.registry.get(JobStatusWaitServiceImpl.CHECK_TIMER_NAME).timer().count(),
+            Matchers.is(1L)
+        );
+    }
+
+    /**
+     * Make sure cancelled waiters are no longer tracked and nothing is read when nobody is waiting.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void cancelledWaitersAreRemoved() throws GenieException {
+        Mockito.when(this.jobSearchService.getJobStatus(JOB_ID)).thenReturn(JobStatus.RUNNING);
+        final CompletableFuture<JobStatus> future = this.service.waitWhileStatus(JOB_ID, ACTIVE);
+
+        future.cancel(false);
+        this.service.checkAll();
+
+        Assert.assertThat(this.getWaiters(), Matchers.is(0.0));
+        Mockito.verify(this.jobSearchService, Mockito.never()).getJobStatuses(Mockito.anySet());
+    }
+
+    private double getWaiters() {
+        return this.registry.get(JobStatusWaitServiceImpl.WAITERS_GAUGE_NAME).gauge().value();
+    }
+}
@@ -20,6 +20,7 @@ package com.netflix.genie.web.services.impl;
 import com.google.common.io.Files;
 import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobStatus;
+import com.netflix.genie.common.dto.JobStatusMessages;
 import com.netflix.genie.common.exceptions.GenieException;
 import com.netflix.genie.common.exceptions.GeniePreconditionException;
 import com.netflix.genie.common.exceptions.GenieServerException;
@@ -286,4 +287,27 @@ public class LocalJobKillServiceImplUnitTests {
         Mockito.verify(this.jobSearchService, Mockito.never()).getJobExecution(ID);
         Mockito.verify(this.executor, Mockito.never()).execute(Mockito.any(CommandLine.class));
     }
+
+    /**
+     * Test to make sure that if the job is queued it doesn't do anything but throw a job finished event.
+     *
+     * @throws GenieException on error
+     * @throws IOException    on error
+     */
+    @Test
+    public void canKillJobInQueuedState() throws GenieException, IOException {
+        final ArgumentCaptor<JobFinishedEvent> captor = ArgumentCaptor.forClass(JobFinishedEvent.class);
+        Mockito.when(this.jobSearchService.getJobStatus(ID)).thenReturn(JobStatus.QUEUED);
+        this.service.killJob(ID, KILL_REASON);
+
+        Mockito.verify(this.genieEventBus, Mockito.times(1)).publishSynchronousEvent(captor.capture());
+        Assert.assertThat(captor.getValue().getId(), Matchers.is(ID));
+        Assert.assertThat(captor.getValue().getReason(), Matchers.is(JobFinishedReason.KILLED));
+        Assert.assertThat(
+            captor.getValue().getMessage(),
+            Matchers.is(JobStatusMessages.USER_REQUESTED_JOB_BE_KILLED_WHILE_QUEUED)
+        );
+        Mockito.verify(this.jobSearchService, Mockito.never()).getJobExecution(ID);
+        Mockito.verify(this.executor, Mockito.never()).execute(Mockito.any(CommandLine.class));
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.impl;
+
+import com.google.common.collect.Lists;
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Unit tests for {@link MySqlJobPartitionServiceImpl}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class MySqlJobPartitionServiceImplUnitTests {
+
+    private static final Instant NOW = Instant.parse("2018-10-20T00:00:00Z");
+    private static final int NUM_TABLES = MySqlJobPartitionServiceImpl.CHILD_TABLES.size() + 1;
+
+    private JdbcTemplate jdbcTemplate;
+    private MySqlJobPartitionServiceImpl service;
+
+    /**
+     * Setup for tests.
+     */
+    @Before
+    public void setup() {
+        this.jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        this.service = new MySqlJobPartitionServiceImpl(this.jdbcTemplate);
+    }
+
+    /**
+     * Make sure the future partition of every table is split at the next job id.
+     */
+    @Test
+    public void canCloseCurrentPartition() {
+        this.mockPartitions(
+            new MySqlJobPartitionServiceImpl.Partition("p_initial", "10"),
+            new MySqlJobPartitionServiceImpl.Partition(MySqlJobPartitionServiceImpl.FUTURE_PARTITION, "MAXVALUE")
+        );
+        Mockito.when(this.jdbcTemplate.queryForObject(Mockito.anyString(), Mockito.eq(Long.class))).thenReturn(25L);
+
+        Assert.assertTrue(this.service.closeCurrentPartition(NOW));
+
+        final ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(this.jdbcTemplate, Mockito.times(NUM_TABLES)).execute(statements.capture());
+        for (final String statement : statements.getAllValues()) {
+            Assert.assertThat(statement, Matchers.containsString("REORGANIZE PARTITION p_future"));
+            Assert.assertThat(statement, Matchers.containsString("PARTITION p20181020 VALUES LESS THAN (25)"));
+        }
+        Assert.assertThat(
+            statements.getAllValues().get(NUM_TABLES - 1),
+            Matchers.startsWith("ALTER TABLE " + MySqlJobPartitionServiceImpl.JOBS_TABLE + " ")
+        );
+    }
+
+    /**
+     * Make sure nothing is split if the partition for the day already exists or there are no new jobs.
+     */
+    @Test
+    public void wontCloseCurrentPartitionTwice() {
+        this.mockPartitions(
+            new MySqlJobPartitionServiceImpl.Partition("p20181020", "25"),
+            new MySqlJobPartitionServiceImpl.Partition(MySqlJobPartitionServiceImpl.FUTURE_PARTITION, "MAXVALUE")
+        );
+        Mockito.when(this.jdbcTemplate.queryForObject(Mockito.anyString(), Mockito.eq(Long.class))).thenReturn(25L);
+
+        Assert.assertFalse(this.service.closeCurrentPartition(NOW));
+        Assert.assertFalse(this.service.closeCurrentPartition(NOW.plusSeconds(86_400L)));
+        Mockito.verify(this.jdbcTemplate, Mockito.never()).execute(Mockito.anyString());
+    }
+
+    /**
+     * Make sure only partitions which hold nothing but expired jobs are dropped.
+     */
+    @Test
+    public void canDropPartitionsCreatedBefore() {
+        this.mockPartitions(
+            new MySqlJobPartitionServiceImpl.Partition("p_initial", "10"),
+            new MySqlJobPartitionServiceImpl.Partition("p20181019", "20"),
+            new MySqlJobPartitionServiceImpl.Partition(MySqlJobPartitionServiceImpl.FUTURE_PARTITION, "MAXVALUE")
+        );
+        Mockito
+            .when(
+                this.jdbcTemplate.queryForObject(
+                    Mockito.anyString(),
+                    Mockito.eq(Long.class),
+                    Mockito.any(Timestamp.class)
+                )
+            )
+            .thenReturn(15L);
+        Mockito
+            .when(this.jdbcTemplate.queryForList(Mockito.anyString(), Mockito.eq(Long.class)))
+            .thenReturn(Lists.newArrayList());
+
+        Assert.assertThat(this.service.dropPartitionsCreatedBefore(NOW), Matchers.is(1));
+
+        final ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(this.jdbcTemplate, Mockito.times(NUM_TABLES)).execute(statements.capture());
+        for (final String statement : statements.getAllValues()) {
+            Assert.assertThat(statement, Matchers.endsWith("DROP PARTITION p_initial"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockPartitions(final MySqlJobPartitionServiceImpl.Partition... partitions) {
+        final List<MySqlJobPartitionServiceImpl.Partition> partitionList = Lists.newArrayList(partitions);
+        Mockito
+            .when(this.jdbcTemplate.query(Mockito.anyString(), Mockito.any(RowMapper.class), Mockito.anyString()))
+            .thenReturn(partitionList);
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.services.loadbalancers.loadaware;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.ClusterStatus;
+import com.netflix.genie.common.dto.JobRequest;
+import com.netflix.genie.common.exceptions.GenieException;
+import com.netflix.genie.common.internal.dto.v4.Cluster;
+import com.netflix.genie.common.internal.dto.v4.ClusterMetadata;
+import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.properties.LoadAwareLoadBalancerProperties;
+import com.netflix.genie.web.services.JobSearchService;
+import com.netflix.genie.web.util.MetricsUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Unit tests for the {@link LoadAwareLoadBalancer} class.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class LoadAwareLoadBalancerUnitTests {
+
+    private JobSearchService jobSearchService;
+    private LoadAwareLoadBalancerProperties properties;
+    private TaskScheduler taskScheduler;
+    private MeterRegistry registry;
+    private JobRequest jobRequest;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.jobSearchService = Mockito.mock(JobSearchService.class);
+        this.properties = new LoadAwareLoadBalancerProperties();
+        this.taskScheduler = Mockito.mock(TaskScheduler.class);
+        Mockito
+            .doReturn(Mockito.mock(ScheduledFuture.class))
+            .when(this.taskScheduler)
+            .scheduleWithFixedDelay(Mockito.any(Runnable.class), Mockito.anyLong());
+        this.registry = new SimpleMeterRegistry();
+        this.jobRequest = Mockito.mock(JobRequest.class);
+        Mockito.when(this.jobRequest.getId()).thenReturn(Optional.empty());
+    }
+
+    /**
+     * Make sure the refresh of the counts is scheduled with the configured rate.
+     */
+    @Test
+    public void schedulesRefresh() {
+        this.properties.setRefreshRate(1_234L);
+        final LoadAwareLoadBalancer loadBalancer = this.createLoadBalancer();
+        Mockito
+            .verify(this.taskScheduler, Mockito.times(1))
+            .scheduleWithFixedDelay(Mockito.any(Runnable.class), Mockito.eq(1_234L));
+        loadBalancer.shutdown();
+    }
+
+    /**
+     * Make sure the least loaded cluster is selected and selections in between refreshes are counted.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canSelectLeastLoadedCluster() throws GenieException {
+        this.properties.setStrategy(LoadAwareLoadBalancerProperties.Strategy.LEAST_LOADED);
+        final LoadAwareLoadBalancer loadBalancer = this.createLoadBalancer();
+        final Cluster cluster1 = createCluster("cluster1");
+        final Cluster cluster2 = createCluster("cluster2");
+        final Cluster cluster3 = createCluster("cluster3");
+        final Set<Cluster> clusters = Sets.newHashSet(cluster1, cluster2, cluster3);
+        Mockito
+            .when(this.jobSearchService.getActiveJobCountsByCluster())
+            .thenReturn(ImmutableMap.of("cluster1", 5L, "cluster2", 1L, "cluster3", 2L));
+        loadBalancer.refresh();
+
+        Assert.assertThat(loadBalancer.selectCluster(clusters, this.jobRequest), Matchers.is(cluster2));
+        // cluster2 and cluster3 are now tied at 2 active jobs
+        Assert.assertThat(
+            loadBalancer.selectCluster(clusters, this.jobRequest),
+            Matchers.isOneOf(cluster2, cluster3)
+        );
+        loadBalancer.selectCluster(clusters, this.jobRequest);
+        // Both are now at 3 active jobs
+        Assert.assertThat(
+            loadBalancer.selectCluster(clusters, this.jobRequest),
+            Matchers.isOneOf(cluster2, cluster3)
+        );
+
+        // Refreshing replaces the counts kept since the last refresh
+        loadBalancer.refresh();
+        Assert.assertThat(loadBalancer.selectCluster(clusters, this.jobRequest), Matchers.is(cluster2));
+        Assert.assertThat(
+            this.registry
+                .get(LoadAwareLoadBalancer.SELECT_TIMER_NAME)
+                .tags(MetricsUtils.newSuccessTagsSet())
+                .timer()
+                .count(),
+            Matchers.is(5L)
+        );
+    }
+
+    /**
+     * Make sure the capacity tags of clusters are taken into account.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canUseCapacityTags() throws GenieException {
+        this.properties.setStrategy(LoadAwareLoadBalancerProperties.Strategy.LEAST_LOADED);
+        final LoadAwareLoadBalancer loadBalancer = this.createLoadBalancer();
+        final Cluster small = createCluster("small");
+        final Cluster large = createCluster("large", "genie.capacity:10");
+        final Cluster invalid = createCluster("invalid", "genie.capacity:lots", "genie.capacity:-1");
+        final Set<Cluster> clusters = Sets.newHashSet(small, large, invalid);
+        Mockito
+            .when(this.jobSearchService.getActiveJobCountsByCluster())
+            .thenReturn(ImmutableMap.of("small", 1L, "large", 8L, "invalid", 2L));
+        loadBalancer.refresh();
+
+        // large is at (8 + 1) / 10 while the others are at 2 / 1 and 3 / 1
+        Assert.assertThat(loadBalancer.selectCluster(clusters, this.jobRequest), Matchers.is(large));
+        Assert.assertThat(loadBalancer.selectCluster(clusters, this.jobRequest), Matchers.is(large));
+        // large is now at 11 / 10 and small at 2 / 1
+        this.properties.setDefaultCapacity(2.0);
+        Assert.assertThat(loadBalancer.selectCluster(clusters, this.jobRequest), Matchers.is(small));
+    }
+
+    /**
+     * Make sure the power of two choices strategy picks the less loaded of two distinct clusters.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void canSelectWithPowerOfTwoChoices() throws GenieException {
+        final LoadAwareLoadBalancer loadBalancer = this.createLoadBalancer();
+        final Cluster cluster1 = createCluster("cluster1");
+        final Cluster cluster2 = createCluster("cluster2");
+        final Cluster cluster3 = createCluster("cluster3");
+        final Set<Cluster> clusters = Sets.newHashSet(cluster1, cluster2, cluster3);
+        Mockito
+            .when(this.jobSearchService.getActiveJobCountsByCluster())
+            .thenReturn(ImmutableMap.of("cluster1", 1_000L, "cluster2", 0L, "cluster3", 0L));
+
+        // The most loaded cluster always loses the comparison with whichever cluster it's paired with
+        for (int i = 0; i < 50; i++) {
+            loadBalancer.refresh();
+            Assert.assertThat(
+                loadBalancer.selectCluster(clusters, this.jobRequest),
+                Matchers.isOneOf(cluster2, cluster3)
+            );
+        }
+
+        // With only two candidates both are always compared
+        loadBalancer.refresh();
+        Assert.assertThat(
+            loadBalancer.selectCluster(Sets.newHashSet(cluster1, cluster3), this.jobRequest),
+            Matchers.is(cluster3)
+        );
+    }
+
+    /**
+     * Make sure a failed refresh keeps the previous counts.
+     *
+     * @throws GenieException on error
+     */
+    @Test
+    public void failedRefreshKeepsCounts() throws GenieException {
+        this.properties.setStrategy(LoadAwareLoadBalancerProperties.Strategy.LEAST_LOADED);
+        final LoadAwareLoadBalancer loadBalancer = this.createLoadBalancer();
+        final Cluster cluster1 = createCluster("cluster1");
+        final Cluster cluster2 = createCluster("cluster2");
+        Mockito
+            .when(this.jobSearchService.getActiveJobCountsByCluster())
+            .thenReturn(ImmutableMap.of("cluster1", 5L))
+            .thenThrow(new RuntimeException("test"));
+        loadBalancer.refresh();
+        loadBalancer.refresh();
+
+        Assert.assertThat(
+            loadBalancer.selectCluster(Sets.newHashSet(cluster1, cluster2), this.jobRequest),
+            Matchers.is(cluster2)
+        );
+        Assert.assertThat(
+            this.registry.get(LoadAwareLoadBalancer.REFRESH_TIMER_NAME).timers().size(),
+            Matchers.is(2)
+        );
+    }
+
+    private LoadAwareLoadBalancer createLoadBalancer() {
+        return new LoadAwareLoadBalancer(this.jobSearchService, this.properties, this.taskScheduler, this.registry);
+    }
+
+    private static Cluster createCluster(final String id, final String... tags) {
+        return new Cluster(
+            id,
+            Instant.now(),
+            Instant.now(),
+            null,
+            new ClusterMetadata.Builder(id, "tgianos", "1.0.0", ClusterStatus.UP)
+                .withTags(Sets.newHashSet(tags))
+                .build()
+        );
+    }
+}
@@ -18,6 +18,7 @@
 package com.netflix.genie.web.tasks.leader;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.netflix.genie.common.dto.Job;
 import com.netflix.genie.common.dto.JobExecution;
 import com.netflix.genie.common.dto.JobStatus;
@@ -28,6 +29,7 @@ import com.netflix.genie.web.properties.ClusterCheckerProperties;
 import com.netflix.genie.web.services.JobPersistenceService;
 import com.netflix.genie.web.services.JobSearchService;
 import com.netflix.genie.web.tasks.GenieTaskScheduleType;
+import com.netflix.genie.web.util.MetricsConstants;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
@@ -45,6 +47,11 @@ import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Unit tests for the ClusterCheckerTask class.
@@ -56,6 +63,9 @@ import java.util.UUID;
 public class ClusterCheckerTaskUnitTests {
 
     private ClusterCheckerTask task;
+    private ClusterCheckerProperties properties;
+    private WebEndpointProperties serverProperties;
+    private SimpleMeterRegistry registry;
     private String hostname;
     private JobSearchService jobSearchService;
     private JobPersistenceService jobPersistenceService;
@@ -69,26 +79,18 @@ public class ClusterCheckerTaskUnitTests {
     @Before
     public void setup() {
         this.hostname = UUID.randomUUID().toString();
-        final GenieHostInfo genieHostInfo = new GenieHostInfo(this.hostname);
-        final ClusterCheckerProperties properties = new ClusterCheckerProperties();
-        properties.setHealthIndicatorsToIgnore("memory,genie ");
+        this.properties = new ClusterCheckerProperties();
+        this.properties.setHealthIndicatorsToIgnore("memory,genie ");
         this.jobSearchService = Mockito.mock(JobSearchService.class);
         this.jobPersistenceService = Mockito.mock(JobPersistenceService.class);
         this.restTemplate = Mockito.mock(RestTemplate.class);
-        final WebEndpointProperties serverProperties = Mockito.mock(WebEndpointProperties.class);
-        Mockito.when(serverProperties.getBasePath()).thenReturn("/actuator");
-        this.task = new ClusterCheckerTask(
-            genieHostInfo,
-            properties,
-            this.jobSearchService,
-            this.jobPersistenceService,
-            this.restTemplate,
-            serverProperties,
-            new SimpleMeterRegistry()
-        );
+        this.serverProperties = Mockito.mock(WebEndpointProperties.class);
+        Mockito.when(this.serverProperties.getBasePath()).thenReturn("/actuator");
+        this.registry = new SimpleMeterRegistry();
+        this.task = this.createTask(MoreExecutors.directExecutor());
 
-        this.scheme = properties.getScheme() + "://";
-        this.healthEndpoint = ":" + properties.getPort() + "/actuator/health";
+        this.scheme = this.properties.getScheme() + "://";
+        this.healthEndpoint = ":" + this.properties.getPort() + "/actuator/health";
     }
 
     /**
@@ -255,6 +257,111 @@ public class ClusterCheckerTaskUnitTests {
             );
     }
 
+    /**
+     * Make sure a node which doesn't answer within the deadline counts as unhealthy without holding up the probes of
+     * the other nodes.
+     *
+     * @throws InterruptedException on error
+     */
+    @Test
+    public void canTimeOutUnresponsiveHosts() throws InterruptedException {
+        final String hungHost = UUID.randomUUID().toString();
+        final String healthyHost = UUID.randomUUID().toString();
+        final CountDownLatch release = new CountDownLatch(1);
+        Mockito
+            .when(
+                this.restTemplate.getForObject(
+                    Mockito.eq(this.scheme + hungHost + this.healthEndpoint),
+                    Mockito.any()
+                )
+            )
+            .thenAnswer(
+                invocation -> {
+                    release.await();
+                    return "";
+                }
+            );
+        Mockito
+            .when(
+                this.restTemplate.getForObject(
+                    Mockito.eq(this.scheme + healthyHost + this.healthEndpoint),
+                    Mockito.any()
+                )
+            )
+            .thenReturn("");
+        Mockito
+            .when(this.jobSearchService.getAllHostsWithActiveJobs())
+            .thenReturn(Sets.newHashSet(hungHost, healthyHost));
+
+        this.properties.setMaxConcurrentProbes(2);
+        this.properties.setProbeTimeout(50L);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            this.task = this.createTask(executor);
+            this.task.run();
+            Assert.assertThat(this.task.getErrorCountsSize(), Matchers.is(1));
+            Assert.assertThat(
+                this.registry.get("genie.tasks.clusterChecker.probeTimeout.rate").counter().count(),
+                Matchers.is(1.0)
+            );
+            Assert.assertThat(
+                this.registry
+                    .get("genie.tasks.clusterChecker.probe.timer")
+                    .tag(MetricsConstants.TagKeys.STATUS, MetricsConstants.TagValues.SUCCESS)
+                    .timer()
+                    .count(),
+                Matchers.is(1L)
+            );
+            Assert.assertThat(
+                this.registry.get("genie.tasks.clusterChecker.sweep.timer").timer().count(),
+                Matchers.is(1L)
+            );
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Make sure only the nodes belonging to the shard are probed.
+     */
+    @Test
+    public void canRunForShard() {
+        final ShardAssignment shard = new ShardAssignment(0, 2);
+        final ShardAssignment otherShard = new ShardAssignment(1, 2);
+        String ownedHost = UUID.randomUUID().toString();
+        while (!shard.isOwner(ownedHost)) {
+            ownedHost = UUID.randomUUID().toString();
+        }
+        String otherHost = UUID.randomUUID().toString();
+        while (!otherShard.isOwner(otherHost)) {
+            otherHost = UUID.randomUUID().toString();
+        }
+        Mockito
+            .when(this.jobSearchService.getAllHostsWithActiveJobs())
+            .thenReturn(Sets.newHashSet(ownedHost, otherHost));
+        Mockito
+            .when(this.restTemplate.getForObject(Mockito.anyString(), Mockito.any()))
+            .thenThrow(new RestClientException("blah"));
+
+        this.task.run(shard);
+        Assert.assertThat(this.task.getErrorCountsSize(), Matchers.is(1));
+        Mockito
+            .verify(this.restTemplate, Mockito.times(1))
+            .getForObject(Mockito.eq(this.scheme + ownedHost + this.healthEndpoint), Mockito.any());
+        Mockito
+            .verify(this.restTemplate, Mockito.never())
+            .getForObject(Mockito.eq(this.scheme + otherHost + this.healthEndpoint), Mockito.any());
+
+        // Once the node is no longer part of the shard its errors are forgotten
+        this.task.run(otherShard);
+        Assert.assertThat(this.task.getErrorCountsSize(), Matchers.is(1));
+        Mockito
+            .verify(this.restTemplate, Mockito.times(1))
+            .getForObject(Mockito.eq(this.scheme + otherHost + this.healthEndpoint), Mockito.any());
+    }
+
     /**
      * Make sure we get the right schedule type.
      */
@@ -286,4 +393,17 @@ public class ClusterCheckerTaskUnitTests {
     public void canGetFixedDelay() {
         this.task.getFixedDelay();
     }
+
+    private ClusterCheckerTask createTask(final Executor probeExecutor) {
+        return new ClusterCheckerTask(
+            new GenieHostInfo(this.hostname),
+            this.properties,
+            this.jobSearchService,
+            this.jobPersistenceService,
+            this.restTemplate,
+            probeExecutor,
+            this.serverProperties,
+            this.registry
+        );
+    }
 }
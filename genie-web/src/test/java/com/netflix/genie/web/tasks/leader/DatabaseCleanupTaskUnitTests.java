@@ -17,11 +17,13 @@
  */
 package com.netflix.genie.web.tasks.leader;
 
+import com.google.common.collect.Range;
 import com.netflix.genie.common.internal.jobs.JobConstants;
 import com.netflix.genie.test.categories.UnitTest;
 import com.netflix.genie.web.properties.DatabaseCleanupProperties;
 import com.netflix.genie.web.services.ClusterPersistenceService;
 import com.netflix.genie.web.services.FilePersistenceService;
+import com.netflix.genie.web.services.JobPartitionService;
 import com.netflix.genie.web.services.JobPersistenceService;
 import com.netflix.genie.web.services.TagPersistenceService;
 import com.netflix.genie.web.tasks.GenieTaskScheduleType;
@@ -37,6 +39,7 @@ import org.springframework.scheduling.support.CronTrigger;
 
 import java.time.Instant;
 import java.util.Calendar;
+import java.util.Optional;
 
 /**
  * Unit tests for DatabaseCleanupTask.
@@ -52,6 +55,7 @@ public class DatabaseCleanupTaskUnitTests {
     private ClusterPersistenceService clusterPersistenceService;
     private FilePersistenceService filePersistenceService;
     private TagPersistenceService tagPersistenceService;
+    private JobPartitionService jobPartitionService;
     private DatabaseCleanupTask task;
 
     /**
@@ -64,12 +68,14 @@ public class DatabaseCleanupTaskUnitTests {
         this.clusterPersistenceService = Mockito.mock(ClusterPersistenceService.class);
         this.filePersistenceService = Mockito.mock(FilePersistenceService.class);
         this.tagPersistenceService = Mockito.mock(TagPersistenceService.class);
+        this.jobPartitionService = Mockito.mock(JobPartitionService.class);
         this.task = new DatabaseCleanupTask(
             this.cleanupProperties,
             this.jobPersistenceService,
             this.clusterPersistenceService,
             this.filePersistenceService,
             this.tagPersistenceService,
+            this.jobPartitionService,
             new SimpleMeterRegistry()
         );
     }
@@ -92,36 +98,37 @@ public class DatabaseCleanupTaskUnitTests {
     }
 
     /**
-     * Make sure the run method passes in the expected date.
+     * Make sure the run method passes in the expected date and walks the id range in chunks.
      */
     @Test
     public void canRun() {
         final int days = 5;
         final int negativeDays = -1 * days;
-        final int pageSize = 10;
-        final int maxDeleted = 10_000;
+        final int maxDeleted = 10;
 
         Mockito.when(this.cleanupProperties.getRetention()).thenReturn(days).thenReturn(negativeDays);
-        Mockito.when(this.cleanupProperties.getPageSize()).thenReturn(pageSize);
         Mockito.when(this.cleanupProperties.getMaxDeletedPerTransaction()).thenReturn(maxDeleted);
+        Mockito.when(this.cleanupProperties.getMaxDeletedPerSecond()).thenReturn(1_000_000);
         final ArgumentCaptor<Instant> argument = ArgumentCaptor.forClass(Instant.class);
 
+        Mockito
+            .when(this.jobPersistenceService.getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class)))
+            .thenReturn(Optional.of(Range.closed(1L, 25L)))
+            .thenReturn(Optional.empty());
+
         final long deletedCount1 = 6L;
-        final long deletedCount2 = 18L;
+        final long deletedCount2 = 0L;
         final long deletedCount3 = 2L;
         Mockito
             .when(
-                this.jobPersistenceService.deleteBatchOfJobsCreatedBeforeDate(
+                this.jobPersistenceService.deleteJobsCreatedBeforeDateInIdRange(
                     Mockito.any(Instant.class),
-                    Mockito.anyInt(),
-                    Mockito.anyInt()
+                    Mockito.any()
                 )
             )
             .thenReturn(deletedCount1)
-            .thenReturn(0L)
             .thenReturn(deletedCount2)
-            .thenReturn(deletedCount3)
-            .thenReturn(0L);
+            .thenReturn(deletedCount3);
 
         Mockito.when(this.clusterPersistenceService.deleteTerminatedClusters()).thenReturn(1L, 2L);
         Mockito.when(this.filePersistenceService.deleteUnusedFiles(Mockito.any(Instant.class))).thenReturn(3L, 4L);
@@ -135,16 +142,26 @@ public class DatabaseCleanupTaskUnitTests {
 
         if (before.get(Calendar.DAY_OF_YEAR) == after.get(Calendar.DAY_OF_YEAR)) {
             Mockito
-                .verify(this.jobPersistenceService, Mockito.times(5))
-                .deleteBatchOfJobsCreatedBeforeDate(argument.capture(), Mockito.eq(maxDeleted), Mockito.eq(pageSize));
+                .verify(this.jobPersistenceService, Mockito.times(2))
+                .getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class));
+            Mockito
+                .verify(this.jobPersistenceService, Mockito.times(1))
+                .deleteJobsCreatedBeforeDateInIdRange(argument.capture(), Mockito.eq(Range.closed(1L, 9L)));
+            Mockito
+                .verify(this.jobPersistenceService, Mockito.times(1))
+                .deleteJobsCreatedBeforeDateInIdRange(argument.capture(), Mockito.eq(Range.closed(10L, 19L)));
+            Mockito
+                .verify(this.jobPersistenceService, Mockito.times(1))
+                .deleteJobsCreatedBeforeDateInIdRange(argument.capture(), Mockito.eq(Range.closed(20L, 25L)));
             final Calendar date = Calendar.getInstance(JobConstants.UTC);
             date.set(Calendar.HOUR_OF_DAY, 0);
             date.set(Calendar.MINUTE, 0);
             date.set(Calendar.SECOND, 0);
             date.set(Calendar.MILLISECOND, 0);
             date.add(Calendar.DAY_OF_YEAR, negativeDays);
-            Assert.assertThat(argument.getAllValues().get(0).toEpochMilli(), Matchers.is(date.getTime().getTime()));
-            Assert.assertThat(argument.getAllValues().get(1).toEpochMilli(), Matchers.is(date.getTime().getTime()));
+            for (final Instant value : argument.getAllValues()) {
+                Assert.assertThat(value.toEpochMilli(), Matchers.is(date.getTime().getTime()));
+            }
             Mockito.verify(this.clusterPersistenceService, Mockito.times(2)).deleteTerminatedClusters();
             Mockito
                 .verify(this.filePersistenceService, Mockito.times(2))
@@ -162,19 +179,19 @@ public class DatabaseCleanupTaskUnitTests {
     public void cantRun() {
         final int days = 5;
         final int negativeDays = -1 * days;
-        final int pageSize = 10;
         final int maxDeleted = 10_000;
 
         Mockito.when(this.cleanupProperties.getRetention()).thenReturn(days).thenReturn(negativeDays);
-        Mockito.when(this.cleanupProperties.getPageSize()).thenReturn(pageSize);
         Mockito.when(this.cleanupProperties.getMaxDeletedPerTransaction()).thenReturn(maxDeleted);
 
+        Mockito
+            .when(this.jobPersistenceService.getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class)))
+            .thenReturn(Optional.of(Range.closed(1L, 25L)));
         Mockito
             .when(
-                this.jobPersistenceService.deleteBatchOfJobsCreatedBeforeDate(
+                this.jobPersistenceService.deleteJobsCreatedBeforeDateInIdRange(
                     Mockito.any(Instant.class),
-                    Mockito.anyInt(),
-                    Mockito.anyInt()
+                    Mockito.any()
                 )
             )
             .thenThrow(new RuntimeException("test"));
@@ -182,6 +199,156 @@ public class DatabaseCleanupTaskUnitTests {
         this.task.run();
     }
 
+    /**
+     * Make sure partitions are only closed and dropped when enabled and rows are still purged after.
+     */
+    @Test
+    public void canDropPartitions() {
+        Mockito.when(this.cleanupProperties.getRetention()).thenReturn(5);
+        Mockito.when(this.cleanupProperties.getMaxDeletedPerTransaction()).thenReturn(10);
+        Mockito
+            .when(this.jobPersistenceService.getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class)))
+            .thenReturn(Optional.empty());
+        Mockito
+            .when(this.jobPartitionService.dropPartitionsCreatedBefore(Mockito.any(Instant.class)))
+            .thenReturn(3);
+
+        this.task.run();
+        Mockito.verify(this.jobPartitionService, Mockito.never()).closeCurrentPartition(Mockito.any(Instant.class));
+        Mockito
+            .verify(this.jobPartitionService, Mockito.never())
+            .dropPartitionsCreatedBefore(Mockito.any(Instant.class));
+
+        Mockito.when(this.cleanupProperties.isDropPartitions()).thenReturn(true);
+        this.task.run();
+        Mockito.verify(this.jobPartitionService, Mockito.times(1)).closeCurrentPartition(Mockito.any(Instant.class));
+        Mockito
+            .verify(this.jobPartitionService, Mockito.times(1))
+            .dropPartitionsCreatedBefore(Mockito.any(Instant.class));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(2))
+            .getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class));
+    }
+
+    /**
+     * Make sure old archived jobs are deleted in chunks until a chunk comes back short and only by the primary shard.
+     */
+    @Test
+    public void canDeleteArchivedJobs() {
+        Mockito.when(this.cleanupProperties.getRetention()).thenReturn(5);
+        Mockito.when(this.cleanupProperties.getMaxDeletedPerTransaction()).thenReturn(10);
+        Mockito
+            .when(this.jobPersistenceService.getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class)))
+            .thenReturn(Optional.empty());
+        Mockito
+            .when(
+                this.jobPersistenceService.deleteBatchOfArchivedJobsCreatedBefore(
+                    Mockito.any(Instant.class),
+                    Mockito.eq(10)
+                )
+            )
+            .thenReturn(10L, 10L, 3L);
+
+        this.task.run(new ShardAssignment(1, 2));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.never())
+            .deleteBatchOfArchivedJobsCreatedBefore(Mockito.any(Instant.class), Mockito.anyInt());
+
+        this.task.run(new ShardAssignment(0, 2));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(3))
+            .deleteBatchOfArchivedJobsCreatedBefore(Mockito.any(Instant.class), Mockito.eq(10));
+    }
+
+    /**
+     * Make sure the reservations of old job ids are released in chunks and only by the primary shard.
+     */
+    @Test
+    public void canReleaseJobIds() {
+        Mockito.when(this.cleanupProperties.getRetention()).thenReturn(5);
+        Mockito.when(this.cleanupProperties.getMaxDeletedPerTransaction()).thenReturn(10);
+        Mockito
+            .when(this.jobPersistenceService.getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class)))
+            .thenReturn(Optional.empty());
+        Mockito
+            .when(
+                this.jobPersistenceService.releaseBatchOfJobIdsCreatedBefore(Mockito.any(Instant.class), Mockito.eq(10))
+            )
+            .thenReturn(10L, 4L);
+
+        this.task.run(new ShardAssignment(1, 2));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.never())
+            .releaseBatchOfJobIdsCreatedBefore(Mockito.any(Instant.class), Mockito.anyInt());
+
+        this.task.run(new ShardAssignment(0, 2));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(2))
+            .releaseBatchOfJobIdsCreatedBefore(Mockito.any(Instant.class), Mockito.eq(10));
+    }
+
+    /**
+     * Make sure the id range chunks are dealt out between the shards and only the primary shard cleans up the rest.
+     */
+    @Test
+    public void canRunForShard() {
+        Mockito.when(this.cleanupProperties.getRetention()).thenReturn(5);
+        Mockito.when(this.cleanupProperties.getMaxDeletedPerTransaction()).thenReturn(10);
+        Mockito.when(this.cleanupProperties.isDropPartitions()).thenReturn(true);
+        Mockito
+            .when(this.jobPersistenceService.getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class)))
+            .thenReturn(Optional.of(Range.closed(1L, 25L)));
+
+        this.task.run(new ShardAssignment(1, 2));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .deleteJobsCreatedBeforeDateInIdRange(Mockito.any(Instant.class), Mockito.any());
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .deleteJobsCreatedBeforeDateInIdRange(Mockito.any(Instant.class), Mockito.eq(Range.closed(10L, 19L)));
+        Mockito
+            .verify(this.jobPartitionService, Mockito.never())
+            .dropPartitionsCreatedBefore(Mockito.any(Instant.class));
+        Mockito.verify(this.clusterPersistenceService, Mockito.never()).deleteTerminatedClusters();
+        Mockito.verify(this.filePersistenceService, Mockito.never()).deleteUnusedFiles(Mockito.any(Instant.class));
+        Mockito.verify(this.tagPersistenceService, Mockito.never()).deleteUnusedTags(Mockito.any(Instant.class));
+
+        this.task.run(new ShardAssignment(0, 2));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .deleteJobsCreatedBeforeDateInIdRange(Mockito.any(Instant.class), Mockito.eq(Range.closed(1L, 9L)));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .deleteJobsCreatedBeforeDateInIdRange(Mockito.any(Instant.class), Mockito.eq(Range.closed(20L, 25L)));
+        Mockito
+            .verify(this.jobPartitionService, Mockito.times(1))
+            .dropPartitionsCreatedBefore(Mockito.any(Instant.class));
+        Mockito.verify(this.clusterPersistenceService, Mockito.times(1)).deleteTerminatedClusters();
+        Mockito.verify(this.filePersistenceService, Mockito.times(1)).deleteUnusedFiles(Mockito.any(Instant.class));
+        Mockito.verify(this.tagPersistenceService, Mockito.times(1)).deleteUnusedTags(Mockito.any(Instant.class));
+    }
+
+    /**
+     * Make sure a chunk keeps the same owner when the lowest id seen changes, for example because the nodes ran before
+     * and after some of the old jobs were deleted.
+     */
+    @Test
+    public void chunkOwnershipDoesNotDependOnLowestId() {
+        Mockito.when(this.cleanupProperties.getRetention()).thenReturn(5);
+        Mockito.when(this.cleanupProperties.getMaxDeletedPerTransaction()).thenReturn(10);
+        Mockito
+            .when(this.jobPersistenceService.getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class)))
+            .thenReturn(Optional.of(Range.closed(12L, 25L)));
+
+        this.task.run(new ShardAssignment(1, 2));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .deleteJobsCreatedBeforeDateInIdRange(Mockito.any(Instant.class), Mockito.any());
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .deleteJobsCreatedBeforeDateInIdRange(Mockito.any(Instant.class), Mockito.eq(Range.closed(12L, 19L)));
+    }
+
     /**
      * Make sure individual cleanup sub-tasks are skipped according to properties.
      */
@@ -197,10 +364,12 @@ public class DatabaseCleanupTaskUnitTests {
 
         Mockito
             .verify(this.jobPersistenceService, Mockito.never())
-            .deleteBatchOfJobsCreatedBeforeDate(
+            .getIdRangeOfJobsCreatedBeforeDate(Mockito.any(Instant.class));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.never())
+            .deleteJobsCreatedBeforeDateInIdRange(
                 Mockito.any(Instant.class),
-                Mockito.anyInt(),
-                Mockito.anyInt()
+                Mockito.any()
             );
         Mockito
             .verify(this.clusterPersistenceService, Mockito.never())
@@ -0,0 +1,120 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.leader;
+
+import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.properties.JobArchiveProperties;
+import com.netflix.genie.web.services.JobPersistenceService;
+import com.netflix.genie.web.tasks.GenieTaskScheduleType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Unit tests for JobArchiveTask.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class JobArchiveTaskUnitTests {
+
+    private JobArchiveProperties properties;
+    private JobPersistenceService jobPersistenceService;
+    private MeterRegistry registry;
+    private JobArchiveTask task;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new JobArchiveProperties();
+        this.jobPersistenceService = Mockito.mock(JobPersistenceService.class);
+        this.registry = new SimpleMeterRegistry();
+        this.task = new JobArchiveTask(this.properties, this.jobPersistenceService, this.registry);
+    }
+
+    /**
+     * Make sure the schedule type and rate come from the properties.
+     */
+    @Test
+    public void canGetSchedule() {
+        this.properties.setRate(1_234L);
+        Assert.assertThat(this.task.getScheduleType(), Matchers.is(GenieTaskScheduleType.FIXED_RATE));
+        Assert.assertThat(this.task.getFixedRate(), Matchers.is(1_234L));
+    }
+
+    /**
+     * Make sure the run method archives batches until a partial batch is returned.
+     */
+    @Test
+    public void canRun() {
+        final int batchSize = 10;
+        this.properties.setBatchSize(batchSize);
+        this.properties.setArchiveAfter(3);
+        Mockito
+            .when(
+                this.jobPersistenceService.archiveJobsFinishedBefore(Mockito.any(Instant.class), Mockito.eq(batchSize))
+            )
+            .thenReturn(10L)
+            .thenReturn(10L)
+            .thenReturn(4L);
+
+        final Instant lowerBound = Instant.now().minus(3, ChronoUnit.DAYS);
+        this.task.run();
+        final Instant upperBound = Instant.now().minus(3, ChronoUnit.DAYS);
+
+        final ArgumentCaptor<Instant> argument = ArgumentCaptor.forClass(Instant.class);
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(3))
+            .archiveJobsFinishedBefore(argument.capture(), Mockito.eq(batchSize));
+        Assert.assertThat(argument.getValue(), Matchers.greaterThanOrEqualTo(lowerBound));
+        Assert.assertThat(argument.getValue(), Matchers.lessThanOrEqualTo(upperBound));
+        Assert.assertThat(
+            this.registry.get("genie.tasks.jobArchive.numArchivedJobs.gauge").gauge().value(),
+            Matchers.is(24.0)
+        );
+
+        this.task.cleanup();
+        Assert.assertThat(
+            this.registry.get("genie.tasks.jobArchive.numArchivedJobs.gauge").gauge().value(),
+            Matchers.is(0.0)
+        );
+    }
+
+    /**
+     * Make sure a failure is propagated and recorded.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void cantRunIfArchiveFails() {
+        Mockito
+            .when(this.jobPersistenceService.archiveJobsFinishedBefore(Mockito.any(Instant.class), Mockito.anyInt()))
+            .thenThrow(new IllegalStateException("test"));
+        this.task.run();
+    }
+}
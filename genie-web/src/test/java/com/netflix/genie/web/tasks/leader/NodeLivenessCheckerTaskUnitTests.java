@@ -0,0 +1,150 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.leader;
+
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.dto.JobExecution;
+import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.events.GenieEventBus;
+import com.netflix.genie.web.events.JobFinishedEvent;
+import com.netflix.genie.web.events.JobFinishedReason;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.JobPersistenceService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import com.netflix.genie.web.tasks.GenieTaskScheduleType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for NodeLivenessCheckerTask.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class NodeLivenessCheckerTaskUnitTests {
+
+    private NodeHeartbeatProperties properties;
+    private NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
+    private JobPersistenceService jobPersistenceService;
+    private GenieEventBus genieEventBus;
+    private MeterRegistry registry;
+    private NodeLivenessCheckerTask task;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.properties = new NodeHeartbeatProperties();
+        this.nodeHeartbeatPersistenceService = Mockito.mock(NodeHeartbeatPersistenceService.class);
+        this.jobPersistenceService = Mockito.mock(JobPersistenceService.class);
+        this.genieEventBus = Mockito.mock(GenieEventBus.class);
+        this.registry = new SimpleMeterRegistry();
+        this.task = new NodeLivenessCheckerTask(
+            this.properties,
+            this.nodeHeartbeatPersistenceService,
+            this.jobPersistenceService,
+            this.genieEventBus,
+            this.registry
+        );
+    }
+
+    /**
+     * Make sure the schedule comes from the properties.
+     */
+    @Test
+    public void canGetSchedule() {
+        Assert.assertThat(this.task.getScheduleType(), Matchers.is(GenieTaskScheduleType.FIXED_RATE));
+        Assert.assertThat(this.task.getFixedRate(), Matchers.is(10_000L));
+    }
+
+    /**
+     * Make sure the jobs on stale nodes are failed and reported as finished and the stale heartbeats removed using the
+     * same threshold.
+     */
+    @Test
+    public void canRun() {
+        Mockito
+            .when(this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatBefore(Mockito.any(Instant.class)))
+            .thenReturn(Sets.newHashSet("host1", "host2"));
+        Mockito
+            .when(
+                this.jobPersistenceService.failActiveJobsOnNodesWithoutHeartbeatSince(
+                    Mockito.any(Instant.class),
+                    Mockito.eq(JobExecution.LOST_EXIT_CODE),
+                    Mockito.anyString()
+                )
+            )
+            .thenReturn(Sets.newHashSet("job1", "job2"));
+
+        final Instant lowerBound = Instant.now().minusMillis(this.properties.getStaleThreshold());
+        this.task.run();
+        final Instant upperBound = Instant.now().minusMillis(this.properties.getStaleThreshold());
+
+        final ArgumentCaptor<Instant> threshold = ArgumentCaptor.forClass(Instant.class);
+        Mockito
+            .verify(this.nodeHeartbeatPersistenceService, Mockito.times(1))
+            .getHostsWithHeartbeatBefore(threshold.capture());
+        Assert.assertThat(threshold.getValue(), Matchers.greaterThanOrEqualTo(lowerBound));
+        Assert.assertThat(threshold.getValue(), Matchers.lessThanOrEqualTo(upperBound));
+        Mockito
+            .verify(this.jobPersistenceService, Mockito.times(1))
+            .failActiveJobsOnNodesWithoutHeartbeatSince(
+                Mockito.eq(threshold.getValue()),
+                Mockito.eq(JobExecution.LOST_EXIT_CODE),
+                Mockito.anyString()
+            );
+        Mockito
+            .verify(this.nodeHeartbeatPersistenceService, Mockito.times(1))
+            .deleteHeartbeatsBefore(threshold.getValue());
+        Assert.assertThat(
+            this.registry.get("genie.tasks.nodeLivenessChecker.staleNodes.gauge").gauge().value(),
+            Matchers.is(2.0)
+        );
+        Assert.assertThat(
+            this.registry.get("genie.tasks.nodeLivenessChecker.lostJobs.rate").counter().count(),
+            Matchers.is(2.0)
+        );
+        final ArgumentCaptor<JobFinishedEvent> eventCaptor = ArgumentCaptor.forClass(JobFinishedEvent.class);
+        Mockito.verify(this.genieEventBus, Mockito.times(2)).publishAsynchronousEvent(eventCaptor.capture());
+        Assert.assertThat(
+            eventCaptor.getAllValues().stream().map(JobFinishedEvent::getId).collect(Collectors.toSet()),
+            Matchers.containsInAnyOrder("job1", "job2")
+        );
+        eventCaptor
+            .getAllValues()
+            .forEach(event -> Assert.assertThat(event.getReason(), Matchers.is(JobFinishedReason.SYSTEM_CRASH)));
+
+        this.task.cleanup();
+        Assert.assertThat(
+            this.registry.get("genie.tasks.nodeLivenessChecker.staleNodes.gauge").gauge().value(),
+            Matchers.is(0.0)
+        );
+    }
+}
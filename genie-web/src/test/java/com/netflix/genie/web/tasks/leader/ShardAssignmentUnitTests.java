@@ -0,0 +1,111 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.leader;
+
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Unit tests for ShardAssignment.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class ShardAssignmentUnitTests {
+
+    /**
+     * Make sure a single shard owns everything.
+     */
+    @Test
+    public void allOwnsEverything() {
+        Assert.assertTrue(ShardAssignment.ALL.isPrimary());
+        Assert.assertTrue(ShardAssignment.ALL.isOwner("host"));
+        Assert.assertTrue(ShardAssignment.ALL.isOwner(-23L));
+        Assert.assertTrue(ShardAssignment.ALL.isOwner(Long.MAX_VALUE));
+    }
+
+    /**
+     * Make sure every key is owned by exactly one of the shards.
+     */
+    @Test
+    public void everyKeyHasOneOwner() {
+        final int count = 3;
+        final String[] keys = {"a.netflix.com", "b.netflix.com", "c.netflix.com", "", "z"};
+        for (final String key : keys) {
+            int owners = 0;
+            for (int index = 0; index < count; index++) {
+                if (new ShardAssignment(index, count).isOwner(key)) {
+                    owners++;
+                }
+            }
+            Assert.assertThat(owners, Matchers.is(1));
+        }
+        for (long key = -10L; key < 10L; key++) {
+            int owners = 0;
+            for (int index = 0; index < count; index++) {
+                if (new ShardAssignment(index, count).isOwner(key)) {
+                    owners++;
+                }
+            }
+            Assert.assertThat(owners, Matchers.is(1));
+        }
+        Assert.assertTrue(new ShardAssignment(0, count).isPrimary());
+        Assert.assertFalse(new ShardAssignment(1, count).isPrimary());
+    }
+
+    /**
+     * Make sure numeric keys are dealt out in turn.
+     */
+    @Test
+    public void canDealOutNumericKeys() {
+        final ShardAssignment shard = new ShardAssignment(1, 2);
+        Assert.assertFalse(shard.isOwner(0L));
+        Assert.assertTrue(shard.isOwner(1L));
+        Assert.assertFalse(shard.isOwner(2L));
+        Assert.assertTrue(shard.isOwner(3L));
+    }
+
+    /**
+     * Make sure equality is based on the index and count.
+     */
+    @Test
+    public void canCompare() {
+        Assert.assertThat(new ShardAssignment(0, 1), Matchers.is(ShardAssignment.ALL));
+        Assert.assertThat(new ShardAssignment(1, 3), Matchers.not(new ShardAssignment(1, 2)));
+    }
+
+    /**
+     * Make sure the index has to be within the number of shards.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void cantConstructWithIndexOutOfRange() {
+        new ShardAssignment(2, 2);
+    }
+
+    /**
+     * Make sure there has to be at least one shard.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void cantConstructWithoutShards() {
+        new ShardAssignment(0, 0);
+    }
+}
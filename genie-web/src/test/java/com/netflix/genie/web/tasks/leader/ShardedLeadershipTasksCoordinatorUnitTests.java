@@ -0,0 +1,165 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.leader;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.netflix.genie.common.internal.util.GenieHostInfo;
+import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import com.netflix.genie.web.tasks.GenieTaskScheduleType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Unit tests for ShardedLeadershipTasksCoordinator.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class ShardedLeadershipTasksCoordinatorUnitTests {
+
+    private static final String HOSTNAME = "b.netflix.com";
+    private static final long PLAIN_TASK_RATE = 1_000L;
+    private static final long SHARDED_TASK_RATE = 2_000L;
+
+    private TaskScheduler scheduler;
+    private NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
+    private LeadershipTask plainTask;
+    private ClusterCheckerTask shardedTask;
+    private MeterRegistry registry;
+    private ShardedLeadershipTasksCoordinator coordinator;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.scheduler = Mockito.mock(TaskScheduler.class);
+        this.nodeHeartbeatPersistenceService = Mockito.mock(NodeHeartbeatPersistenceService.class);
+        this.plainTask = Mockito.mock(LeadershipTask.class);
+        Mockito.when(this.plainTask.getScheduleType()).thenReturn(GenieTaskScheduleType.FIXED_RATE);
+        Mockito.when(this.plainTask.getFixedRate()).thenReturn(PLAIN_TASK_RATE);
+        this.shardedTask = Mockito.mock(ClusterCheckerTask.class);
+        Mockito.when(this.shardedTask.getScheduleType()).thenReturn(GenieTaskScheduleType.FIXED_RATE);
+        Mockito.when(this.shardedTask.getFixedRate()).thenReturn(SHARDED_TASK_RATE);
+        this.registry = new SimpleMeterRegistry();
+        this.coordinator = new ShardedLeadershipTasksCoordinator(
+            this.scheduler,
+            Lists.newArrayList(this.plainTask, this.shardedTask),
+            new GenieHostInfo(HOSTNAME),
+            this.nodeHeartbeatPersistenceService,
+            new NodeHeartbeatProperties(),
+            this.registry
+        );
+    }
+
+    /**
+     * Make sure the tasks are scheduled on startup, run for the shard of this node and stopped on shutdown.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void canRunTasksForShard() {
+        final ScheduledFuture plainFuture = Mockito.mock(ScheduledFuture.class);
+        final ScheduledFuture shardedFuture = Mockito.mock(ScheduledFuture.class);
+        final ArgumentCaptor<Runnable> plainRunnable = ArgumentCaptor.forClass(Runnable.class);
+        final ArgumentCaptor<Runnable> shardedRunnable = ArgumentCaptor.forClass(Runnable.class);
+        Mockito
+            .when(this.scheduler.scheduleAtFixedRate(plainRunnable.capture(), Mockito.eq(PLAIN_TASK_RATE)))
+            .thenReturn(plainFuture);
+        Mockito
+            .when(this.scheduler.scheduleAtFixedRate(shardedRunnable.capture(), Mockito.eq(SHARDED_TASK_RATE)))
+            .thenReturn(shardedFuture);
+
+        this.coordinator.start(Mockito.mock(ContextRefreshedEvent.class));
+        Mockito
+            .verify(this.scheduler, Mockito.times(2))
+            .scheduleAtFixedRate(Mockito.any(Runnable.class), Mockito.anyLong());
+
+        // Second of three members so not the primary shard
+        Mockito
+            .when(this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatSince(Mockito.any(Instant.class)))
+            .thenReturn(Sets.newHashSet("a.netflix.com", "c.netflix.com"));
+        plainRunnable.getValue().run();
+        shardedRunnable.getValue().run();
+        Mockito.verify(this.plainTask, Mockito.never()).run();
+        Mockito.verify(this.shardedTask, Mockito.times(1)).run(new ShardAssignment(1, 3));
+        Assert.assertThat(this.registry.get("genie.tasks.sharding.members.gauge").gauge().value(), Matchers.is(3.0));
+        Assert.assertThat(this.registry.get("genie.tasks.sharding.shardIndex.gauge").gauge().value(), Matchers.is(1.0));
+
+        // The first node goes away and this one becomes the primary
+        Mockito
+            .when(this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatSince(Mockito.any(Instant.class)))
+            .thenReturn(Sets.newHashSet("c.netflix.com"));
+        plainRunnable.getValue().run();
+        shardedRunnable.getValue().run();
+        Mockito.verify(this.plainTask, Mockito.times(1)).run();
+        Mockito.verify(this.shardedTask, Mockito.times(1)).run(new ShardAssignment(0, 2));
+        Assert.assertThat(this.registry.get("genie.tasks.sharding.rebalance.rate").counter().count(), Matchers.is(1.0));
+
+        this.coordinator.stop(Mockito.mock(ContextClosedEvent.class));
+        Mockito.verify(plainFuture, Mockito.times(1)).cancel(true);
+        Mockito.verify(shardedFuture, Mockito.times(1)).cancel(true);
+        Mockito.verify(this.plainTask, Mockito.times(1)).cleanup();
+        Mockito.verify(this.shardedTask, Mockito.times(1)).cleanup();
+    }
+
+    /**
+     * Make sure this node counts as a member before it has written its first heartbeat.
+     */
+    @Test
+    public void canGetShardAssignmentBeforeFirstHeartbeat() {
+        Mockito
+            .when(this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatSince(Mockito.any(Instant.class)))
+            .thenReturn(Sets.newHashSet());
+        Assert.assertThat(this.coordinator.getShardAssignment(), Matchers.is(ShardAssignment.ALL));
+    }
+
+    /**
+     * Make sure nothing runs when the members of the cluster can't be determined.
+     */
+    @Test
+    public void wontRunWithoutMembership() {
+        final ArgumentCaptor<Runnable> plainRunnable = ArgumentCaptor.forClass(Runnable.class);
+        this.coordinator.start(Mockito.mock(ContextRefreshedEvent.class));
+        Mockito
+            .verify(this.scheduler, Mockito.times(1))
+            .scheduleAtFixedRate(plainRunnable.capture(), Mockito.eq(PLAIN_TASK_RATE));
+
+        Mockito
+            .when(this.nodeHeartbeatPersistenceService.getHostsWithHeartbeatSince(Mockito.any(Instant.class)))
+            .thenThrow(new RuntimeException("test"));
+        plainRunnable.getValue().run();
+        Mockito.verify(this.plainTask, Mockito.never()).run();
+    }
+}
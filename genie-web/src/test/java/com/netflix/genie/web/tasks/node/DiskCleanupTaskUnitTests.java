@@ -17,18 +17,19 @@
  */
 package com.netflix.genie.web.tasks.node;
 
-import com.netflix.genie.common.dto.Job;
-import com.netflix.genie.common.dto.JobStatus;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.netflix.genie.common.exceptions.GenieException;
-import com.netflix.genie.common.exceptions.GenieServerException;
 import com.netflix.genie.test.categories.UnitTest;
 import com.netflix.genie.web.properties.DiskCleanupProperties;
 import com.netflix.genie.web.properties.JobsProperties;
 import com.netflix.genie.web.services.JobSearchService;
 import com.netflix.genie.web.tasks.TaskUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.exec.Executor;
 import org.apache.commons.lang3.SystemUtils;
+import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Assume;
 import org.junit.Rule;
@@ -37,6 +38,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.Trigger;
 
@@ -44,6 +46,7 @@ import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -81,6 +84,7 @@ public class DiskCleanupTaskUnitTests {
                 Mockito.mock(JobSearchService.class),
                 properties,
                 Mockito.mock(Executor.class),
+                new SyncTaskExecutor(),
                 new SimpleMeterRegistry()
             )
         );
@@ -105,6 +109,7 @@ public class DiskCleanupTaskUnitTests {
                 Mockito.mock(JobSearchService.class),
                 new JobsProperties(),
                 Mockito.mock(Executor.class),
+                new SyncTaskExecutor(),
                 new SimpleMeterRegistry()
             )
         );
@@ -130,6 +135,7 @@ public class DiskCleanupTaskUnitTests {
                 Mockito.mock(JobSearchService.class),
                 new JobsProperties(),
                 Mockito.mock(Executor.class),
+                new SyncTaskExecutor(),
                 new SimpleMeterRegistry()
             )
         );
@@ -157,6 +163,7 @@ public class DiskCleanupTaskUnitTests {
                 Mockito.mock(JobSearchService.class),
                 properties,
                 Mockito.mock(Executor.class),
+                new SyncTaskExecutor(),
                 new SimpleMeterRegistry()
             )
         );
@@ -185,17 +192,6 @@ public class DiskCleanupTaskUnitTests {
         final String job4Id = UUID.randomUUID().toString();
         final String job5Id = UUID.randomUUID().toString();
 
-        final Job job1 = Mockito.mock(Job.class);
-        Mockito.when(job1.getStatus()).thenReturn(JobStatus.INIT);
-        final Job job2 = Mockito.mock(Job.class);
-        Mockito.when(job2.getStatus()).thenReturn(JobStatus.RUNNING);
-        final Job job3 = Mockito.mock(Job.class);
-        Mockito.when(job3.getStatus()).thenReturn(JobStatus.SUCCEEDED);
-        Mockito.when(job3.getFinished()).thenReturn(Optional.of(threshold.minus(1, ChronoUnit.MILLIS)));
-        final Job job4 = Mockito.mock(Job.class);
-        Mockito.when(job4.getStatus()).thenReturn(JobStatus.FAILED);
-        Mockito.when(job4.getFinished()).thenReturn(Optional.of(threshold));
-
         this.createJobDir(job1Id);
         this.createJobDir(job2Id);
         this.createJobDir(job3Id);
@@ -207,12 +203,17 @@ public class DiskCleanupTaskUnitTests {
         Mockito.when(jobDir.exists()).thenReturn(true);
         Mockito.when(jobDir.getFile()).thenReturn(this.tmpJobDir.getRoot());
         final JobSearchService jobSearchService = Mockito.mock(JobSearchService.class);
+        final MeterRegistry registry = new SimpleMeterRegistry();
 
-        Mockito.when(jobSearchService.getJob(job1Id)).thenReturn(job1);
-        Mockito.when(jobSearchService.getJob(job2Id)).thenReturn(job2);
-        Mockito.when(jobSearchService.getJob(job3Id)).thenReturn(job3);
-        Mockito.when(jobSearchService.getJob(job4Id)).thenReturn(job4);
-        Mockito.when(jobSearchService.getJob(job5Id)).thenThrow(new GenieServerException("blah"));
+        // job1 and job2 are still active, job3 finished before the threshold, job4 on it and job5 can't be found
+        final Map<String, Optional<Instant>> finishTimes = Maps.newHashMap();
+        finishTimes.put(job1Id, Optional.empty());
+        finishTimes.put(job2Id, Optional.empty());
+        finishTimes.put(job3Id, Optional.of(threshold.minus(1, ChronoUnit.MILLIS)));
+        finishTimes.put(job4Id, Optional.of(threshold));
+        Mockito
+            .when(jobSearchService.getJobFinishTimes(Sets.newHashSet(job1Id, job2Id, job3Id, job4Id, job5Id)))
+            .thenReturn(finishTimes);
 
         final DiskCleanupTask task = new DiskCleanupTask(
             properties,
@@ -221,7 +222,8 @@ public class DiskCleanupTaskUnitTests {
             jobSearchService,
             jobsProperties,
             Mockito.mock(Executor.class),
-            new SimpleMeterRegistry()
+            new SyncTaskExecutor(),
+            registry
         );
         task.run();
         Assert.assertTrue(new File(jobDir.getFile(), job1Id).exists());
@@ -229,6 +231,62 @@ public class DiskCleanupTaskUnitTests {
         Assert.assertFalse(new File(jobDir.getFile(), job3Id).exists());
         Assert.assertTrue(new File(jobDir.getFile(), job4Id).exists());
         Assert.assertTrue(new File(jobDir.getFile(), job5Id).exists());
+        Assert.assertThat(
+            registry.get("genie.tasks.diskCleanup.numberDeletedJobDirs.gauge").gauge().value(),
+            Matchers.is(1.0)
+        );
+        Assert.assertThat(
+            registry.get("genie.tasks.diskCleanup.numberDirsUnableToDelete.gauge").gauge().value(),
+            Matchers.is(1.0)
+        );
+        Assert.assertThat(
+            registry.get("genie.tasks.diskCleanup.unableToGetJobs.rate").counter().count(),
+            Matchers.is(1.0)
+        );
+    }
+
+    /**
+     * Make sure job directories are looked up in batches of the configured size.
+     *
+     * @throws IOException    on error
+     * @throws GenieException on error
+     */
+    @Test
+    public void canRunInBatches() throws IOException, GenieException {
+        final JobsProperties jobsProperties = new JobsProperties();
+        jobsProperties.getUsers().setRunAsUserEnabled(false);
+        final DiskCleanupProperties properties = new DiskCleanupProperties();
+        properties.setBatchSize(2);
+        final Instant threshold = TaskUtils.getMidnightUTC().minus(properties.getRetention(), ChronoUnit.DAYS);
+
+        final Map<String, Optional<Instant>> finishTimes = Maps.newHashMap();
+        for (int i = 0; i < 5; i++) {
+            final String id = UUID.randomUUID().toString();
+            this.createJobDir(id);
+            finishTimes.put(id, Optional.of(threshold.minus(1, ChronoUnit.DAYS)));
+        }
+
+        final Resource jobDir = Mockito.mock(Resource.class);
+        Mockito.when(jobDir.exists()).thenReturn(true);
+        Mockito.when(jobDir.getFile()).thenReturn(this.tmpJobDir.getRoot());
+        final JobSearchService jobSearchService = Mockito.mock(JobSearchService.class);
+        Mockito.when(jobSearchService.getJobFinishTimes(Mockito.anySet())).thenReturn(finishTimes);
+
+        final DiskCleanupTask task = new DiskCleanupTask(
+            properties,
+            Mockito.mock(TaskScheduler.class),
+            jobDir,
+            jobSearchService,
+            jobsProperties,
+            Mockito.mock(Executor.class),
+            new SyncTaskExecutor(),
+            new SimpleMeterRegistry()
+        );
+        task.run();
+        Mockito.verify(jobSearchService, Mockito.times(3)).getJobFinishTimes(Mockito.anySet());
+        for (final String id : finishTimes.keySet()) {
+            Assert.assertFalse(new File(jobDir.getFile(), id).exists());
+        }
     }
 
     private void createJobDir(final String id) throws IOException {
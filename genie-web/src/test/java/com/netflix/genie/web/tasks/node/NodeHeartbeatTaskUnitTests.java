@@ -0,0 +1,101 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.tasks.node;
+
+import com.netflix.genie.common.internal.util.GenieHostInfo;
+import com.netflix.genie.test.categories.UnitTest;
+import com.netflix.genie.web.properties.NodeHeartbeatProperties;
+import com.netflix.genie.web.services.JobMetricsService;
+import com.netflix.genie.web.services.NodeHeartbeatPersistenceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Unit tests for NodeHeartbeatTask.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class NodeHeartbeatTaskUnitTests {
+
+    private String hostname;
+    private TaskScheduler scheduler;
+    private NodeHeartbeatPersistenceService nodeHeartbeatPersistenceService;
+    private JobMetricsService jobMetricsService;
+    private NodeHeartbeatTask task;
+
+    /**
+     * Setup for the tests.
+     */
+    @Before
+    public void setup() {
+        this.hostname = UUID.randomUUID().toString();
+        this.scheduler = Mockito.mock(TaskScheduler.class);
+        this.nodeHeartbeatPersistenceService = Mockito.mock(NodeHeartbeatPersistenceService.class);
+        this.jobMetricsService = Mockito.mock(JobMetricsService.class);
+        this.task = new NodeHeartbeatTask(
+            new GenieHostInfo(this.hostname),
+            new NodeHeartbeatProperties(),
+            this.scheduler,
+            this.nodeHeartbeatPersistenceService,
+            this.jobMetricsService,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    /**
+     * Make sure the task schedules itself at the configured rate.
+     */
+    @Test
+    public void canSchedule() {
+        Mockito.verify(this.scheduler, Mockito.times(1)).scheduleAtFixedRate(this.task, 10_000L);
+    }
+
+    /**
+     * Make sure the heartbeat carries the current state of the node.
+     */
+    @Test
+    public void canRun() {
+        Mockito.when(this.jobMetricsService.getNumActiveJobs()).thenReturn(3);
+        Mockito.when(this.jobMetricsService.getUsedMemory()).thenReturn(4096);
+        this.task.run();
+        Mockito
+            .verify(this.nodeHeartbeatPersistenceService, Mockito.times(1))
+            .saveHeartbeat(Mockito.eq(this.hostname), Mockito.any(Instant.class), Mockito.eq(3), Mockito.eq(4096));
+    }
+
+    /**
+     * Make sure a failure to write the heartbeat doesn't propagate and stop the schedule.
+     */
+    @Test
+    public void canRunWhenHeartbeatFails() {
+        Mockito
+            .doThrow(new RuntimeException("test"))
+            .when(this.nodeHeartbeatPersistenceService)
+            .saveHeartbeat(Mockito.anyString(), Mockito.any(Instant.class), Mockito.anyInt(), Mockito.anyInt());
+        this.task.run();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *
+ *  Copyright 2018 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.genie.web.util;
+
+import com.netflix.genie.common.exceptions.GeniePreconditionException;
+import com.netflix.genie.test.categories.UnitTest;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Unit tests for {@link SearchCursor}.
+ *
+ * @author tgianos
+ * @since 4.0.0
+ */
+@Category(UnitTest.class)
+public class SearchCursorUnitTests {
+
+    /**
+     * Make sure a cursor survives being encoded and decoded.
+     *
+     * @throws GeniePreconditionException on invalid token
+     */
+    @Test
+    public void canEncodeAndDecode() throws GeniePreconditionException {
+        final Instant created = Instant.ofEpochSecond(1_531_234_567L, 123_456_000L);
+        final String id = UUID.randomUUID().toString();
+        final SearchCursor cursor = new SearchCursor(created, id);
+
+        final String token = cursor.encode();
+        Assert.assertThat(token, Matchers.not(Matchers.containsString(id)));
+
+        final SearchCursor decoded = SearchCursor.decode(token);
+        Assert.assertThat(decoded.getCreated(), Matchers.is(created));
+        Assert.assertThat(decoded.getId(), Matchers.is(id));
+        Assert.assertThat(decoded, Matchers.is(cursor));
+    }
+
+    /**
+     * Make sure ids containing the separator are handled.
+     *
+     * @throws GeniePreconditionException on invalid token
+     */
+    @Test
+    public void canDecodeIdWithSeparator() throws GeniePreconditionException {
+        final SearchCursor cursor = new SearchCursor(Instant.now(), "some|id|with|pipes");
+        Assert.assertThat(SearchCursor.decode(cursor.encode()), Matchers.is(cursor));
+    }
+
+    /**
+     * Make sure a token that isn't base 64 is rejected.
+     *
+     * @throws GeniePreconditionException on invalid token
+     */
+    @Test(expected = GeniePreconditionException.class)
+    public void cantDecodeInvalidBase64() throws GeniePreconditionException {
+        SearchCursor.decode("this is not base64!");
+    }
+
+    /**
+     * Make sure a token without an id is rejected.
+     *
+     * @throws GeniePreconditionException on invalid token
+     */
+    @Test(expected = GeniePreconditionException.class)
+    public void cantDecodeWithoutId() throws GeniePreconditionException {
+        SearchCursor.decode(encode(Instant.now().toString() + "|"));
+    }
+
+    /**
+     * Make sure a token without a valid timestamp is rejected.
+     *
+     * @throws GeniePreconditionException on invalid token
+     */
+    @Test(expected = GeniePreconditionException.class)
+    public void cantDecodeInvalidTimestamp() throws GeniePreconditionException {
+        SearchCursor.decode(encode("yesterday|" + UUID.randomUUID().toString()));
+    }
+
+    private static String encode(final String value) {
+        return Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}